@@ -1,11 +1,10 @@
 package com.peterscode.rentalmanagementsystem.aspect;
 
-import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
-import com.peterscode.rentalmanagementsystem.model.audit.AuditLog;
-import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditEvent;
 import com.peterscode.rentalmanagementsystem.model.user.User;
-import com.peterscode.rentalmanagementsystem.repository.AuditLogRepository;
-import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditViewCounter;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditWriter;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,17 +15,21 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
-import org.springframework.web.bind.annotation.*;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
 
-import java.lang.reflect.Method;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
  * AOP Aspect that automatically audits ALL controller method calls.
  * Captures: user identity, IP address, device info, action, entity, and outcome.
  * This ensures every API call is tracked — logins, payments, DB changes, views, etc.
+ * Per-method metadata comes from {@link AuditDescriptorRegistry}, so a call costs one map lookup.
+ * Entries are handed to {@link AuditWriter} and inserted in batches off the request thread.
+ * Successful reads are counted by {@link AuditViewCounter} and in the hourly statistics,
+ * but only sampled into audit_logs, as decided by {@link AuditReadPolicy}.
  */
 @Aspect
 @Component
@@ -34,8 +37,11 @@ import java.util.Optional;
 @Slf4j
 public class AuditAspect {
 
-    private final AuditLogRepository auditLogRepository;
-    private final UserRepository userRepository;
+    private final AuditWriter auditWriter;
+    private final CurrentUser currentUser;
+    private final AuditDescriptorRegistry descriptorRegistry;
+    private final AuditReadPolicy readPolicy;
+    private final AuditViewCounter viewCounter;
 
     /**
      * Intercepts every public method in any @RestController under the controller package.
@@ -45,19 +51,16 @@ public class AuditAspect {
             "&& !execution(* com.peterscode.rentalmanagementsystem.controller.AuditLogController.*(..))")
     public Object auditControllerCall(ProceedingJoinPoint joinPoint) throws Throwable {
         long startTime = System.currentTimeMillis();
-        String methodName = joinPoint.getSignature().getName();
-        String className = joinPoint.getTarget().getClass().getSimpleName();
 
-        // Extract HTTP method and path
+        // Action, entity type and id position are resolved once per controller method
         MethodSignature signature = (MethodSignature) joinPoint.getSignature();
-        Method method = signature.getMethod();
-        String httpMethod = resolveHttpMethod(method);
-        String endpoint = resolveEndpoint(joinPoint.getTarget().getClass(), method);
+        AuditDescriptor descriptor = descriptorRegistry.get(joinPoint.getTarget().getClass(), signature.getMethod());
 
         // Extract request info
         String ipAddress = null;
         String userAgent = null;
         String requestUri = null;
+        String endpoint = null;
         try {
             ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
             if (attrs != null) {
@@ -65,6 +68,9 @@ public class AuditAspect {
                 ipAddress = getClientIp(request);
                 userAgent = request.getHeader("User-Agent");
                 requestUri = request.getMethod() + " " + request.getRequestURI();
+                if (request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern) {
+                    endpoint = pattern;
+                }
             }
         } catch (Exception e) {
             log.debug("Could not extract request info: {}", e.getMessage());
@@ -78,7 +84,7 @@ public class AuditAspect {
             if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
                 String email = auth.getName();
                 username = email;
-                Optional<User> userOpt = userRepository.findByEmail(email);
+                Optional<User> userOpt = currentUser.get();
                 if (userOpt.isPresent()) {
                     userEntity = userOpt.get();
                     username = userEntity.getFirstName() + " " + userEntity.getLastName() + " (" + email + ")";
@@ -88,12 +94,8 @@ public class AuditAspect {
             log.debug("Could not extract user: {}", e.getMessage());
         }
 
-        // Determine action and entity type
-        AuditAction action = resolveAction(httpMethod, className, methodName);
-        EntityType entityType = resolveEntityType(className);
-
         // Extract entity ID from method arguments if present
-        Long entityId = extractEntityId(joinPoint.getArgs(), signature.getParameterNames());
+        Long entityId = descriptor.entityId(joinPoint.getArgs());
 
         Object result = null;
         String status = "SUCCESS";
@@ -108,45 +110,42 @@ public class AuditAspect {
             throw ex;
         } finally {
             long duration = System.currentTimeMillis() - startTime;
-
-            // Build detailed description
-            String details = buildDetails(requestUri, httpMethod, className, methodName,
-                    duration, username, entityId);
+            LocalDateTime now = LocalDateTime.now();
+            Long userId = userEntity != null ? userEntity.getId() : null;
+            if (endpoint == null) {
+                endpoint = descriptor.className() + "." + descriptor.methodName();
+            }
 
             try {
-                AuditLog auditLog = AuditLog.builder()
-                        .action(action)
-                        .entityType(entityType)
-                        .entityId(entityId)
-                        .details(details)
-                        .ipAddress(ipAddress)
-                        .userAgent(userAgent)
-                        .status(status)
-                        .errorMessage(errorMessage)
-                        .build();
-
-                if (userEntity != null) {
-                    auditLog.setUser(userEntity);
-                    auditLog.setUsername(username);
-                } else if (username != null) {
-                    auditLog.setUsername(username);
-                } else {
-                    auditLog.setUsername("anonymous");
+                // Every read is counted; only the sampled ones (and everything else) become rows
+                if (readPolicy.isRead(descriptor)) {
+                    viewCounter.record(endpoint, userId, status, now);
                 }
-
-                auditLogRepository.save(auditLog);
+                // Reads left out of the sample still reach the hourly statistics, just without a row
+                boolean writeInFull = readPolicy.writeInFull(descriptor, endpoint, status);
+                String details = writeInFull ? buildDetails(requestUri, descriptor, duration, username, entityId) : null;
+                AuditEvent event = new AuditEvent(descriptor.action(), descriptor.entityType(), entityId,
+                        userId, username != null ? username : "anonymous", details,
+                        ipAddress, userAgent, status, errorMessage, now);
+                auditWriter.submit(writeInFull ? event : event.countOnly());
             } catch (Exception e) {
-                log.error("Failed to save audit log for {}.{}: {}", className, methodName, e.getMessage());
+                log.error("Failed to queue audit log for {}.{}: {}",
+                        descriptor.className(), descriptor.methodName(), e.getMessage());
             }
         }
     }
 
     // ── Helper methods ────────────────────────────────────────────────
 
-    private String buildDetails(String requestUri, String httpMethod, String className,
-                                String methodName, long duration, String username, Long entityId) {
+    private String buildDetails(String requestUri, AuditDescriptor descriptor,
+                                long duration, String username, Long entityId) {
         StringBuilder sb = new StringBuilder();
-        sb.append(requestUri != null ? requestUri : httpMethod + " " + className + "." + methodName);
+        if (requestUri != null) {
+            sb.append(requestUri);
+        } else {
+            sb.append(descriptor.httpMethod()).append(' ')
+                    .append(descriptor.className()).append('.').append(descriptor.methodName());
+        }
         if (entityId != null) {
             sb.append(" | Entity ID: ").append(entityId);
         }
@@ -157,133 +156,6 @@ public class AuditAspect {
         return sb.toString();
     }
 
-    private AuditAction resolveAction(String httpMethod, String className, String methodName) {
-        String lcMethod = methodName.toLowerCase();
-
-        // Auth-specific
-        if (className.contains("Auth")) {
-            if (lcMethod.contains("login")) return AuditAction.LOGIN;
-            if (lcMethod.contains("logout")) return AuditAction.LOGOUT;
-            if (lcMethod.contains("register") || lcMethod.contains("createuser")) return AuditAction.REGISTER;
-            if (lcMethod.contains("verify")) return AuditAction.EMAIL_VERIFY;
-            if (lcMethod.contains("reset")) return AuditAction.PASSWORD_RESET;
-            if (lcMethod.contains("forgot")) return AuditAction.PASSWORD_RESET;
-        }
-
-        // Payment-specific
-        if (className.contains("Payment") || className.contains("Tenant")) {
-            if (lcMethod.contains("initiate") || lcMethod.contains("stk")) return AuditAction.PAYMENT_INITIATE;
-            if (lcMethod.contains("refund")) return AuditAction.PAYMENT_REFUND;
-            if (lcMethod.contains("reverse")) return AuditAction.PAYMENT_REVERSE;
-            if (lcMethod.contains("callback") || lcMethod.contains("confirm")) return AuditAction.PAYMENT_SUCCESS;
-        }
-
-        // Lease-specific
-        if (className.contains("Lease")) {
-            if (lcMethod.contains("terminate")) return AuditAction.LEASE_TERMINATE;
-            if (lcMethod.contains("renew")) return AuditAction.LEASE_RENEW;
-            if (lcMethod.contains("activate")) return AuditAction.LEASE_ACTIVATE;
-        }
-
-        // Application-specific
-        if (className.contains("Application")) {
-            if (lcMethod.contains("submit") || lcMethod.contains("apply") || "POST".equals(httpMethod))
-                return AuditAction.APPLICATION_SUBMIT;
-            if (lcMethod.contains("status")) return AuditAction.APPLICATION_APPROVE;
-        }
-
-        // Maintenance-specific
-        if (className.contains("Maintenance")) {
-            if (lcMethod.contains("assign")) return AuditAction.MAINTENANCE_ASSIGN;
-            if (lcMethod.contains("complete")) return AuditAction.MAINTENANCE_COMPLETE;
-        }
-
-        // Message-specific
-        if (className.contains("Message")) {
-            if ("POST".equals(httpMethod)) return AuditAction.SEND_MESSAGE;
-            if (lcMethod.contains("read")) return AuditAction.READ_MESSAGE;
-        }
-
-        // Property-specific
-        if (className.contains("Property") && lcMethod.contains("publish")) return AuditAction.PROPERTY_PUBLISH;
-
-        // Booking-specific
-        if (className.contains("Booking") && "POST".equals(httpMethod)) return AuditAction.PROPERTY_BOOK;
-
-        // User-specific
-        if (className.contains("User")) {
-            if (lcMethod.contains("status") || lcMethod.contains("disable")) return AuditAction.USER_DISABLE;
-            if (lcMethod.contains("enable")) return AuditAction.USER_ENABLE;
-        }
-
-        // Generic CRUD fallback
-        return switch (httpMethod) {
-            case "POST" -> AuditAction.CREATE;
-            case "PUT", "PATCH" -> AuditAction.UPDATE;
-            case "DELETE" -> AuditAction.DELETE;
-            default -> AuditAction.VIEW;
-        };
-    }
-
-    private EntityType resolveEntityType(String className) {
-        if (className.contains("Auth") || className.contains("User")) return EntityType.USER;
-        if (className.contains("Property")) return EntityType.PROPERTY;
-        if (className.contains("Lease")) return EntityType.LEASE;
-        if (className.contains("Payment") || className.contains("Tenant")) return EntityType.PAYMENT;
-        if (className.contains("Application")) return EntityType.APPLICATION;
-        if (className.contains("Maintenance")) return EntityType.MAINTENANCE_REQUEST;
-        if (className.contains("Message")) return EntityType.MESSAGE;
-        if (className.contains("Booking")) return EntityType.BOOKING;
-        if (className.contains("Sms")) return EntityType.SYSTEM;
-        return EntityType.SYSTEM;
-    }
-
-    private String resolveHttpMethod(Method method) {
-        if (method.isAnnotationPresent(GetMapping.class)) return "GET";
-        if (method.isAnnotationPresent(PostMapping.class)) return "POST";
-        if (method.isAnnotationPresent(PutMapping.class)) return "PUT";
-        if (method.isAnnotationPresent(DeleteMapping.class)) return "DELETE";
-        if (method.isAnnotationPresent(PatchMapping.class)) return "PATCH";
-        return "UNKNOWN";
-    }
-
-    private String resolveEndpoint(Class<?> controllerClass, Method method) {
-        StringBuilder sb = new StringBuilder();
-
-        RequestMapping classMapping = controllerClass.getAnnotation(RequestMapping.class);
-        if (classMapping != null && classMapping.value().length > 0) {
-            sb.append(classMapping.value()[0]);
-        }
-
-        String[] paths = {};
-        if (method.isAnnotationPresent(GetMapping.class)) paths = method.getAnnotation(GetMapping.class).value();
-        else if (method.isAnnotationPresent(PostMapping.class)) paths = method.getAnnotation(PostMapping.class).value();
-        else if (method.isAnnotationPresent(PutMapping.class)) paths = method.getAnnotation(PutMapping.class).value();
-        else if (method.isAnnotationPresent(DeleteMapping.class)) paths = method.getAnnotation(DeleteMapping.class).value();
-        else if (method.isAnnotationPresent(PatchMapping.class)) paths = method.getAnnotation(PatchMapping.class).value();
-
-        if (paths.length > 0) {
-            sb.append(paths[0]);
-        }
-
-        return sb.toString();
-    }
-
-    private Long extractEntityId(Object[] args, String[] paramNames) {
-        if (args == null || paramNames == null) return null;
-
-        for (int i = 0; i < paramNames.length; i++) {
-            String name = paramNames[i].toLowerCase();
-            if ((name.contains("id") && !name.contains("sid")) && args[i] instanceof Long) {
-                return (Long) args[i];
-            }
-            if ((name.contains("id") && !name.contains("sid")) && args[i] instanceof Integer) {
-                return ((Integer) args[i]).longValue();
-            }
-        }
-        return null;
-    }
-
     private String getClientIp(HttpServletRequest request) {
         String[] headers = {
                 "X-Forwarded-For", "Proxy-Client-IP", "WL-Proxy-Client-IP",
@@ -0,0 +1,33 @@
+package com.peterscode.rentalmanagementsystem.aspect;
+
+import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
+import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
+
+/**
+ * Everything {@link AuditAspect} needs to know about a controller method, resolved
+ * once by {@link AuditDescriptorRegistry}.
+ *
+ * @param entityIdIndexes indexes of the arguments that may hold the entity id, in
+ *                        order; the first non-null one wins. Empty if none
+ */
+public record AuditDescriptor(
+        AuditAction action,
+        EntityType entityType,
+        String httpMethod,
+        String className,
+        String methodName,
+        int[] entityIdIndexes
+) {
+
+    public Long entityId(Object[] args) {
+        if (args == null) {
+            return null;
+        }
+        for (int index : entityIdIndexes) {
+            if (index < args.length && args[index] instanceof Number number) {
+                return number.longValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,210 @@
+package com.peterscode.rentalmanagementsystem.aspect;
+
+import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
+import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Resolves the audit action, entity type, HTTP method and entity-id argument of each
+ * controller method once, from the registered handler mappings, so that
+ * {@link AuditAspect} only does a map lookup per call. Explicit {@link Audited}
+ * annotations win over the name-based rules. Methods the mappings do not know about
+ * are described on first use and cached the same way.
+ */
+@Component
+@Slf4j
+public class AuditDescriptorRegistry {
+
+    private static final int[] NO_ENTITY_ID = new int[0];
+
+    private final Map<Method, AuditDescriptor> descriptors = new ConcurrentHashMap<>();
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        event.getApplicationContext().getBeansOfType(RequestMappingHandlerMapping.class).values()
+                .forEach(mapping -> registerHandlerMethods(mapping.getHandlerMethods()));
+        log.info("Audit descriptors registered for {} handler methods", descriptors.size());
+    }
+
+    public void registerHandlerMethods(Map<RequestMappingInfo, HandlerMethod> handlerMethods) {
+        handlerMethods.forEach((info, handler) -> {
+            Set<RequestMethod> methods = info.getMethodsCondition().getMethods();
+            String httpMethod = methods.isEmpty() ? null : methods.iterator().next().name();
+            descriptors.put(handler.getMethod(), describe(handler.getBeanType(), handler.getMethod(), httpMethod));
+        });
+    }
+
+    public AuditDescriptor get(Class<?> targetClass, Method method) {
+        AuditDescriptor descriptor = descriptors.get(method);
+        if (descriptor != null) {
+            return descriptor;
+        }
+        return descriptors.computeIfAbsent(method, m -> describe(targetClass, m, null));
+    }
+
+    int size() {
+        return descriptors.size();
+    }
+
+    private AuditDescriptor describe(Class<?> beanType, Method method, String mappedHttpMethod) {
+        String className = beanType.getSimpleName();
+        String methodName = method.getName();
+        String httpMethod = mappedHttpMethod != null ? mappedHttpMethod : resolveHttpMethod(method);
+        Audited audited = AnnotatedElementUtils.findMergedAnnotation(method, Audited.class);
+
+        AuditAction action = audited != null && audited.action().length > 0
+                ? audited.action()[0]
+                : resolveAction(httpMethod, className, methodName);
+        EntityType entityType = audited != null && audited.entity().length > 0
+                ? audited.entity()[0]
+                : resolveEntityType(className);
+        int[] entityIdIndexes = resolveEntityIdIndexes(method, audited != null ? audited.entityIdParam() : "");
+
+        return new AuditDescriptor(action, entityType, httpMethod, className, methodName, entityIdIndexes);
+    }
+
+    // ── Resolution rules ──────────────────────────────────────────────
+
+    static AuditAction resolveAction(String httpMethod, String className, String methodName) {
+        String lcMethod = methodName.toLowerCase();
+
+        // Auth-specific
+        if (className.contains("Auth")) {
+            if (lcMethod.contains("login")) return AuditAction.LOGIN;
+            if (lcMethod.contains("logout")) return AuditAction.LOGOUT;
+            if (lcMethod.contains("register") || lcMethod.contains("createuser")) return AuditAction.REGISTER;
+            if (lcMethod.contains("verify")) return AuditAction.EMAIL_VERIFY;
+            if (lcMethod.contains("reset")) return AuditAction.PASSWORD_RESET;
+            if (lcMethod.contains("forgot")) return AuditAction.PASSWORD_RESET;
+        }
+
+        // Payment-specific
+        if (className.contains("Payment") || className.contains("Tenant")) {
+            if (lcMethod.contains("initiate") || lcMethod.contains("stk")) return AuditAction.PAYMENT_INITIATE;
+            if (lcMethod.contains("refund")) return AuditAction.PAYMENT_REFUND;
+            if (lcMethod.contains("reverse")) return AuditAction.PAYMENT_REVERSE;
+            if (lcMethod.contains("callback") || lcMethod.contains("confirm")) return AuditAction.PAYMENT_SUCCESS;
+        }
+
+        // Lease-specific
+        if (className.contains("Lease")) {
+            if (lcMethod.contains("terminate")) return AuditAction.LEASE_TERMINATE;
+            if (lcMethod.contains("renew")) return AuditAction.LEASE_RENEW;
+            if (lcMethod.contains("activate")) return AuditAction.LEASE_ACTIVATE;
+        }
+
+        // Application-specific
+        if (className.contains("Application")) {
+            if (lcMethod.contains("submit") || lcMethod.contains("apply") || "POST".equals(httpMethod))
+                return AuditAction.APPLICATION_SUBMIT;
+            if (lcMethod.contains("status")) return AuditAction.APPLICATION_APPROVE;
+        }
+
+        // Maintenance-specific
+        if (className.contains("Maintenance")) {
+            if (lcMethod.contains("assign")) return AuditAction.MAINTENANCE_ASSIGN;
+            if (lcMethod.contains("complete")) return AuditAction.MAINTENANCE_COMPLETE;
+        }
+
+        // Message-specific
+        if (className.contains("Message")) {
+            if ("POST".equals(httpMethod)) return AuditAction.SEND_MESSAGE;
+            if (lcMethod.contains("read")) return AuditAction.READ_MESSAGE;
+        }
+
+        // Property-specific
+        if (className.contains("Property") && lcMethod.contains("publish")) return AuditAction.PROPERTY_PUBLISH;
+
+        // Booking-specific
+        if (className.contains("Booking") && "POST".equals(httpMethod)) return AuditAction.PROPERTY_BOOK;
+
+        // User-specific
+        if (className.contains("User")) {
+            if (lcMethod.contains("status") || lcMethod.contains("disable")) return AuditAction.USER_DISABLE;
+            if (lcMethod.contains("enable")) return AuditAction.USER_ENABLE;
+        }
+
+        // Generic CRUD fallback
+        return switch (httpMethod) {
+            case "POST" -> AuditAction.CREATE;
+            case "PUT", "PATCH" -> AuditAction.UPDATE;
+            case "DELETE" -> AuditAction.DELETE;
+            default -> AuditAction.VIEW;
+        };
+    }
+
+    static EntityType resolveEntityType(String className) {
+        if (className.contains("Auth") || className.contains("User")) return EntityType.USER;
+        if (className.contains("Property")) return EntityType.PROPERTY;
+        if (className.contains("Lease")) return EntityType.LEASE;
+        if (className.contains("Payment") || className.contains("Tenant")) return EntityType.PAYMENT;
+        if (className.contains("Application")) return EntityType.APPLICATION;
+        if (className.contains("Maintenance")) return EntityType.MAINTENANCE_REQUEST;
+        if (className.contains("Message")) return EntityType.MESSAGE;
+        if (className.contains("Booking")) return EntityType.BOOKING;
+        return EntityType.SYSTEM;
+    }
+
+    private static String resolveHttpMethod(Method method) {
+        if (method.isAnnotationPresent(GetMapping.class)) return "GET";
+        if (method.isAnnotationPresent(PostMapping.class)) return "POST";
+        if (method.isAnnotationPresent(PutMapping.class)) return "PUT";
+        if (method.isAnnotationPresent(DeleteMapping.class)) return "DELETE";
+        if (method.isAnnotationPresent(PatchMapping.class)) return "PATCH";
+        return "UNKNOWN";
+    }
+
+    // Every id-like parameter is a candidate: an optional one may be null at runtime,
+    // in which case the next one holds the entity id
+    private int[] resolveEntityIdIndexes(Method method, String explicitName) {
+        String[] names = parameterNames.getParameterNames(method);
+        if (names == null) {
+            return NO_ENTITY_ID;
+        }
+        Class<?>[] types = method.getParameterTypes();
+
+        if (!explicitName.isEmpty()) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(explicitName)) {
+                    return new int[]{i};
+                }
+            }
+            log.warn("@Audited entityIdParam '{}' not found on {}.{}",
+                    explicitName, method.getDeclaringClass().getSimpleName(), method.getName());
+            return NO_ENTITY_ID;
+        }
+
+        return IntStream.range(0, names.length)
+                .filter(i -> {
+                    String name = names[i].toLowerCase();
+                    return name.contains("id") && !name.contains("sid") && isIdType(types[i]);
+                })
+                .toArray();
+    }
+
+    private static boolean isIdType(Class<?> type) {
+        return type == Long.class || type == long.class || type == Integer.class || type == int.class;
+    }
+}
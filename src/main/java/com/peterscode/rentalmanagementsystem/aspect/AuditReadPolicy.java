@@ -0,0 +1,58 @@
+package com.peterscode.rentalmanagementsystem.aspect;
+
+import com.peterscode.rentalmanagementsystem.config.AuditConfig;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which controller calls {@link AuditAspect} writes as full audit rows.
+ * Writes, auth events and failures always are. Successful reads (VIEW on GET) are
+ * written with the sample rate of their endpoint from {@code audit.reads}; all of
+ * them are counted by the view counter either way.
+ */
+@Component
+public class AuditReadPolicy {
+
+    private final AuditConfig.Reads config;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    /** Sample rate per endpoint pattern; the set of patterns is bounded by the handler mappings. */
+    private final Map<String, Double> rates = new ConcurrentHashMap<>();
+    private final Counter sampled;
+    private final Counter skipped;
+
+    public AuditReadPolicy(AuditConfig auditConfig, MeterRegistry meterRegistry) {
+        this.config = auditConfig.getReads();
+        this.sampled = meterRegistry.counter("audit.reads", "outcome", "written");
+        this.skipped = meterRegistry.counter("audit.reads", "outcome", "counted");
+    }
+
+    public boolean isRead(AuditDescriptor descriptor) {
+        return descriptor.action() == AuditAction.VIEW && "GET".equals(descriptor.httpMethod());
+    }
+
+    public boolean writeInFull(AuditDescriptor descriptor, String endpoint, String status) {
+        if (!isRead(descriptor) || !"SUCCESS".equals(status) || !config.isSampling()) {
+            return true;
+        }
+        double rate = rates.computeIfAbsent(endpoint, this::rateFor);
+        boolean keep = rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+        (keep ? sampled : skipped).increment();
+        return keep;
+    }
+
+    double rateFor(String endpoint) {
+        for (Map.Entry<String, Double> entry : config.getEndpoints().entrySet()) {
+            if (matcher.match(entry.getKey(), endpoint)) {
+                return entry.getValue();
+            }
+        }
+        return config.getSampleRate();
+    }
+}
@@ -0,0 +1,35 @@
+package com.peterscode.rentalmanagementsystem.aspect;
+
+import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
+import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Overrides what {@link AuditAspect} records for a controller method. Anything left
+ * empty is still derived from the class name, method name and HTTP method.
+ *
+ * <pre>
+ * &#64;Audited(action = AuditAction.PASSWORD_CHANGE)
+ * &#64;PutMapping("/change-password")
+ * public ResponseEntity&lt;...&gt; changePassword(...)
+ * </pre>
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Audited {
+
+    /** Action to record. At most one; empty keeps the derived action. */
+    AuditAction[] action() default {};
+
+    /** Entity type to record. At most one; empty keeps the derived type. */
+    EntityType[] entity() default {};
+
+    /** Name of the parameter that carries the entity id; empty keeps the derived one. */
+    String entityIdParam() default "";
+}
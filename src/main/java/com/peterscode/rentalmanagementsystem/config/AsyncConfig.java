@@ -1,11 +1,125 @@
 package com.peterscode.rentalmanagementsystem.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Named executors for {@code @Async} work, one per workload, sized by
+ * {@link ExecutorConfig}. Each is bounded, propagates MDC and the SecurityContext,
+ * and exports {@code task.executor.*} metrics tagged with its name. Plain
+ * {@code @Async} without a qualifier runs on the audit executor.
+ */
+@Slf4j
 @Configuration
 @EnableAsync
-public class AsyncConfig {
-    // This enables @Async annotation for asynchronous audit logging
-    // Spring will use default executor with reasonable thread pool settings
+@RequiredArgsConstructor
+public class AsyncConfig implements AsyncConfigurer {
+
+    private final ExecutorConfig executorConfig;
+    private final MeterRegistry meterRegistry;
+
+    @Bean(name = "auditTaskExecutor")
+    public ThreadPoolTaskExecutor auditTaskExecutor() {
+        return newExecutor("audit", executorConfig.getAudit());
+    }
+
+    @Bean(name = "emailTaskExecutor")
+    public ThreadPoolTaskExecutor emailTaskExecutor() {
+        return newExecutor("email", executorConfig.getEmail());
+    }
+
+    @Bean(name = "smsTaskExecutor")
+    public ThreadPoolTaskExecutor smsTaskExecutor() {
+        return newExecutor("sms", executorConfig.getSms());
+    }
+
+    @Bean(name = "reconciliationTaskExecutor")
+    public ThreadPoolTaskExecutor reconciliationTaskExecutor() {
+        return newExecutor("reconciliation", executorConfig.getReconciliation());
+    }
+
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor() {
+        return newExecutor("password-hash", executorConfig.getPasswordHash());
+    }
+
+    @Bean(name = "outboxTaskExecutor")
+    public ThreadPoolTaskExecutor outboxTaskExecutor() {
+        return newExecutor("outbox", executorConfig.getOutbox());
+    }
+
+    @Override
+    public Executor getAsyncExecutor() {
+        return auditTaskExecutor();
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, method, params) -> log.error("Async task {}.{} failed: {}",
+                method.getDeclaringClass().getSimpleName(), method.getName(), ex.getMessage(), ex);
+    }
+
+    /**
+     * In virtual-thread mode the pool hands out a fresh virtual thread per worker and
+     * lets idle ones expire, so {@code max-size} only caps concurrency; the queue,
+     * rejection policy and metrics behave the same in both modes.
+     */
+    private ThreadPoolTaskExecutor newExecutor(String name, ExecutorConfig.Pool pool) {
+        ContextCopyingTaskDecorator decorator = new ContextCopyingTaskDecorator();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(name + "-task-");
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setKeepAliveSeconds(pool.getKeepAliveSeconds());
+        executor.setTaskDecorator(decorator);
+        executor.setRejectedExecutionHandler(rejectionHandler(name, pool.getRejectionPolicy()));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(pool.getAwaitTerminationSeconds());
+
+        if (pool.isVirtualThreads()) {
+            executor.setThreadFactory(Thread.ofVirtual().name(name + "-vt-", 0).factory());
+            executor.setCorePoolSize(pool.getMaxSize());
+            executor.setMaxPoolSize(pool.getMaxSize());
+            executor.setAllowCoreThreadTimeOut(true);
+        } else {
+            executor.setCorePoolSize(pool.getCoreSize());
+            executor.setMaxPoolSize(pool.getMaxSize());
+        }
+
+        Gauge.builder("task.executor.active", decorator, ContextCopyingTaskDecorator::getActiveCount)
+                .tag("name", name).register(meterRegistry);
+        Gauge.builder("task.executor.queued", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .tag("name", name).register(meterRegistry);
+        Gauge.builder("task.executor.pool.size", executor, ThreadPoolTaskExecutor::getPoolSize)
+                .tag("name", name).register(meterRegistry);
+
+        log.info("Executor '{}': max {} {} threads, queue {}, {} when full", name, pool.getMaxSize(),
+                pool.isVirtualThreads() ? "virtual" : "platform", pool.getQueueCapacity(), pool.getRejectionPolicy());
+        return executor;
+    }
+
+    private RejectedExecutionHandler rejectionHandler(String name, ExecutorConfig.RejectionPolicy policy) {
+        Counter rejected = meterRegistry.counter("task.executor.rejected", "name", name, "policy", policy.name());
+        RejectedExecutionHandler delegate = switch (policy) {
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case DISCARD -> (task, pool) -> log.warn("Executor '{}' saturated, discarding task", name);
+        };
+        return (task, pool) -> {
+            rejected.increment();
+            delegate.rejectedExecution(task, pool);
+        };
+    }
 }
@@ -0,0 +1,66 @@
+package com.peterscode.rentalmanagementsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "audit")
+public class AuditConfig {
+
+    private Writer writer = new Writer();
+    private Retention retention = new Retention();
+    private Reads reads = new Reads();
+
+    @Data
+    public static class Writer {
+        private int bufferCapacity = 8192;
+        private int batchSize = 200;
+        private long flushIntervalMs = 500;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+        private long shutdownTimeoutMs = 5000;
+    }
+
+    @Data
+    public static class Retention {
+        private boolean enabled = true;
+        /** Whole months kept in audit_logs before the current one; older partitions are archived and dropped. */
+        private int keepMonths = 12;
+        /** Monthly partitions kept created ahead of the current month. */
+        private int futurePartitions = 3;
+        private boolean archiveEnabled = true;
+        private String archiveDir = "./audit-archive";
+        private String cron = "0 30 3 * * *";
+    }
+
+    /**
+     * Policy for successful read-only (VIEW) calls. Every read is counted per minute,
+     * endpoint, user and status; only a sample is also written as a full audit row.
+     * Writes, auth events and failures are always written in full.
+     */
+    @Data
+    public static class Reads {
+        /** When false every read is written in full, as before. */
+        private boolean sampling = true;
+        /** Fraction of reads written in full, 0.0 to 1.0. */
+        private double sampleRate = 0.01;
+        /** Per-endpoint sample rates keyed by path pattern, e.g. /api/payments/** = 1.0. */
+        private Map<String, Double> endpoints = new LinkedHashMap<>();
+        private long flushIntervalMs = 15000;
+        private int keepDays = 90;
+    }
+
+    /** What the audit writer does with an event when its buffer is full. */
+    public enum OverflowPolicy {
+        /** Discard the incoming event. Never slows the request down. */
+        DROP_NEWEST,
+        /** Discard the oldest buffered event to make room for the incoming one. */
+        DROP_OLDEST,
+        /** Write the event synchronously on the calling thread. Loses nothing, costs latency. */
+        CALLER_RUNS
+    }
+}
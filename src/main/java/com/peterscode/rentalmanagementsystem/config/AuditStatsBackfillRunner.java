@@ -0,0 +1,43 @@
+package com.peterscode.rentalmanagementsystem.config;
+
+import com.peterscode.rentalmanagementsystem.service.audit.AuditStatsRollup;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-off backfill of the hourly audit statistics. Runs on startup only while the
+ * rollup is empty; after that it is kept current by the audit writer. Use
+ * POST /api/audit-logs/stats/rebuild to recompute a range by hand.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(120)
+public class AuditStatsBackfillRunner implements CommandLineRunner {
+
+    private final AuditStatsRollup auditStatsRollup;
+
+    @Value("${app.audit-stats.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Override
+    public void run(String... args) {
+        if (!backfillOnStartup) {
+            return;
+        }
+        try {
+            if (!auditStatsRollup.isEmpty()) {
+                log.debug("Audit stats rollup already populated, skipping backfill");
+                return;
+            }
+            int buckets = auditStatsRollup.rebuild(null, null);
+            log.info("Audit stats rollup backfill complete: {} buckets", buckets);
+        } catch (Exception e) {
+            log.error("Audit stats rollup backfill failed: {}", e.getMessage(), e);
+        }
+    }
+}
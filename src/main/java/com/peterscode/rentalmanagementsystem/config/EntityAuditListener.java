@@ -2,108 +2,107 @@ package com.peterscode.rentalmanagementsystem.config;
 
 import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
 import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
-import com.peterscode.rentalmanagementsystem.service.audit.AuditLogService;
+import com.peterscode.rentalmanagementsystem.service.audit.EntityChangeCollector;
 import jakarta.persistence.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
 /**
  * JPA Entity Listener to automatically audit ALL database changes
- * This captures CREATE, UPDATE, DELETE operations on all entities
+ * This captures CREATE, UPDATE, DELETE operations on all entities.
+ * Changes are handed to {@link EntityChangeCollector}, which writes one
+ * entry per transaction after commit.
  */
 @Slf4j
 @Component
 public class EntityAuditListener {
 
-    private static AuditLogService auditLogService;
+    private static final MethodType ID_GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /** Entity type and id getter per entity class, resolved on first use. */
+    private static final ClassValue<EntityMetadata> METADATA = new ClassValue<>() {
+        @Override
+        protected EntityMetadata computeValue(Class<?> type) {
+            return EntityMetadata.of(type);
+        }
+    };
+
+    private static EntityChangeCollector changeCollector;
 
     @Autowired
-    public void setAuditLogService(AuditLogService auditLogService) {
-        EntityAuditListener.auditLogService = auditLogService;
+    public void setChangeCollector(EntityChangeCollector changeCollector) {
+        EntityAuditListener.changeCollector = changeCollector;
     }
 
     @PostPersist
     public void afterCreate(Object entity) {
-        if (auditLogService != null && !isAuditEntity(entity)) {
-            try {
-                EntityType entityType = getEntityType(entity);
-                Long entityId = getEntityId(entity);
-
-                auditLogService.log(
-                    AuditAction.CREATE,
-                    entityType,
-                    entityId,
-                    String.format("Created %s with ID: %d", entityType, entityId)
-                );
-
-                log.debug("Audited CREATE for {} ID: {}", entityType, entityId);
-            } catch (Exception e) {
-                log.warn("Failed to audit CREATE operation: {}", e.getMessage());
-            }
-        }
+        record(AuditAction.CREATE, entity);
     }
 
     @PostUpdate
     public void afterUpdate(Object entity) {
-        if (auditLogService != null && !isAuditEntity(entity)) {
-            try {
-                EntityType entityType = getEntityType(entity);
-                Long entityId = getEntityId(entity);
-
-                auditLogService.log(
-                    AuditAction.UPDATE,
-                    entityType,
-                    entityId,
-                    String.format("Updated %s with ID: %d", entityType, entityId)
-                );
-
-                log.debug("Audited UPDATE for {} ID: {}", entityType, entityId);
-            } catch (Exception e) {
-                log.warn("Failed to audit UPDATE operation: {}", e.getMessage());
-            }
-        }
+        record(AuditAction.UPDATE, entity);
     }
 
     @PostRemove
     public void afterDelete(Object entity) {
-        if (auditLogService != null && !isAuditEntity(entity)) {
-            try {
-                EntityType entityType = getEntityType(entity);
-                Long entityId = getEntityId(entity);
-
-                auditLogService.log(
-                    AuditAction.DELETE,
-                    entityType,
-                    entityId,
-                    String.format("Deleted %s with ID: %d", entityType, entityId)
-                );
-
-                log.debug("Audited DELETE for {} ID: {}", entityType, entityId);
-            } catch (Exception e) {
-                log.warn("Failed to audit DELETE operation: {}", e.getMessage());
-            }
-        }
+        record(AuditAction.DELETE, entity);
     }
 
-    /**
-     * Check if entity is an audit entity to prevent circular logging
-     */
-    private boolean isAuditEntity(Object entity) {
-        String className = entity.getClass().getSimpleName();
-        return className.equals("AuditLog") ||
-               className.equals("VerificationToken") ||
-               className.equals("PasswordResetToken");
+    private void record(AuditAction action, Object entity) {
+        if (changeCollector == null) {
+            return;
+        }
+        EntityMetadata metadata = METADATA.get(entity.getClass());
+        if (metadata.ignored()) {
+            return;
+        }
+        try {
+            Long entityId = metadata.idOf(entity);
+            changeCollector.record(action, metadata.entityType(), entityId);
+            log.debug("Audited {} for {} ID: {}", action, metadata.entityType(), entityId);
+        } catch (Exception e) {
+            log.warn("Failed to audit {} operation: {}", action, e.getMessage());
+        }
     }
 
-    /**
-     * Extract entity type from the entity class name
-     */
-    private EntityType getEntityType(Object entity) {
-        String className = entity.getClass().getSimpleName();
+    private record EntityMetadata(EntityType entityType, MethodHandle idGetter, boolean ignored) {
 
-        try {
-            // Try to match with existing EntityType enum
+        static EntityMetadata of(Class<?> type) {
+            String className = type.getSimpleName();
+            return new EntityMetadata(getEntityType(className), findIdGetter(type), isAuditEntity(className));
+        }
+
+        Long idOf(Object entity) {
+            if (idGetter == null) {
+                return null;
+            }
+            try {
+                return (Object) idGetter.invokeExact(entity) instanceof Long id ? id : null;
+            } catch (Throwable e) {
+                log.debug("Could not extract ID from entity: {}", e.getMessage());
+                return null;
+            }
+        }
+
+        /**
+         * Check if entity is an audit entity to prevent circular logging
+         */
+        private static boolean isAuditEntity(String className) {
+            return className.equals("AuditLog") ||
+                   className.equals("VerificationToken") ||
+                   className.equals("PasswordResetToken");
+        }
+
+        /**
+         * Extract entity type from the entity class name
+         */
+        private static EntityType getEntityType(String className) {
             return switch (className) {
                 case "User" -> EntityType.USER;
                 case "Property" -> EntityType.PROPERTY;
@@ -115,25 +114,17 @@ public class EntityAuditListener {
                 case "Booking" -> EntityType.BOOKING;
                 default -> EntityType.SYSTEM;
             };
-        } catch (Exception e) {
-            return EntityType.SYSTEM;
         }
-    }
 
-    /**
-     * Extract entity ID using reflection
-     */
-    private Long getEntityId(Object entity) {
-        try {
-            java.lang.reflect.Method getIdMethod = entity.getClass().getMethod("getId");
-            Object id = getIdMethod.invoke(entity);
-            if (id instanceof Long) {
-                return (Long) id;
+        private static MethodHandle findIdGetter(Class<?> type) {
+            try {
+                return MethodHandles.publicLookup()
+                        .unreflect(type.getMethod("getId"))
+                        .asType(ID_GETTER_TYPE);
+            } catch (ReflectiveOperationException e) {
+                log.debug("No accessible getId() on {}: {}", type.getSimpleName(), e.getMessage());
+                return null;
             }
-        } catch (Exception e) {
-            log.debug("Could not extract ID from entity: {}", e.getMessage());
         }
-        return null;
     }
 }
-
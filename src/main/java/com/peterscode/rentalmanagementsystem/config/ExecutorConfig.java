@@ -0,0 +1,60 @@
+package com.peterscode.rentalmanagementsystem.config;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sizing of the named {@code @Async} executors built by {@link AsyncConfig}. Each
+ * workload gets its own bounded pool so a slow vendor only backs up its own queue.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.executors")
+public class ExecutorConfig {
+
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    private Pool audit = new Pool(1, 2, 500, RejectionPolicy.DISCARD, false);
+    private Pool email = new Pool(2, 8, 200, RejectionPolicy.CALLER_RUNS, false);
+    private Pool sms = new Pool(2, 8, 500, RejectionPolicy.CALLER_RUNS, false);
+    private Pool reconciliation = new Pool(10, 10, 1000, RejectionPolicy.CALLER_RUNS, true);
+    /** BCrypt checks for logins: CPU bound, so one thread per core and a short queue that fails fast. */
+    private Pool passwordHash = new Pool(CORES, CORES, 64, RejectionPolicy.ABORT, false);
+    /** Outbox dispatch passes: only one runs at a time and it drains everything due, so one thread suffices. */
+    private Pool outbox = new Pool(1, 1, 1, RejectionPolicy.ABORT, false);
+
+    @Data
+    @NoArgsConstructor
+    public static class Pool {
+        private int coreSize = 2;
+        /** Upper bound on concurrently running tasks, in both platform and virtual mode. */
+        private int maxSize = 4;
+        private int queueCapacity = 100;
+        private RejectionPolicy rejectionPolicy = RejectionPolicy.CALLER_RUNS;
+        /** Run tasks on virtual threads; max-size still caps how many run at once. */
+        private boolean virtualThreads = false;
+        private int keepAliveSeconds = 60;
+        private int awaitTerminationSeconds = 10;
+
+        public Pool(int coreSize, int maxSize, int queueCapacity, RejectionPolicy rejectionPolicy,
+                    boolean virtualThreads) {
+            this.coreSize = coreSize;
+            this.maxSize = maxSize;
+            this.queueCapacity = queueCapacity;
+            this.rejectionPolicy = rejectionPolicy;
+            this.virtualThreads = virtualThreads;
+        }
+    }
+
+    /** What an executor does with a task once its threads are busy and its queue is full. */
+    public enum RejectionPolicy {
+        /** Throw {@code TaskRejectedException} to the submitter. */
+        ABORT,
+        /** Run the task on the submitting thread, which slows the producer down. */
+        CALLER_RUNS,
+        /** Drop the task and log it. */
+        DISCARD
+    }
+}
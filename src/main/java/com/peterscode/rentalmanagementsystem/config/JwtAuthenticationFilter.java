@@ -1,8 +1,8 @@
 package com.peterscode.rentalmanagementsystem.config;
 
 
-import com.peterscode.rentalmanagementsystem.security.JwtService;
-import com.peterscode.rentalmanagementsystem.security.UserDetailsServiceImpl;
+import com.peterscode.rentalmanagementsystem.security.JwtPrincipalCache;
+import com.peterscode.rentalmanagementsystem.security.SecurityUser;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,19 +11,18 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @RequiredArgsConstructor
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtService jwtService;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final JwtPrincipalCache jwtPrincipalCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -31,16 +30,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtService.validate(jwt)) {
-                String email = jwtService.getEmail(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            Optional<SecurityUser> principal = jwt != null ? jwtPrincipalCache.resolve(jwt) : Optional.empty();
+            if (principal.isPresent()) {
+                SecurityUser userDetails = principal.get();
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-                log.debug("Authenticated user: {}", email);
+                log.debug("Authenticated user: {}", userDetails.getUsername());
             }
         } catch (Exception e) {
             log.error("Cannot set user authentication: {}", e.getMessage());
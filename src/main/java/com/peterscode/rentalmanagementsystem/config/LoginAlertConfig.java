@@ -0,0 +1,20 @@
+package com.peterscode.rentalmanagementsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/** Login alert emails: which sign-ins count as new and how alerts are coalesced (V40). */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.login-alerts")
+public class LoginAlertConfig {
+
+    private boolean enabled = true;
+    /** A fingerprint not seen for this long is forgotten and alerts again. */
+    private int fingerprintTtlDays = 30;
+    /** New sign-ins within this long of the last alert are sent together in one digest. */
+    private int digestWindowMinutes = 15;
+    /** last_seen_at/expires_at of a known fingerprint are refreshed at most this often. */
+    private int touchIntervalHours = 12;
+}
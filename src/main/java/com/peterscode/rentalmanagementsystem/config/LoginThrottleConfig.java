@@ -0,0 +1,37 @@
+package com.peterscode.rentalmanagementsystem.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Login admission limits. Attempts are charged to a token bucket per client IP and
+ * one per email before any password is hashed; either bucket running dry answers
+ * 429. The hashing itself runs on the {@code password-hash} executor in
+ * {@link ExecutorConfig}.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.login-throttle")
+public class LoginThrottleConfig {
+
+    private boolean enabled = true;
+    private Bucket ip = new Bucket(30, 30);
+    private Bucket email = new Bucket(5, 5);
+    /** Buckets tracked per dimension; new clients get 429 while that many are all in use. */
+    private int maxKeys = 100_000;
+    /** How long a login waits for a free hashing thread before it is turned away. */
+    private long hashTimeoutMs = 5000;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        /** Attempts allowed in a burst. */
+        private int capacity = 10;
+        /** Sustained attempts per minute once the burst is used up. */
+        private double refillPerMinute = 10;
+    }
+}
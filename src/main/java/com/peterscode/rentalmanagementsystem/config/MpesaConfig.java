@@ -17,8 +17,35 @@ public class MpesaConfig {
     private String callbackUrl;
     private String stkPushUrl;
     private String authUrl;
+    private Callback callback = new Callback();
+    private Token token = new Token();
+    private Reconciliation reconciliation = new Reconciliation();
 
     public boolean isSandbox() {
         return "sandbox".equalsIgnoreCase(environment);
     }
+
+    @Data
+    public static class Callback {
+        private int workers = 2;
+        private int queueCapacity = 1000;
+        private int batchSize = 20;
+        private int maxAttempts = 5;
+        private long retryAfterMs = 60000;
+    }
+
+    @Data
+    public static class Token {
+        private long safetyMarginMs = 30000;
+        private long refreshAheadMs = 300000;
+        private long refreshCheckMs = 30000;
+    }
+
+    @Data
+    public static class Reconciliation {
+        private double queriesPerSecond = 5;
+        private int maxConcurrency = 10;
+        private long minAgeMinutes = 2;
+        private long staleAfterMinutes = 60;
+    }
 }
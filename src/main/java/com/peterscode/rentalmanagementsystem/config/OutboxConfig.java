@@ -0,0 +1,25 @@
+package com.peterscode.rentalmanagementsystem.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/** Delivery settings for the transactional outbox (V39). */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxConfig {
+
+    /** Events claimed per round trip. */
+    private int batchSize = 50;
+    /** Safety-net poll; commits also trigger delivery straight away. */
+    private long pollIntervalMs = 5000;
+    /** After this many failed attempts an event is marked FAILED and left for inspection. */
+    private int maxAttempts = 8;
+    private long initialBackoffMs = 5000;
+    private long maxBackoffMs = 3_600_000;
+    /** How long a claimed event stays hidden from other dispatchers while it is delivered. */
+    private long leaseSeconds = 120;
+    /** Delivered events are deleted after this many days. */
+    private int keepDays = 7;
+}
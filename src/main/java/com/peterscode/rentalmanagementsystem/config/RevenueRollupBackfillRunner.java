@@ -0,0 +1,43 @@
+package com.peterscode.rentalmanagementsystem.config;
+
+import com.peterscode.rentalmanagementsystem.service.payment.RevenueRollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-off backfill of the revenue rollup. Runs on startup only while the rollup
+ * table is empty; after that it is kept current by the payment service. Use
+ * POST /api/payments/revenue/rollup/rebuild to recompute a range by hand.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Order(110) // After the lease/application migration
+public class RevenueRollupBackfillRunner implements CommandLineRunner {
+
+    private final RevenueRollupService revenueRollupService;
+
+    @Value("${app.revenue-rollup.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Override
+    public void run(String... args) {
+        if (!backfillOnStartup) {
+            return;
+        }
+        try {
+            if (!revenueRollupService.isEmpty()) {
+                log.debug("Revenue rollup already populated, skipping backfill");
+                return;
+            }
+            int buckets = revenueRollupService.rebuild(null, null);
+            log.info("Revenue rollup backfill complete: {} buckets", buckets);
+        } catch (Exception e) {
+            log.error("Revenue rollup backfill failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.peterscode.rentalmanagementsystem.config;
 
-import com.peterscode.rentalmanagementsystem.security.JwtService;
+import com.peterscode.rentalmanagementsystem.security.JwtPrincipalCache;
+import com.peterscode.rentalmanagementsystem.security.SecurityUser;
 import com.peterscode.rentalmanagementsystem.security.UserDetailsServiceImpl;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,7 +21,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
@@ -28,6 +28,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Configuration
 @EnableWebSecurity
@@ -35,12 +36,12 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class SecurityConfig {
 
-    private final JwtService jwtService;
+    private final JwtPrincipalCache jwtPrincipalCache;
     private final UserDetailsServiceImpl userDetailsService;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
-        JwtAuthFilter jwtFilter = new JwtAuthFilter(jwtService, userDetailsService);
+        JwtAuthFilter jwtFilter = new JwtAuthFilter(jwtPrincipalCache);
 
         http
                 .cors(Customizer.withDefaults())
@@ -100,6 +101,20 @@ public class SecurityConfig {
                         // Payment endpoints
                         .requestMatchers(HttpMethod.POST, "/api/payments").hasAnyRole("TENANT", "ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/payments/me").hasAnyRole("TENANT", "LANDLORD", "ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/payments/landlord").hasRole("LANDLORD")
+                        .requestMatchers(HttpMethod.GET, "/api/payments/export").hasAnyRole("ADMIN", "LANDLORD")
+                        .requestMatchers(HttpMethod.GET, "/api/payments/page").hasAnyRole("ADMIN", "LANDLORD")
+                        .requestMatchers(HttpMethod.GET, "/api/payments/me/page")
+                        .hasAnyRole("TENANT", "LANDLORD", "ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/payments/tenant/{tenantId}/page")
+                        .hasAnyRole("LANDLORD", "ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/payments/status/{status}/page").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/payments/method/{method}/page").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/payments/mpesa/pending/page").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/payments/revenue/daily").hasAnyRole("ADMIN", "LANDLORD")
+                        .requestMatchers(HttpMethod.GET, "/api/payments/revenue/monthly").hasAnyRole("ADMIN", "LANDLORD")
+                        .requestMatchers(HttpMethod.GET, "/api/payments/revenue/yearly").hasAnyRole("ADMIN", "LANDLORD")
+                        .requestMatchers(HttpMethod.POST, "/api/payments/revenue/rollup/rebuild").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/payments/{id}").authenticated()
                         .requestMatchers(HttpMethod.GET, "/api/payments/transaction/{transactionCode}").authenticated()
                         .requestMatchers(HttpMethod.GET, "/api/payments").hasAnyRole("ADMIN", "LANDLORD") // SECURITY
@@ -272,12 +287,10 @@ public class SecurityConfig {
 
     static class JwtAuthFilter extends OncePerRequestFilter {
 
-        private final JwtService jwtService;
-        private final UserDetailsServiceImpl userDetailsService;
+        private final JwtPrincipalCache jwtPrincipalCache;
 
-        JwtAuthFilter(JwtService jwtService, UserDetailsServiceImpl userDetailsService) {
-            this.jwtService = jwtService;
-            this.userDetailsService = userDetailsService;
+        JwtAuthFilter(JwtPrincipalCache jwtPrincipalCache) {
+            this.jwtPrincipalCache = jwtPrincipalCache;
         }
 
         @Override
@@ -288,15 +301,12 @@ public class SecurityConfig {
             String header = request.getHeader("Authorization");
             if (header != null && header.startsWith("Bearer ")) {
                 String token = header.substring(7);
-                if (jwtService.validate(token)) {
-                    String email = jwtService.getEmail(token).trim().toLowerCase();
-
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-
+                Optional<SecurityUser> principal = jwtPrincipalCache.resolve(token);
+                if (principal.isPresent()) {
                     var auth = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            principal.get(),
                             null,
-                            userDetails.getAuthorities()
+                            principal.get().getAuthorities()
 
                     );
                     SecurityContextHolder.getContext().setAuthentication(auth);
@@ -4,7 +4,7 @@ import com.peterscode.rentalmanagementsystem.dto.response.ApiResponse;
 import com.peterscode.rentalmanagementsystem.model.announcement.Announcement;
 import com.peterscode.rentalmanagementsystem.model.user.User;
 import com.peterscode.rentalmanagementsystem.repository.AnnouncementRepository;
-import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -28,7 +28,7 @@ import java.util.Map;
 public class AnnouncementController {
 
     private final AnnouncementRepository announcementRepository;
-    private final UserRepository userRepository;
+    private final CurrentUser currentUserResolver;
 
     @GetMapping("/active")
     @Operation(summary = "Get all active announcements (for tenant marquee)")
@@ -58,7 +58,7 @@ public class AnnouncementController {
 
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         UserDetails userDetails = (UserDetails) auth.getPrincipal();
-        User currentUser = userRepository.findByEmail(userDetails.getUsername()).orElse(null);
+        User currentUser = currentUserResolver.findByEmail(userDetails.getUsername()).orElse(null);
 
         LocalDateTime expiresAt = null;
         if (expiresInHours != null && !expiresInHours.isEmpty()) {
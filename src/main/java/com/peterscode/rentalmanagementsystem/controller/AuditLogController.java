@@ -1,10 +1,13 @@
 package com.peterscode.rentalmanagementsystem.controller;
 
 import com.peterscode.rentalmanagementsystem.dto.response.AuditLogResponse;
+import com.peterscode.rentalmanagementsystem.dto.response.CursorPage;
 import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
 import com.peterscode.rentalmanagementsystem.model.audit.DbSecurityViolation;
 import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
 import com.peterscode.rentalmanagementsystem.repository.DbSecurityViolationRepository;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditExportService;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditLogSearch;
 import com.peterscode.rentalmanagementsystem.service.audit.AuditLogService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,13 +16,19 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/audit-logs")
@@ -29,6 +38,7 @@ import java.util.Map;
 public class AuditLogController {
 
     private final AuditLogService auditLogService;
+    private final AuditExportService auditExportService;
     private final DbSecurityViolationRepository securityViolationRepository;
 
     @GetMapping
@@ -52,17 +62,77 @@ public class AuditLogController {
             @RequestParam(required = false) EntityType entityType,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size
     ) {
-        log.info("Filtering audit logs: email={}, action={}, entityType={}", email, action, entityType);
+        log.info("Filtering audit logs: email={}, action={}, entityType={}, includeArchived={}",
+                email, action, entityType, includeArchived);
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
         Page<AuditLogResponse> logs = auditLogService.getLogsByFilters(
-                email, action, entityType, startDate, endDate, pageable
+                email, action, entityType, startDate, endDate, includeArchived, pageable
         );
         return ResponseEntity.ok(logs);
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<AuditLogResponse>> searchLogs(
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) AuditAction action,
+            @RequestParam(required = false) EntityType entityType,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        log.info("Searching audit logs: email={}, userId={}, action={}, entityType={}, entityId={}, q={}",
+                email, userId, action, entityType, entityId, q);
+        AuditLogSearch.Criteria criteria = new AuditLogSearch.Criteria(
+                email, userId, action, entityType, entityId, status, startDate, endDate, q);
+        return ResponseEntity.ok(auditLogService.searchLogs(criteria, cursor, size));
+    }
+
+    /**
+     * Streams matching rows as NDJSON, gzip-compressed by default, in id order. If a
+     * download breaks off, request it again with {@code afterId} set to the last id received.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportLogs(
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) AuditAction action,
+            @RequestParam(required = false) EntityType entityType,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "true") boolean gzip
+    ) {
+        log.info("Exporting audit logs: email={}, action={}, entityType={}, from={}, to={}, afterId={}",
+                email, action, entityType, from, to, afterId);
+        AuditExportService.Query query = auditExportService.buildQuery(email, action, entityType, from, to, afterId);
+
+        String filename = "audit-logs-" + LocalDate.now() + (query.afterId() > 0 ? "-after-" + query.afterId() : "")
+                + ".ndjson" + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+                auditExportService.export(query, gzipOut);
+                gzipOut.finish();
+            } else {
+                auditExportService.export(query, out);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<AuditLogResponse> getLogById(@PathVariable Long id) {
         log.info("Fetching audit log by id: {}", id);
@@ -97,16 +167,44 @@ public class AuditLogController {
 
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getStatistics(
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until
     ) {
         if (since == null) {
             since = LocalDateTime.now().minusDays(30);  // Default: last 30 days
         }
-        log.info("Fetching audit statistics since: {}", since);
-        Map<String, Object> stats = auditLogService.getStatistics(since);
+        log.info("Fetching audit statistics since: {}, until: {}", since, until);
+        Map<String, Object> stats = auditLogService.getStatistics(since, until);
         return ResponseEntity.ok(stats);
     }
 
+    @GetMapping("/stats/views")
+    public ResponseEntity<List<Map<String, Object>>> getViewStatistics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        if (since == null) {
+            since = LocalDateTime.now().minusDays(1);  // Default: last 24 hours
+        }
+        log.info("Fetching read statistics since: {}, until: {}", since, until);
+        return ResponseEntity.ok(auditLogService.getViewStatistics(since, until, Math.min(Math.max(limit, 1), 500)));
+    }
+
+    @PostMapping("/stats/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildStatistics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        log.info("Rebuilding audit statistics from {} to {}", from, to);
+        int buckets = auditLogService.rebuildStatistics(from, to);
+        Map<String, Object> result = new HashMap<>();
+        result.put("buckets", buckets);
+        result.put("from", from);
+        result.put("to", to);
+        return ResponseEntity.ok(result);
+    }
+
     // ── Security Violations (blocked direct DB access attempts) ───────────
 
     @GetMapping("/security-violations")
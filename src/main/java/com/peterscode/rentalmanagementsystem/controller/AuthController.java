@@ -1,8 +1,10 @@
 package com.peterscode.rentalmanagementsystem.controller;
 
+import com.peterscode.rentalmanagementsystem.aspect.Audited;
 import com.peterscode.rentalmanagementsystem.dto.request.*;
 import com.peterscode.rentalmanagementsystem.dto.response.ApiResponse;
 import com.peterscode.rentalmanagementsystem.dto.response.JwtResponse;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
 import com.peterscode.rentalmanagementsystem.model.user.Role;
 import com.peterscode.rentalmanagementsystem.service.auth.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -52,16 +54,22 @@ public class AuthController {
         return ResponseEntity.ok(ApiResponse.success("Login successful", response));
     }
 
+    @PostMapping("/refresh")
+    @Operation(summary = "Exchange a refresh token for a new access and refresh token")
+    public ResponseEntity<ApiResponse<JwtResponse>> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        JwtResponse response = authService.refreshToken(request.getRefreshToken());
+        return ResponseEntity.ok(ApiResponse.success("Token refreshed", response));
+    }
+
     @PostMapping("/logout")
     @Operation(summary = "Logout user")
-    public ResponseEntity<ApiResponse<Void>> logout(HttpServletRequest request) {
+    public ResponseEntity<ApiResponse<Void>> logout(
+            @RequestBody(required = false) RefreshTokenRequest body,
+            HttpServletRequest request) {
         try {
-            // Extract token from header for logging (optional)
             String authHeader = request.getHeader("Authorization");
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                String token = authHeader.substring(7);
-                log.info("User logged out with token: {}", token.substring(0, 10) + "...");
-            }
+            String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+            authService.logout(body != null ? body.getRefreshToken() : null, accessToken);
 
             log.info("✅ User logged out successfully");
             return ResponseEntity.ok(ApiResponse.success("Logged out successfully", null));
@@ -156,6 +164,7 @@ public class AuthController {
     }
 
     @PutMapping("/change-password")
+    @Audited(action = AuditAction.PASSWORD_CHANGE)
     @Operation(summary = "Change password for authenticated user")
     public ResponseEntity<ApiResponse<Void>> changePassword(
             org.springframework.security.core.Authentication authentication,
@@ -7,16 +7,12 @@ import com.peterscode.rentalmanagementsystem.model.user.User;
 import com.peterscode.rentalmanagementsystem.repository.ContactMessageRepository;
 import com.peterscode.rentalmanagementsystem.repository.PropertyRepository;
 import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import com.peterscode.rentalmanagementsystem.service.contact.ContactEmailService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
@@ -31,10 +27,7 @@ public class ContactController {
     private final UserRepository userRepository;
     private final PropertyRepository propertyRepository;
     private final ContactMessageRepository contactMessageRepository;
-    private final JavaMailSender javaMailSender;
-
-    @Value("${spring.mail.username}")
-    private String fromEmail;
+    private final ContactEmailService contactEmailService;
 
     // ═══════════════════════════════════════
     //  PUBLIC ENDPOINTS  /api/public/*
@@ -103,7 +96,7 @@ public class ContactController {
         List<User> admins = userRepository.findByRole(Role.ADMIN);
         for (User admin : admins) {
             if (admin.getEmail() != null && !admin.getEmail().isBlank()) {
-                sendContactEmail(admin.getEmail(), message);
+                contactEmailService.sendContactEmail(admin.getEmail(), message);
             }
         }
 
@@ -111,7 +104,7 @@ public class ContactController {
         List<User> landlords = userRepository.findByRole(Role.LANDLORD);
         for (User landlord : landlords) {
             if (landlord.getEmail() != null && !landlord.getEmail().isBlank()) {
-                sendContactEmail(landlord.getEmail(), message);
+                contactEmailService.sendContactEmail(landlord.getEmail(), message);
             }
         }
 
@@ -200,40 +193,6 @@ public class ContactController {
         contactMessageRepository.deleteById(id);
         return ResponseEntity.ok(ApiResponse.success("Message deleted", null));
     }
-    @Async
-    protected void sendContactEmail(String recipientEmail, String message) {
-        try {
-            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
-            helper.setFrom(fromEmail);
-            helper.setTo(recipientEmail);
-            helper.setSubject("\uD83D\uDCE9 New Contact Message \u2014 RentalHub");
-            helper.setText(
-                "<div style='font-family:Arial,sans-serif;max-width:600px;margin:0 auto;'>" +
-                "  <div style='background:#6366f1;color:#fff;padding:20px;border-radius:12px 12px 0 0;text-align:center;'>" +
-                "    <h2 style='margin:0;'>New Contact Message</h2>" +
-                "  </div>" +
-                "  <div style='background:#f8fafc;padding:24px;border:1px solid #e2e8f0;border-radius:0 0 12px 12px;'>" +
-                "    <p style='color:#334155;font-size:15px;line-height:1.7;white-space:pre-wrap;'>" +
-                        escapeHtml(message) +
-                "    </p>" +
-                "    <hr style='border:none;border-top:1px solid #e2e8f0;margin:20px 0;'/>" +
-                "    <p style='color:#94a3b8;font-size:13px;'>Submitted via the RentalHub public contact form.</p>" +
-                "  </div>" +
-                "</div>", true);
-            javaMailSender.send(mimeMessage);
-            log.info("Contact email sent to {}", recipientEmail);
-        } catch (Exception e) {
-            log.error("Failed to send contact email to {}: {}", recipientEmail, e.getMessage());
-        }
-    }
-    private String escapeHtml(String text) {
-        return text.replace("&", "&amp;")
-                   .replace("<", "&lt;")
-                   .replace(">", "&gt;")
-                   .replace("\"", "&quot;");
-    }
-
     private String buildFullName(User user) {
         String first = user.getFirstName() != null ? user.getFirstName().trim() : "";
         String last = user.getLastName() != null ? user.getLastName().trim() : "";
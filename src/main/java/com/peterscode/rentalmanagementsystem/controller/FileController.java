@@ -1,6 +1,7 @@
 package com.peterscode.rentalmanagementsystem.controller;
 
 import com.peterscode.rentalmanagementsystem.dto.response.ApiResponse;
+import com.peterscode.rentalmanagementsystem.service.id.IdGeneratorService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -21,7 +22,6 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 @Slf4j
 @RestController
@@ -30,6 +30,8 @@ import java.util.UUID;
 @Tag(name = "File Management", description = "APIs for file upload and management")
 public class FileController {
 
+    private final IdGeneratorService idGeneratorService;
+
     @Value("${app.upload-dir:./uploads}")
     private String uploadDir;
 
@@ -58,7 +60,7 @@ public class FileController {
                 fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
             }
 
-            String uniqueFilename = UUID.randomUUID() + fileExtension;
+            String uniqueFilename = idGeneratorService.nextFileName(fileExtension);
             Path filePath = uploadPath.resolve(uniqueFilename);
 
 
@@ -3,22 +3,40 @@ package com.peterscode.rentalmanagementsystem.controller;
 import com.peterscode.rentalmanagementsystem.dto.request.MpesaStkRequest;
 import com.peterscode.rentalmanagementsystem.dto.request.PaymentRequest;
 import com.peterscode.rentalmanagementsystem.dto.response.ApiResponse;
+import com.peterscode.rentalmanagementsystem.dto.response.CursorPage;
 import com.peterscode.rentalmanagementsystem.dto.response.MpesaStkResponse;
 import com.peterscode.rentalmanagementsystem.dto.response.PaymentResponse;
 import com.peterscode.rentalmanagementsystem.dto.response.PaymentSummaryResponse;
+import com.peterscode.rentalmanagementsystem.dto.response.RevenuePoint;
+import com.peterscode.rentalmanagementsystem.exception.BadRequestException;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentMethod;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentStatus;
+import com.peterscode.rentalmanagementsystem.service.payment.MpesaCallbackIngestionService;
+import com.peterscode.rentalmanagementsystem.service.payment.PaymentExportService;
 import com.peterscode.rentalmanagementsystem.service.payment.PaymentService;
+import com.peterscode.rentalmanagementsystem.service.payment.RevenueRollupService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/payments")
@@ -28,6 +46,8 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final PaymentExportService paymentExportService;
+    private final RevenueRollupService revenueRollupService;
 
 
 
@@ -110,6 +130,55 @@ public class PaymentController {
         );
     }
 
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'LANDLORD')")
+    @Operation(summary = "Stream payments as CSV or NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            Authentication authentication,
+            @RequestParam(defaultValue = "CSV") PaymentExportService.Format format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false) PaymentMethod method,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        PaymentExportService.Query query = paymentExportService.buildQuery(
+                authentication.getName(), from, to, status, method);
+
+        String filename = "payments-" + LocalDate.now() + "." + format.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+                paymentExportService.export(query, format, gzipOut);
+                gzipOut.finish();
+            } else {
+                paymentExportService.export(query, format, out);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    @GetMapping("/landlord")
+    @PreAuthorize("hasRole('LANDLORD')")
+    @Operation(summary = "Get payments for the landlord's properties (paginated)")
+    public ResponseEntity<ApiResponse<Page<PaymentResponse>>> getLandlordPayments(
+            Authentication authentication,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        String callerEmail = authentication.getName();
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
+        Page<PaymentResponse> payments = paymentService.getLandlordPayments(callerEmail, pageable);
+        return ResponseEntity.ok(
+                ApiResponse.ok("Landlord payments fetched successfully", payments)
+        );
+    }
+
     @GetMapping("/me")
     @PreAuthorize("hasAnyRole('TENANT', 'LANDLORD', 'ADMIN')")
     @Operation(summary = "Get my payments")
@@ -170,6 +239,91 @@ public class PaymentController {
         );
     }
 
+    // ==================== Keyset-paginated Listings ====================
+
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'LANDLORD')")
+    @Operation(summary = "Get all payments (cursor-paginated)")
+    public ResponseEntity<ApiResponse<CursorPage<PaymentResponse>>> getAllPaymentsPage(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        CursorPage<PaymentResponse> payments = paymentService.getAllPayments(authentication.getName(), cursor, size);
+        return ResponseEntity.ok(
+                ApiResponse.ok("All payments fetched successfully", payments)
+        );
+    }
+
+    @GetMapping("/me/page")
+    @PreAuthorize("hasAnyRole('TENANT', 'LANDLORD', 'ADMIN')")
+    @Operation(summary = "Get my payments (cursor-paginated)")
+    public ResponseEntity<ApiResponse<CursorPage<PaymentResponse>>> getMyPaymentsPage(
+            Authentication authentication,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        CursorPage<PaymentResponse> payments = paymentService.getMyPayments(authentication.getName(), cursor, size);
+        return ResponseEntity.ok(
+                ApiResponse.ok("My payments fetched successfully", payments)
+        );
+    }
+
+    @GetMapping("/tenant/{tenantId}/page")
+    @PreAuthorize("hasAnyRole('LANDLORD', 'ADMIN')")
+    @Operation(summary = "Get payments by tenant ID (cursor-paginated)")
+    public ResponseEntity<ApiResponse<CursorPage<PaymentResponse>>> getPaymentsByTenantPage(
+            @PathVariable Long tenantId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        CursorPage<PaymentResponse> payments = paymentService.getPaymentsByTenant(tenantId, cursor, size);
+        return ResponseEntity.ok(
+                ApiResponse.ok("Tenant payments fetched successfully", payments)
+        );
+    }
+
+    @GetMapping("/status/{status}/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get payments by status (cursor-paginated)")
+    public ResponseEntity<ApiResponse<CursorPage<PaymentResponse>>> getPaymentsByStatusPage(
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        CursorPage<PaymentResponse> payments = paymentService.getPaymentsByStatus(status, cursor, size);
+        return ResponseEntity.ok(
+                ApiResponse.ok("Payments fetched by status", payments)
+        );
+    }
+
+    @GetMapping("/method/{method}/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get payments by payment method (cursor-paginated)")
+    public ResponseEntity<ApiResponse<CursorPage<PaymentResponse>>> getPaymentsByMethodPage(
+            @PathVariable String method,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        CursorPage<PaymentResponse> payments = paymentService.getPaymentsByMethod(method, cursor, size);
+        return ResponseEntity.ok(
+                ApiResponse.ok("Payments fetched by method", payments)
+        );
+    }
+
+    @GetMapping("/mpesa/pending/page")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get pending M-Pesa callbacks (cursor-paginated)")
+    public ResponseEntity<ApiResponse<CursorPage<PaymentResponse>>> getPendingMpesaCallbacksPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        CursorPage<PaymentResponse> payments = paymentService.getPendingMpesaCallbacks(cursor, size);
+        return ResponseEntity.ok(
+                ApiResponse.ok("Pending M-Pesa callbacks", payments)
+        );
+    }
+
     // ==================== Payment Updates ====================
 
     @PutMapping("/{id}")
@@ -264,9 +418,10 @@ public class PaymentController {
     @GetMapping("/summary")
     @PreAuthorize("hasAnyRole('ADMIN', 'LANDLORD')")
     @Operation(summary = "Get payment summary")
-    public ResponseEntity<ApiResponse<PaymentSummaryResponse>> getPaymentSummary() {
+    public ResponseEntity<ApiResponse<PaymentSummaryResponse>> getPaymentSummary(Authentication authentication) {
 
-        PaymentSummaryResponse summary = paymentService.getPaymentSummary();
+        String callerEmail = authentication.getName();
+        PaymentSummaryResponse summary = paymentService.getPaymentSummary(callerEmail);
         return ResponseEntity.ok(
                 ApiResponse.ok("Payment summary fetched", summary)
         );
@@ -295,6 +450,62 @@ public class PaymentController {
         );
     }
 
+    @GetMapping("/revenue/daily")
+    @PreAuthorize("hasAnyRole('ADMIN', 'LANDLORD')")
+    @Operation(summary = "Get daily revenue series (defaults to the last 30 days)")
+    public ResponseEntity<ApiResponse<List<RevenuePoint>>> getDailyRevenue(
+            Authentication authentication,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long landlordId,
+            @RequestParam(required = false) Long propertyId) {
+
+        List<RevenuePoint> series = revenueRollupService.getSeries(authentication.getName(),
+                RevenueRollupService.Granularity.DAILY, from, to, landlordId, propertyId);
+        return ResponseEntity.ok(ApiResponse.ok("Daily revenue fetched", series));
+    }
+
+    @GetMapping("/revenue/monthly")
+    @PreAuthorize("hasAnyRole('ADMIN', 'LANDLORD')")
+    @Operation(summary = "Get monthly revenue series (defaults to the last 12 months)")
+    public ResponseEntity<ApiResponse<List<RevenuePoint>>> getMonthlyRevenue(
+            Authentication authentication,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long landlordId,
+            @RequestParam(required = false) Long propertyId) {
+
+        List<RevenuePoint> series = revenueRollupService.getSeries(authentication.getName(),
+                RevenueRollupService.Granularity.MONTHLY, from, to, landlordId, propertyId);
+        return ResponseEntity.ok(ApiResponse.ok("Monthly revenue fetched", series));
+    }
+
+    @GetMapping("/revenue/yearly")
+    @PreAuthorize("hasAnyRole('ADMIN', 'LANDLORD')")
+    @Operation(summary = "Get yearly revenue series (defaults to the last 5 years)")
+    public ResponseEntity<ApiResponse<List<RevenuePoint>>> getYearlyRevenue(
+            Authentication authentication,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long landlordId,
+            @RequestParam(required = false) Long propertyId) {
+
+        List<RevenuePoint> series = revenueRollupService.getSeries(authentication.getName(),
+                RevenueRollupService.Granularity.YEARLY, from, to, landlordId, propertyId);
+        return ResponseEntity.ok(ApiResponse.ok("Yearly revenue fetched", series));
+    }
+
+    @PostMapping("/revenue/rollup/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rebuild the revenue rollup from the payments ledger")
+    public ResponseEntity<ApiResponse<Integer>> rebuildRevenueRollup(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        int buckets = revenueRollupService.rebuild(from, to);
+        return ResponseEntity.ok(ApiResponse.ok("Revenue rollup rebuilt", buckets));
+    }
+
     // ==================== Payment Status Checks ====================
 
     @GetMapping("/{id}/success")
@@ -370,6 +581,7 @@ public class PaymentController {
 class MpesaCallbackController {
 
     private final PaymentService paymentService;
+    private final MpesaCallbackIngestionService callbackIngestionService;
 
     @PostMapping("/callback")
     @Operation(summary = "M-Pesa STK Push callback endpoint")
@@ -377,8 +589,12 @@ class MpesaCallbackController {
         log.info("Received M-Pesa STK callback");
 
         try {
-            paymentService.processMpesaCallback(callbackData);
-            return ResponseEntity.ok("{\"ResultCode\":0,\"ResultDesc\":\"Callback processed successfully\"}");
+            callbackIngestionService.ingest(callbackData);
+            return ResponseEntity.ok("{\"ResultCode\":0,\"ResultDesc\":\"Callback received successfully\"}");
+        } catch (BadRequestException e) {
+            log.warn("Rejected STK callback: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body("{\"ResultCode\":1,\"ResultDesc\":\"Invalid callback payload\"}");
         } catch (Exception e) {
             log.error("Error processing STK callback: {}", e.getMessage(), e);
             return ResponseEntity.status(500)
@@ -4,6 +4,7 @@ import com.peterscode.rentalmanagementsystem.dto.request.UpdateProfileRequest;
 import com.peterscode.rentalmanagementsystem.dto.response.ApiResponse;
 import com.peterscode.rentalmanagementsystem.model.user.User;
 import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import com.peterscode.rentalmanagementsystem.security.JwtPrincipalCache;
 import com.peterscode.rentalmanagementsystem.security.SecurityUser;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -27,6 +28,7 @@ import java.util.Map;
 public class ProfileController {
 
     private final UserRepository userRepository;
+    private final JwtPrincipalCache jwtPrincipalCache;
 
     /**
      * GET /api/profile/me — returns the authenticated user's profile from DB.
@@ -61,6 +63,7 @@ public class ProfileController {
 
         user.setUpdatedAt(Instant.now());
         userRepository.save(user);
+        jwtPrincipalCache.invalidateUser(user.getId());
 
         log.info("Profile updated for user: {}", user.getEmail());
         return ResponseEntity.ok(ApiResponse.success("Profile updated successfully", toProfileMap(user)));
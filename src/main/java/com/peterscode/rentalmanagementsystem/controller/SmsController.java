@@ -16,8 +16,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -60,21 +62,31 @@ public class SmsController {
 
         List<User> tenants = userRepository.findByRoleAndEnabled(Role.TENANT, true);
 
+        // Fan out on the SMS executor; its queue bounds how many sends are in flight
+        List<CompletableFuture<Boolean>> sends = new ArrayList<>(tenants.size());
+        for (User tenant : tenants) {
+            if (tenant.getPhoneNumber() == null || tenant.getPhoneNumber().isEmpty()) {
+                log.warn("Tenant {} has no phone number", tenant.getEmail());
+                sends.add(CompletableFuture.completedFuture(false));
+                continue;
+            }
+            sends.add(smsService.sendSmsAsync(tenant.getPhoneNumber(), message)
+                    .handle((ignored, e) -> {
+                        if (e != null) {
+                            log.error("Failed to send SMS to tenant {}: {}", tenant.getEmail(), e.getMessage());
+                            return false;
+                        }
+                        return true;
+                    }));
+        }
+
         int sent = 0;
         int failed = 0;
-
-        for (User tenant : tenants) {
-            try {
-                if (tenant.getPhoneNumber() != null && !tenant.getPhoneNumber().isEmpty()) {
-                    smsService.sendSms(tenant.getPhoneNumber(), message);
-                    sent++;
-                } else {
-                    failed++;
-                    log.warn("Tenant {} has no phone number", tenant.getEmail());
-                }
-            } catch (Exception e) {
+        for (CompletableFuture<Boolean> send : sends) {
+            if (send.join()) {
+                sent++;
+            } else {
                 failed++;
-                log.error("Failed to send SMS to tenant {}: {}", tenant.getEmail(), e.getMessage());
             }
         }
 
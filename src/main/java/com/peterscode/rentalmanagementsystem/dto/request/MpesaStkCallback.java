@@ -0,0 +1,19 @@
+package com.peterscode.rentalmanagementsystem.dto.request;
+
+import java.math.BigDecimal;
+
+/**
+ * The fields we use from a Daraja STK push callback
+ * ({@code Body.stkCallback} plus its {@code CallbackMetadata} items).
+ * Metadata values are null when the callback carried none, e.g. on failure.
+ */
+public record MpesaStkCallback(
+        String merchantRequestId,
+        String checkoutRequestId,
+        String resultCode,
+        String resultDesc,
+        boolean hasMetadata,
+        String mpesaReceiptNumber,
+        BigDecimal amount,
+        String phoneNumber) {
+}
@@ -7,6 +7,9 @@ import lombok.Data;
 @Builder
 public class JwtResponse {
     private String token;
+    private String refreshToken;
+    /** Access token lifetime in seconds. */
+    private Long expiresIn;
     private String tokenType;
     private String role;
     private Long userId;
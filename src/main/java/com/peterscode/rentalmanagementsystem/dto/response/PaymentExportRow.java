@@ -0,0 +1,39 @@
+package com.peterscode.rentalmanagementsystem.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentMethod;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentStatus;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat, read-only projection of a payment used by the streaming export.
+ * Populated directly by a JPQL constructor expression so no entities are loaded.
+ */
+@Getter
+@AllArgsConstructor
+@JsonPropertyOrder({"id", "transactionCode", "createdAt", "paidAt", "amount", "method", "status",
+        "paymentType", "tenantId", "tenantEmail", "tenantFirstName", "tenantLastName",
+        "phoneNumber", "propertyTitle", "merchantRequestId"})
+public class PaymentExportRow {
+    private Long id;
+    private String transactionCode;
+    private LocalDateTime createdAt;
+    private LocalDateTime paidAt;
+    private BigDecimal amount;
+    private PaymentMethod method;
+    private PaymentStatus status;
+    private PaymentType paymentType;
+    private Long tenantId;
+    private String tenantEmail;
+    private String tenantFirstName;
+    private String tenantLastName;
+    private String phoneNumber;
+    private String propertyTitle;
+    /** Daraja MerchantRequestID; the M-Pesa receipt of a paid STK payment is in transactionCode. */
+    private String merchantRequestId;
+}
@@ -0,0 +1,22 @@
+package com.peterscode.rentalmanagementsystem.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One point of a revenue series. {@code period} is {@code yyyy-MM-dd},
+ * {@code yyyy-MM} or {@code yyyy} depending on the requested granularity.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevenuePoint {
+    private String period;
+    private BigDecimal totalAmount;
+    private long paymentCount;
+}
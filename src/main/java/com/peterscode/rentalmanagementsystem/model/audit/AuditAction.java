@@ -14,6 +14,7 @@ public enum AuditAction {
     UPDATE,
     DELETE,
     VIEW,
+    CHANGE_SET,
     
     // Payment Operations
     PAYMENT_INITIATE,
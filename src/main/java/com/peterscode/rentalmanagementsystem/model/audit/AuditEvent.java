@@ -0,0 +1,38 @@
+package com.peterscode.rentalmanagementsystem.model.audit;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable snapshot of one audit entry, captured on the request thread and
+ * written to {@code audit_logs} later by the audit writer. Holds only plain
+ * values so it can cross threads without touching the persistence context.
+ * A read left out of the sample is still {@code counted} in the hourly statistics
+ * but has no {@code stored} row.
+ */
+public record AuditEvent(
+        AuditAction action,
+        EntityType entityType,
+        Long entityId,
+        Long userId,
+        String username,
+        String details,
+        String ipAddress,
+        String userAgent,
+        String status,
+        String errorMessage,
+        LocalDateTime createdAt,
+        boolean stored) {
+
+    public AuditEvent(AuditAction action, EntityType entityType, Long entityId, Long userId, String username,
+                      String details, String ipAddress, String userAgent, String status, String errorMessage,
+                      LocalDateTime createdAt) {
+        this(action, entityType, entityId, userId, username, details, ipAddress, userAgent, status, errorMessage,
+                createdAt, true);
+    }
+
+    /** The same event, counted in the statistics without an {@code audit_logs} row. */
+    public AuditEvent countOnly() {
+        return new AuditEvent(action, entityType, entityId, userId, username, null, ipAddress, userAgent,
+                status, errorMessage, createdAt, false);
+    }
+}
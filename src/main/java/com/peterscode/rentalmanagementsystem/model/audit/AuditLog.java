@@ -9,9 +9,9 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "audit_logs", indexes = {
-        @Index(name = "idx_user_id", columnList = "user_id"),
-        @Index(name = "idx_entity", columnList = "entity_type, entity_id"),
-        @Index(name = "idx_action", columnList = "action"),
+        @Index(name = "idx_audit_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_audit_entity_created", columnList = "entity_type, entity_id, created_at"),
+        @Index(name = "idx_audit_action_created", columnList = "action, created_at"),
         @Index(name = "idx_created_at", columnList = "created_at")
 })
 @Getter
@@ -0,0 +1,54 @@
+package com.peterscode.rentalmanagementsystem.model.payment;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Raw STK callback as received from Safaricom. Rows are written before the
+ * callback is acknowledged and drained asynchronously by the ingestion workers.
+ */
+@Entity
+@Table(name = "mpesa_callbacks",
+        indexes = {
+            @Index(name = "idx_mpesa_callbacks_status", columnList = "status, received_at")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MpesaCallback {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "checkout_request_id", nullable = false, unique = true, length = 100)
+    private String checkoutRequestId;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private MpesaCallbackStatus status = MpesaCallbackStatus.RECEIVED;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @CreationTimestamp
+    @Column(name = "received_at", nullable = false, updatable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+}
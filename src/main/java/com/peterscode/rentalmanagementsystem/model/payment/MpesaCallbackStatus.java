@@ -0,0 +1,7 @@
+package com.peterscode.rentalmanagementsystem.model.payment;
+
+public enum MpesaCallbackStatus {
+    RECEIVED,
+    PROCESSED,
+    FAILED
+}
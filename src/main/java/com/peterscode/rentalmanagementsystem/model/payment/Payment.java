@@ -84,6 +84,18 @@ public class Payment {
 
     private String notes;
 
+    // Status as last loaded from / applied to the revenue rollup, so transitions
+    // into and out of SUCCESSFUL can be detected after a save
+    @Transient
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private PaymentStatus rollupStatus;
+
+    @PostLoad
+    public void postLoad() {
+        rollupStatus = status;
+    }
+
     @PrePersist
     public void prePersist() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,59 @@
+package com.peterscode.rentalmanagementsystem.model.payment;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Successful revenue for one (day, property, landlord, method) bucket. A
+ * {@code propertyId} or {@code landlordId} of {@link #UNASSIGNED} means the
+ * payments in the bucket are not linked to a property / landlord.
+ */
+@Entity
+@Table(name = "revenue_rollup",
+        uniqueConstraints = {
+            @UniqueConstraint(name = "uk_revenue_rollup_bucket",
+                    columnNames = {"bucket_date", "property_id", "landlord_id", "method"})
+        },
+        indexes = {
+            @Index(name = "idx_revenue_rollup_landlord", columnList = "landlord_id, bucket_date"),
+            @Index(name = "idx_revenue_rollup_property", columnList = "property_id, bucket_date")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevenueRollup {
+
+    public static final long UNASSIGNED = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(name = "property_id", nullable = false)
+    private Long propertyId;
+
+    @Column(name = "landlord_id", nullable = false)
+    private Long landlordId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PaymentMethod method;
+
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "payment_count", nullable = false)
+    private long paymentCount;
+
+    @Column(name = "updated_at", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+}
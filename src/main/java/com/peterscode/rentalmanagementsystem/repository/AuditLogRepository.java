@@ -6,12 +6,12 @@ import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
@@ -24,27 +24,8 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     
     Page<AuditLog> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
     
-    @Query("SELECT a FROM AuditLog a WHERE " +
-           "(:email IS NULL OR :email = '' OR a.user.email = :email) AND " +
-           "(:action IS NULL OR a.action = :action) AND " +
-           "(:entityType IS NULL OR a.entityType = :entityType) AND " +
-           "(:startDate IS NULL OR a.createdAt >= :startDate) AND " +
-           "(:endDate IS NULL OR a.createdAt <= :endDate)")
-    Page<AuditLog> findByFilters(
-            @Param("email") String email,
-            @Param("action") AuditAction action,
-            @Param("entityType") EntityType entityType,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate,
-            Pageable pageable
-    );
-    
-    @Query("SELECT COUNT(a) FROM AuditLog a WHERE a.createdAt >= :since")
-    long countSince(@Param("since") LocalDateTime since);
-    
-    @Query("SELECT a.action, COUNT(a) FROM AuditLog a " +
-           "WHERE a.createdAt >= :since GROUP BY a.action")
-    List<Object[]> countByActionSince(@Param("since") LocalDateTime since);
-    
-    void deleteByCreatedAtBefore(LocalDateTime before);
+    /** audit_logs has no foreign key to users since V34, so deleting a user must detach their rows here. */
+    @Modifying
+    @Query("UPDATE AuditLog a SET a.user = NULL WHERE a.user.id = :userId")
+    int detachUser(@Param("userId") Long userId);
 }
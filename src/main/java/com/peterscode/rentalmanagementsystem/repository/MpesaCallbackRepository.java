@@ -0,0 +1,35 @@
+package com.peterscode.rentalmanagementsystem.repository;
+
+import com.peterscode.rentalmanagementsystem.model.payment.MpesaCallback;
+import com.peterscode.rentalmanagementsystem.model.payment.MpesaCallbackStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface MpesaCallbackRepository extends JpaRepository<MpesaCallback, Long> {
+
+    boolean existsByCheckoutRequestId(String checkoutRequestId);
+
+    /** Locks the row so a callback is applied by one worker on one instance at a time. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM MpesaCallback c WHERE c.id = :id")
+    Optional<MpesaCallback> findByIdForUpdate(@Param("id") Long id);
+
+    @Query("SELECT c.id FROM MpesaCallback c WHERE c.status IN :statuses " +
+           "AND c.attempts < :maxAttempts AND c.receivedAt < :before ORDER BY c.id")
+    List<Long> findIdsToRetry(@Param("statuses") List<MpesaCallbackStatus> statuses,
+                              @Param("maxAttempts") int maxAttempts,
+                              @Param("before") LocalDateTime before,
+                              Pageable pageable);
+
+    long countByStatus(MpesaCallbackStatus status);
+}
@@ -0,0 +1,20 @@
+package com.peterscode.rentalmanagementsystem.repository;
+
+import com.peterscode.rentalmanagementsystem.dto.response.PaymentExportRow;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentMethod;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentStatus;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository fragment for the payment export, whose filters are all optional.
+ * Implemented in {@link PaymentExportQueriesImpl}.
+ */
+public interface PaymentExportQueries {
+
+    /** Next batch after {@code afterId} in id order; null filters are left out of the query. */
+    List<PaymentExportRow> findExportBatch(Long afterId, Long ownerId, PaymentStatus status, PaymentMethod method,
+                                           LocalDateTime from, LocalDateTime to, Limit limit);
+}
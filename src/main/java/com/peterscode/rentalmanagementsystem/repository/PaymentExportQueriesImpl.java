@@ -0,0 +1,72 @@
+package com.peterscode.rentalmanagementsystem.repository;
+
+import com.peterscode.rentalmanagementsystem.dto.response.PaymentExportRow;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentMethod;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the export query from only the filters that are set. Optional predicates
+ * of the form {@code (:x IS NULL OR col = :x)} keep MySQL from using a range on
+ * the filter indexes, so each batch would scan the whole keyset range instead.
+ */
+class PaymentExportQueriesImpl implements PaymentExportQueries {
+
+    static final String SELECT = "SELECT new com.peterscode.rentalmanagementsystem.dto.response.PaymentExportRow(" +
+            "p.id, p.transactionCode, p.createdAt, p.paidAt, p.amount, p.method, p.status, p.paymentType, " +
+            "t.id, t.email, t.firstName, t.lastName, p.phoneNumber, COALESCE(pp.title, lp.title), p.merchantRequestID) " +
+            "FROM Payment p JOIN p.tenant t LEFT JOIN p.property pp ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PaymentExportRow> findExportBatch(Long afterId, Long ownerId, PaymentStatus status,
+                                                  PaymentMethod method, LocalDateTime from, LocalDateTime to,
+                                                  Limit limit) {
+        StringBuilder jpql = new StringBuilder(SELECT);
+        Map<String, Object> params = new LinkedHashMap<>();
+
+        // A landlord's payments are reached through their leases, so the owner filter can drive the join
+        jpql.append(ownerId != null
+                ? "JOIN p.lease l JOIN l.property lp WHERE lp.owner.id = :ownerId AND "
+                : "LEFT JOIN p.lease l LEFT JOIN l.property lp WHERE ");
+        if (ownerId != null) {
+            params.put("ownerId", ownerId);
+        }
+        jpql.append("p.id > :afterId");
+        params.put("afterId", afterId);
+        if (status != null) {
+            jpql.append(" AND p.status = :status");
+            params.put("status", status);
+        }
+        if (method != null) {
+            jpql.append(" AND p.method = :method");
+            params.put("method", method);
+        }
+        if (from != null) {
+            jpql.append(" AND p.createdAt >= :from");
+            params.put("from", from);
+        }
+        if (to != null) {
+            jpql.append(" AND p.createdAt < :to");
+            params.put("to", to);
+        }
+        jpql.append(" ORDER BY p.id");
+
+        TypedQuery<PaymentExportRow> query = entityManager.createQuery(jpql.toString(), PaymentExportRow.class);
+        params.forEach(query::setParameter);
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+        return query.getResultList();
+    }
+}
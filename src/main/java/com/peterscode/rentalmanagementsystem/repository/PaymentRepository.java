@@ -3,10 +3,15 @@ package com.peterscode.rentalmanagementsystem.repository;
 import com.peterscode.rentalmanagementsystem.model.payment.Payment;
 import com.peterscode.rentalmanagementsystem.model.payment.PaymentMethod;
 import com.peterscode.rentalmanagementsystem.model.payment.PaymentStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -14,7 +19,43 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, Long> {
+public interface PaymentRepository extends JpaRepository<Payment, Long>, PaymentExportQueries {
+
+    // Keyset pagination: newest first on (createdAt, id), continuing strictly after the cursor row
+    String KEYSET_SELECT = "SELECT p FROM Payment p JOIN FETCH p.tenant LEFT JOIN FETCH p.property " +
+            "LEFT JOIN FETCH p.lease l LEFT JOIN FETCH l.property lp ";
+    String KEYSET_AFTER = "(p.createdAt < :cursorCreatedAt OR (p.createdAt = :cursorCreatedAt AND p.id < :cursorId))";
+    String KEYSET_ORDER = " ORDER BY p.createdAt DESC, p.id DESC";
+
+    @Query(KEYSET_SELECT + "WHERE " + KEYSET_AFTER + KEYSET_ORDER)
+    Slice<Payment> findPageAll(@Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                               @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query(KEYSET_SELECT + "WHERE lp.owner.id = :ownerId AND " + KEYSET_AFTER + KEYSET_ORDER)
+    Slice<Payment> findPageByLandlordId(@Param("ownerId") Long ownerId,
+                                        @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                        @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query(KEYSET_SELECT + "WHERE p.tenant.id = :tenantId AND " + KEYSET_AFTER + KEYSET_ORDER)
+    Slice<Payment> findPageByTenantId(@Param("tenantId") Long tenantId,
+                                      @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                      @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query(KEYSET_SELECT + "WHERE p.status = :status AND " + KEYSET_AFTER + KEYSET_ORDER)
+    Slice<Payment> findPageByStatus(@Param("status") PaymentStatus status,
+                                    @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                    @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query(KEYSET_SELECT + "WHERE p.method = :method AND " + KEYSET_AFTER + KEYSET_ORDER)
+    Slice<Payment> findPageByMethod(@Param("method") PaymentMethod method,
+                                    @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                    @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query(KEYSET_SELECT + "WHERE p.method = :method AND p.callbackReceived = false AND " + KEYSET_AFTER + KEYSET_ORDER)
+    Slice<Payment> findPageAwaitingCallback(@Param("method") PaymentMethod method,
+                                            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                            @Param("cursorId") Long cursorId, Pageable pageable);
+
 
     Optional<Payment> findByTransactionCode(String transactionCode);
 
@@ -31,6 +72,30 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
     List<Payment> findByStatusAndMethodAndCallbackReceivedFalse(PaymentStatus status, PaymentMethod method);
 
+    @Query("SELECT p.transactionCode FROM Payment p WHERE p.status = :status AND p.method = :method " +
+           "AND p.callbackReceived = false AND p.createdAt BETWEEN :from AND :to ORDER BY p.createdAt")
+    List<String> findAwaitingCallbackCodes(@Param("status") PaymentStatus status,
+                                           @Param("method") PaymentMethod method,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    @Query("SELECT MIN(p.createdAt) FROM Payment p WHERE p.status = :status AND p.method = :method " +
+           "AND p.callbackReceived = false")
+    LocalDateTime findOldestAwaitingCallback(@Param("status") PaymentStatus status,
+                                             @Param("method") PaymentMethod method);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :failed, p.notes = :notes, p.callbackReceived = true, " +
+           "p.updatedAt = :now WHERE p.status = :status AND p.method = :method " +
+           "AND p.callbackReceived = false AND p.createdAt < :cutoff")
+    int failStaleAwaitingCallback(@Param("status") PaymentStatus status,
+                                  @Param("method") PaymentMethod method,
+                                  @Param("cutoff") LocalDateTime cutoff,
+                                  @Param("failed") PaymentStatus failed,
+                                  @Param("notes") String notes,
+                                  @Param("now") LocalDateTime now);
+
     List<Payment> findByCallbackReceivedFalse();
 
     @Query("SELECT p FROM Payment p WHERE p.tenant.id = :tenantId AND p.status = :status")
@@ -112,11 +177,43 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     @Query("SELECT p FROM Payment p WHERE p.transactionCode LIKE %:partialCode%")
     List<Payment> findByTransactionCodeContaining(@Param("partialCode") String partialCode);
 
-    @Query("SELECT EXTRACT(MONTH FROM p.paidAt) as month, SUM(p.amount) as total " +
+    // -> [year, month, sum(amount)]; dashboards should prefer RevenueRollupRepository
+    @Query("SELECT EXTRACT(YEAR FROM p.paidAt) as year, EXTRACT(MONTH FROM p.paidAt) as month, " +
+            "SUM(p.amount) as total " +
             "FROM Payment p WHERE p.status = 'SUCCESSFUL' AND p.paidAt >= :startDate " +
-            "GROUP BY EXTRACT(MONTH FROM p.paidAt) ORDER BY month")
+            "GROUP BY EXTRACT(YEAR FROM p.paidAt), EXTRACT(MONTH FROM p.paidAt) ORDER BY year, month")
     List<Object[]> getMonthlyRevenue(@Param("startDate") LocalDateTime startDate);
 
     @Query("SELECT COUNT(p) FROM Payment p WHERE p.callbackReceived = false")
     Long countPendingCallbacks();
+
+    // Landlord-scoped listing: ownership is resolved through the lease's property and
+    // tenant/lease/property are fetch-joined so PaymentResponse mapping stays in one query
+    @Query("SELECT p FROM Payment p " +
+            "JOIN FETCH p.tenant " +
+            "JOIN FETCH p.lease l " +
+            "JOIN FETCH l.property lp " +
+            "LEFT JOIN FETCH p.property " +
+            "WHERE lp.owner.id = :ownerId " +
+            "ORDER BY p.createdAt DESC")
+    List<Payment> findAllByLandlordId(@Param("ownerId") Long ownerId);
+
+    // Summary aggregates: one row per (status, method) -> [status, method, count, sum(amount)]
+    @Query("SELECT p.status, p.method, COUNT(p), SUM(p.amount) FROM Payment p GROUP BY p.status, p.method")
+    List<Object[]> summarizeByStatusAndMethod();
+
+    @Query("SELECT p.status, p.method, COUNT(p), SUM(p.amount) FROM Payment p " +
+            "JOIN p.lease l JOIN l.property lp WHERE lp.owner.id = :ownerId " +
+            "GROUP BY p.status, p.method")
+    List<Object[]> summarizeByStatusAndMethodForLandlord(@Param("ownerId") Long ownerId);
+
+    @Query(value = "SELECT p FROM Payment p " +
+            "JOIN FETCH p.tenant " +
+            "JOIN FETCH p.lease l " +
+            "JOIN FETCH l.property lp " +
+            "LEFT JOIN FETCH p.property " +
+            "WHERE lp.owner.id = :ownerId",
+            countQuery = "SELECT COUNT(p) FROM Payment p JOIN p.lease l JOIN l.property lp " +
+                    "WHERE lp.owner.id = :ownerId")
+    Page<Payment> findByLandlordId(@Param("ownerId") Long ownerId, Pageable pageable);
 }
\ No newline at end of file
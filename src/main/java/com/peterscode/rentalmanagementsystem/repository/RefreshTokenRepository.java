@@ -0,0 +1,45 @@
+package com.peterscode.rentalmanagementsystem.repository;
+
+import com.peterscode.rentalmanagementsystem.model.logs.RefreshToken;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /** Locks the row so two concurrent refreshes with the same token cannot both rotate it. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM RefreshToken t WHERE t.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHashForUpdate(@Param("tokenHash") String tokenHash);
+
+    List<RefreshToken> findByFamilyIdAndRevokedAtIsNull(String familyId);
+
+    @Query("SELECT t FROM RefreshToken t WHERE t.user.id = :userId AND t.revokedAt IS NULL")
+    List<RefreshToken> findActiveByUserId(@Param("userId") Long userId);
+
+    /** Recently issued rows of a family, whose access tokens may still be live. */
+    @Query("SELECT t.accessJti FROM RefreshToken t WHERE t.familyId = :familyId " +
+            "AND t.accessJti IS NOT NULL AND t.createdAt > :issuedAfter")
+    List<String> findAccessJtisByFamilyIssuedAfter(@Param("familyId") String familyId,
+                                                   @Param("issuedAfter") LocalDateTime issuedAfter);
+
+    @Query("SELECT t.accessJti FROM RefreshToken t WHERE t.user.id = :userId " +
+            "AND t.accessJti IS NOT NULL AND t.createdAt > :issuedAfter")
+    List<String> findAccessJtisByUserIssuedAfter(@Param("userId") Long userId,
+                                                 @Param("issuedAfter") LocalDateTime issuedAfter);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :cutoff")
+    int deleteExpiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,88 @@
+package com.peterscode.rentalmanagementsystem.repository;
+
+import com.peterscode.rentalmanagementsystem.model.payment.RevenueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, Long> {
+
+    String SCOPE = "r.bucketDate BETWEEN :from AND :to " +
+            "AND (:landlordId IS NULL OR r.landlordId = :landlordId) " +
+            "AND (:propertyId IS NULL OR r.propertyId = :propertyId) ";
+
+    // Atomic increment of one bucket; a negative amount/count removes a payment again
+    @Modifying
+    @Query(value = "INSERT INTO revenue_rollup " +
+            "(bucket_date, property_id, landlord_id, method, total_amount, payment_count) " +
+            "VALUES (:day, :propertyId, :landlordId, :method, :amount, :count) " +
+            "ON DUPLICATE KEY UPDATE total_amount = total_amount + :amount, " +
+            "payment_count = payment_count + :count",
+            nativeQuery = true)
+    int addToBucket(@Param("day") LocalDate day,
+                    @Param("propertyId") long propertyId,
+                    @Param("landlordId") long landlordId,
+                    @Param("method") String method,
+                    @Param("amount") BigDecimal amount,
+                    @Param("count") long count);
+
+    // Series rows -> [day, sum(amount), sum(count)]
+    @Query("SELECT r.bucketDate, SUM(r.totalAmount), SUM(r.paymentCount) FROM RevenueRollup r " +
+            "WHERE " + SCOPE + "GROUP BY r.bucketDate ORDER BY r.bucketDate")
+    List<Object[]> sumByDay(@Param("from") LocalDate from,
+                            @Param("to") LocalDate to,
+                            @Param("landlordId") Long landlordId,
+                            @Param("propertyId") Long propertyId);
+
+    // -> [year, month, sum(amount), sum(count)]
+    @Query("SELECT YEAR(r.bucketDate), MONTH(r.bucketDate), SUM(r.totalAmount), SUM(r.paymentCount) " +
+            "FROM RevenueRollup r WHERE " + SCOPE +
+            "GROUP BY YEAR(r.bucketDate), MONTH(r.bucketDate) " +
+            "ORDER BY YEAR(r.bucketDate), MONTH(r.bucketDate)")
+    List<Object[]> sumByMonth(@Param("from") LocalDate from,
+                              @Param("to") LocalDate to,
+                              @Param("landlordId") Long landlordId,
+                              @Param("propertyId") Long propertyId);
+
+    // -> [year, sum(amount), sum(count)]
+    @Query("SELECT YEAR(r.bucketDate), SUM(r.totalAmount), SUM(r.paymentCount) " +
+            "FROM RevenueRollup r WHERE " + SCOPE +
+            "GROUP BY YEAR(r.bucketDate) ORDER BY YEAR(r.bucketDate)")
+    List<Object[]> sumByYear(@Param("from") LocalDate from,
+                             @Param("to") LocalDate to,
+                             @Param("landlordId") Long landlordId,
+                             @Param("propertyId") Long propertyId);
+
+    @Modifying
+    @Query("DELETE FROM RevenueRollup r WHERE r.bucketDate BETWEEN :from AND :to")
+    int deleteByBucketDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Recomputes buckets straight from the ledger. Bucketing must match
+    // RevenueRollupService#bucketOf: paid date (falling back to created date),
+    // property from the payment or its lease, landlord from the lease's property.
+    @Modifying
+    @Query(value = "INSERT INTO revenue_rollup " +
+            "(bucket_date, property_id, landlord_id, method, total_amount, payment_count) " +
+            "SELECT DATE(COALESCE(p.paid_at, p.created_at)), " +
+            "COALESCE(p.property_id, l.property_id, 0), " +
+            "COALESCE(lp.owner_id, pp.owner_id, 0), " +
+            "p.method, SUM(p.amount), COUNT(*) " +
+            "FROM payments p " +
+            "LEFT JOIN leases l ON l.id = p.lease_id " +
+            "LEFT JOIN properties lp ON lp.id = l.property_id " +
+            "LEFT JOIN properties pp ON pp.id = p.property_id " +
+            "WHERE p.status = 'SUCCESSFUL' " +
+            "AND ((p.paid_at >= :from AND p.paid_at < :to) " +
+            "OR (p.paid_at IS NULL AND p.created_at >= :from AND p.created_at < :to)) " +
+            "GROUP BY 1, 2, 3, 4",
+            nativeQuery = true)
+    int insertFromPayments(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
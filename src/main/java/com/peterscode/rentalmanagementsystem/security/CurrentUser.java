@@ -0,0 +1,87 @@
+package com.peterscode.rentalmanagementsystem.security;
+
+import com.peterscode.rentalmanagementsystem.model.user.User;
+import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Resolves users for the current request without repeating the same lookup.
+ * The authenticated user comes straight from the {@link SecurityUser} principal
+ * that {@code JwtAuthenticationFilter} already loaded, so it costs no query at all.
+ * Any other email is looked up once and cached in request scope. Outside a web
+ * request (scheduled jobs, async workers) lookups go to the repository as before.
+ *
+ * <p>The principal's {@code User} was loaded outside the service transaction and
+ * may be shared with other requests through {@link JwtPrincipalCache}, so treat it
+ * as detached and read-only: fine for ids, roles and associations, but do not rely
+ * on dirty checking or lazy collections.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUser {
+
+    private static final String CACHE_ATTRIBUTE = CurrentUser.class.getName() + ".cache";
+
+    private final UserRepository userRepository;
+
+    /** The authenticated user of the current thread, if any. Never hits the database. */
+    public Optional<User> get() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof SecurityUser securityUser) {
+            return Optional.of(securityUser.user());
+        }
+        return Optional.empty();
+    }
+
+    /** Drop-in for {@link UserRepository#findByEmail(String)}. */
+    public Optional<User> findByEmail(String email) {
+        return resolve(email, userRepository::findByEmail);
+    }
+
+    /** Drop-in for {@link UserRepository#findByEmailIgnoreCase(String)}. */
+    public Optional<User> findByEmailIgnoreCase(String email) {
+        return resolve(email, userRepository::findByEmailIgnoreCase);
+    }
+
+    private Optional<User> resolve(String email, Function<String, Optional<User>> lookup) {
+        if (email == null) {
+            return Optional.empty();
+        }
+
+        Optional<User> principal = get();
+        if (principal.isPresent() && email.equalsIgnoreCase(principal.get().getEmail())) {
+            return principal;
+        }
+
+        Map<String, Optional<User>> cache = requestCache();
+        if (cache == null) {
+            return lookup.apply(email);
+        }
+        return cache.computeIfAbsent(email.toLowerCase(Locale.ROOT), key -> lookup.apply(email));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Optional<User>> requestCache() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object cache = attributes.getAttribute(CACHE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cache == null) {
+            cache = new HashMap<String, Optional<User>>();
+            attributes.setAttribute(CACHE_ATTRIBUTE, cache, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<String, Optional<User>>) cache;
+    }
+}
@@ -0,0 +1,193 @@
+package com.peterscode.rentalmanagementsystem.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maps a bearer token's SHA-256 digest to the {@link SecurityUser} it authenticated,
+ * so a repeat request costs a hash lookup instead of a signature check and a user
+ * query. An entry lives until the token expires or {@code jwt.principal-cache.max-age-seconds}
+ * passes, whichever is first; the cache holds at most {@code max-entries} tokens.
+ * Services that change a user's account call {@link #invalidateUser(Long)}, which
+ * evicts here at once and records the change in {@code principal_invalidations}
+ * (V42); other instances pick it up within {@code jwt.revocation.sync-interval-ms}
+ * and may serve the old principal until then. Every lookup, cached or not, is
+ * checked against the {@link TokenRevocationList}.
+ *
+ * <p>The cached {@code User} is shared by every request carrying the same token:
+ * treat it as detached and read-only.
+ */
+@Component
+@Slf4j
+public class JwtPrincipalCache {
+
+    private final JwtService jwtService;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final TokenRevocationList revocationList;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxEntries;
+    private final long maxAgeSeconds;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    /** Bumped on every invalidation so a load that raced one is not cached. */
+    private final AtomicLong generation = new AtomicLong();
+    /** Nothing is cached before startup, so older invalidations need not be read. */
+    private final SyncCursor cursor = new SyncCursor(LocalDateTime.now());
+    private final Counter hits;
+    private final Counter misses;
+
+    record Entry(SecurityUser principal, String jti, Instant expiresAt) {
+    }
+
+    public JwtPrincipalCache(JwtService jwtService,
+                             UserDetailsServiceImpl userDetailsService,
+                             TokenRevocationList revocationList,
+                             JdbcTemplate jdbcTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${jwt.principal-cache.max-entries:10000}") int maxEntries,
+                             @Value("${jwt.principal-cache.max-age-seconds:300}") long maxAgeSeconds) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.revocationList = revocationList;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxEntries = maxEntries;
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.hits = meterRegistry.counter("auth.principal.cache", "result", "hit");
+        this.misses = meterRegistry.counter("auth.principal.cache", "result", "miss");
+        Gauge.builder("auth.principal.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * The principal for a bearer token, or empty if the token is not valid or was revoked.
+     *
+     * @throws UsernameNotFoundException if the token is valid but its user no longer exists
+     */
+    public Optional<SecurityUser> resolve(String token) {
+        Instant now = Instant.now();
+        String digest = TokenDigest.sha256Hex(token);
+
+        Entry cached = entries.get(digest);
+        if (cached != null) {
+            if (revocationList.isRevoked(cached.jti())) {
+                entries.remove(digest, cached);
+                return Optional.empty();
+            }
+            if (now.isBefore(cached.expiresAt())) {
+                hits.increment();
+                return Optional.of(cached.principal());
+            }
+            entries.remove(digest, cached);
+        }
+        misses.increment();
+
+        long loadedAt = generation.get();
+        Optional<Claims> claims = jwtService.parse(token);
+        if (claims.isEmpty() || claims.get().getSubject() == null || revocationList.isRevoked(claims.get().getId())) {
+            return Optional.empty();
+        }
+        SecurityUser principal = userDetailsService.loadUserByUsername(
+                claims.get().getSubject().trim().toLowerCase(Locale.ROOT));
+
+        Instant expiresAt = now.plusSeconds(maxAgeSeconds);
+        if (claims.get().getExpiration() != null && claims.get().getExpiration().toInstant().isBefore(expiresAt)) {
+            expiresAt = claims.get().getExpiration().toInstant();
+        }
+        Entry entry = new Entry(principal, claims.get().getId(), expiresAt);
+        entries.put(digest, entry);
+        if (generation.get() != loadedAt) {
+            // The user may have changed while we were loading it
+            entries.remove(digest, entry);
+        } else if (entries.size() > maxEntries) {
+            evict(now);
+        }
+        return Optional.of(principal);
+    }
+
+    /**
+     * Forgets every token of the given user, now and again once the surrounding
+     * transaction completes, so a request that reloads the user before the commit
+     * cannot put the old state back. The row for other instances is written in that
+     * same transaction, so they only see it once the change is visible.
+     */
+    public void invalidateUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        evictUser(userId);
+        jdbcTemplate.update("INSERT INTO principal_invalidations (user_id, invalidated_at) VALUES (?, ?)",
+                userId, Timestamp.valueOf(LocalDateTime.now()));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictUser(userId);
+                }
+            });
+        }
+    }
+
+    /** Evicts users invalidated on other instances since the last sync. */
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:5000}")
+    public void syncInvalidations() {
+        cursor.poll(since -> {
+            List<Long> userIds = jdbcTemplate.queryForList(
+                    "SELECT DISTINCT user_id FROM principal_invalidations WHERE invalidated_at >= ?", Long.class,
+                    Timestamp.valueOf(since));
+            userIds.forEach(this::evictUser);
+        });
+    }
+
+    /** Invalidations are only read within the sync overlap; an hour is ample for a lagging instance. */
+    @Scheduled(cron = "${jwt.revocation.purge-cron:0 15 * * * *}")
+    public void purgeInvalidations() {
+        jdbcTemplate.update("DELETE FROM principal_invalidations WHERE invalidated_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minusHours(1)));
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    private void evictUser(Long userId) {
+        generation.incrementAndGet();
+        entries.values().removeIf(entry -> Objects.equals(entry.principal().user().getId(), userId));
+    }
+
+    /** Drops expired entries, then the ones closest to expiry, down to 90% of the limit. */
+    private synchronized void evict(Instant now) {
+        entries.values().removeIf(entry -> !now.isBefore(entry.expiresAt()));
+        int target = maxEntries - maxEntries / 10;
+        if (entries.size() <= target) {
+            return;
+        }
+        entries.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<String, Entry> e) -> e.getValue().expiresAt()))
+                .limit(entries.size() - target)
+                .toList()
+                .forEach(e -> entries.remove(e.getKey(), e.getValue()));
+        log.debug("Principal cache trimmed to {} entries", entries.size());
+    }
+}
@@ -2,13 +2,16 @@ package com.peterscode.rentalmanagementsystem.security;
 
 import com.peterscode.rentalmanagementsystem.model.user.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -28,11 +31,21 @@ public class JwtService {
         this.expirationMs = expirationMs;
     }
 
+    /** A signed access token together with its id, for storing alongside a refresh token or revoking it. */
+    public record AccessToken(String token, String jti, Instant expiresAt) {
+    }
+
     public String generateToken(User user) {
+        return issueAccessToken(user).token();
+    }
+
+    public AccessToken issueAccessToken(User user) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expirationMs);
+        String jti = UUID.randomUUID().toString();
 
-        return Jwts.builder()
+        String token = Jwts.builder()
+                .id(jti)
                 .subject(user.getEmail())
                 .claim("role", user.getRole().name()) // This will work once you have Role enum
                 .claim("userId", user.getId().toString()) // Convert UUID to string
@@ -43,17 +56,27 @@ public class JwtService {
                 .expiration(expiry)
                 .signWith(key)
                 .compact();
+        return new AccessToken(token, jti, expiry.toInstant());
+    }
+
+    public long getExpirationMs() {
+        return expirationMs;
     }
 
     public boolean validate(String token) {
+        return parse(token).isPresent();
+    }
+
+    /**
+     * Verifies the signature and expiry once and returns every claim, or empty if
+     * the token is not valid. Prefer this over calling several getters in a row,
+     * each of which parses the token again.
+     */
+    public Optional<Claims> parse(String token) {
         try {
-            Jwts.parser()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (Exception ex) {
-            return false;
+            return Optional.of(extractAllClaims(token));
+        } catch (JwtException | IllegalArgumentException ex) {
+            return Optional.empty();
         }
     }
 
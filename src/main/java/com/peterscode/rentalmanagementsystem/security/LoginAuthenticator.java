@@ -0,0 +1,86 @@
+package com.peterscode.rentalmanagementsystem.security;
+
+import com.peterscode.rentalmanagementsystem.config.LoginThrottleConfig;
+import com.peterscode.rentalmanagementsystem.exception.AuthenticationFailedException;
+import com.peterscode.rentalmanagementsystem.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the password check of a login on the {@code passwordHashExecutor}. BCrypt
+ * is CPU bound, so that pool has one thread per core and a short queue: a burst of
+ * logins waits there (or is turned away with 429) instead of occupying every core
+ * and starving the rest of the API. The request thread only waits.
+ */
+@Component
+@Slf4j
+public class LoginAuthenticator {
+
+    private static final String BUSY_MESSAGE = "Login service is busy. Please try again shortly.";
+
+    private final AuthenticationManager authenticationManager;
+    private final Executor executor;
+    private final LoginThrottleConfig config;
+    private final Timer queueWait;
+    private final Timer verification;
+
+    public LoginAuthenticator(AuthenticationManager authenticationManager,
+                              @Qualifier("passwordHashExecutor") Executor executor,
+                              LoginThrottleConfig config,
+                              MeterRegistry meterRegistry) {
+        this.authenticationManager = authenticationManager;
+        this.executor = executor;
+        this.config = config;
+        this.queueWait = meterRegistry.timer("auth.login.hash.queue.wait");
+        this.verification = meterRegistry.timer("auth.login.hash");
+    }
+
+    /**
+     * Authenticates on the hashing pool, rethrowing whatever the
+     * {@link AuthenticationManager} threw.
+     *
+     * @throws TooManyRequestsException if the pool is saturated or no thread frees up in time
+     */
+    public Authentication authenticate(Authentication request) {
+        long submittedAt = System.nanoTime();
+        CompletableFuture<Authentication> result;
+        try {
+            result = CompletableFuture.supplyAsync(() -> {
+                queueWait.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return verification.record(() -> authenticationManager.authenticate(request));
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Password hashing pool saturated, rejecting login");
+            throw new TooManyRequestsException(BUSY_MESSAGE, 1);
+        }
+
+        try {
+            return result.get(config.getHashTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // A task still in the queue sees the cancellation and skips the hash
+            result.cancel(false);
+            log.warn("Login waited over {} ms for a hashing thread", config.getHashTimeoutMs());
+            throw new TooManyRequestsException(BUSY_MESSAGE, 1);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AuthenticationFailedException("Login was interrupted");
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.peterscode.rentalmanagementsystem.security;
+
+import com.peterscode.rentalmanagementsystem.config.LoginThrottleConfig;
+import com.peterscode.rentalmanagementsystem.exception.TooManyRequestsException;
+import com.peterscode.rentalmanagementsystem.util.TokenBucketLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for logins: each attempt takes a token from its client IP's
+ * bucket and from its email's bucket, and is turned away with 429 if either is
+ * empty, before the password is looked at. Buckets live in memory, so
+ * the limits apply per instance.
+ */
+@Component
+@Slf4j
+public class LoginThrottle {
+
+    private static final String MESSAGE = "Too many login attempts. Please try again later.";
+
+    private final LoginThrottleConfig config;
+    private final TokenBucketLimiter byIp;
+    private final TokenBucketLimiter byEmail;
+    private final Counter ipThrottled;
+    private final Counter emailThrottled;
+
+    public LoginThrottle(LoginThrottleConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.byIp = newLimiter(config.getIp(), config.getMaxKeys());
+        this.byEmail = newLimiter(config.getEmail(), config.getMaxKeys());
+        this.ipThrottled = meterRegistry.counter("auth.login.throttled", "scope", "ip");
+        this.emailThrottled = meterRegistry.counter("auth.login.throttled", "scope", "email");
+        Gauge.builder("auth.login.throttle.keys", byIp, TokenBucketLimiter::size)
+                .tag("scope", "ip").register(meterRegistry);
+        Gauge.builder("auth.login.throttle.keys", byEmail, TokenBucketLimiter::size)
+                .tag("scope", "email").register(meterRegistry);
+    }
+
+    /**
+     * Charges one attempt to {@code ip} and {@code email}; a null value skips that bucket.
+     * Both buckets are checked before either is charged, so attempts turned away for
+     * a locked email do not drain the allowance of everyone behind the same IP.
+     *
+     * @throws TooManyRequestsException if either bucket is empty
+     */
+    public void check(String ip, String email) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        if (ip != null) {
+            throttleIfEmpty(byIp.waitNanos(ip), ipThrottled, "IP ", ip);
+        }
+        if (email != null) {
+            throttleIfEmpty(byEmail.waitNanos(email), emailThrottled, "", email);
+        }
+        // Another attempt may take the last token between the check and the charge
+        if (ip != null) {
+            throttleIfEmpty(byIp.tryAcquire(ip), ipThrottled, "IP ", ip);
+        }
+        if (email != null) {
+            throttleIfEmpty(byEmail.tryAcquire(email), emailThrottled, "", email);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.login-throttle.evict-interval-ms:60000}")
+    public void evictIdle() {
+        byIp.evictIdle();
+        byEmail.evictIdle();
+    }
+
+    private static void throttleIfEmpty(long waitNanos, Counter throttled, String label, String key) {
+        if (waitNanos > 0) {
+            throttled.increment();
+            log.warn("Login throttled for {}{}", label, key);
+            throw new TooManyRequestsException(MESSAGE, toSeconds(waitNanos));
+        }
+    }
+
+    private static TokenBucketLimiter newLimiter(LoginThrottleConfig.Bucket bucket, int maxKeys) {
+        return new TokenBucketLimiter(bucket.getCapacity(), bucket.getRefillPerMinute() / 60.0, maxKeys);
+    }
+
+    private static long toSeconds(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,32 @@
+package com.peterscode.rentalmanagementsystem.security;
+
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * How far an instance has polled a table of changes written by other instances.
+ * Each poll re-reads {@link #OVERLAP_SECONDS} behind the previous one: a row can
+ * commit after a later poll started while carrying an earlier timestamp, and
+ * applying a change twice is harmless, whereas missing one is not.
+ */
+final class SyncCursor {
+
+    static final long OVERLAP_SECONDS = 5;
+
+    private volatile LocalDateTime syncedUpTo;
+
+    SyncCursor(LocalDateTime syncedUpTo) {
+        this.syncedUpTo = syncedUpTo;
+    }
+
+    /** Hands {@code read} the lower bound for this poll, then moves the cursor to when the poll started. */
+    void poll(Consumer<LocalDateTime> read) {
+        LocalDateTime now = LocalDateTime.now();
+        read.accept(syncedUpTo.minusSeconds(OVERLAP_SECONDS));
+        syncedUpTo = now;
+    }
+
+    void reset(LocalDateTime syncedUpTo) {
+        this.syncedUpTo = syncedUpTo;
+    }
+}
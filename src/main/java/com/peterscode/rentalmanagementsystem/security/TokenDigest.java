@@ -0,0 +1,23 @@
+package com.peterscode.rentalmanagementsystem.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/** SHA-256 of bearer and refresh tokens, so raw tokens are never kept in memory maps or stored. */
+public final class TokenDigest {
+
+    private TokenDigest() {
+    }
+
+    /** Lower-case hex, 64 characters. */
+    public static String sha256Hex(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.peterscode.rentalmanagementsystem.security;
+
+import com.peterscode.rentalmanagementsystem.model.logs.RevokedToken;
+import com.peterscode.rentalmanagementsystem.repository.RevokedTokenRepository;
+import com.peterscode.rentalmanagementsystem.util.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of {@code revoked_tokens} (V38), checked on every authenticated
+ * request without touching the database. A Bloom filter answers "certainly not
+ * revoked" for almost every token in a few hash probes; only a filter hit goes on
+ * to the exact set. The list is loaded at startup, updated when this instance's
+ * revocations commit, and polled for rows written by other instances every
+ * {@code jwt.revocation.sync-interval-ms}.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+
+    /** jti -> when the access token expires; entries past that are dropped on purge. */
+    private final Map<String, LocalDateTime> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    /** Before {@link #load()} runs, a sync reads every row; MIN would overflow when the overlap is subtracted. */
+    private final SyncCursor cursor = new SyncCursor(LocalDateTime.of(1970, 1, 1, 0, 0));
+
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${jwt.revocation.expected-revocations:10000}") int expectedRevocations,
+                               @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+        Gauge.builder("auth.revoked.tokens", revoked, Map::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedToken> rows = revokedTokenRepository.findByExpiresAtAfter(now);
+        synchronized (this) {
+            rows.forEach(row -> revoked.put(row.getJti(), row.getExpiresAt()));
+            rebuildFilter();
+            cursor.reset(now);
+        }
+        log.info("Loaded {} revoked access tokens", rows.size());
+    }
+
+    /** O(1) and lock-free; tokens without a jti (issued before V38) are never revoked here. */
+    public boolean isRevoked(String jti) {
+        return jti != null && filter.mightContain(jti) && revoked.containsKey(jti);
+    }
+
+    /**
+     * Revokes an access token on every instance: here once the row commits (at once
+     * outside a transaction), elsewhere within one sync interval. A rolled-back
+     * revocation leaves memory untouched, so this instance never disagrees with the table.
+     */
+    public void revoke(String jti, Long userId, LocalDateTime expiresAt) {
+        if (jti == null || !expiresAt.isAfter(LocalDateTime.now())) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(jti)
+                .userId(userId)
+                .expiresAt(expiresAt)
+                .revokedAt(LocalDateTime.now())
+                .build());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(jti, expiresAt);
+                }
+            });
+        } else {
+            add(jti, expiresAt);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:5000}")
+    public void sync() {
+        cursor.poll(since -> revokedTokenRepository.findByRevokedAtGreaterThanEqual(since)
+                .forEach(row -> add(row.getJti(), row.getExpiresAt())));
+    }
+
+    /** Drops expired revocations from the table and memory, and rebuilds the filter without them. */
+    @Scheduled(cron = "${jwt.revocation.purge-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int removed = revokedTokenRepository.deleteExpired(now);
+        synchronized (this) {
+            revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+            rebuildFilter();
+        }
+        if (removed > 0) {
+            log.info("Purged {} expired access-token revocations", removed);
+        }
+    }
+
+    private synchronized void add(String jti, LocalDateTime expiresAt) {
+        // Exact set first: a reader that sees the filter bit must also find the key
+        if (revoked.put(jti, expiresAt) != null) {
+            return;
+        }
+        if (revoked.size() > filter.expectedInsertions()) {
+            rebuildFilter();
+        } else {
+            filter.put(jti);
+        }
+    }
+
+    /** Sized for twice the current revocations (at least the configured minimum) and swapped in atomically. */
+    private void rebuildFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revoked.size() * 2), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+}
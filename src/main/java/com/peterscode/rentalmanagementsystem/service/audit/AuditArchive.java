@@ -0,0 +1,216 @@
+package com.peterscode.rentalmanagementsystem.service.audit;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.peterscode.rentalmanagementsystem.config.AuditConfig;
+import com.peterscode.rentalmanagementsystem.dto.response.AuditLogResponse;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
+import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only archive of dropped {@code audit_logs} partitions on local disk. Each
+ * partition becomes one immutable gzip-compressed NDJSON segment, rows newest first,
+ * and gets one line in {@code segments.idx} recording its time range and row count.
+ * Searches use the index to open only the segments that overlap the requested range.
+ */
+@Component
+@Slf4j
+public class AuditArchive {
+
+    static final String INDEX_FILE = "segments.idx";
+    private static final String SEGMENT_SUFFIX = ".ndjson.gz";
+
+    private final Path directory;
+    private final ObjectWriter rowWriter;
+    private final ObjectReader rowReader;
+    private final ObjectWriter segmentWriter;
+    private final ObjectReader segmentReader;
+
+    @Autowired
+    public AuditArchive(AuditConfig auditConfig, ObjectMapper objectMapper) {
+        this(Paths.get(auditConfig.getRetention().getArchiveDir()), objectMapper);
+    }
+
+    public AuditArchive(Path directory, ObjectMapper objectMapper) {
+        this.directory = directory;
+        ObjectMapper mapper = objectMapper.copy().disable(SerializationFeature.INDENT_OUTPUT);
+        this.rowWriter = mapper.writerFor(ArchivedRow.class);
+        this.rowReader = mapper.readerFor(ArchivedRow.class);
+        this.segmentWriter = mapper.writerFor(Segment.class);
+        this.segmentReader = mapper.readerFor(Segment.class);
+    }
+
+    /** One archived audit row. Carries the user's email so archived rows can still be filtered by it. */
+    public record ArchivedRow(Long id, Long userId, String userEmail, String username, AuditAction action,
+                              EntityType entityType, Long entityId, String details, String ipAddress,
+                              String userAgent, String status, String errorMessage, LocalDateTime createdAt) {
+
+        AuditLogResponse toResponse() {
+            return AuditLogResponse.builder()
+                    .id(id)
+                    .userId(userId)
+                    .username(username)
+                    .action(action)
+                    .entityType(entityType)
+                    .entityId(entityId)
+                    .details(details)
+                    .ipAddress(ipAddress)
+                    .userAgent(userAgent)
+                    .status(status)
+                    .errorMessage(errorMessage)
+                    .createdAt(createdAt)
+                    .build();
+        }
+    }
+
+    /** Index entry for one segment file. */
+    public record Segment(String partition, String file, LocalDateTime from, LocalDateTime to,
+                          long rows, long bytes, LocalDateTime archivedAt) {
+
+        boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            return (start == null || !to.isBefore(start)) && (end == null || !from.isAfter(end));
+        }
+    }
+
+    /** Same filters as the live {@code /api/audit-logs/filter} query. */
+    public record Filter(String email, AuditAction action, EntityType entityType,
+                         LocalDateTime startDate, LocalDateTime endDate) {
+
+        boolean matches(ArchivedRow row) {
+            return (email == null || email.isEmpty() || email.equalsIgnoreCase(row.userEmail()))
+                    && (action == null || action == row.action())
+                    && (entityType == null || entityType == row.entityType())
+                    && (startDate == null || !row.createdAt().isBefore(startDate))
+                    && (endDate == null || !row.createdAt().isAfter(endDate));
+        }
+    }
+
+    public record SearchResult(List<AuditLogResponse> rows, long total) {
+    }
+
+    /**
+     * Writes the rows of one partition, which must arrive newest first, to a new segment
+     * and records it in the index. A partition that is already indexed is left as is, so
+     * retrying after a failed drop does not duplicate it. Returns empty if there were no rows.
+     */
+    public synchronized Optional<Segment> writeSegment(String partition, Iterator<ArchivedRow> rows) throws IOException {
+        Optional<Segment> existing = segments().stream()
+                .filter(segment -> segment.partition().equals(partition))
+                .findFirst();
+        if (existing.isPresent()) {
+            log.info("Audit partition {} already archived in {}", partition, existing.get().file());
+            return existing;
+        }
+
+        Files.createDirectories(directory);
+        String fileName = "audit_logs-" + partition + SEGMENT_SUFFIX;
+        Path target = directory.resolve(fileName);
+        Path temp = directory.resolve(fileName + ".tmp");
+
+        long count = 0;
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            while (rows.hasNext()) {
+                ArchivedRow row = rows.next();
+                out.write(rowWriter.writeValueAsBytes(row));
+                out.write('\n');
+                count++;
+                if (from == null || row.createdAt().isBefore(from)) from = row.createdAt();
+                if (to == null || row.createdAt().isAfter(to)) to = row.createdAt();
+            }
+        }
+
+        if (count == 0) {
+            Files.deleteIfExists(temp);
+            return Optional.empty();
+        }
+
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        Segment segment = new Segment(partition, fileName, from, to, count, Files.size(target), LocalDateTime.now());
+        Files.write(directory.resolve(INDEX_FILE),
+                (segmentWriter.writeValueAsString(segment) + "\n").getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        log.info("Archived audit partition {}: {} rows, {} bytes", partition, count, segment.bytes());
+        return Optional.of(segment);
+    }
+
+    /** All indexed segments, newest range first. */
+    public List<Segment> segments() {
+        Path index = directory.resolve(INDEX_FILE);
+        if (!Files.exists(index)) {
+            return List.of();
+        }
+        List<Segment> segments = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(index, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    segments.add(segmentReader.readValue(line));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read audit archive index", e);
+        }
+        segments.sort(Comparator.comparing(Segment::to).reversed());
+        return segments;
+    }
+
+    /**
+     * Scans the segments overlapping the filter's date range, newest first, and returns
+     * matches {@code skip} to {@code skip + limit} along with the total number of matches.
+     */
+    public SearchResult search(Filter filter, long skip, int limit) {
+        List<AuditLogResponse> page = new ArrayList<>(Math.max(limit, 0));
+        long matched = 0;
+
+        for (Segment segment : segments()) {
+            if (!segment.overlaps(filter.startDate(), filter.endDate())) {
+                continue;
+            }
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(directory.resolve(segment.file())));
+                 MappingIterator<ArchivedRow> rows = rowReader.readValues(in)) {
+                while (rows.hasNext()) {
+                    ArchivedRow row = rows.next();
+                    if (!filter.matches(row)) {
+                        continue;
+                    }
+                    if (matched >= skip && page.size() < limit) {
+                        page.add(row.toResponse());
+                    }
+                    matched++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read audit segment " + segment.file(), e);
+            }
+        }
+        return new SearchResult(page, matched);
+    }
+}
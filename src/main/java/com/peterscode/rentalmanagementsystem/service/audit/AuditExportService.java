@@ -0,0 +1,175 @@
+package com.peterscode.rentalmanagementsystem.service.audit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peterscode.rentalmanagementsystem.exception.BadRequestException;
+import com.peterscode.rentalmanagementsystem.exception.ResourceNotFoundException;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
+import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams audit rows as NDJSON for compliance exports. One forward-only,
+ * read-only statement is streamed row by row and each row is written straight
+ * from the ResultSet to the JSON generator, so memory stays flat however many
+ * rows match. Rows come in id order; pass the last id received as
+ * {@code afterId} to resume an interrupted download.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditExportService {
+
+    /** Makes MySQL Connector/J stream rows one at a time instead of buffering the whole result. */
+    static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    private static final int FLUSH_EVERY = 1000;
+
+    private static final String SELECT = "SELECT a.id, a.created_at, a.user_id, a.username, a.action, " +
+            "a.entity_type, a.entity_id, a.status, a.details, a.error_message, a.ip_address, a.user_agent " +
+            "FROM audit_logs a WHERE a.id > ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /** Export filters; {@code afterId} is exclusive, 0 starts from the beginning. */
+    public record Query(Long userId, AuditAction action, EntityType entityType,
+                        LocalDateTime from, LocalDateTime to, long afterId) {
+    }
+
+    /**
+     * Validates the filters and resolves the email to a user id. Must run on the
+     * request thread, before streaming starts, so errors surface as normal responses.
+     */
+    public Query buildQuery(String email, AuditAction action, EntityType entityType,
+                            LocalDateTime from, LocalDateTime to, Long afterId) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new BadRequestException("'to' must not be before 'from'");
+        }
+        if (afterId != null && afterId < 0) {
+            throw new BadRequestException("'afterId' must not be negative");
+        }
+        Long userId = null;
+        if (email != null && !email.isBlank()) {
+            userId = jdbcTemplate.queryForList("SELECT id FROM users WHERE email = ?", Long.class, email.trim())
+                    .stream().findFirst()
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        }
+        return new Query(userId, action, entityType, from, to, afterId != null ? afterId : 0L);
+    }
+
+    /** Writes every matching row as one JSON object per line. Returns the number of rows written. */
+    public long export(Query query, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        List<Object> args = new ArrayList<>();
+        String sql = buildSql(query, args);
+
+        JsonFactory factory = objectMapper.getFactory();
+        JsonGenerator generator = factory.createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+
+        long[] count = {0};
+        PreparedStatementCreator statement = con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAMING_FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) {
+                ps.setObject(i + 1, args.get(i));
+            }
+            return ps;
+        };
+        RowCallbackHandler writer = rs -> {
+            try {
+                writeRow(generator, rs);
+                if (++count[0] % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            } catch (IOException e) {
+                // Client went away; abort the statement instead of reading the rest
+                throw new UncheckedIOException(e);
+            }
+        };
+        try {
+            jdbcTemplate.query(statement, writer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (count[0] > 0) {
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+        log.info("Exported {} audit rows after id {} in {}ms", count[0], query.afterId(),
+                System.currentTimeMillis() - started);
+        return count[0];
+    }
+
+    static String buildSql(Query query, List<Object> args) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        args.add(query.afterId());
+        if (query.userId() != null) {
+            sql.append(" AND a.user_id = ?");
+            args.add(query.userId());
+        }
+        if (query.action() != null) {
+            sql.append(" AND a.action = ?");
+            args.add(query.action().name());
+        }
+        if (query.entityType() != null) {
+            sql.append(" AND a.entity_type = ?");
+            args.add(query.entityType().name());
+        }
+        // Range on the partitioning column lets MySQL skip whole months
+        if (query.from() != null) {
+            sql.append(" AND a.created_at >= ?");
+            args.add(Timestamp.valueOf(query.from()));
+        }
+        if (query.to() != null) {
+            sql.append(" AND a.created_at < ?");
+            args.add(Timestamp.valueOf(query.to()));
+        }
+        return sql.append(" ORDER BY a.id").toString();
+    }
+
+    private static void writeRow(JsonGenerator generator, ResultSet rs) throws IOException, SQLException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", rs.getLong("id"));
+        generator.writeStringField("createdAt", rs.getTimestamp("created_at").toLocalDateTime().toString());
+        writeLong(generator, "userId", rs.getLong("user_id"), rs.wasNull());
+        generator.writeStringField("username", rs.getString("username"));
+        generator.writeStringField("action", rs.getString("action"));
+        generator.writeStringField("entityType", rs.getString("entity_type"));
+        writeLong(generator, "entityId", rs.getLong("entity_id"), rs.wasNull());
+        generator.writeStringField("status", rs.getString("status"));
+        generator.writeStringField("details", rs.getString("details"));
+        generator.writeStringField("errorMessage", rs.getString("error_message"));
+        generator.writeStringField("ipAddress", rs.getString("ip_address"));
+        generator.writeStringField("userAgent", rs.getString("user_agent"));
+        generator.writeEndObject();
+    }
+
+    private static void writeLong(JsonGenerator generator, String field, long value, boolean isNull) throws IOException {
+        if (isNull) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeNumberField(field, value);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.peterscode.rentalmanagementsystem.service.audit;
+
+import com.peterscode.rentalmanagementsystem.dto.response.AuditLogResponse;
+import com.peterscode.rentalmanagementsystem.dto.response.CursorPage;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
+import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
+import com.peterscode.rentalmanagementsystem.util.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset-paginated search over {@code audit_logs}. Only the filters that are set
+ * become predicates, so MySQL can pick the matching composite index from V36 and
+ * read it newest first on (created_at, id); a page costs the same however deep it
+ * is. Free text goes through the FULLTEXT index of {@link AuditTextIndex}.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuditLogSearch {
+
+    private static final String SELECT = "SELECT a.id, a.user_id, a.username, a.action, a.entity_type, a.entity_id, " +
+            "a.details, a.ip_address, a.user_agent, a.status, a.error_message, a.created_at FROM audit_logs a";
+
+    private static final RowMapper<AuditLogResponse> ROW_MAPPER = (rs, i) -> {
+        String action = rs.getString("action");
+        String entityType = rs.getString("entity_type");
+        return AuditLogResponse.builder()
+                .id(rs.getLong("id"))
+                .userId(rs.getObject("user_id", Long.class))
+                .username(rs.getString("username"))
+                .action(action != null ? AuditAction.valueOf(action) : null)
+                .entityType(entityType != null ? EntityType.valueOf(entityType) : null)
+                .entityId(rs.getObject("entity_id", Long.class))
+                .details(rs.getString("details"))
+                .ipAddress(rs.getString("ip_address"))
+                .userAgent(rs.getString("user_agent"))
+                .status(rs.getString("status"))
+                .errorMessage(rs.getString("error_message"))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .build();
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Search filters; every field is optional. {@code text} is matched against details. */
+    public record Criteria(String email, Long userId, AuditAction action, EntityType entityType, Long entityId,
+                           String status, LocalDateTime startDate, LocalDateTime endDate, String text) {
+    }
+
+    private record Filter(String join, List<String> where, List<Object> args) {
+    }
+
+    public CursorPage<AuditLogResponse> search(Criteria criteria, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int limit = KeysetCursor.clampPageSize(size);
+
+        Filter filter = filter(criteria);
+        if (filter == null) {
+            return emptyPage();
+        }
+        List<String> where = new ArrayList<>(filter.where());
+        List<Object> args = new ArrayList<>(filter.args());
+
+        Timestamp cursorCreatedAt = Timestamp.valueOf(after.createdAt());
+        where.add("(a.created_at < ? OR (a.created_at = ? AND a.id < ?))");
+        args.add(cursorCreatedAt);
+        args.add(cursorCreatedAt);
+        args.add(after.id());
+
+        String sql = SELECT + filter.join() + " WHERE " + String.join(" AND ", where) +
+                " ORDER BY a.created_at DESC, a.id DESC LIMIT ?";
+        // One extra row tells whether another page follows
+        args.add(limit + 1);
+
+        List<AuditLogResponse> rows = jdbcTemplate.query(sql, ROW_MAPPER, args.toArray());
+        boolean hasNext = rows.size() > limit;
+        List<AuditLogResponse> items = hasNext ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            AuditLogResponse last = items.getLast();
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return CursorPage.<AuditLogResponse>builder()
+                .items(new ArrayList<>(items))
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(items.size())
+                .build();
+    }
+
+    /**
+     * Offset-paginated variant for the {@code /filter} endpoint, newest first, with the
+     * same predicates as {@link #search}. The total is only counted when the page does
+     * not already reveal it; deep pages still pay for the offset.
+     */
+    public Page<AuditLogResponse> page(Criteria criteria, Pageable pageable) {
+        Filter filter = filter(criteria);
+        if (filter == null) {
+            return Page.empty(pageable);
+        }
+        String where = filter.where().isEmpty() ? "" : " WHERE " + String.join(" AND ", filter.where());
+
+        List<Object> args = new ArrayList<>(filter.args());
+        args.add(pageable.getPageSize());
+        args.add(pageable.getOffset());
+        List<AuditLogResponse> rows = jdbcTemplate.query(SELECT + filter.join() + where +
+                " ORDER BY a.created_at DESC, a.id DESC LIMIT ? OFFSET ?", ROW_MAPPER, args.toArray());
+
+        return PageableExecutionUtils.getPage(rows, pageable, () -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM audit_logs a" + filter.join() + where, Long.class, filter.args().toArray()));
+    }
+
+    /** Predicates for the filters that are set, or null when the criteria cannot match any row. */
+    private Filter filter(Criteria criteria) {
+        String join = "";
+        List<Object> args = new ArrayList<>();
+        List<String> where = new ArrayList<>();
+
+        String textQuery = AuditTextIndex.toBooleanQuery(criteria.text());
+        if (criteria.text() != null && !criteria.text().isBlank() && textQuery == null) {
+            return null;
+        }
+        if (textQuery != null) {
+            join = " JOIN audit_log_text t ON t.audit_id = a.id AND t.created_at = a.created_at";
+            where.add("MATCH (t.details) AGAINST (? IN BOOLEAN MODE)");
+            args.add(textQuery);
+        }
+
+        Long userId = criteria.userId();
+        if (criteria.email() != null && !criteria.email().isBlank()) {
+            // Resolved up front so the query can use (user_id, created_at) instead of joining users
+            List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM users WHERE email = ?",
+                    Long.class, criteria.email().trim());
+            if (ids.isEmpty() || (userId != null && !ids.contains(userId))) {
+                return null;
+            }
+            userId = ids.getFirst();
+        }
+        if (userId != null) {
+            where.add("a.user_id = ?");
+            args.add(userId);
+        }
+        if (criteria.action() != null) {
+            where.add("a.action = ?");
+            args.add(criteria.action().name());
+        }
+        if (criteria.entityType() != null) {
+            where.add("a.entity_type = ?");
+            args.add(criteria.entityType().name());
+        }
+        if (criteria.entityId() != null) {
+            where.add("a.entity_id = ?");
+            args.add(criteria.entityId());
+        }
+        if (criteria.status() != null && !criteria.status().isBlank()) {
+            where.add("a.status = ?");
+            args.add(criteria.status());
+        }
+        if (criteria.startDate() != null) {
+            where.add("a.created_at >= ?");
+            args.add(Timestamp.valueOf(criteria.startDate()));
+        }
+        if (criteria.endDate() != null) {
+            where.add("a.created_at <= ?");
+            args.add(Timestamp.valueOf(criteria.endDate()));
+        }
+        return new Filter(join, where, args);
+    }
+
+    private static CursorPage<AuditLogResponse> emptyPage() {
+        return CursorPage.<AuditLogResponse>builder()
+                .items(List.of())
+                .hasNext(false)
+                .size(0)
+                .build();
+    }
+}
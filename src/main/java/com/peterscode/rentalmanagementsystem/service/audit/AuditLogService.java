@@ -1,12 +1,14 @@
 package com.peterscode.rentalmanagementsystem.service.audit;
 
 import com.peterscode.rentalmanagementsystem.dto.response.AuditLogResponse;
+import com.peterscode.rentalmanagementsystem.dto.response.CursorPage;
 import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
 import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 public interface AuditLogService {
@@ -27,14 +29,41 @@ public interface AuditLogService {
             LocalDateTime endDate,
             Pageable pageable
     );
+
+    /**
+     * Same as {@link #getLogsByFilters(String, AuditAction, EntityType, LocalDateTime, LocalDateTime, Pageable)},
+     * optionally continuing into archived partitions once the live rows are exhausted.
+     */
+    Page<AuditLogResponse> getLogsByFilters(
+            String email,
+            AuditAction action,
+            EntityType entityType,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            boolean includeArchived,
+            Pageable pageable
+    );
     
+    /**
+     * Keyset-paginated search, newest first. Pass the returned {@code nextCursor} back
+     * to get the next page; pages cost the same however far in they are.
+     */
+    CursorPage<AuditLogResponse> searchLogs(AuditLogSearch.Criteria criteria, String cursor, int size);
+
     Page<AuditLogResponse> getLogsByUser(Long userId, Pageable pageable);
     
     Page<AuditLogResponse> getLogsByEntity(EntityType entityType, Long entityId, Pageable pageable);
     
     AuditLogResponse getLogById(Long id);
     
-    Map<String, Object> getStatistics(LocalDateTime since);
+    /** Counts for [since, until) at hour granularity; a null {@code until} means now. */
+    Map<String, Object> getStatistics(LocalDateTime since, LocalDateTime until);
+
+    /** Recomputes the hourly statistics for [from, to) from the live rows; nulls mean unbounded. */
+    int rebuildStatistics(LocalDateTime from, LocalDateTime to);
     
+    /** Most requested read-only endpoints in [since, until), from the per-minute view counters. */
+    List<Map<String, Object>> getViewStatistics(LocalDateTime since, LocalDateTime until, int limit);
+
     void cleanupOldLogs(int retentionDays);
 }
@@ -2,19 +2,22 @@ package com.peterscode.rentalmanagementsystem.service.audit;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.peterscode.rentalmanagementsystem.dto.response.AuditLogResponse;
+import com.peterscode.rentalmanagementsystem.dto.response.CursorPage;
 import com.peterscode.rentalmanagementsystem.exception.ResourceNotFoundException;
 import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditEvent;
 import com.peterscode.rentalmanagementsystem.model.audit.AuditLog;
 import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
 import com.peterscode.rentalmanagementsystem.model.user.User;
 import com.peterscode.rentalmanagementsystem.repository.AuditLogRepository;
-import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
+import com.peterscode.rentalmanagementsystem.util.NetworkUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -22,10 +25,12 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -33,104 +38,75 @@ import java.util.Map;
 public class AuditLogServiceImpl implements AuditLogService {
 
     private final AuditLogRepository auditLogRepository;
-    private final UserRepository userRepository;
+    private final CurrentUser currentUser;
     private final ObjectMapper objectMapper;
+    private final AuditArchive auditArchive;
+    private final AuditPartitionManager auditPartitionManager;
+    private final AuditWriter auditWriter;
+    private final AuditStatsRollup auditStatsRollup;
+    private final AuditLogSearch auditLogSearch;
+    private final AuditViewCounter auditViewCounter;
 
     @Override
-    @Async
-    @Transactional
     public void log(AuditAction action, EntityType entityType, Long entityId, String details) {
         log(action, entityType, entityId, details, "SUCCESS");
     }
 
     @Override
-    @Async
-    @Transactional
     public void log(AuditAction action, EntityType entityType, Long entityId, String details, String status) {
+        submit(action, entityType, entityId, details, status, null);
+    }
+
+    @Override
+    public void logWithError(AuditAction action, EntityType entityType, Long entityId, String details, String error) {
+        submit(action, entityType, entityId, details, "FAILURE", error);
+    }
+
+    /**
+     * Captures the caller's user and request on this thread and hands the entry to
+     * {@link AuditWriter}, which persists it and updates the hourly statistics.
+     */
+    private void submit(AuditAction action, EntityType entityType, Long entityId, String details,
+                        String status, String error) {
         try {
-            AuditLog auditLog = AuditLog.builder()
-                    .action(action)
-                    .entityType(entityType)
-                    .entityId(entityId)
-                    .details(details)
-                    .status(status)
-                    .build();
+            Long userId = null;
+            String username = null;
 
             // Extract user from security context
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
-                String email = auth.getName();
-                userRepository.findByEmail(email).ifPresent(user -> {
-                    auditLog.setUser(user);
-                    auditLog.setUsername(user.getUsername());
-                });
+                Optional<User> user = currentUser.findByEmail(auth.getName());
+                if (user.isPresent()) {
+                    userId = user.get().getId();
+                    username = user.get().getUsername();
+                }
             }
 
             // Extract IP and User-Agent from request
+            String ipAddress = null;
+            String userAgent = null;
             try {
                 ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
                 if (attributes != null) {
                     HttpServletRequest request = attributes.getRequest();
-                    auditLog.setIpAddress(getClientIp(request));
-                    auditLog.setUserAgent(request.getHeader("User-Agent"));
+                    ipAddress = NetworkUtil.getClientIp(request);
+                    userAgent = request.getHeader("User-Agent");
                 }
             } catch (IllegalStateException e) {
                 // Not in request context (e.g., scheduled task)
                 log.debug("Not in request context, skipping IP/User-Agent extraction");
             }
 
-            auditLogRepository.save(auditLog);
-            log.debug("Audit log created: action={}, entityType={}, entityId={}", action, entityType, entityId);
-            
+            auditWriter.submit(new AuditEvent(action, entityType, entityId, userId, username, details,
+                    ipAddress, userAgent, status, error, LocalDateTime.now()));
+            log.debug("Audit log queued: action={}, entityType={}, entityId={}", action, entityType, entityId);
+
         } catch (Exception e) {
             log.error("Failed to create audit log: {}", e.getMessage(), e);
             // Don't throw exception to avoid breaking the main operation
         }
     }
 
-    @Override
-    @Async
-    @Transactional
-    public void logWithError(AuditAction action, EntityType entityType, Long entityId, String details, String error) {
-        try {
-            AuditLog auditLog = AuditLog.builder()
-                    .action(action)
-                    .entityType(entityType)
-                    .entityId(entityId)
-                    .details(details)
-                    .status("FAILURE")
-                    .errorMessage(error)
-                    .build();
-
-            // Extract user from security context
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
-                String email = auth.getName();
-                userRepository.findByEmail(email).ifPresent(user -> {
-                    auditLog.setUser(user);
-                    auditLog.setUsername(user.getUsername());
-                });
-            }
-
-            // Extract IP and User-Agent
-            try {
-                ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-                if (attributes != null) {
-                    HttpServletRequest request = attributes.getRequest();
-                    auditLog.setIpAddress(getClientIp(request));
-                    auditLog.setUserAgent(request.getHeader("User-Agent"));
-                }
-            } catch (IllegalStateException e) {
-                log.debug("Not in request context");
-            }
-
-            auditLogRepository.save(auditLog);
-            
-        } catch (Exception e) {
-            log.error("Failed to create error audit log: {}", e.getMessage(), e);
-        }
-    }
-
     @Override
     @Transactional(readOnly = true)
     public Page<AuditLogResponse> getAllLogs(Pageable pageable) {
@@ -148,8 +124,43 @@ public class AuditLogServiceImpl implements AuditLogService {
             LocalDateTime endDate,
             Pageable pageable
     ) {
-        return auditLogRepository.findByFilters(email, action, entityType, startDate, endDate, pageable)
-                .map(AuditLogResponse::fromEntity);
+        return auditLogSearch.page(new AuditLogSearch.Criteria(
+                email, null, action, entityType, null, null, startDate, endDate, null), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<AuditLogResponse> getLogsByFilters(
+            String email,
+            AuditAction action,
+            EntityType entityType,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            boolean includeArchived,
+            Pageable pageable
+    ) {
+        Page<AuditLogResponse> live = getLogsByFilters(email, action, entityType, startDate, endDate, pageable);
+        if (!includeArchived) {
+            return live;
+        }
+
+        // Archived partitions are all older than the live ones, so with newest-first
+        // ordering the archive simply continues where the live rows end.
+        long liveTotal = live.getTotalElements();
+        long archivedSkip = Math.max(0, pageable.getOffset() - liveTotal);
+        int archivedLimit = pageable.getPageSize() - live.getNumberOfElements();
+        AuditArchive.SearchResult archived = auditArchive.search(
+                new AuditArchive.Filter(email, action, entityType, startDate, endDate),
+                archivedSkip, archivedLimit);
+
+        List<AuditLogResponse> content = new ArrayList<>(live.getContent());
+        content.addAll(archived.rows());
+        return new PageImpl<>(content, pageable, liveTotal + archived.total());
+    }
+
+    @Override
+    public CursorPage<AuditLogResponse> searchLogs(AuditLogSearch.Criteria criteria, String cursor, int size) {
+        return auditLogSearch.search(criteria, cursor, size);
     }
 
     @Override
@@ -174,57 +185,34 @@ public class AuditLogServiceImpl implements AuditLogService {
         return AuditLogResponse.fromEntity(log);
     }
 
+    /**
+     * Served from the hourly rollup, so the cost depends on the number of hours in
+     * the window rather than the number of audit rows, and counts for months that
+     * were already dropped by retention are still included.
+     */
     @Override
-    @Transactional(readOnly = true)
-    public Map<String, Object> getStatistics(LocalDateTime since) {
-        Map<String, Object> stats = new HashMap<>();
-        
-        // Total logs since date
-        long totalLogs = auditLogRepository.countSince(since);
-        stats.put("totalLogs", totalLogs);
-        
-        // Count by action
-        List<Object[]> actionCounts = auditLogRepository.countByActionSince(since);
-        Map<String, Long> byAction = new HashMap<>();
-        for (Object[] row : actionCounts) {
-            byAction.put(row[0].toString(), (Long) row[1]);
-        }
-        stats.put("byAction", byAction);
-        
-        // Recent activity
-        stats.put("since", since);
-        
-        return stats;
+    public Map<String, Object> getStatistics(LocalDateTime since, LocalDateTime until) {
+        return auditStatsRollup.statistics(since, until != null ? until : LocalDateTime.now());
     }
 
     @Override
-    @Transactional
-    public void cleanupOldLogs(int retentionDays) {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
-        auditLogRepository.deleteByCreatedAtBefore(cutoffDate);
-        log.info("Cleaned up audit logs older than {} days", retentionDays);
+    public int rebuildStatistics(LocalDateTime from, LocalDateTime to) {
+        return auditStatsRollup.rebuild(from, to);
     }
 
-    private String getClientIp(HttpServletRequest request) {
-        String[] headers = {
-            "X-Forwarded-For",
-            "Proxy-Client-IP",
-            "WL-Proxy-Client-IP",
-            "HTTP_X_FORWARDED_FOR",
-            "HTTP_X_FORWARDED",
-            "HTTP_FORWARDED_FOR",
-            "HTTP_FORWARDED",
-            "HTTP_CLIENT_IP",
-            "REMOTE_ADDR"
-        };
-
-        for (String header : headers) {
-            String ip = request.getHeader(header);
-            if (ip != null && !ip.isEmpty() && !"unknown".equalsIgnoreCase(ip)) {
-                return ip.split(",")[0].trim();
-            }
-        }
+    @Override
+    public List<Map<String, Object>> getViewStatistics(LocalDateTime since, LocalDateTime until, int limit) {
+        return auditViewCounter.topEndpoints(since, until != null ? until : LocalDateTime.now(), limit);
+    }
 
-        return request.getRemoteAddr();
+    /**
+     * Drops (after archiving) every monthly partition that lies entirely before the
+     * cutoff. Rows in the month containing the cutoff stay until that month expires.
+     */
+    @Override
+    public void cleanupOldLogs(int retentionDays) {
+        LocalDate cutoffDate = LocalDate.now().minusDays(retentionDays);
+        int dropped = auditPartitionManager.applyRetention(cutoffDate);
+        log.info("Cleaned up audit logs older than {} days: {} partitions dropped", retentionDays, dropped);
     }
 }
@@ -0,0 +1,225 @@
+package com.peterscode.rentalmanagementsystem.service.audit;
+
+import com.peterscode.rentalmanagementsystem.config.AuditConfig;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
+import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly RANGE partitions of {@code audit_logs} (see V34). Keeps
+ * {@code audit.retention.future-partitions} months split off {@code p_future} ahead of
+ * time, and enforces retention by archiving each expired partition to
+ * {@link AuditArchive} and dropping it, which takes the same time whatever its size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuditPartitionManager {
+
+    static final String PARTITIONS_SQL = "SELECT PARTITION_NAME, PARTITION_DESCRIPTION, TABLE_ROWS " +
+            "FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'audit_logs' AND PARTITION_NAME IS NOT NULL " +
+            "ORDER BY PARTITION_ORDINAL_POSITION";
+
+    private static final String EXPORT_SQL = "SELECT a.id, a.user_id, u.email AS user_email, a.username, a.action, " +
+            "a.entity_type, a.entity_id, a.details, a.ip_address, a.user_agent, a.status, a.error_message, a.created_at " +
+            "FROM audit_logs PARTITION (%s) a LEFT JOIN users u ON u.id = a.user_id " +
+            "WHERE a.id < ? ORDER BY a.id DESC LIMIT ?";
+
+    static final String FUTURE_PARTITION = "p_future";
+    private static final int EXPORT_BATCH_SIZE = 1000;
+    /** MySQL TO_DAYS('1970-01-01'). */
+    private static final long TO_DAYS_EPOCH = 719_528L;
+    private static final Pattern PARTITION_NAME = Pattern.compile("p_?[A-Za-z0-9]+");
+    private static final DateTimeFormatter MONTHLY_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditArchive auditArchive;
+    private final AuditTextIndex auditTextIndex;
+    private final AuditConfig auditConfig;
+
+    /** A partition and its exclusive upper bound; {@code upperBound} is null for MAXVALUE. */
+    public record Partition(String name, LocalDate upperBound, long approximateRows) {
+    }
+
+    @Async("auditTaskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            ensureFuturePartitions(YearMonth.now());
+        } catch (Exception e) {
+            log.error("Could not prepare audit_logs partitions: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${audit.retention.cron:0 30 3 * * *}")
+    public void maintain() {
+        AuditConfig.Retention config = auditConfig.getRetention();
+        if (!config.isEnabled()) {
+            return;
+        }
+        YearMonth now = YearMonth.now();
+        ensureFuturePartitions(now);
+        applyRetention(now.minusMonths(config.getKeepMonths()).atDay(1));
+    }
+
+    public List<Partition> listPartitions() {
+        return jdbcTemplate.query(PARTITIONS_SQL, (rs, i) -> {
+            String description = rs.getString("PARTITION_DESCRIPTION");
+            LocalDate upperBound = description == null || "MAXVALUE".equalsIgnoreCase(description)
+                    ? null
+                    : LocalDate.ofEpochDay(Long.parseLong(description.trim()) - TO_DAYS_EPOCH);
+            return new Partition(rs.getString("PARTITION_NAME"), upperBound, rs.getLong("TABLE_ROWS"));
+        });
+    }
+
+    /**
+     * Splits monthly partitions off {@code p_future} until the month
+     * {@code future-partitions} after {@code current} is covered. Returns how many were added.
+     */
+    public int ensureFuturePartitions(YearMonth current) {
+        List<Partition> partitions = listPartitions();
+        if (partitions.isEmpty()) {
+            log.warn("audit_logs is not partitioned; skipping partition maintenance");
+            return 0;
+        }
+
+        LocalDate lastBound = partitions.stream()
+                .map(Partition::upperBound)
+                .filter(Objects::nonNull)
+                .max(LocalDate::compareTo)
+                .orElse(current.atDay(1));
+        LocalDate target = current.plusMonths(auditConfig.getRetention().getFuturePartitions() + 1L).atDay(1);
+
+        int added = 0;
+        while (lastBound.isBefore(target)) {
+            YearMonth month = YearMonth.from(lastBound);
+            LocalDate next = month.plusMonths(1).atDay(1);
+            jdbcTemplate.execute("ALTER TABLE audit_logs REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO (" +
+                    "PARTITION " + month.format(MONTHLY_NAME) + " VALUES LESS THAN (TO_DAYS('" + next + "')), " +
+                    "PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN MAXVALUE)");
+            lastBound = next;
+            added++;
+        }
+        if (added > 0) {
+            log.info("Added {} audit_logs partitions, now covering up to {}", added, lastBound);
+        }
+        return added;
+    }
+
+    /**
+     * Archives (when enabled) and drops every partition that holds only rows created
+     * before {@code cutoff}, then trims the full-text index for exactly that partition's
+     * months. A partition that fails to archive is kept along with its text. Returns how
+     * many partitions were dropped.
+     */
+    public int applyRetention(LocalDate cutoff) {
+        boolean archive = auditConfig.getRetention().isArchiveEnabled();
+        int dropped = 0;
+        // The first listed partition also covers text left behind by earlier runs
+        LocalDate lowerBound = null;
+
+        for (Partition partition : listPartitions()) {
+            LocalDate from = lowerBound;
+            lowerBound = partition.upperBound();
+            if (partition.upperBound() == null || partition.upperBound().isAfter(cutoff)) {
+                continue;
+            }
+            if (!PARTITION_NAME.matcher(partition.name()).matches()) {
+                log.warn("Skipping audit_logs partition with unexpected name '{}'", partition.name());
+                continue;
+            }
+            try {
+                if (archive) {
+                    auditArchive.writeSegment(partition.name(), new PartitionRows(partition.name()));
+                }
+                jdbcTemplate.execute("ALTER TABLE audit_logs DROP PARTITION " + partition.name());
+                dropped++;
+                log.info("Dropped audit_logs partition {} (~{} rows, ending {})",
+                        partition.name(), partition.approximateRows(), partition.upperBound());
+            } catch (IOException | RuntimeException e) {
+                log.error("Retention of audit_logs partition {} failed, keeping it: {}",
+                        partition.name(), e.getMessage(), e);
+                continue;
+            }
+            try {
+                auditTextIndex.purgeRange(from, partition.upperBound());
+            } catch (RuntimeException e) {
+                log.error("Could not trim the audit full-text index for {}: {}", partition.name(), e.getMessage(), e);
+            }
+        }
+        return dropped;
+    }
+
+    /** Reads one partition newest first in keyset batches, so a large month never sits in memory. */
+    private class PartitionRows implements Iterator<AuditArchive.ArchivedRow> {
+
+        private final String sql;
+        private final Deque<AuditArchive.ArchivedRow> batch = new ArrayDeque<>();
+        private long cursor = Long.MAX_VALUE;
+        private boolean exhausted;
+
+        PartitionRows(String partition) {
+            this.sql = EXPORT_SQL.formatted(partition);
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (batch.isEmpty() && !exhausted) {
+                List<AuditArchive.ArchivedRow> rows = jdbcTemplate.query(sql, (rs, i) -> {
+                    String action = rs.getString("action");
+                    String entityType = rs.getString("entity_type");
+                    Timestamp createdAt = rs.getTimestamp("created_at");
+                    return new AuditArchive.ArchivedRow(
+                            rs.getLong("id"),
+                            rs.getObject("user_id", Long.class),
+                            rs.getString("user_email"),
+                            rs.getString("username"),
+                            action != null ? AuditAction.valueOf(action) : null,
+                            entityType != null ? EntityType.valueOf(entityType) : null,
+                            rs.getObject("entity_id", Long.class),
+                            rs.getString("details"),
+                            rs.getString("ip_address"),
+                            rs.getString("user_agent"),
+                            rs.getString("status"),
+                            rs.getString("error_message"),
+                            createdAt.toLocalDateTime());
+                }, cursor, EXPORT_BATCH_SIZE);
+                batch.addAll(rows);
+                exhausted = rows.size() < EXPORT_BATCH_SIZE;
+                if (!rows.isEmpty()) {
+                    cursor = rows.getLast().id();
+                }
+            }
+            return !batch.isEmpty();
+        }
+
+        @Override
+        public AuditArchive.ArchivedRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return batch.poll();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.peterscode.rentalmanagementsystem.service.audit;
+
+import com.peterscode.rentalmanagementsystem.model.audit.AuditEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Hourly audit counters (V35). {@link AuditWriter} folds every flushed batch into
+ * {@code audit_stats_hourly} (action x entity type x status) and
+ * {@code audit_user_stats_hourly} (user), so statistics are read from at most a
+ * few rows per hour of the window instead of scanning {@code audit_logs}. Reads
+ * that {@code AuditReadPolicy} leaves out of {@code audit_logs} are counted here all
+ * the same, so totals do not depend on the sample rate.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditStatsRollup {
+
+    static final String UPSERT_SQL = "INSERT INTO audit_stats_hourly " +
+            "(bucket_hour, action, entity_type, status, event_count) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE event_count = event_count + VALUES(event_count)";
+
+    static final String USER_UPSERT_SQL = "INSERT INTO audit_user_stats_hourly " +
+            "(bucket_hour, user_id, username, event_count) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE event_count = event_count + VALUES(event_count), " +
+            "username = COALESCE(VALUES(username), username)";
+
+    static final String NONE = "";
+    static final long NO_USER = 0L;
+    static final int TOP_USERS = 10;
+    /** How long after an hour ends before it is rebuilt; far longer than a writer batch can lag. */
+    static final Duration SETTLE = Duration.ofMinutes(5);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private record Bucket(LocalDateTime hour, String action, String entityType, String status) {
+    }
+
+    private record UserBucket(LocalDateTime hour, long userId) {
+    }
+
+    /** Adds a batch that was just written to {@code audit_logs}, plus any count-only reads. */
+    public void record(List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Map<Bucket, Long> counts = new LinkedHashMap<>();
+        Map<UserBucket, Long> userCounts = new LinkedHashMap<>();
+        Map<UserBucket, String> usernames = new HashMap<>();
+
+        for (AuditEvent event : events) {
+            LocalDateTime hour = bucketOf(event.createdAt() != null ? event.createdAt() : LocalDateTime.now());
+            counts.merge(new Bucket(hour, event.action().name(),
+                    event.entityType() != null ? event.entityType().name() : NONE,
+                    Objects.requireNonNullElse(event.status(), NONE)), 1L, Long::sum);
+
+            UserBucket userBucket = new UserBucket(hour, event.userId() != null ? event.userId() : NO_USER);
+            userCounts.merge(userBucket, 1L, Long::sum);
+            if (event.username() != null) {
+                usernames.put(userBucket, event.username());
+            }
+        }
+
+        List<Map.Entry<Bucket, Long>> rows = new ArrayList<>(counts.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(row.getKey().hour()));
+            ps.setString(2, row.getKey().action());
+            ps.setString(3, row.getKey().entityType());
+            ps.setString(4, row.getKey().status());
+            ps.setLong(5, row.getValue());
+        });
+
+        List<Map.Entry<UserBucket, Long>> userRows = new ArrayList<>(userCounts.entrySet());
+        jdbcTemplate.batchUpdate(USER_UPSERT_SQL, userRows, userRows.size(), (ps, row) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(row.getKey().hour()));
+            ps.setLong(2, row.getKey().userId());
+            ps.setString(3, usernames.get(row.getKey()));
+            ps.setLong(4, row.getValue());
+        });
+    }
+
+    /**
+     * Totals for [since, until), at hour granularity: {@code since} is rounded down to
+     * the start of its hour. Breaks the total down by action, status, entity type and
+     * the most active users.
+     */
+    public Map<String, Object> statistics(LocalDateTime since, LocalDateTime until) {
+        Timestamp from = Timestamp.valueOf(bucketOf(since));
+        Timestamp to = Timestamp.valueOf(until);
+
+        Map<String, Long> byAction = new HashMap<>();
+        Map<String, Long> byStatus = new HashMap<>();
+        Map<String, Long> byEntityType = new HashMap<>();
+        long[] total = {0};
+
+        jdbcTemplate.query("SELECT action, entity_type, status, SUM(event_count) AS events " +
+                "FROM audit_stats_hourly WHERE bucket_hour >= ? AND bucket_hour < ? " +
+                "GROUP BY action, entity_type, status", (RowCallbackHandler) rs -> {
+            long events = rs.getLong("events");
+            total[0] += events;
+            byAction.merge(rs.getString("action"), events, Long::sum);
+            byStatus.merge(labelOf(rs.getString("status")), events, Long::sum);
+            byEntityType.merge(labelOf(rs.getString("entity_type")), events, Long::sum);
+        }, from, to);
+
+        List<Map<String, Object>> topUsers = jdbcTemplate.query(
+                "SELECT user_id, MAX(username) AS username, SUM(event_count) AS events " +
+                "FROM audit_user_stats_hourly WHERE bucket_hour >= ? AND bucket_hour < ? " +
+                "GROUP BY user_id ORDER BY events DESC LIMIT ?", (rs, i) -> {
+                    long userId = rs.getLong("user_id");
+                    Map<String, Object> user = new LinkedHashMap<>();
+                    user.put("userId", userId == NO_USER ? null : userId);
+                    user.put("username", rs.getString("username"));
+                    user.put("count", rs.getLong("events"));
+                    return user;
+                }, from, to, TOP_USERS);
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalLogs", total[0]);
+        stats.put("byAction", byAction);
+        stats.put("byStatus", byStatus);
+        stats.put("byEntityType", byEntityType);
+        stats.put("topUsers", topUsers);
+        stats.put("since", from.toLocalDateTime());
+        stats.put("until", until);
+        stats.put("granularity", "HOUR");
+        return stats;
+    }
+
+    public boolean isEmpty() {
+        return !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM audit_stats_hourly)", Boolean.class));
+    }
+
+    /**
+     * Recomputes the hours in [from, to) from {@code audit_logs}; nulls mean unbounded.
+     * Hours whose rows were already archived keep their existing counters. Only sampled
+     * reads have rows, so rebuilt hours count VIEW calls at the sample rate.
+     *
+     * <p>{@link AuditWriter} keeps upserting into open hours, and an upsert landing
+     * between the delete and the re-insert would be lost or counted twice. So only
+     * hours that ended at least {@link #SETTLE} ago are rebuilt; later ones are left
+     * to the writer.
+     */
+    @Transactional
+    public int rebuild(LocalDateTime from, LocalDateTime to) {
+        Timestamp start = Timestamp.valueOf(from != null ? bucketOf(from) : LocalDateTime.of(1970, 1, 1, 0, 0));
+        LocalDateTime lastClosed = bucketOf(LocalDateTime.now().minus(SETTLE));
+        Timestamp end = Timestamp.valueOf(to != null && bucketOf(to).isBefore(lastClosed) ? bucketOf(to) : lastClosed);
+        if (!start.before(end)) {
+            return 0;
+        }
+        Timestamp oldestLive = jdbcTemplate.queryForObject(
+                "SELECT MIN(created_at) FROM audit_logs WHERE created_at >= ?", Timestamp.class, start);
+        if (oldestLive == null) {
+            return 0;
+        }
+        // Never wipe counters for hours that only survive in the rollup. Partitions are
+        // dropped on month boundaries, so the hour of the oldest live row is complete.
+        if (oldestLive.after(start)) {
+            start = Timestamp.valueOf(bucketOf(oldestLive.toLocalDateTime()));
+        }
+
+        jdbcTemplate.update("DELETE FROM audit_stats_hourly WHERE bucket_hour >= ? AND bucket_hour < ?", start, end);
+        jdbcTemplate.update("DELETE FROM audit_user_stats_hourly WHERE bucket_hour >= ? AND bucket_hour < ?", start, end);
+        int buckets = jdbcTemplate.update("INSERT INTO audit_stats_hourly " +
+                "(bucket_hour, action, entity_type, status, event_count) " +
+                "SELECT DATE_FORMAT(created_at, '%Y-%m-%d %H:00:00'), action, COALESCE(entity_type, ''), " +
+                "COALESCE(status, ''), COUNT(*) FROM audit_logs " +
+                "WHERE created_at >= ? AND created_at < ? GROUP BY 1, 2, 3, 4", start, end);
+        jdbcTemplate.update("INSERT INTO audit_user_stats_hourly (bucket_hour, user_id, username, event_count) " +
+                "SELECT DATE_FORMAT(created_at, '%Y-%m-%d %H:00:00'), COALESCE(user_id, 0), MAX(username), COUNT(*) " +
+                "FROM audit_logs WHERE created_at >= ? AND created_at < ? GROUP BY 1, 2", start, end);
+        log.info("Rebuilt audit stats rollup from {} to {}: {} buckets", start, end, buckets);
+        return buckets;
+    }
+
+    static LocalDateTime bucketOf(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static String labelOf(String value) {
+        return value == null || value.isEmpty() ? "NONE" : value;
+    }
+}
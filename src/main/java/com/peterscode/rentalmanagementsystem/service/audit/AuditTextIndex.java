@@ -0,0 +1,111 @@
+package com.peterscode.rentalmanagementsystem.service.audit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Full-text index over audit details (V36). {@code audit_logs} is partitioned and
+ * cannot hold a FULLTEXT index itself, so the details of new rows are copied into
+ * {@code audit_log_text} after each written batch.
+ * <p>
+ * Ids are allocated when a row is inserted but become visible when it commits, so
+ * with several instances writing, a lower id can appear after a higher one was
+ * indexed. Each pass therefore starts {@value #RESCAN_WINDOW} ids below the highest
+ * indexed id and copies only rows that are still missing. A row that stays
+ * uncommitted while more than that many later ids are indexed is not picked up.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditTextIndex {
+
+    static final String CATCH_UP_SQL = "INSERT IGNORE INTO audit_log_text (audit_id, created_at, details) " +
+            "SELECT a.id, a.created_at, a.details FROM audit_logs a " +
+            "WHERE a.id > ? AND a.details IS NOT NULL AND a.details <> '' " +
+            "AND NOT EXISTS (SELECT 1 FROM audit_log_text t WHERE t.audit_id = a.id) ORDER BY a.id LIMIT ?";
+
+    static final String PURGE_BOUNDS_SQL = "SELECT MIN(audit_id) AS min_id, MAX(audit_id) AS max_id " +
+            "FROM audit_log_text WHERE created_at >= ? AND created_at < ?";
+    static final String PURGE_SLICE_SQL = "DELETE FROM audit_log_text " +
+            "WHERE audit_id >= ? AND audit_id < ? AND created_at >= ? AND created_at < ?";
+
+    /** How far below the highest indexed id each pass looks for rows that committed late. */
+    static final long RESCAN_WINDOW = 2000;
+    private static final int CATCH_UP_BATCH = 5000;
+    static final int PURGE_BATCH = 5000;
+    /** Shorter words are not indexed by InnoDB with the default innodb_ft_min_token_size. */
+    private static final int MIN_TERM_LENGTH = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Indexes rows written since the last call and late commits within the window. Returns how many were added. */
+    public synchronized int catchUp() {
+        Long watermark = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(audit_id), 0) FROM audit_log_text", Long.class);
+        long from = Math.max(0L, (watermark != null ? watermark : 0L) - RESCAN_WINDOW);
+        int total = 0;
+        int added;
+        do {
+            added = jdbcTemplate.update(CATCH_UP_SQL, from, CATCH_UP_BATCH);
+            total += added;
+            if (added == CATCH_UP_BATCH) {
+                Long next = jdbcTemplate.queryForObject("SELECT MAX(audit_id) FROM audit_log_text", Long.class);
+                from = next != null ? next : from;
+            }
+        } while (added == CATCH_UP_BATCH);
+        return total;
+    }
+
+    /**
+     * Removes the text of rows created in {@code [from, to)} after that range's partition
+     * was dropped; a null {@code from} means everything before {@code to}. MySQL cannot
+     * partition a table with a FULLTEXT index, so instead of one month-sized DELETE the
+     * range is cleared in id slices of {@value #PURGE_BATCH}, each committing on its own.
+     */
+    public int purgeRange(LocalDate from, LocalDate to) {
+        Timestamp lower = Timestamp.valueOf((from != null ? from : LocalDate.EPOCH).atStartOfDay());
+        Timestamp upper = Timestamp.valueOf(to.atStartOfDay());
+        Map<String, Object> bounds = jdbcTemplate.queryForMap(PURGE_BOUNDS_SQL, lower, upper);
+        Number min = (Number) bounds.get("min_id");
+        Number max = (Number) bounds.get("max_id");
+        if (min == null || max == null) {
+            return 0;
+        }
+
+        int removed = 0;
+        for (long start = min.longValue(); start <= max.longValue(); start += PURGE_BATCH) {
+            removed += jdbcTemplate.update(PURGE_SLICE_SQL, start, start + PURGE_BATCH, lower, upper);
+        }
+        if (removed > 0) {
+            log.info("Removed {} full-text entries for audit rows from {} to {}", removed, from, to);
+        }
+        return removed;
+    }
+
+    /**
+     * Turns free text into a boolean-mode query that requires every word, with a
+     * prefix match on each. Operator characters are stripped, so user input cannot
+     * change the query's meaning. Returns null if no word is long enough to search.
+     */
+    public static String toBooleanQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+        List<String> terms = new ArrayList<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}_]+")) {
+            if (word.length() >= MIN_TERM_LENGTH) {
+                terms.add("+" + word + "*");
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" ", terms);
+    }
+}
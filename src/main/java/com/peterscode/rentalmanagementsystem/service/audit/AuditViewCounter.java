@@ -0,0 +1,128 @@
+package com.peterscode.rentalmanagementsystem.service.audit;
+
+import com.peterscode.rentalmanagementsystem.config.AuditConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory per-minute counters for read-only calls, flushed to
+ * {@code audit_view_counts} (V37). A minute is flushed once it has closed. An
+ * increment and the flush's removal of its bucket are atomic per key, so a late
+ * increment for a minute already flushed starts a new bucket that the next flush adds
+ * to the stored row. The upserts add to stored counts, so a flush runs in one
+ * transaction: a failed flush leaves no row applied and can be retried whole.
+ */
+@Component
+@Slf4j
+public class AuditViewCounter {
+
+    static final String UPSERT_SQL = "INSERT INTO audit_view_counts " +
+            "(bucket_minute, endpoint, user_id, status, view_count) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE view_count = view_count + VALUES(view_count)";
+
+    static final int MAX_ENDPOINT = 255;
+    static final long NO_USER = 0L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditConfig auditConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Key, Long> counts = new ConcurrentHashMap<>();
+
+    record Key(LocalDateTime minute, String endpoint, long userId, String status) {
+    }
+
+    public AuditViewCounter(JdbcTemplate jdbcTemplate, AuditConfig auditConfig,
+                            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditConfig = auditConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void record(String endpoint, Long userId, String status, LocalDateTime at) {
+        String name = endpoint.length() > MAX_ENDPOINT ? endpoint.substring(0, MAX_ENDPOINT) : endpoint;
+        Key key = new Key(at.truncatedTo(ChronoUnit.MINUTES), name, userId != null ? userId : NO_USER, status);
+        counts.merge(key, 1L, Long::sum);
+    }
+
+    @Scheduled(fixedDelayString = "${audit.reads.flush-interval-ms:15000}")
+    public void flushClosedMinutes() {
+        flush(LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES));
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        flush(LocalDateTime.MAX);
+    }
+
+    /** Writes and forgets every bucket before {@code before}. Returns how many rows were upserted. */
+    synchronized int flush(LocalDateTime before) {
+        Map<Key, Long> closed = new LinkedHashMap<>();
+        for (Key key : new ArrayList<>(counts.keySet())) {
+            if (key.minute().isBefore(before)) {
+                Long count = counts.remove(key);
+                if (count != null) {
+                    closed.put(key, count);
+                }
+            }
+        }
+        if (closed.isEmpty()) {
+            return 0;
+        }
+        List<Map.Entry<Key, Long>> rows = new ArrayList<>(closed.entrySet());
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+                        ps.setTimestamp(1, Timestamp.valueOf(row.getKey().minute()));
+                        ps.setString(2, row.getKey().endpoint());
+                        ps.setLong(3, row.getKey().userId());
+                        ps.setString(4, row.getKey().status());
+                        ps.setLong(5, row.getValue());
+                    }));
+        } catch (Exception e) {
+            // The batch rolled back, so put the counts back for the next flush to retry
+            closed.forEach((key, count) -> counts.merge(key, count, Long::sum));
+            log.warn("Failed to flush {} audit view counters: {}", rows.size(), e.getMessage());
+            return 0;
+        }
+        return rows.size();
+    }
+
+    @Scheduled(cron = "${audit.retention.cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(auditConfig.getReads().getKeepDays());
+        int removed = jdbcTemplate.update("DELETE FROM audit_view_counts WHERE bucket_minute < ?",
+                Timestamp.valueOf(cutoff));
+        if (removed > 0) {
+            log.info("Removed {} audit view counter rows before {}", removed, cutoff);
+        }
+    }
+
+    /** Most requested endpoints in [since, until), with their totals. */
+    public List<Map<String, Object>> topEndpoints(LocalDateTime since, LocalDateTime until, int limit) {
+        return jdbcTemplate.query("SELECT endpoint, status, SUM(view_count) AS views, " +
+                "COUNT(DISTINCT NULLIF(user_id, " + NO_USER + ")) AS users " +
+                "FROM audit_view_counts WHERE bucket_minute >= ? AND bucket_minute < ? " +
+                "GROUP BY endpoint, status ORDER BY views DESC LIMIT ?", (rs, i) -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("endpoint", rs.getString("endpoint"));
+                    row.put("status", rs.getString("status"));
+                    row.put("views", rs.getLong("views"));
+                    row.put("users", rs.getLong("users"));
+                    return row;
+                }, Timestamp.valueOf(since), Timestamp.valueOf(until), limit);
+    }
+}
@@ -0,0 +1,272 @@
+package com.peterscode.rentalmanagementsystem.service.audit;
+
+import com.peterscode.rentalmanagementsystem.config.AuditConfig;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditEvent;
+import com.peterscode.rentalmanagementsystem.util.RingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Buffers audit events in a bounded lock-free ring and writes them to
+ * {@code audit_logs} from a single background thread using JDBC batch inserts.
+ * A batch is flushed once it reaches {@code audit.writer.batch-size} events or
+ * {@code audit.writer.flush-interval-ms} after the first event arrived, whichever
+ * comes first. Every stored batch is also folded into the hourly counters of
+ * {@link AuditStatsRollup} and indexed by {@link AuditTextIndex}; count-only events
+ * (unsampled reads) go to the counters without a row. On shutdown the buffer is drained before the context closes.
+ */
+@Component
+@Slf4j
+public class AuditWriter {
+
+    static final String INSERT_SQL = "INSERT INTO audit_logs " +
+            "(user_id, username, action, entity_type, entity_id, details, ip_address, user_agent, " +
+            "status, error_message, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int MAX_USER_AGENT = 500;
+    private static final int MAX_IP_ADDRESS = 45;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditStatsRollup statsRollup;
+    private final AuditTextIndex textIndex;
+    private final AuditConfig.Writer config;
+    private final RingBuffer<AuditEvent> buffer;
+
+    private final Counter accepted;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    public AuditWriter(JdbcTemplate jdbcTemplate, AuditStatsRollup statsRollup, AuditTextIndex textIndex,
+                       AuditConfig auditConfig, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.statsRollup = statsRollup;
+        this.textIndex = textIndex;
+        this.config = auditConfig.getWriter();
+        this.buffer = new RingBuffer<>(config.getBufferCapacity());
+
+        this.accepted = meterRegistry.counter("audit.writer.events", "outcome", "accepted");
+        this.dropped = meterRegistry.counter("audit.writer.events", "outcome", "dropped");
+        this.written = meterRegistry.counter("audit.writer.events", "outcome", "written");
+        this.failed = meterRegistry.counter("audit.writer.events", "outcome", "failed");
+        this.flushTimer = meterRegistry.timer("audit.writer.flush");
+        meterRegistry.gauge("audit.writer.buffer.size", buffer, RingBuffer::size);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        Thread thread = new Thread(this::runLoop, "audit-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+        log.info("Audit writer started: buffer {}, batch size {}, flush interval {}ms, overflow {}",
+                buffer.capacity(), config.getBatchSize(), config.getFlushIntervalMs(), config.getOverflowPolicy());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(config.getShutdownTimeoutMs());
+        }
+        // Anything submitted after the writer loop exited
+        List<AuditEvent> remaining = new ArrayList<>(config.getBatchSize());
+        while (buffer.drainTo(remaining, config.getBatchSize()) > 0) {
+            write(remaining);
+            remaining.clear();
+        }
+        log.info("Audit writer stopped");
+    }
+
+    /**
+     * Hands the event to the background writer. Never blocks unless the overflow
+     * policy is {@link AuditConfig.OverflowPolicy#CALLER_RUNS} and the buffer is full.
+     */
+    public void submit(AuditEvent event) {
+        if (buffer.offer(event)) {
+            accepted.increment();
+            if (buffer.size() >= config.getBatchSize()) {
+                LockSupport.unpark(writerThread);
+            }
+            return;
+        }
+
+        switch (config.getOverflowPolicy()) {
+            case DROP_OLDEST -> {
+                buffer.poll();
+                recordDrop();
+                if (buffer.offer(event)) {
+                    accepted.increment();
+                } else {
+                    recordDrop();
+                }
+            }
+            case CALLER_RUNS -> {
+                accepted.increment();
+                write(List.of(event));
+            }
+            default -> recordDrop();
+        }
+    }
+
+    int buffered() {
+        return buffer.size();
+    }
+
+    private void recordDrop() {
+        dropped.increment();
+        long total = (long) dropped.count();
+        // Log the first drop and then every 1000th so a sustained overflow stays visible without flooding
+        if (total % 1000 == 1) {
+            log.warn("Audit buffer full ({} slots), {} events dropped so far", buffer.capacity(), total);
+        }
+    }
+
+    private void runLoop() {
+        int batchSize = config.getBatchSize();
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getFlushIntervalMs());
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        long batchStarted = 0;
+
+        while (running) {
+            boolean wasEmpty = batch.isEmpty();
+            buffer.drainTo(batch, batchSize - batch.size());
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+                continue;
+            }
+            if (wasEmpty) {
+                batchStarted = System.nanoTime();
+            }
+
+            long waited = System.nanoTime() - batchStarted;
+            if (batch.size() >= batchSize || waited >= flushIntervalNanos) {
+                write(batch);
+                batch.clear();
+            } else {
+                LockSupport.parkNanos(this, flushIntervalNanos - waited);
+            }
+        }
+
+        buffer.drainTo(batch, Integer.MAX_VALUE);
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            write(batch.subList(from, Math.min(batch.size(), from + batchSize)));
+        }
+    }
+
+    void write(List<AuditEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            List<AuditEvent> rows = new ArrayList<>(batch.size());
+            List<AuditEvent> counted = new ArrayList<>(batch.size());
+            for (AuditEvent event : batch) {
+                (event.stored() ? rows : counted).add(event);
+            }
+            if (!rows.isEmpty()) {
+                try {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), AuditWriter::bind);
+                    written.increment(rows.size());
+                    counted.addAll(rows);
+                } catch (Exception e) {
+                    log.warn("Audit batch of {} failed ({}), retrying row by row", rows.size(), e.getMessage());
+                    counted.addAll(writeIndividually(rows));
+                }
+            }
+            updateStats(counted);
+            if (!rows.isEmpty()) {
+                updateTextIndex();
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Counters may drift from audit_logs if this fails; the stats rebuild recomputes them
+    private void updateStats(List<AuditEvent> events) {
+        try {
+            statsRollup.record(events);
+        } catch (Exception e) {
+            log.warn("Failed to update audit stats for {} events: {}", events.size(), e.getMessage());
+        }
+    }
+
+    // Rows missed here are picked up after the next batch while they are within the rescan window
+    private void updateTextIndex() {
+        try {
+            textIndex.catchUp();
+        } catch (Exception e) {
+            log.warn("Failed to update audit full-text index: {}", e.getMessage());
+        }
+    }
+
+    // One bad row (e.g. an oversized value) must not cost the whole batch. There is no
+    // foreign key on user_id since V34, so an event still buffered when its user is
+    // deleted is stored with that now-dangling id; the username on the row stays valid
+    private List<AuditEvent> writeIndividually(List<AuditEvent> batch) {
+        List<AuditEvent> stored = new ArrayList<>(batch.size());
+        for (AuditEvent event : batch) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, event));
+                written.increment();
+                stored.add(event);
+            } catch (Exception e) {
+                failed.increment();
+                log.error("Failed to write audit event {} {}: {}", event.action(), event.entityType(), e.getMessage());
+            }
+        }
+        return stored;
+    }
+
+    private static void bind(PreparedStatement ps, AuditEvent event) throws SQLException {
+        setLong(ps, 1, event.userId());
+        ps.setString(2, event.username());
+        ps.setString(3, event.action().name());
+        ps.setString(4, event.entityType() != null ? event.entityType().name() : null);
+        setLong(ps, 5, event.entityId());
+        ps.setString(6, event.details());
+        ps.setString(7, truncate(event.ipAddress(), MAX_IP_ADDRESS));
+        ps.setString(8, truncate(event.userAgent(), MAX_USER_AGENT));
+        ps.setString(9, event.status());
+        ps.setString(10, event.errorMessage());
+        LocalDateTime createdAt = event.createdAt() != null ? event.createdAt() : LocalDateTime.now();
+        ps.setTimestamp(11, Timestamp.valueOf(createdAt));
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(index, value);
+        } else {
+            ps.setNull(index, Types.BIGINT);
+        }
+    }
+
+    private static String truncate(String value, int max) {
+        return value != null && value.length() > max ? value.substring(0, max) : value;
+    }
+}
@@ -0,0 +1,189 @@
+package com.peterscode.rentalmanagementsystem.service.audit;
+
+import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditEvent;
+import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
+import com.peterscode.rentalmanagementsystem.util.NetworkUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Gathers the entity changes reported by {@code EntityAuditListener} for the current
+ * transaction and writes them as one audit entry after commit. Repeated changes to the
+ * same entity are folded together (CREATE then UPDATE stays CREATE, anything then DELETE
+ * becomes DELETE, CREATE then DELETE disappears). A rolled-back transaction writes nothing.
+ * Changes made outside a transaction are written straight away, one entry each.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EntityChangeCollector {
+
+    static final int MAX_LISTED_CHANGES = 50;
+
+    private final AuditWriter auditWriter;
+    private final CurrentUser currentUser;
+
+    public void record(AuditAction action, EntityType entityType, Long entityId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ChangeSet single = newChangeSet();
+            single.add(action, entityType, entityId);
+            auditWriter.submit(single.toEvent());
+            return;
+        }
+
+        ChangeSetSynchronization synchronization = null;
+        for (TransactionSynchronization registered : TransactionSynchronizationManager.getSynchronizations()) {
+            if (registered instanceof ChangeSetSynchronization changeSetSynchronization) {
+                synchronization = changeSetSynchronization;
+                break;
+            }
+        }
+        if (synchronization == null) {
+            synchronization = new ChangeSetSynchronization(newChangeSet());
+            TransactionSynchronizationManager.registerSynchronization(synchronization);
+        }
+        synchronization.changes.add(action, entityType, entityId);
+    }
+
+    /**
+     * Who and where are captured with the first change, on the calling thread, because
+     * afterCommit may run after the security context has been cleared.
+     */
+    private ChangeSet newChangeSet() {
+        ChangeSet changes = new ChangeSet();
+        currentUser.get().ifPresent(user -> {
+            changes.userId = user.getId();
+            changes.username = user.getUsername();
+        });
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            changes.ipAddress = NetworkUtil.getClientIp(request);
+            changes.userAgent = request.getHeader("User-Agent");
+        }
+        return changes;
+    }
+
+    private class ChangeSetSynchronization implements TransactionSynchronization {
+
+        private final ChangeSet changes;
+
+        ChangeSetSynchronization(ChangeSet changes) {
+            this.changes = changes;
+        }
+
+        @Override
+        public void afterCommit() {
+            if (changes.isEmpty()) {
+                return;
+            }
+            try {
+                auditWriter.submit(changes.toEvent());
+            } catch (Exception e) {
+                log.error("Failed to queue entity change audit: {}", e.getMessage());
+            }
+        }
+    }
+
+    private record ChangeKey(EntityType entityType, Long entityId) {
+    }
+
+    private static final class Change {
+        private AuditAction action;
+        private int events = 1;
+
+        Change(AuditAction action) {
+            this.action = action;
+        }
+    }
+
+    static final class ChangeSet {
+
+        private final Map<ChangeKey, Change> changes = new LinkedHashMap<>();
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private Long userId;
+        private String username;
+        private String ipAddress;
+        private String userAgent;
+
+        void add(AuditAction action, EntityType entityType, Long entityId) {
+            ChangeKey key = new ChangeKey(entityType, entityId);
+            Change existing = changes.get(key);
+            if (existing == null) {
+                changes.put(key, new Change(action));
+                return;
+            }
+            existing.events++;
+            if (action == AuditAction.DELETE) {
+                if (existing.action == AuditAction.CREATE) {
+                    changes.remove(key);
+                } else {
+                    existing.action = AuditAction.DELETE;
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return changes.isEmpty();
+        }
+
+        AuditEvent toEvent() {
+            Map.Entry<ChangeKey, Change> first = changes.entrySet().iterator().next();
+            ChangeKey primary = first.getKey();
+            AuditAction action = changes.size() == 1 ? first.getValue().action : AuditAction.CHANGE_SET;
+
+            return new AuditEvent(action, primary.entityType(), primary.entityId(), userId,
+                    Objects.requireNonNullElse(username, "system"), details(),
+                    ipAddress, userAgent, "SUCCESS", null, startedAt);
+        }
+
+        private String details() {
+            if (changes.size() == 1) {
+                Map.Entry<ChangeKey, Change> only = changes.entrySet().iterator().next();
+                return describe(only.getValue().action) + " " + only.getKey().entityType()
+                        + " with ID: " + only.getKey().entityId();
+            }
+
+            StringBuilder sb = new StringBuilder();
+            sb.append(changes.size()).append(" entity changes: ");
+            int listed = 0;
+            for (Map.Entry<ChangeKey, Change> entry : changes.entrySet()) {
+                if (listed == MAX_LISTED_CHANGES) {
+                    sb.append(", ... and ").append(changes.size() - listed).append(" more");
+                    break;
+                }
+                if (listed > 0) {
+                    sb.append(", ");
+                }
+                Change change = entry.getValue();
+                sb.append(change.action).append(' ')
+                        .append(entry.getKey().entityType()).append('#').append(entry.getKey().entityId());
+                if (change.events > 1) {
+                    sb.append(" (x").append(change.events).append(')');
+                }
+                listed++;
+            }
+            return sb.toString();
+        }
+
+        private static String describe(AuditAction action) {
+            return switch (action) {
+                case CREATE -> "Created";
+                case DELETE -> "Deleted";
+                default -> "Updated";
+            };
+        }
+    }
+}
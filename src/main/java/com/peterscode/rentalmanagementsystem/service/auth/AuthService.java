@@ -39,4 +39,8 @@ public interface AuthService {
     JwtResponse getUserInfoByEmail(String email);
 
     void changePassword(String email, String currentPassword, String newPassword);
+
+    JwtResponse refreshToken(String refreshToken);
+
+    void logout(String refreshToken, String accessToken);
 }
\ No newline at end of file
@@ -6,7 +6,6 @@ import com.peterscode.rentalmanagementsystem.dto.request.RegisterRequest;
 import com.peterscode.rentalmanagementsystem.dto.request.ResetPasswordRequest;
 import com.peterscode.rentalmanagementsystem.dto.response.JwtResponse;
 import com.peterscode.rentalmanagementsystem.exception.*;
-import com.peterscode.rentalmanagementsystem.model.logs.EmailStatus;
 import com.peterscode.rentalmanagementsystem.model.logs.PasswordResetToken;
 import com.peterscode.rentalmanagementsystem.model.logs.VerificationToken;
 import com.peterscode.rentalmanagementsystem.model.user.Role;
@@ -14,20 +13,23 @@ import com.peterscode.rentalmanagementsystem.model.user.User;
 import com.peterscode.rentalmanagementsystem.repository.PasswordResetTokenRepository;
 import com.peterscode.rentalmanagementsystem.repository.UserRepository;
 import com.peterscode.rentalmanagementsystem.repository.VerificationTokenRepository;
-import com.peterscode.rentalmanagementsystem.security.JwtService;
+import com.peterscode.rentalmanagementsystem.security.JwtPrincipalCache;
+import com.peterscode.rentalmanagementsystem.security.LoginAuthenticator;
+import com.peterscode.rentalmanagementsystem.security.LoginThrottle;
 import com.peterscode.rentalmanagementsystem.security.SecurityUser;
-import com.peterscode.rentalmanagementsystem.service.email.EmailService;
+import com.peterscode.rentalmanagementsystem.service.outbox.EmailOutboxHandler;
+import com.peterscode.rentalmanagementsystem.service.outbox.OutboxService;
 import com.peterscode.rentalmanagementsystem.util.NetworkUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.security.SecureRandom;
@@ -49,9 +51,12 @@ public class AuthServiceImpl implements AuthService {
     private final VerificationTokenRepository verificationTokenRepository;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
     private final PasswordEncoder passwordEncoder;
-    private final JwtService jwtService;
-    private final AuthenticationManager authenticationManager;
-    private final EmailService emailService;
+    private final JwtPrincipalCache jwtPrincipalCache;
+    private final RefreshTokenService refreshTokenService;
+    private final OutboxService outboxService;
+    private final LoginThrottle loginThrottle;
+    private final LoginAuthenticator loginAuthenticator;
+    private final LoginAlertService loginAlertService;
 
     @Value("${app.frontend-url:http://localhost:5174}")
     private String frontendUrl;
@@ -67,8 +72,8 @@ public class AuthServiceImpl implements AuthService {
         return String.valueOf(code);
     }
 
-    // ─── Shared helper: create + save + send verification token ──────────────
-    // Throws RuntimeException if email sending fails so caller can rollback
+    // ─── Shared helper: create + save token, queue the verification email ────
+    // The email goes through the outbox, so it is sent only if this transaction commits
     private void createAndSendVerificationToken(User user) {
         String token = UUID.randomUUID().toString();
         VerificationToken verificationToken = VerificationToken.builder()
@@ -77,13 +82,16 @@ public class AuthServiceImpl implements AuthService {
                 .expiryDate(LocalDateTime.now().plusHours(VERIFICATION_TOKEN_EXPIRY_HOURS))
                 .build();
         verificationTokenRepository.save(verificationToken);
-        sendVerificationEmailSync(user, token); // synchronous — throws on failure
+        queueVerificationEmail(user, token);
     }
 
     // ─── Shared helper: build JwtResponse ────────────────────────────────────
-    private JwtResponse buildJwtResponse(User user, String token) {
+    private JwtResponse buildJwtResponse(RefreshTokenService.TokenPair tokens) {
+        User user = tokens.user();
         return JwtResponse.builder()
-                .token(token)
+                .token(tokens.accessToken())
+                .refreshToken(tokens.refreshToken())
+                .expiresIn(tokens.expiresIn())
                 .tokenType("Bearer")
                 .role(user.getRole().name())
                 .userId(user.getId())
@@ -145,14 +153,7 @@ public class AuthServiceImpl implements AuthService {
                 .build();
 
         User savedUser = userRepository.save(user);
-        try {
-            createAndSendVerificationToken(savedUser);
-        } catch (Exception e) {
-            log.error("Email sending failed, rolling back registration for: {}", savedUser.getEmail());
-            verificationTokenRepository.deleteByUser(savedUser);
-            userRepository.delete(savedUser);
-            throw new RuntimeException("Registration failed: could not send verification email. Please try again.", e);
-        }
+        createAndSendVerificationToken(savedUser);
 
         log.info("User registered successfully: {}", savedUser.getEmail());
         return true;
@@ -180,16 +181,9 @@ public class AuthServiceImpl implements AuthService {
                 .build();
 
         User savedAdmin = userRepository.save(admin);
-        try {
-            createAndSendVerificationToken(savedAdmin);
-        } catch (Exception e) {
-            log.error("Email sending failed, rolling back admin registration for: {}", savedAdmin.getEmail());
-            verificationTokenRepository.deleteByUser(savedAdmin);
-            userRepository.delete(savedAdmin);
-            throw new RuntimeException("Registration failed: could not send verification email. Please try again.", e);
-        }
+        createAndSendVerificationToken(savedAdmin);
 
-        log.info("Admin registered. Verification email sent to: {}", savedAdmin.getEmail());
+        log.info("Admin registered. Verification email queued for: {}", savedAdmin.getEmail());
         return buildPendingVerificationResponse(savedAdmin);
     }
 
@@ -218,7 +212,7 @@ public class AuthServiceImpl implements AuthService {
         createAndSendVerificationToken(savedUser);
         sendRegistrationEmail(savedUser, role.name());
 
-        log.info("{} created. Verification email sent to: {}", role, savedUser.getEmail());
+        log.info("{} created. Verification email queued for: {}", role, savedUser.getEmail());
 
         // No JWT yet — user must verify email first
         return buildPendingVerificationResponse(savedUser);
@@ -242,33 +236,31 @@ public class AuthServiceImpl implements AuthService {
                 .build();
 
         User savedTenant = userRepository.save(tenant);
-        try {
-            createAndSendVerificationToken(savedTenant);
-        } catch (Exception e) {
-            log.error("Email sending failed, rolling back tenant registration for: {}", savedTenant.getEmail());
-            verificationTokenRepository.deleteByUser(savedTenant);
-            userRepository.delete(savedTenant);
-            throw new RuntimeException("Registration failed: could not send verification email. Please try again.", e);
-        }
+        createAndSendVerificationToken(savedTenant);
 
-        log.info("Tenant registered. Verification email sent to: {}", savedTenant.getEmail());
+        log.info("Tenant registered. Verification email queued for: {}", savedTenant.getEmail());
         return buildPendingVerificationResponse(savedTenant);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public JwtResponse login(LoginRequest request) {
         return login(request, null);
     }
 
+    // No surrounding transaction: a login waiting for a hashing thread must not hold a connection
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public JwtResponse login(LoginRequest request, HttpServletRequest httpRequest) {
         log.info("Login attempt: {}", request.getEmail());
 
+        String email = request.getEmail().toLowerCase().trim();
+        String ipAddress = httpRequest != null ? NetworkUtil.getClientIp(httpRequest) : null;
+        loginThrottle.check(ipAddress, email);
+
         try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            request.getEmail().toLowerCase().trim(),
-                            request.getPassword()));
+            Authentication authentication = loginAuthenticator.authenticate(
+                    new UsernamePasswordAuthenticationToken(email, request.getPassword()));
 
             SecurityUser securityUser = (SecurityUser) authentication.getPrincipal();
             if (securityUser == null || securityUser.user() == null) {
@@ -281,11 +273,9 @@ public class AuthServiceImpl implements AuthService {
                 throw new AccountDisabledException("Account is not verified. Please verify your email first.");
             }
 
-            String ipAddress = httpRequest != null ? NetworkUtil.getClientIp(httpRequest) : "Unknown";
-            sendLoginEmail(user, ipAddress);
+            recordLoginAlert(user, ipAddress, httpRequest != null ? httpRequest.getHeader("User-Agent") : null);
 
-            String token = jwtService.generateToken(user);
-            return buildJwtResponse(user, token);
+            return buildJwtResponse(refreshTokenService.issue(user));
 
         } catch (BadCredentialsException ex) {
             throw new AuthenticationFailedException("Invalid email or password");
@@ -306,6 +296,7 @@ public class AuthServiceImpl implements AuthService {
         User user = verificationToken.getUser();
         user.setEnabled(true);
         userRepository.save(user);
+        jwtPrincipalCache.invalidateUser(user.getId());
 
         verificationTokenRepository.delete(verificationToken);
         sendWelcomeEmail(user);
@@ -384,6 +375,8 @@ public class AuthServiceImpl implements AuthService {
         User user = resetToken.getUser();
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        jwtPrincipalCache.invalidateUser(user.getId());
+        refreshTokenService.revokeAllForUser(user.getId());
 
         resetToken.setUsed(true);
         resetToken.setUsedAt(LocalDateTime.now());
@@ -411,6 +404,22 @@ public class AuthServiceImpl implements AuthService {
         return true;
     }
 
+    // No surrounding transaction: rotate() must commit the family revocation on reuse
+    // even though it throws, which a joined outer transaction would roll back
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public JwtResponse refreshToken(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            throw new BadRequestException("Refresh token is required");
+        }
+        return buildJwtResponse(refreshTokenService.rotate(refreshToken.trim()));
+    }
+
+    @Override
+    public void logout(String refreshToken, String accessToken) {
+        refreshTokenService.revoke(refreshToken, accessToken);
+    }
+
     @Override
     public JwtResponse getUserInfoByEmail(String email) {
         User user = userRepository.findByEmailIgnoreCase(email.trim())
@@ -430,11 +439,11 @@ public class AuthServiceImpl implements AuthService {
     }
 
     /**
-     * Send verification email SYNCHRONOUSLY.
-     * Throws RuntimeException if sending fails so the caller can rollback the
-     * registration.
+     * Queue the verification email in the outbox, in the caller's transaction.
+     * Delivery and retries happen after commit, so a mail outage no longer
+     * fails the registration.
      */
-    private void sendVerificationEmailSync(User user, String token) {
+    private void queueVerificationEmail(User user, String token) {
         String verificationLink = frontendUrl + "/verify-email?token=" + token;
 
         Map<String, Object> variables = new HashMap<>();
@@ -450,11 +459,8 @@ public class AuthServiceImpl implements AuthService {
                 .html(true)
                 .build();
 
-        var result = emailService.sendEmail(emailRequest); // synchronous call
-        if (result == null || result.getStatus() != EmailStatus.SENT) {
-            throw new RuntimeException("Verification email could not be sent to " + user.getEmail());
-        }
-        log.info("Verification email sent successfully to: {}", user.getEmail());
+        outboxService.enqueue(EmailOutboxHandler.TYPE, emailRequest);
+        log.info("Verification email queued for: {}", user.getEmail());
     }
 
     private void sendRegistrationEmail(User user, String userType) {
@@ -476,8 +482,8 @@ public class AuthServiceImpl implements AuthService {
                     .html(true)
                     .build();
 
-            emailService.sendEmailAsync(emailRequest);
-            log.info("Registration email sent to: {}", user.getEmail());
+            outboxService.enqueue(EmailOutboxHandler.TYPE, emailRequest);
+            log.info("Registration email queued for: {}", user.getEmail());
 
         } catch (Exception e) {
             log.error("Failed to send registration email to {}: {}", user.getEmail(), e.getMessage());
@@ -498,37 +504,20 @@ public class AuthServiceImpl implements AuthService {
                     .html(true)
                     .build();
 
-            emailService.sendEmailAsync(emailRequest);
-            log.info("Welcome email sent to: {}", user.getEmail());
+            outboxService.enqueue(EmailOutboxHandler.TYPE, emailRequest);
+            log.info("Welcome email queued for: {}", user.getEmail());
 
         } catch (Exception e) {
             log.error("Failed to send welcome email to {}: {}", user.getEmail(), e.getMessage());
         }
     }
 
-    private void sendLoginEmail(User user, String ipAddress) {
+    // Alerts only for new devices/networks; a failure here must not fail the login
+    private void recordLoginAlert(User user, String ipAddress, String userAgent) {
         try {
-            String currentTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-
-            Map<String, Object> variables = new HashMap<>();
-            variables.put("firstName", user.getFirstName());
-            variables.put("email", user.getEmail());
-            variables.put("loginTime", currentTime);
-            variables.put("ipAddress", ipAddress);
-
-            EmailRequest emailRequest = EmailRequest.builder()
-                    .recipient(user.getEmail())
-                    .subject("Security Alert: Successful Login to Rental Management System")
-                    .templateName("login-success")
-                    .variables(variables)
-                    .html(true)
-                    .build();
-
-            emailService.sendEmailAsync(emailRequest);
-            log.info("Login notification email sent to: {}", user.getEmail());
-
+            loginAlertService.recordLogin(user, ipAddress, userAgent);
         } catch (Exception e) {
-            log.error("Failed to send login email to {}: {}", user.getEmail(), e.getMessage());
+            log.error("Failed to record login alert for {}: {}", user.getEmail(), e.getMessage());
         }
     }
 
@@ -548,8 +537,8 @@ public class AuthServiceImpl implements AuthService {
                     .html(true)
                     .build();
 
-            emailService.sendEmailAsync(emailRequest);
-            log.info("Password reset code email sent to: {}", user.getEmail());
+            outboxService.enqueue(EmailOutboxHandler.TYPE, emailRequest);
+            log.info("Password reset code email queued for: {}", user.getEmail());
 
         } catch (Exception e) {
             log.error("Failed to send password reset code email to {}: {}", user.getEmail(), e.getMessage());
@@ -571,8 +560,8 @@ public class AuthServiceImpl implements AuthService {
                     .html(true)
                     .build();
 
-            emailService.sendEmailAsync(emailRequest);
-            log.info("Password changed notification sent to: {}", user.getEmail());
+            outboxService.enqueue(EmailOutboxHandler.TYPE, emailRequest);
+            log.info("Password changed notification queued for: {}", user.getEmail());
 
         } catch (Exception e) {
             log.error("Failed to send password changed email to {}: {}", user.getEmail(), e.getMessage());
@@ -601,6 +590,8 @@ public class AuthServiceImpl implements AuthService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        jwtPrincipalCache.invalidateUser(user.getId());
+        refreshTokenService.revokeAllForUser(user.getId());
         log.info("Password changed for user: {}", email);
     }
 }
\ No newline at end of file
@@ -0,0 +1,263 @@
+package com.peterscode.rentalmanagementsystem.service.auth;
+
+import com.peterscode.rentalmanagementsystem.config.LoginAlertConfig;
+import com.peterscode.rentalmanagementsystem.dto.request.EmailRequest;
+import com.peterscode.rentalmanagementsystem.model.user.User;
+import com.peterscode.rentalmanagementsystem.security.TokenDigest;
+import com.peterscode.rentalmanagementsystem.service.outbox.EmailOutboxHandler;
+import com.peterscode.rentalmanagementsystem.service.outbox.OutboxService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends login alerts only for sign-ins from somewhere new. A login is fingerprinted
+ * as (user, client IP prefix, user-agent hash) and remembered in
+ * {@code login_fingerprints} (V40) for {@code app.login-alerts.fingerprint-ttl-days}
+ * after it was last seen; known fingerprints send nothing. A new fingerprint is
+ * alerted at once unless the user already got an alert within the digest window,
+ * in which case it waits and goes out with the others in a single digest.
+ * Alerts are queued through the outbox in the same transaction that marks the
+ * fingerprints alerted.
+ */
+@Service
+@Slf4j
+public class LoginAlertService {
+
+    public static final String TEMPLATE = "login-alert";
+
+    static final String FIND_SQL = "SELECT id, expires_at, last_seen_at FROM login_fingerprints " +
+            "WHERE user_id = ? AND ip_prefix = ? AND user_agent_hash = ?";
+    static final String INSERT_SQL = "INSERT INTO login_fingerprints (user_id, ip_prefix, user_agent_hash, last_ip, " +
+            "user_agent, first_seen_at, last_seen_at, expires_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    static final String TOUCH_SQL = "UPDATE login_fingerprints SET last_seen_at = ?, expires_at = ?, last_ip = ? WHERE id = ?";
+    static final String RENEW_SQL = "UPDATE login_fingerprints SET first_seen_at = ?, last_seen_at = ?, expires_at = ?, " +
+            "last_ip = ?, user_agent = ?, alerted_at = NULL WHERE id = ?";
+    static final String LAST_ALERT_SQL = "SELECT MAX(alerted_at) FROM login_fingerprints WHERE user_id = ?";
+    static final String PENDING_SQL = "SELECT id, last_ip, user_agent, first_seen_at FROM login_fingerprints " +
+            "WHERE user_id = ? AND alerted_at IS NULL ORDER BY first_seen_at FOR UPDATE SKIP LOCKED";
+    static final String MARK_ALERTED_SQL = "UPDATE login_fingerprints SET alerted_at = ? WHERE id = ?";
+    static final String DUE_USERS_SQL = "SELECT DISTINCT user_id FROM login_fingerprints " +
+            "WHERE alerted_at IS NULL AND first_seen_at <= ?";
+    static final String USER_SQL = "SELECT email, first_name FROM users WHERE id = ?";
+
+    private static final int MAX_USER_AGENT_LENGTH = 255;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxService outboxService;
+    private final LoginAlertConfig config;
+    private final MeterRegistry meterRegistry;
+
+    record Known(long id, LocalDateTime expiresAt, LocalDateTime lastSeenAt) {
+    }
+
+    record PendingLogin(long id, String ipAddress, String userAgent, LocalDateTime seenAt) {
+    }
+
+    public LoginAlertService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             OutboxService outboxService,
+                             LoginAlertConfig config,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.outboxService = outboxService;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** Records a successful login and alerts the user if it came from a new fingerprint. */
+    public void recordLogin(User user, String ipAddress, String userAgent) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (!remember(user.getId(), ipAddress, userAgent, now)) {
+            count("known");
+            return;
+        }
+
+        LocalDateTime lastAlert = jdbcTemplate.queryForObject(LAST_ALERT_SQL, LocalDateTime.class, user.getId());
+        if (lastAlert != null && lastAlert.isAfter(now.minusMinutes(config.getDigestWindowMinutes()))) {
+            count("deferred");
+            log.debug("New login fingerprint for user {} folded into the next digest", user.getId());
+            return;
+        }
+        if (flush(user.getId(), user.getEmail(), user.getFirstName()) > 0) {
+            count("alerted");
+        }
+    }
+
+    /** Sends one digest per user whose deferred sign-ins have waited out the window. */
+    @Scheduled(fixedDelayString = "${app.login-alerts.digest-poll-ms:60000}")
+    public void sendDueDigests() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(config.getDigestWindowMinutes());
+        List<Long> userIds = jdbcTemplate.queryForList(DUE_USERS_SQL, Long.class, Timestamp.valueOf(cutoff));
+        for (Long userId : userIds) {
+            try {
+                Map<String, Object> user = jdbcTemplate.queryForMap(USER_SQL, userId);
+                if (flush(userId, (String) user.get("email"), (String) user.get("first_name")) > 0) {
+                    count("digest");
+                }
+            } catch (Exception e) {
+                log.error("Failed to send login digest for user {}: {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    /** Forgets fingerprints that were not seen within their TTL; pending ones are kept until alerted. */
+    @Scheduled(cron = "${app.login-alerts.purge-cron:0 55 3 * * *}")
+    public void purgeExpired() {
+        int removed = jdbcTemplate.update(
+                "DELETE FROM login_fingerprints WHERE expires_at < ? AND alerted_at IS NOT NULL",
+                Timestamp.valueOf(LocalDateTime.now()));
+        if (removed > 0) {
+            log.info("Purged {} expired login fingerprints", removed);
+        }
+    }
+
+    /** @return true if the fingerprint is new, or was forgotten and has come back */
+    private boolean remember(Long userId, String ipAddress, String userAgent, LocalDateTime now) {
+        String prefix = ipPrefix(ipAddress);
+        String agentHash = TokenDigest.sha256Hex(userAgent != null ? userAgent : "").substring(0, 16);
+        String agent = truncate(userAgent);
+        Timestamp seenAt = Timestamp.valueOf(now);
+        Timestamp expiresAt = Timestamp.valueOf(now.plusDays(config.getFingerprintTtlDays()));
+
+        List<Known> rows = jdbcTemplate.query(FIND_SQL,
+                (rs, i) -> new Known(rs.getLong("id"), rs.getTimestamp("expires_at").toLocalDateTime(),
+                        rs.getTimestamp("last_seen_at").toLocalDateTime()),
+                userId, prefix, agentHash);
+
+        if (rows.isEmpty()) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, userId, prefix, agentHash, ipAddress, agent, seenAt, seenAt, expiresAt);
+                return true;
+            } catch (DuplicateKeyException e) {
+                // A concurrent login from the same device recorded it first and owns the alert
+                return false;
+            }
+        }
+
+        Known known = rows.get(0);
+        if (known.expiresAt().isAfter(now)) {
+            // Refresh the TTL occasionally rather than writing on every login
+            if (known.lastSeenAt().isBefore(now.minusHours(config.getTouchIntervalHours()))) {
+                jdbcTemplate.update(TOUCH_SQL, seenAt, expiresAt, ipAddress, known.id());
+            }
+            return false;
+        }
+        jdbcTemplate.update(RENEW_SQL, seenAt, seenAt, expiresAt, ipAddress, agent, known.id());
+        return true;
+    }
+
+    /**
+     * Claims the user's pending fingerprints and queues one email for all of them.
+     * SKIP LOCKED keeps a login and the digest job, or two instances, from both sending.
+     */
+    private int flush(Long userId, String email, String firstName) {
+        Integer alerted = transactionTemplate.execute(status -> {
+            List<PendingLogin> pending = jdbcTemplate.query(PENDING_SQL,
+                    (rs, i) -> new PendingLogin(rs.getLong("id"), rs.getString("last_ip"),
+                            rs.getString("user_agent"), rs.getTimestamp("first_seen_at").toLocalDateTime()),
+                    userId);
+            if (pending.isEmpty()) {
+                return 0;
+            }
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(MARK_ALERTED_SQL,
+                    pending.stream().map(login -> new Object[]{now, login.id()}).toList());
+            outboxService.enqueue(EmailOutboxHandler.TYPE, alertEmail(email, firstName, pending));
+            return pending.size();
+        });
+        return alerted != null ? alerted : 0;
+    }
+
+    private EmailRequest alertEmail(String email, String firstName, List<PendingLogin> logins) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (PendingLogin login : logins) {
+            rows.add(Map.of(
+                    "time", login.seenAt().format(TIME_FORMAT),
+                    "ipAddress", login.ipAddress() != null ? login.ipAddress() : "Unknown",
+                    "device", login.userAgent() != null ? login.userAgent() : "Unknown device"));
+        }
+
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("firstName", firstName);
+        variables.put("email", email);
+        variables.put("logins", rows);
+
+        String subject = logins.size() == 1
+                ? "Security Alert: New sign-in to your Rental Management System account"
+                : "Security Alert: " + logins.size() + " new sign-ins to your Rental Management System account";
+        return EmailRequest.builder()
+                .recipient(email)
+                .subject(subject)
+                .templateName(TEMPLATE)
+                .variables(variables)
+                .html(true)
+                .build();
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("auth.login.alerts", "outcome", outcome).increment();
+    }
+
+    /**
+     * The network a login came from: /24 for IPv4 (including IPv4-mapped IPv6) and
+     * /48 for IPv6, so an address change within the same provider is not a new device.
+     */
+    static String ipPrefix(String ipAddress) {
+        if (ipAddress == null || ipAddress.isBlank()) {
+            return "unknown";
+        }
+        String address = ipAddress.trim().toLowerCase();
+        if (address.contains(".")) {
+            address = address.substring(address.lastIndexOf(':') + 1);
+            int lastDot = address.lastIndexOf('.');
+            return address.substring(0, lastDot) + ".0/24";
+        }
+        if (!address.contains(":")) {
+            return address;
+        }
+        try {
+            String[] halves = address.split("::", 2);
+            String[] head = halves[0].isEmpty() ? new String[0] : halves[0].split(":");
+            String[] tail = halves.length < 2 || halves[1].isEmpty() ? new String[0] : halves[1].split(":");
+            String[] groups = new String[8];
+            for (int i = 0; i < 8; i++) {
+                int fromTail = i - (8 - tail.length);
+                groups[i] = i < head.length ? head[i] : fromTail >= 0 ? tail[fromTail] : "0";
+            }
+            return String.format("%x:%x:%x::/48", Integer.parseInt(groups[0], 16),
+                    Integer.parseInt(groups[1], 16), Integer.parseInt(groups[2], 16));
+        } catch (RuntimeException e) {
+            return address;
+        }
+    }
+
+    private static String truncate(String userAgent) {
+        if (userAgent == null) {
+            return null;
+        }
+        return userAgent.length() > MAX_USER_AGENT_LENGTH ? userAgent.substring(0, MAX_USER_AGENT_LENGTH) : userAgent;
+    }
+}
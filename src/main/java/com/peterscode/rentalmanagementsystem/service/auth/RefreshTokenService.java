@@ -0,0 +1,175 @@
+package com.peterscode.rentalmanagementsystem.service.auth;
+
+import com.peterscode.rentalmanagementsystem.exception.AuthenticationFailedException;
+import com.peterscode.rentalmanagementsystem.model.logs.RefreshToken;
+import com.peterscode.rentalmanagementsystem.model.user.User;
+import com.peterscode.rentalmanagementsystem.repository.RefreshTokenRepository;
+import com.peterscode.rentalmanagementsystem.security.JwtService;
+import com.peterscode.rentalmanagementsystem.security.TokenDigest;
+import com.peterscode.rentalmanagementsystem.security.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Issues access/refresh token pairs and rotates them. Each refresh token is used
+ * once: refreshing revokes it and hands out a new one in the same family. A
+ * rotated token presented again means it leaked, so the whole family is revoked,
+ * including access tokens that may still be live.
+ */
+@Service
+@Slf4j
+@Transactional
+public class RefreshTokenService {
+
+    private static final SecureRandom secureRandom = new SecureRandom();
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenRevocationList revocationList;
+    private final JwtService jwtService;
+    private final long refreshExpirationMs;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               TokenRevocationList revocationList,
+                               JwtService jwtService,
+                               @Value("${jwt.refresh-expiration-ms:1209600000}") long refreshExpirationMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revocationList = revocationList;
+        this.jwtService = jwtService;
+        this.refreshExpirationMs = refreshExpirationMs;
+    }
+
+    /** What the client receives; {@code expiresIn} is the access token's lifetime in seconds. */
+    public record TokenPair(User user, String accessToken, String refreshToken, long expiresIn) {
+    }
+
+    /** Starts a new token family, e.g. on login. */
+    public TokenPair issue(User user) {
+        return issue(user, UUID.randomUUID().toString(), null);
+    }
+
+    /**
+     * Exchanges a refresh token for a new pair.
+     *
+     * @throws AuthenticationFailedException if the token is unknown, expired, revoked or reused
+     */
+    // The family revocation on reuse must commit even though the call fails. That only
+    // holds when this starts the transaction, so callers must not wrap it in their own.
+    @Transactional(noRollbackFor = AuthenticationFailedException.class)
+    public TokenPair rotate(String refreshToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHashForUpdate(TokenDigest.sha256Hex(refreshToken))
+                .orElseThrow(() -> new AuthenticationFailedException("Invalid refresh token"));
+        LocalDateTime now = LocalDateTime.now();
+
+        if (current.getReplacedById() != null) {
+            log.warn("Rotated refresh token reused for user {}; revoking family {}",
+                    current.getUser().getId(), current.getFamilyId());
+            revokeFamily(current.getFamilyId(), current.getUser().getId(), now);
+            throw new AuthenticationFailedException("Refresh token has already been used");
+        }
+        if (!current.isActive(now)) {
+            throw new AuthenticationFailedException("Refresh token has expired or was revoked");
+        }
+        User user = current.getUser();
+        if (!user.isEnabled()) {
+            revokeFamily(current.getFamilyId(), user.getId(), now);
+            throw new AuthenticationFailedException("Account is disabled");
+        }
+
+        return issue(user, current.getFamilyId(), current);
+    }
+
+    /** Logout: revokes the refresh token's family and, if given, the access token in use. */
+    public void revoke(String refreshToken, String accessToken) {
+        LocalDateTime now = LocalDateTime.now();
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenRepository.findByTokenHashForUpdate(TokenDigest.sha256Hex(refreshToken))
+                    .ifPresent(token -> revokeFamily(token.getFamilyId(), token.getUser().getId(), now));
+        }
+        if (accessToken != null && !accessToken.isBlank()) {
+            jwtService.parse(accessToken).ifPresent(this::revokeAccessToken);
+        }
+    }
+
+    /** Signs the user out everywhere, e.g. after a password change or when the account is disabled. */
+    public void revokeAllForUser(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<RefreshToken> active = refreshTokenRepository.findActiveByUserId(userId);
+        active.forEach(token -> token.setRevokedAt(now));
+        refreshTokenRepository.saveAll(active);
+        refreshTokenRepository.findAccessJtisByUserIssuedAfter(userId, now.minus(accessTtl()))
+                .forEach(jti -> revocationList.revoke(jti, userId, now.plus(accessTtl())));
+        if (!active.isEmpty()) {
+            log.info("Revoked {} sessions of user {}", active.size(), userId);
+        }
+    }
+
+    @Scheduled(cron = "${jwt.refresh-purge-cron:0 45 3 * * *}")
+    public void purgeExpired() {
+        int removed = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+        if (removed > 0) {
+            log.info("Purged {} expired refresh tokens", removed);
+        }
+    }
+
+    private TokenPair issue(User user, String familyId, RefreshToken previous) {
+        JwtService.AccessToken access = jwtService.issueAccessToken(user);
+        String refreshToken = newRefreshToken();
+        LocalDateTime now = LocalDateTime.now();
+
+        RefreshToken saved = refreshTokenRepository.save(RefreshToken.builder()
+                .user(user)
+                .tokenHash(TokenDigest.sha256Hex(refreshToken))
+                .familyId(familyId)
+                .accessJti(access.jti())
+                .expiresAt(now.plus(Duration.ofMillis(refreshExpirationMs)))
+                .createdAt(now)
+                .build());
+        if (previous != null) {
+            previous.setRevokedAt(now);
+            previous.setReplacedById(saved.getId());
+            refreshTokenRepository.save(previous);
+        }
+        return new TokenPair(user, access.token(), refreshToken, accessTtl().toSeconds());
+    }
+
+    private void revokeFamily(String familyId, Long userId, LocalDateTime now) {
+        List<RefreshToken> active = refreshTokenRepository.findByFamilyIdAndRevokedAtIsNull(familyId);
+        active.forEach(token -> token.setRevokedAt(now));
+        refreshTokenRepository.saveAll(active);
+
+        // Access tokens issued within one lifetime may still be in use
+        refreshTokenRepository.findAccessJtisByFamilyIssuedAfter(familyId, now.minus(accessTtl()))
+                .forEach(jti -> revocationList.revoke(jti, userId, now.plus(accessTtl())));
+    }
+
+    private void revokeAccessToken(Claims claims) {
+        if (claims.getId() != null && claims.getExpiration() != null) {
+            Long userId = claims.get("userId") != null ? Long.valueOf(claims.get("userId", String.class)) : null;
+            revocationList.revoke(claims.getId(), userId,
+                    LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault()));
+        }
+    }
+
+    private Duration accessTtl() {
+        return Duration.ofMillis(jwtService.getExpirationMs());
+    }
+
+    private static String newRefreshToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
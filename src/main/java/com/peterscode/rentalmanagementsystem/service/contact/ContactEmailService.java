@@ -0,0 +1,61 @@
+package com.peterscode.rentalmanagementsystem.service.contact;
+
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+/**
+ * Emails public contact form submissions to staff. Lives in its own bean so that
+ * {@code @Async} goes through the proxy; called from inside the controller it ran
+ * on the request thread.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContactEmailService {
+
+    private final JavaMailSender javaMailSender;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    @Async("emailTaskExecutor")
+    public void sendContactEmail(String recipientEmail, String message) {
+        try {
+            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
+            helper.setFrom(fromEmail);
+            helper.setTo(recipientEmail);
+            helper.setSubject("\uD83D\uDCE9 New Contact Message \u2014 RentalHub");
+            helper.setText(
+                "<div style='font-family:Arial,sans-serif;max-width:600px;margin:0 auto;'>" +
+                "  <div style='background:#6366f1;color:#fff;padding:20px;border-radius:12px 12px 0 0;text-align:center;'>" +
+                "    <h2 style='margin:0;'>New Contact Message</h2>" +
+                "  </div>" +
+                "  <div style='background:#f8fafc;padding:24px;border:1px solid #e2e8f0;border-radius:0 0 12px 12px;'>" +
+                "    <p style='color:#334155;font-size:15px;line-height:1.7;white-space:pre-wrap;'>" +
+                        escapeHtml(message) +
+                "    </p>" +
+                "    <hr style='border:none;border-top:1px solid #e2e8f0;margin:20px 0;'/>" +
+                "    <p style='color:#94a3b8;font-size:13px;'>Submitted via the RentalHub public contact form.</p>" +
+                "  </div>" +
+                "</div>", true);
+            javaMailSender.send(mimeMessage);
+            log.info("Contact email sent to {}", recipientEmail);
+        } catch (Exception e) {
+            log.error("Failed to send contact email to {}: {}", recipientEmail, e.getMessage());
+        }
+    }
+
+    private String escapeHtml(String text) {
+        return text.replace("&", "&amp;")
+                   .replace("<", "&lt;")
+                   .replace(">", "&gt;")
+                   .replace("\"", "&quot;");
+    }
+}
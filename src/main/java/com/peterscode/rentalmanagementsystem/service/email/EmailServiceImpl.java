@@ -20,6 +20,7 @@ import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.util.HtmlUtils;
 
 import java.net.URI;
 import java.net.http.HttpClient;
@@ -30,7 +31,6 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -117,15 +117,13 @@ public class EmailServiceImpl implements EmailService {
     @Async("emailTaskExecutor")
     @Transactional
     public void sendEmailAsync(EmailRequest emailRequest) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                sendEmail(emailRequest);
-                log.debug("Async email sent successfully to: {}", emailRequest.getRecipient());
-            } catch (Exception e) {
-                log.error("Async email sending failed for {}: {}",
-                        emailRequest.getRecipient(), e.getMessage());
-            }
-        });
+        try {
+            sendEmail(emailRequest);
+            log.debug("Async email sent successfully to: {}", emailRequest.getRecipient());
+        } catch (Exception e) {
+            log.error("Async email sending failed for {}: {}",
+                    emailRequest.getRecipient(), e.getMessage());
+        }
     }
 
     @Override
@@ -427,6 +425,12 @@ public class EmailServiceImpl implements EmailService {
             return generatePasswordResetCodeEmailHtml(firstName, resetCode, expiryMinutes, currentYear);
         }
 
+        if (templateName != null && templateName.contains("login-alert")) {
+            Object logins = variables.getOrDefault("logins", List.of());
+            return generateLoginAlertEmailHtml(firstName, logins instanceof List<?> list ? list : List.of(),
+                    currentYear);
+        }
+
         // Return custom body or default
         return emailRequest.getBody() != null ? emailRequest.getBody() : "";
     }
@@ -630,6 +634,55 @@ public class EmailServiceImpl implements EmailService {
                 firstName, resetCode, expiryMinutes, expiryMinutes, frontendUrl, resetCode, currentYear);
     }
 
+    // Login rows carry a client-supplied user agent, so everything is escaped
+    private String generateLoginAlertEmailHtml(String firstName, List<?> logins, int currentYear) {
+        StringBuilder rows = new StringBuilder();
+        for (Object login : logins) {
+            if (login instanceof Map<?, ?> row) {
+                rows.append(String.format("<tr><td>%s</td><td>%s</td><td>%s</td></tr>",
+                        HtmlUtils.htmlEscape(String.valueOf(row.get("time"))),
+                        HtmlUtils.htmlEscape(String.valueOf(row.get("ipAddress"))),
+                        HtmlUtils.htmlEscape(String.valueOf(row.get("device")))));
+            }
+        }
+        String intro = logins.size() == 1
+                ? "Your account was just signed in to from a device or network we have not seen before."
+                : "Your account was signed in to from " + logins.size()
+                        + " devices or networks we have not seen before.";
+
+        return String.format("""
+                 <!DOCTYPE html>
+                 <html>
+                 <head>
+                     <meta charset="UTF-8">
+                     <style>
+                         body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
+                         .container { max-width: 600px; margin: 0 auto; padding: 20px; }
+                         table { border-collapse: collapse; width: 100%%; margin: 20px 0; }
+                         th, td { text-align: left; padding: 8px; border-bottom: 1px solid #eee; font-size: 14px; }
+                         .warning { background: #fff3cd; border: 1px solid #ffecb5; padding: 15px; border-radius: 5px; }
+                     </style>
+                 </head>
+                 <body>
+                     <div class="container">
+                         <h2>New Sign-in to Your Account</h2>
+                         <p>Hello %s,</p>
+                         <p>%s</p>
+                         <table>
+                             <tr><th>Time</th><th>IP address</th><th>Device</th></tr>
+                             %s
+                         </table>
+                         <div class="warning">
+                             If this wasn't you, <a href="%s/auth/reset-password">reset your password</a> now.
+                             Sign-ins from the same device and network will not be reported again.
+                         </div>
+                         <p>© %d Rental Management System</p>
+                     </div>
+                 </body>
+                 </html>
+                \s""", HtmlUtils.htmlEscape(firstName != null ? firstName : "User"), intro, rows, frontendUrl, currentYear);
+    }
+
     private void logEmailDetails(EmailRequest emailRequest) {
         log.info("📧 Email Details:");
         log.info("   From: {}", fromEmail);
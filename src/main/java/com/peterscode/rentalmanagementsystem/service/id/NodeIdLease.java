@@ -0,0 +1,137 @@
+package com.peterscode.rentalmanagementsystem.service.id;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Leases a node id for {@link IdGeneratorService} from {@code id_node_leases} (V41).
+ * The lease is renewed every {@code app.id-generator.lease-renew-ms}; another
+ * instance may only take the id over once it has expired. This instance treats
+ * the lease as valid for three quarters of its length, leaving the rest as slack
+ * for clock skew, and refuses to hand out the node id once it has lapsed.
+ */
+@Component
+@Slf4j
+public class NodeIdLease {
+
+    static final String SELECT_SQL = "SELECT node_id, expires_at FROM id_node_leases";
+    static final String INSERT_SQL = "INSERT INTO id_node_leases (node_id, owner, expires_at) VALUES (?, ?, ?)";
+    static final String TAKEOVER_SQL = "UPDATE id_node_leases SET owner = ?, expires_at = ? " +
+            "WHERE node_id = ? AND expires_at < ?";
+    static final String RENEW_SQL = "UPDATE id_node_leases SET expires_at = ? WHERE node_id = ? AND owner = ?";
+    static final String RELEASE_SQL = "DELETE FROM id_node_leases WHERE node_id = ? AND owner = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long leaseSeconds;
+    private final String owner = UUID.randomUUID().toString();
+
+    private long maxNodeId;
+    private volatile long nodeId = -1;
+    private volatile long validUntilMillis;
+
+    public NodeIdLease(JdbcTemplate jdbcTemplate,
+                       @Value("${app.id-generator.lease-seconds:600}") long leaseSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.leaseSeconds = leaseSeconds;
+    }
+
+    /**
+     * Claims a free or expired node id between 0 and {@code maxNodeId}.
+     *
+     * @throws IllegalStateException if every node id is held by a live instance
+     */
+    public synchronized long acquire(long maxNodeId) {
+        this.maxNodeId = maxNodeId;
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp expiresAt = Timestamp.valueOf(now.plusSeconds(leaseSeconds));
+
+        Map<Long, LocalDateTime> leased = new HashMap<>();
+        List<Map.Entry<Long, LocalDateTime>> rows = jdbcTemplate.query(SELECT_SQL,
+                (rs, i) -> Map.entry(rs.getLong("node_id"), rs.getTimestamp("expires_at").toLocalDateTime()));
+        rows.forEach(row -> leased.put(row.getKey(), row.getValue()));
+
+        // Random starting point so instances booting together rarely race for the same id
+        long start = ThreadLocalRandom.current().nextLong(maxNodeId + 1);
+        for (long i = 0; i <= maxNodeId; i++) {
+            long candidate = (start + i) % (maxNodeId + 1);
+            LocalDateTime leasedUntil = leased.get(candidate);
+            try {
+                if (leasedUntil == null) {
+                    jdbcTemplate.update(INSERT_SQL, candidate, owner, expiresAt);
+                    return claimed(candidate);
+                }
+                if (leasedUntil.isBefore(now)
+                        && jdbcTemplate.update(TAKEOVER_SQL, owner, expiresAt, candidate, Timestamp.valueOf(now)) == 1) {
+                    return claimed(candidate);
+                }
+            } catch (DuplicateKeyException e) {
+                // Another instance claimed it between our read and insert
+            }
+        }
+        throw new IllegalStateException("All " + (maxNodeId + 1) + " id generator node ids are leased");
+    }
+
+    /**
+     * The leased node id.
+     *
+     * @throws IllegalStateException once the lease has lapsed, since another instance may own it by now
+     */
+    public long currentNodeId() {
+        if (System.currentTimeMillis() >= validUntilMillis) {
+            throw new IllegalStateException("Id generator node lease " + nodeId + " has lapsed");
+        }
+        return nodeId;
+    }
+
+    @Scheduled(fixedDelayString = "${app.id-generator.lease-renew-ms:60000}")
+    public synchronized void renew() {
+        if (nodeId < 0) {
+            return;
+        }
+        long renewedAt = System.currentTimeMillis();
+        try {
+            int updated = jdbcTemplate.update(RENEW_SQL,
+                    Timestamp.valueOf(LocalDateTime.now().plusSeconds(leaseSeconds)), nodeId, owner);
+            if (updated == 1) {
+                validUntilMillis = renewedAt + leaseSeconds * 750;
+            } else {
+                log.error("Id generator node lease {} was taken over; claiming a new node id", nodeId);
+                acquire(maxNodeId);
+            }
+        } catch (Exception e) {
+            // Keep the current lease until it lapses; the next run tries again
+            log.warn("Could not renew id generator node lease {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void release() {
+        if (nodeId >= 0) {
+            try {
+                jdbcTemplate.update(RELEASE_SQL, nodeId, owner);
+            } catch (Exception e) {
+                log.debug("Could not release id generator node lease {}: {}", nodeId, e.getMessage());
+            }
+        }
+    }
+
+    private long claimed(long candidate) {
+        nodeId = candidate;
+        validUntilMillis = System.currentTimeMillis() + leaseSeconds * 750;
+        log.info("Leased id generator node id {} for {} s", candidate, leaseSeconds);
+        return candidate;
+    }
+}
@@ -14,6 +14,7 @@ import com.peterscode.rentalmanagementsystem.model.user.User;
 import com.peterscode.rentalmanagementsystem.repository.LeaseRepository;
 import com.peterscode.rentalmanagementsystem.repository.PropertyRepository;
 import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,12 +28,13 @@ public class LeaseServiceImpl implements LeaseService {
 
     private final LeaseRepository leaseRepository;
     private final UserRepository userRepository;
+    private final CurrentUser currentUser;
     private final PropertyRepository propertyRepository;
 
     @Override
     @Transactional
     public LeaseResponse createLease(String callerEmail, LeaseCreateRequest request) {
-        User caller = userRepository.findByEmailIgnoreCase(callerEmail)
+        User caller = currentUser.findByEmailIgnoreCase(callerEmail)
                 .orElseThrow(() -> new UserNotFoundException("Caller not found"));
 
         // Only property owner (landlord) or admin can create a lease for a property
@@ -81,7 +83,7 @@ public class LeaseServiceImpl implements LeaseService {
     @Override
     @Transactional(readOnly = true)
     public List<LeaseResponse> getByTenant(String callerEmail) {
-        User tenant = userRepository.findByEmailIgnoreCase(callerEmail)
+        User tenant = currentUser.findByEmailIgnoreCase(callerEmail)
                 .orElseThrow(() -> new CustomException("Tenant not found"));
 
         return leaseRepository.findByTenant_Id(tenant.getId())
@@ -94,7 +96,7 @@ public class LeaseServiceImpl implements LeaseService {
         Property property = propertyRepository.findById(propertyId)
                 .orElseThrow(() -> new CustomException("Property not found"));
 
-        User caller = userRepository.findByEmailIgnoreCase(callerEmail)
+        User caller = currentUser.findByEmailIgnoreCase(callerEmail)
                 .orElseThrow(() -> new CustomException("Caller not found"));
 
         boolean isOwner = property.getOwner() != null && property.getOwner().getId().equals(caller.getId());
@@ -116,7 +118,7 @@ public class LeaseServiceImpl implements LeaseService {
 
         Property property = lease.getProperty();
 
-        User caller = userRepository.findByEmailIgnoreCase(callerEmail)
+        User caller = currentUser.findByEmailIgnoreCase(callerEmail)
                 .orElseThrow(() -> new CustomException("Caller not found"));
 
         boolean isOwner = property.getOwner() != null && property.getOwner().getId().equals(caller.getId());
@@ -146,7 +148,7 @@ public class LeaseServiceImpl implements LeaseService {
     @Transactional(readOnly = true)
     @Override
     public List<LeaseResponse> getAllLeases(String callerEmail) {
-        User caller = userRepository.findByEmailIgnoreCase(callerEmail)
+        User caller = currentUser.findByEmailIgnoreCase(callerEmail)
                 .orElseThrow(() -> new UserNotFoundException("Caller not found"));
 
         // Admin sees all leases
@@ -173,7 +175,7 @@ public class LeaseServiceImpl implements LeaseService {
     @Override
     @Transactional(readOnly = true)
     public List<LeaseResponse> getMyLeases(String callerEmail) {
-        User caller = userRepository.findByEmailIgnoreCase(callerEmail)
+        User caller = currentUser.findByEmailIgnoreCase(callerEmail)
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
 
         // Get leases where the caller is the tenant
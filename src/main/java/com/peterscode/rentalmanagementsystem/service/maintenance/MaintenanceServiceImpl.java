@@ -14,6 +14,7 @@ import com.peterscode.rentalmanagementsystem.repository.MaintenanceRequestReposi
 import com.peterscode.rentalmanagementsystem.repository.PropertyRepository;
 import com.peterscode.rentalmanagementsystem.repository.UserRepository;
 import com.peterscode.rentalmanagementsystem.util.FileStorageUtil;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.AccessDeniedException;
@@ -35,6 +36,7 @@ public class MaintenanceServiceImpl implements MaintenanceService {
     private final MaintenanceRequestRepository maintenanceRequestRepository;
     private final MaintenanceImageRepository maintenanceImageRepository;
     private final UserRepository userRepository;
+    private final CurrentUser currentUser;
     private final PropertyRepository propertyRepository;
     private final FileStorageUtil fileStorageUtil;
 
@@ -52,7 +54,7 @@ public class MaintenanceServiceImpl implements MaintenanceService {
     @Override
     @Transactional
     public MaintenanceResponse createMaintenanceRequest(MaintenanceRequestDto requestDto, String tenantEmail) {
-        User tenant = userRepository.findByEmail(tenantEmail)
+        User tenant = currentUser.findByEmail(tenantEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         validateTenantRole(tenant);
@@ -179,7 +181,7 @@ public class MaintenanceServiceImpl implements MaintenanceService {
 
     @Override
     public List<MaintenanceResponse> getAllMaintenanceRequests(String callerEmail) {
-        User user = userRepository.findByEmail(callerEmail)
+        User user = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         List<MaintenanceRequest> requests = getRequestsBasedOnRole(user);
@@ -201,7 +203,7 @@ public class MaintenanceServiceImpl implements MaintenanceService {
 
     @Override
     public List<MaintenanceResponse> getMyMaintenanceRequests(String tenantEmail) {
-        User tenant = userRepository.findByEmail(tenantEmail)
+        User tenant = currentUser.findByEmail(tenantEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         List<MaintenanceRequest> requests = maintenanceRequestRepository.findByTenantOrderByRequestDateDesc(tenant);
@@ -214,7 +216,7 @@ public class MaintenanceServiceImpl implements MaintenanceService {
     @Override
     public List<MaintenanceResponse> getRequestsByStatus(String status, String callerEmail) {
         MaintenanceStatus maintenanceStatus = parseMaintenanceStatus(status);
-        User user = userRepository.findByEmail(callerEmail)
+        User user = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         List<MaintenanceRequest> requests = getRequestsByStatusAndRole(maintenanceStatus, user);
@@ -245,7 +247,7 @@ public class MaintenanceServiceImpl implements MaintenanceService {
     @Override
     public List<MaintenanceResponse> getRequestsByCategory(String category, String callerEmail) {
         MaintenanceCategory maintenanceCategory = parseMaintenanceCategory(category);
-        User user = userRepository.findByEmail(callerEmail)
+        User user = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         List<MaintenanceRequest> requests = getRequestsByCategoryAndRole(maintenanceCategory, user);
@@ -276,7 +278,7 @@ public class MaintenanceServiceImpl implements MaintenanceService {
     @Override
     public List<MaintenanceResponse> getRequestsByPriority(String priority, String callerEmail) {
         MaintenancePriority maintenancePriority = parseMaintenancePriority(priority);
-        User user = userRepository.findByEmail(callerEmail)
+        User user = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         List<MaintenanceRequest> requests = getRequestsByPriorityAndRole(maintenancePriority, user);
@@ -306,7 +308,7 @@ public class MaintenanceServiceImpl implements MaintenanceService {
 
     @Override
     public List<MaintenanceResponse> getOpenRequests(String callerEmail) {
-        User user = userRepository.findByEmail(callerEmail)
+        User user = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         List<MaintenanceRequest> requests = getOpenRequestsBasedOnRole(user);
@@ -350,7 +352,7 @@ public class MaintenanceServiceImpl implements MaintenanceService {
     }
 
     private void updateRequestFields(MaintenanceRequest request, MaintenanceUpdateDto updateDto, String callerEmail) {
-        User user = userRepository.findByEmail(callerEmail)
+        User user = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         // Update fields
@@ -398,7 +400,7 @@ public class MaintenanceServiceImpl implements MaintenanceService {
         User staff = userRepository.findById(staffId)
                 .orElseThrow(() -> new ResourceNotFoundException("Staff user not found"));
 
-        User caller = userRepository.findByEmail(callerEmail)
+        User caller = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (!caller.getRole().name().contains("ADMIN") && !caller.getRole().name().contains("LANDLORD")) {
@@ -446,7 +448,7 @@ public class MaintenanceServiceImpl implements MaintenanceService {
         MaintenanceRequest request = maintenanceRequestRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Maintenance request not found"));
 
-        User user = userRepository.findByEmail(callerEmail)
+        User user = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (!canDeleteRequest(request, user)) {
@@ -515,7 +517,7 @@ public class MaintenanceServiceImpl implements MaintenanceService {
 
     @Override
     public MaintenanceSummaryResponse getMaintenanceSummary(String callerEmail) {
-        User user = userRepository.findByEmail(callerEmail)
+        User user = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (!user.getRole().name().contains("ADMIN") && !user.getRole().name().contains("LANDLORD")) {
@@ -589,7 +591,7 @@ public class MaintenanceServiceImpl implements MaintenanceService {
 
     @Override
     public MaintenanceSummaryResponse getTenantMaintenanceSummary(String tenantEmail) {
-        User tenant = userRepository.findByEmail(tenantEmail)
+        User tenant = currentUser.findByEmail(tenantEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         List<MaintenanceRequest> tenantRequests = maintenanceRequestRepository.findByTenantOrderByRequestDateDesc(tenant);
@@ -620,7 +622,7 @@ public class MaintenanceServiceImpl implements MaintenanceService {
 
     @Override
     public Long getOpenRequestsCount(String callerEmail) {
-        User user = userRepository.findByEmail(callerEmail)
+        User user = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (user.getRole().name().contains("ADMIN")) {
@@ -637,7 +639,7 @@ public class MaintenanceServiceImpl implements MaintenanceService {
         MaintenanceRequest request = maintenanceRequestRepository.findById(requestId)
                 .orElseThrow(() -> new ResourceNotFoundException("Maintenance request not found"));
 
-        User user = userRepository.findByEmail(userEmail)
+        User user = currentUser.findByEmail(userEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (user.getRole().name().contains("ADMIN")) {
@@ -659,7 +661,7 @@ public class MaintenanceServiceImpl implements MaintenanceService {
 
     @Override
     public boolean canUpdateRequest(Long requestId, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
+        User user = currentUser.findByEmail(userEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (user.getRole().name().contains("ADMIN")) {
@@ -0,0 +1,35 @@
+package com.peterscode.rentalmanagementsystem.service.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peterscode.rentalmanagementsystem.dto.request.EmailRequest;
+import com.peterscode.rentalmanagementsystem.dto.response.EmailLogResponse;
+import com.peterscode.rentalmanagementsystem.model.logs.EmailStatus;
+import com.peterscode.rentalmanagementsystem.service.email.EmailService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/** Sends an {@link EmailRequest} queued through the outbox; a failed send is retried by the dispatcher. */
+@Component
+@RequiredArgsConstructor
+public class EmailOutboxHandler implements OutboxHandler {
+
+    public static final String TYPE = "EMAIL";
+
+    private final EmailService emailService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String type() {
+        return TYPE;
+    }
+
+    @Override
+    public void handle(String payload) throws Exception {
+        EmailRequest request = objectMapper.readValue(payload, EmailRequest.class);
+        EmailLogResponse result = emailService.sendEmail(request);
+        if (result == null || result.getStatus() != EmailStatus.SENT) {
+            throw new IllegalStateException("Email to " + request.getRecipient() + " not sent: "
+                    + (result != null ? result.getErrorMessage() : "no result"));
+        }
+    }
+}
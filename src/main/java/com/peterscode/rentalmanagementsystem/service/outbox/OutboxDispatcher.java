@@ -0,0 +1,181 @@
+package com.peterscode.rentalmanagementsystem.service.outbox;
+
+import com.peterscode.rentalmanagementsystem.config.OutboxConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers outbox events to their {@link OutboxHandler}. Due events are claimed in
+ * a short transaction with {@code FOR UPDATE SKIP LOCKED} and leased for
+ * {@code app.outbox.lease-seconds}, so several instances can dispatch side by side
+ * and an event whose dispatcher died is picked up again once the lease runs out.
+ * Delivery itself runs outside any transaction. Failures are retried with
+ * exponential backoff until {@code max-attempts}, then the event is marked FAILED.
+ */
+@Component
+@Slf4j
+public class OutboxDispatcher {
+
+    static final String CLAIM_SQL = "SELECT id, event_type, payload, attempts FROM outbox_events " +
+            "WHERE status = 'PENDING' AND next_attempt_at <= ? ORDER BY next_attempt_at, id LIMIT ? " +
+            "FOR UPDATE SKIP LOCKED";
+    static final String LEASE_SQL = "UPDATE outbox_events SET attempts = attempts + 1, next_attempt_at = ? WHERE id = ?";
+    static final String SENT_SQL = "UPDATE outbox_events SET status = 'SENT', processed_at = ?, last_error = NULL WHERE id = ?";
+    static final String RETRY_SQL = "UPDATE outbox_events SET next_attempt_at = ?, last_error = ? WHERE id = ?";
+    static final String FAILED_SQL = "UPDATE outbox_events SET status = 'FAILED', processed_at = ?, last_error = ? WHERE id = ?";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor executor;
+    private final OutboxConfig config;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, OutboxHandler> handlers;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean requested = new AtomicBoolean();
+
+    record Claimed(long id, String type, String payload, int attempts) {
+    }
+
+    public OutboxDispatcher(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Qualifier("outboxTaskExecutor") TaskExecutor executor,
+                            OutboxConfig config,
+                            MeterRegistry meterRegistry,
+                            List<OutboxHandler> handlers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.handlers = handlers.stream().collect(Collectors.toMap(OutboxHandler::type, Function.identity()));
+    }
+
+    /**
+     * Runs a dispatch pass in the background; folds into the current pass if one is running.
+     * Never delivers on the calling thread: if the outbox executor is busy, the wake-up is
+     * dropped and the scheduled poll delivers instead.
+     */
+    public void dispatchSoon() {
+        requested.set(true);
+        if (!running.get()) {
+            Thread caller = Thread.currentThread();
+            try {
+                // The guard skips the pass if a CALLER_RUNS policy hands it back to the caller
+                executor.execute(() -> {
+                    if (Thread.currentThread() != caller) {
+                        dispatch();
+                    }
+                });
+            } catch (Exception e) {
+                // The scheduled poll will pick the events up
+                log.debug("Outbox dispatch not scheduled: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        requested.set(true);
+        dispatch();
+    }
+
+    /** Delivers due events until none are left. Only one pass runs at a time per instance. */
+    public void dispatch() {
+        while (requested.get() && running.compareAndSet(false, true)) {
+            try {
+                requested.set(false);
+                List<Claimed> batch;
+                do {
+                    batch = claim();
+                    batch.forEach(this::deliver);
+                } while (batch.size() >= config.getBatchSize());
+            } catch (Exception e) {
+                log.error("Outbox dispatch failed: {}", e.getMessage(), e);
+                return;
+            } finally {
+                running.set(false);
+            }
+        }
+    }
+
+    @Scheduled(cron = "${app.outbox.purge-cron:0 50 3 * * *}")
+    public void purgeDelivered() {
+        int removed = jdbcTemplate.update("DELETE FROM outbox_events WHERE status = 'SENT' AND processed_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(config.getKeepDays())));
+        if (removed > 0) {
+            log.info("Purged {} delivered outbox events", removed);
+        }
+    }
+
+    private List<Claimed> claim() {
+        List<Claimed> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Claimed> rows = jdbcTemplate.query(CLAIM_SQL,
+                    (rs, i) -> new Claimed(rs.getLong("id"), rs.getString("event_type"),
+                            rs.getString("payload"), rs.getInt("attempts") + 1),
+                    Timestamp.valueOf(now), config.getBatchSize());
+            Timestamp leaseUntil = Timestamp.valueOf(now.plusSeconds(config.getLeaseSeconds()));
+            rows.forEach(row -> jdbcTemplate.update(LEASE_SQL, leaseUntil, row.id()));
+            return rows;
+        });
+        return claimed != null ? claimed : Collections.emptyList();
+    }
+
+    private void deliver(Claimed event) {
+        OutboxHandler handler = handlers.get(event.type());
+        try {
+            if (handler == null) {
+                throw new IllegalStateException("No outbox handler for type " + event.type());
+            }
+            handler.handle(event.payload());
+            jdbcTemplate.update(SENT_SQL, Timestamp.valueOf(LocalDateTime.now()), event.id());
+            meterRegistry.counter("outbox.events", "type", event.type(), "outcome", "delivered").increment();
+        } catch (Exception e) {
+            String error = truncate(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            if (event.attempts() >= config.getMaxAttempts()) {
+                jdbcTemplate.update(FAILED_SQL, Timestamp.valueOf(LocalDateTime.now()), error, event.id());
+                meterRegistry.counter("outbox.events", "type", event.type(), "outcome", "failed").increment();
+                log.error("Outbox event {} ({}) failed after {} attempts: {}", event.id(), event.type(),
+                        event.attempts(), error);
+            } else {
+                LocalDateTime next = LocalDateTime.now().plus(Duration.ofMillis(backoffMs(event.attempts())));
+                jdbcTemplate.update(RETRY_SQL, Timestamp.valueOf(next), error, event.id());
+                meterRegistry.counter("outbox.events", "type", event.type(), "outcome", "retried").increment();
+                log.warn("Outbox event {} ({}) attempt {} failed, retrying at {}: {}", event.id(), event.type(),
+                        event.attempts(), next, error);
+            }
+        }
+    }
+
+    /** initial * 2^(attempt-1), capped, with up to 20% jitter so retries after an outage spread out. */
+    long backoffMs(int attempt) {
+        long base = config.getInitialBackoffMs() << Math.min(attempt - 1, 20);
+        long capped = Math.min(Math.max(base, config.getInitialBackoffMs()), config.getMaxBackoffMs());
+        return capped + ThreadLocalRandom.current().nextLong(capped / 5 + 1);
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+}
@@ -0,0 +1,14 @@
+package com.peterscode.rentalmanagementsystem.service.outbox;
+
+/**
+ * Delivers one kind of outbox event. Implementations are Spring beans picked up by
+ * {@link OutboxDispatcher}; throwing from {@link #handle} schedules a retry.
+ * Delivery is at least once, so handlers should tolerate the odd duplicate.
+ */
+public interface OutboxHandler {
+
+    /** The {@code event_type} this handler delivers. */
+    String type();
+
+    void handle(String payload) throws Exception;
+}
@@ -10,7 +10,7 @@ import com.peterscode.rentalmanagementsystem.model.property.Property;
 import com.peterscode.rentalmanagementsystem.model.user.User;
 import com.peterscode.rentalmanagementsystem.repository.MonthlyPaymentHistoryRepository;
 import com.peterscode.rentalmanagementsystem.repository.PaymentRepository;
-import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -29,7 +29,7 @@ public class MonthlyPaymentHistoryService {
 
     private final MonthlyPaymentHistoryRepository monthlyPaymentHistoryRepository;
     private final PaymentRepository paymentRepository;
-    private final UserRepository userRepository;
+    private final CurrentUser currentUser;
 
     /**
      * Get or create monthly payment history for a tenant
@@ -92,7 +92,7 @@ public class MonthlyPaymentHistoryService {
      */
     @Transactional(readOnly = true)
     public MonthlyPaymentHistoryResponse getCurrentMonthHistory(String tenantEmail) {
-        User tenant = userRepository.findByEmail(tenantEmail)
+        User tenant = currentUser.findByEmail(tenantEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("Tenant not found"));
 
         LocalDate now = LocalDate.now();
@@ -111,7 +111,7 @@ public class MonthlyPaymentHistoryService {
      */
     @Transactional(readOnly = true)
     public List<MonthlyPaymentHistoryResponse> getTenantPaymentHistory(String tenantEmail) {
-        User tenant = userRepository.findByEmail(tenantEmail)
+        User tenant = currentUser.findByEmail(tenantEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("Tenant not found"));
 
         return monthlyPaymentHistoryRepository.findByTenantIdOrderByYearDescMonthDesc(tenant.getId())
@@ -125,7 +125,7 @@ public class MonthlyPaymentHistoryService {
      */
     @Transactional(readOnly = true)
     public List<MonthlyPaymentHistoryResponse> getTenantPaymentHistoryByYear(String tenantEmail, Integer year) {
-        User tenant = userRepository.findByEmail(tenantEmail)
+        User tenant = currentUser.findByEmail(tenantEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("Tenant not found"));
 
         return monthlyPaymentHistoryRepository.findByTenantIdAndYearOrderByMonthDesc(tenant.getId(), year)
@@ -139,7 +139,7 @@ public class MonthlyPaymentHistoryService {
      */
     @Transactional(readOnly = true)
     public BigDecimal getTenantTotalBalance(String tenantEmail) {
-        User tenant = userRepository.findByEmail(tenantEmail)
+        User tenant = currentUser.findByEmail(tenantEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("Tenant not found"));
 
         BigDecimal balance = monthlyPaymentHistoryRepository.getTotalBalanceByTenant(tenant.getId());
@@ -151,7 +151,7 @@ public class MonthlyPaymentHistoryService {
      */
     @Transactional(readOnly = true)
     public BigDecimal getTenantTotalPaid(String tenantEmail) {
-        User tenant = userRepository.findByEmail(tenantEmail)
+        User tenant = currentUser.findByEmail(tenantEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("Tenant not found"));
 
         BigDecimal totalPaid = monthlyPaymentHistoryRepository.getTotalPaidByTenant(tenant.getId());
@@ -0,0 +1,233 @@
+package com.peterscode.rentalmanagementsystem.service.payment;
+
+import com.peterscode.rentalmanagementsystem.config.MpesaConfig;
+import com.peterscode.rentalmanagementsystem.exception.BadRequestException;
+import com.peterscode.rentalmanagementsystem.exception.ResourceNotFoundException;
+import com.peterscode.rentalmanagementsystem.model.payment.MpesaCallback;
+import com.peterscode.rentalmanagementsystem.model.payment.MpesaCallbackStatus;
+import com.peterscode.rentalmanagementsystem.repository.MpesaCallbackRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts M-Pesa STK callbacks on the request thread by persisting the raw payload
+ * and handing its id to a bounded in-memory queue. Background workers apply the
+ * callback to the payment, so Safaricom gets its ACK without waiting on payment
+ * updates. Rows that miss the queue (overflow, restart, failure) are picked up
+ * again by {@link #requeueStaleCallbacks()}. A callback is applied under a lock on
+ * its row and marked PROCESSED in the same transaction as the payment update, so a
+ * re-delivery or a second worker never applies it twice.
+ */
+@Service
+@Slf4j
+public class MpesaCallbackIngestionService {
+
+    private final MpesaCallbackRepository callbackRepository;
+    private final PaymentService paymentService;
+    private final MpesaConfig mpesaConfig;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private BlockingQueue<Long> queue;
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    public MpesaCallbackIngestionService(MpesaCallbackRepository callbackRepository,
+                                         PaymentService paymentService,
+                                         MpesaConfig mpesaConfig,
+                                         PlatformTransactionManager transactionManager) {
+        this.callbackRepository = callbackRepository;
+        this.paymentService = paymentService;
+        this.mpesaConfig = mpesaConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void start() {
+        MpesaConfig.Callback config = mpesaConfig.getCallback();
+        queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        running = true;
+
+        AtomicInteger counter = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(config.getWorkers(), r -> {
+            Thread t = new Thread(r, "mpesa-callback-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        for (int i = 0; i < config.getWorkers(); i++) {
+            workers.submit(this::drainLoop);
+        }
+        log.info("M-Pesa callback ingestion started with {} workers, queue capacity {}",
+                config.getWorkers(), config.getQueueCapacity());
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        workers.shutdownNow();
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stores the callback and schedules it for processing. Duplicate deliveries of the
+     * same CheckoutRequestID are acknowledged without being stored again.
+     */
+    public void ingest(String payload) {
+        String checkoutRequestId = extractCheckoutRequestId(payload);
+
+        if (callbackRepository.existsByCheckoutRequestId(checkoutRequestId)) {
+            log.info("Duplicate M-Pesa callback for {} ignored", checkoutRequestId);
+            return;
+        }
+
+        MpesaCallback saved;
+        try {
+            saved = callbackRepository.save(MpesaCallback.builder()
+                    .checkoutRequestId(checkoutRequestId)
+                    .payload(payload)
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            log.info("Concurrent duplicate M-Pesa callback for {} ignored", checkoutRequestId);
+            return;
+        }
+
+        enqueue(saved.getId());
+    }
+
+    /**
+     * Re-queues callbacks that were stored but never processed, or that failed and
+     * still have attempts left.
+     */
+    @Scheduled(fixedDelayString = "${mpesa.callback.retry-after-ms:60000}")
+    public void requeueStaleCallbacks() {
+        MpesaConfig.Callback config = mpesaConfig.getCallback();
+        LocalDateTime before = LocalDateTime.now().minusNanos(config.getRetryAfterMs() * 1_000_000L);
+
+        List<Long> ids = callbackRepository.findIdsToRetry(
+                List.of(MpesaCallbackStatus.RECEIVED, MpesaCallbackStatus.FAILED),
+                config.getMaxAttempts(), before,
+                PageRequest.of(0, queue.remainingCapacity() + 1));
+
+        int requeued = 0;
+        for (Long id : ids) {
+            if (enqueue(id)) {
+                requeued++;
+            }
+        }
+        if (requeued > 0) {
+            log.info("Re-queued {} pending M-Pesa callbacks", requeued);
+        }
+    }
+
+    int queuedCount() {
+        return queue.size();
+    }
+
+    boolean enqueue(Long id) {
+        if (!inFlight.add(id)) {
+            return false;
+        }
+        if (!queue.offer(id)) {
+            inFlight.remove(id);
+            log.warn("M-Pesa callback queue full, callback {} left for the retry sweep", id);
+            return false;
+        }
+        return true;
+    }
+
+    private void drainLoop() {
+        int batchSize = mpesaConfig.getCallback().getBatchSize();
+        List<Long> batch = new ArrayList<>(batchSize);
+
+        while (running) {
+            try {
+                Long first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+
+                for (Long id : batch) {
+                    processOne(id);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void processOne(Long id) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(id));
+        } catch (ResourceNotFoundException e) {
+            // Expected while the STK push has not committed yet; Daraja retries are common
+            log.warn("M-Pesa callback {} not applied yet: {}", id, e.getMessage());
+            recordFailure(id, e.getMessage());
+        } catch (Exception e) {
+            log.error("Failed to process M-Pesa callback {}: {}", id, e.getMessage(), e);
+            recordFailure(id, e.getMessage());
+        } finally {
+            inFlight.remove(id);
+        }
+    }
+
+    private void apply(Long id) {
+        MpesaCallback callback = callbackRepository.findByIdForUpdate(id).orElse(null);
+        if (callback == null || callback.getStatus() == MpesaCallbackStatus.PROCESSED) {
+            return;
+        }
+        paymentService.applyMpesaCallback(callback.getPayload());
+        callback.setAttempts(callback.getAttempts() + 1);
+        callback.setStatus(MpesaCallbackStatus.PROCESSED);
+        callback.setProcessedAt(LocalDateTime.now());
+        callback.setErrorMessage(null);
+        callbackRepository.save(callback);
+    }
+
+    private void recordFailure(Long id, String errorMessage) {
+        try {
+            callbackRepository.findById(id)
+                    .filter(callback -> callback.getStatus() != MpesaCallbackStatus.PROCESSED)
+                    .ifPresent(callback -> {
+                        callback.setAttempts(callback.getAttempts() + 1);
+                        callback.setStatus(MpesaCallbackStatus.FAILED);
+                        callback.setErrorMessage(errorMessage);
+                        callbackRepository.save(callback);
+                    });
+        } catch (Exception e) {
+            log.error("Error updating M-Pesa callback {}: {}", id, e.getMessage(), e);
+        }
+    }
+
+    private String extractCheckoutRequestId(String payload) {
+        try {
+            return MpesaCallbackParser.parse(payload).checkoutRequestId();
+        } catch (BadRequestException e) {
+            log.warn("Rejected M-Pesa callback payload: {}", e.getMessage());
+            throw new BadRequestException("Invalid M-Pesa callback: missing CheckoutRequestID");
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.peterscode.rentalmanagementsystem.service.payment;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.peterscode.rentalmanagementsystem.dto.request.MpesaStkCallback;
+import com.peterscode.rentalmanagementsystem.exception.BadRequestException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Single-pass streaming parser for Daraja STK callbacks. Walks the token stream
+ * once and keeps only the fields we act on, instead of materialising the whole
+ * payload as nested maps.
+ */
+public final class MpesaCallbackParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private MpesaCallbackParser() {
+    }
+
+    public static MpesaStkCallback parse(String payload) {
+        try (JsonParser parser = JSON_FACTORY.createParser(payload)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("Body".equals(field) && parser.currentToken() == JsonToken.START_OBJECT) {
+                    MpesaStkCallback callback = parseBody(parser);
+                    if (callback != null) {
+                        return callback;
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new BadRequestException("Malformed M-Pesa callback: " + e.getMessage());
+        }
+        throw new BadRequestException("M-Pesa callback is missing Body.stkCallback");
+    }
+
+    private static MpesaStkCallback parseBody(JsonParser parser) throws IOException {
+        MpesaStkCallback callback = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("stkCallback".equals(field) && parser.currentToken() == JsonToken.START_OBJECT) {
+                callback = parseStkCallback(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return callback;
+    }
+
+    private static MpesaStkCallback parseStkCallback(JsonParser parser) throws IOException {
+        String merchantRequestId = null;
+        String checkoutRequestId = null;
+        String resultCode = null;
+        String resultDesc = null;
+        boolean hasMetadata = false;
+        String receipt = null;
+        BigDecimal amount = null;
+        String phoneNumber = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "MerchantRequestID" -> merchantRequestId = scalarText(parser, value);
+                case "CheckoutRequestID" -> checkoutRequestId = scalarText(parser, value);
+                case "ResultCode" -> resultCode = scalarText(parser, value);
+                case "ResultDesc" -> resultDesc = scalarText(parser, value);
+                case "CallbackMetadata" -> {
+                    if (value != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        break;
+                    }
+                    hasMetadata = true;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String metadataField = parser.currentName();
+                        if (parser.nextToken() != JsonToken.START_ARRAY || !"Item".equals(metadataField)) {
+                            parser.skipChildren();
+                            continue;
+                        }
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            String name = null;
+                            String text = null;
+                            BigDecimal number = null;
+                            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                                String itemField = parser.currentName();
+                                JsonToken itemValue = parser.nextToken();
+                                if ("Name".equals(itemField)) {
+                                    name = scalarText(parser, itemValue);
+                                } else if ("Value".equals(itemField)) {
+                                    text = scalarText(parser, itemValue);
+                                    if (itemValue == JsonToken.VALUE_NUMBER_INT || itemValue == JsonToken.VALUE_NUMBER_FLOAT) {
+                                        number = parser.getDecimalValue();
+                                    }
+                                } else {
+                                    parser.skipChildren();
+                                }
+                            }
+                            if (name == null || text == null) {
+                                continue;
+                            }
+                            switch (name) {
+                                case "MpesaReceiptNumber" -> receipt = text;
+                                case "PhoneNumber" -> phoneNumber = text;
+                                case "Amount" -> amount = number != null ? number : parseAmount(text);
+                                default -> { }
+                            }
+                        }
+                    }
+                }
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (checkoutRequestId == null || resultCode == null) {
+            throw new BadRequestException("M-Pesa callback is missing CheckoutRequestID or ResultCode");
+        }
+        return new MpesaStkCallback(merchantRequestId, checkoutRequestId, resultCode, resultDesc,
+                hasMetadata, receipt, amount, phoneNumber);
+    }
+
+    private static String scalarText(JsonParser parser, JsonToken token) throws IOException {
+        if (token == null || token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isStructStart()) {
+            parser.skipChildren();
+            return null;
+        }
+        // Keeps large phone numbers exact (e.g. 254712345678 arrives as a JSON number)
+        return parser.getText();
+    }
+
+    private static BigDecimal parseAmount(String text) {
+        try {
+            return new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new BadRequestException("Malformed M-Pesa callback: expected " + expected + " but found " + actual);
+        }
+    }
+}
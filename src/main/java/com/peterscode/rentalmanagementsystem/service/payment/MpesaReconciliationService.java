@@ -0,0 +1,131 @@
+package com.peterscode.rentalmanagementsystem.service.payment;
+
+import com.peterscode.rentalmanagementsystem.config.MpesaConfig;
+import com.peterscode.rentalmanagementsystem.dto.response.MpesaTransactionStatusResponse;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentMethod;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentStatus;
+import com.peterscode.rentalmanagementsystem.repository.PaymentRepository;
+import com.peterscode.rentalmanagementsystem.util.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Periodically reconciles M-Pesa payments whose STK callback never arrived.
+ * Payments older than the stale threshold are failed in one UPDATE; the rest
+ * are queried against Daraja concurrently on the reconciliation executor,
+ * throttled by a shared rate limiter, and each result is applied in its own
+ * transaction.
+ */
+@Service
+@Slf4j
+public class MpesaReconciliationService {
+
+    static final String STALE_NOTE = "Auto-failed: M-Pesa transaction timed out with no callback";
+
+    private final PaymentRepository paymentRepository;
+    private final PaymentService paymentService;
+    private final MpesaService mpesaService;
+    private final MpesaConfig mpesaConfig;
+    private final TaskExecutor executor;
+    private final RateLimiter rateLimiter;
+    private final Timer runTimer;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public MpesaReconciliationService(PaymentRepository paymentRepository, PaymentService paymentService,
+                                      MpesaService mpesaService, MpesaConfig mpesaConfig,
+                                      @Qualifier("reconciliationTaskExecutor") TaskExecutor executor,
+                                      MeterRegistry meterRegistry) {
+        this.paymentRepository = paymentRepository;
+        this.paymentService = paymentService;
+        this.mpesaService = mpesaService;
+        this.mpesaConfig = mpesaConfig;
+        this.executor = executor;
+        this.rateLimiter = new RateLimiter(mpesaConfig.getReconciliation().getQueriesPerSecond());
+        this.runTimer = meterRegistry.timer("mpesa.reconciliation.duration");
+        meterRegistry.gauge("mpesa.reconciliation.lag.seconds", lagSeconds);
+    }
+
+    @Scheduled(fixedDelay = 300000) // Run every 5 minutes
+    public void reconcilePendingTransactions() {
+        MpesaConfig.Reconciliation config = mpesaConfig.getReconciliation();
+        LocalDateTime now = LocalDateTime.now();
+        long started = System.nanoTime();
+
+        int failed = paymentRepository.failStaleAwaitingCallback(
+                PaymentStatus.PROCESSING, PaymentMethod.MPESA,
+                now.minusMinutes(config.getStaleAfterMinutes()),
+                PaymentStatus.FAILED, STALE_NOTE, now);
+        if (failed > 0) {
+            log.warn("Auto-failed {} stale M-Pesa transactions with no callback", failed);
+        }
+
+        List<String> codes = paymentRepository.findAwaitingCallbackCodes(
+                PaymentStatus.PROCESSING, PaymentMethod.MPESA,
+                now.minusMinutes(config.getStaleAfterMinutes()),
+                now.minusMinutes(config.getMinAgeMinutes()));
+
+        AtomicInteger resolved = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(config.getMaxConcurrency());
+
+        List<CompletableFuture<Void>> queries = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            queries.add(CompletableFuture.runAsync(() -> {
+                try {
+                    inFlight.acquire();
+                    try {
+                        rateLimiter.acquire();
+                        if (reconcile(code)) {
+                            resolved.incrementAndGet();
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                    log.error("Error querying transaction {}: {}", code, e.getMessage());
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(queries.toArray(CompletableFuture[]::new)).join();
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        runTimer.record(elapsed);
+        LocalDateTime oldest = paymentRepository.findOldestAwaitingCallback(PaymentStatus.PROCESSING, PaymentMethod.MPESA);
+        lagSeconds.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toSeconds());
+
+        if (!codes.isEmpty() || failed > 0) {
+            double seconds = Math.max(elapsed.toMillis(), 1) / 1000.0;
+            log.info("M-Pesa reconciliation: queried={}, resolved={}, errors={}, autoFailed={}, " +
+                            "took={}ms ({} queries/s), lag={}s",
+                    codes.size(), resolved.get(), errors.get(), failed,
+                    elapsed.toMillis(), String.format("%.1f", codes.size() / seconds), lagSeconds.get());
+        }
+    }
+
+    private boolean reconcile(String checkoutRequestId) {
+        MpesaTransactionStatusResponse statusResponse = mpesaService.queryTransactionStatus(checkoutRequestId);
+        if (statusResponse == null) {
+            log.warn("No status response from M-Pesa for: {}", checkoutRequestId);
+            return false;
+        }
+        paymentService.applyMpesaTransactionStatus(checkoutRequestId, statusResponse);
+        return true;
+    }
+}
@@ -1,6 +1,5 @@
 package com.peterscode.rentalmanagementsystem.service.payment;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.peterscode.rentalmanagementsystem.config.MpesaConfig;
 import com.peterscode.rentalmanagementsystem.dto.request.MpesaStkRequest;
 import com.peterscode.rentalmanagementsystem.dto.response.MpesaStkResponse;
@@ -9,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
@@ -26,36 +26,17 @@ public class MpesaServiceImpl implements MpesaService {
 
     private final MpesaConfig mpesaConfig;
     private final RestTemplate restTemplate;
-    private final ObjectMapper objectMapper;
+    private final MpesaTokenProvider tokenProvider;
 
     @Override
     public String getAccessToken() {
-        try {
-            String auth = mpesaConfig.getConsumerKey() + ":" + mpesaConfig.getConsumerSecret();
-            String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.set("Authorization", "Basic " + encodedAuth);
-
-            HttpEntity<String> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                    mpesaConfig.getAuthUrl() + "?grant_type=client_credentials",
-                    HttpMethod.GET, entity, String.class);
-
-            Map result = objectMapper.readValue(response.getBody(), Map.class);
-            return (String) result.get("access_token");
-        } catch (Exception e) {
-            log.error("Error getting access token: {}", e.getMessage());
-            throw new RuntimeException("Failed to get M-Pesa access token", e);
-        }
+        return tokenProvider.getToken();
     }
 
     @Override
     public MpesaStkResponse initiateStkPush(String phoneNumber, BigDecimal amount,
                                             String accountReference, String description) {
         try {
-            String accessToken = getAccessToken();
             String timestamp = generateTimestamp();
             String password = generatePassword(timestamp);
 
@@ -72,17 +53,11 @@ public class MpesaServiceImpl implements MpesaService {
             stkRequest.put("AccountReference", accountReference);
             stkRequest.put("TransactionDesc", description);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(accessToken);
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(stkRequest, headers);
-
             log.info("Sending STK Push to: {}, Phone: {}, Amount: {}",
                     mpesaConfig.getStkPushUrl(), phoneNumber, amount);
 
-            ResponseEntity<MpesaStkResponse> response = restTemplate.exchange(
-                    mpesaConfig.getStkPushUrl(), HttpMethod.POST, entity, MpesaStkResponse.class);
+            ResponseEntity<MpesaStkResponse> response = postWithToken(
+                    mpesaConfig.getStkPushUrl(), stkRequest, MpesaStkResponse.class);
 
             MpesaStkResponse stkResponse = response.getBody();
             if (stkResponse != null) {
@@ -101,7 +76,6 @@ public class MpesaServiceImpl implements MpesaService {
     @Override
     public MpesaTransactionStatusResponse queryTransactionStatus(String checkoutRequestId) {
         try {
-            String accessToken = getAccessToken();
             String timestamp = generateTimestamp();
             String password = generatePassword(timestamp);
 
@@ -111,15 +85,9 @@ public class MpesaServiceImpl implements MpesaService {
             queryRequest.put("Timestamp", timestamp);
             queryRequest.put("CheckoutRequestID", checkoutRequestId);
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(accessToken);
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(queryRequest, headers);
-
-            ResponseEntity<MpesaTransactionStatusResponse> response = restTemplate.exchange(
+            ResponseEntity<MpesaTransactionStatusResponse> response = postWithToken(
                     "https://sandbox.safaricom.co.ke/mpesa/stkpushquery/v1/query",
-                    HttpMethod.POST, entity, MpesaTransactionStatusResponse.class);
+                    queryRequest, MpesaTransactionStatusResponse.class);
 
             return response.getBody();
         } catch (Exception e) {
@@ -128,6 +96,28 @@ public class MpesaServiceImpl implements MpesaService {
         }
     }
 
+    /**
+     * POSTs to Daraja with the cached access token. A 401 means Daraja revoked the
+     * token before its expiry, so the cache is dropped and the call retried once.
+     */
+    private <T> ResponseEntity<T> postWithToken(String url, Map<String, Object> body, Class<T> responseType) {
+        String token = getAccessToken();
+        try {
+            return restTemplate.exchange(url, HttpMethod.POST, bearerEntity(body, token), responseType);
+        } catch (HttpClientErrorException.Unauthorized e) {
+            log.warn("Daraja rejected the cached access token, refreshing and retrying once");
+            tokenProvider.invalidate(token);
+            return restTemplate.exchange(url, HttpMethod.POST, bearerEntity(body, getAccessToken()), responseType);
+        }
+    }
+
+    private HttpEntity<Map<String, Object>> bearerEntity(Map<String, Object> body, String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(token);
+        return new HttpEntity<>(body, headers);
+    }
+
     @Override
     public String generateTimestamp() {
         return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss"));
@@ -0,0 +1,182 @@
+package com.peterscode.rentalmanagementsystem.service.payment;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peterscode.rentalmanagementsystem.config.MpesaConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caches the Daraja OAuth access token until shortly before it expires.
+ * Concurrent callers that find the cache empty or expired share a single
+ * refresh, and a scheduled check renews the token ahead of expiry so request
+ * threads normally never hit the auth endpoint.
+ */
+@Component
+@Slf4j
+public class MpesaTokenProvider {
+
+    /** Daraja currently issues tokens valid for one hour; used when expires_in is absent. */
+    private static final long DEFAULT_EXPIRES_IN_SECONDS = 3599;
+
+    private final MpesaConfig mpesaConfig;
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter refreshes;
+    private final Counter failures;
+
+    private volatile CachedToken cached;
+
+    @Autowired
+    public MpesaTokenProvider(MpesaConfig mpesaConfig, RestTemplate restTemplate,
+                              ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(mpesaConfig, restTemplate, objectMapper, meterRegistry, Clock.systemUTC());
+    }
+
+    public MpesaTokenProvider(MpesaConfig mpesaConfig, RestTemplate restTemplate,
+                              ObjectMapper objectMapper, MeterRegistry meterRegistry, Clock clock) {
+        this.mpesaConfig = mpesaConfig;
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.hits = meterRegistry.counter("mpesa.token.cache", "result", "hit");
+        this.misses = meterRegistry.counter("mpesa.token.cache", "result", "miss");
+        this.refreshes = meterRegistry.counter("mpesa.token.refresh", "outcome", "success");
+        this.failures = meterRegistry.counter("mpesa.token.refresh", "outcome", "failure");
+    }
+
+    /**
+     * Returns a valid access token, fetching one only when no usable token is cached.
+     */
+    public String getToken() {
+        CachedToken current = cached;
+        if (current != null && current.isUsableAt(now(), safetyMargin())) {
+            hits.increment();
+            return current.token();
+        }
+
+        misses.increment();
+        refreshLock.lock();
+        try {
+            // Another caller may have refreshed while we were waiting on the lock
+            current = cached;
+            if (current != null && current.isUsableAt(now(), safetyMargin())) {
+                return current.token();
+            }
+            return fetchAndStore().token();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the cached token after Daraja rejects it with 401. Only {@code rejected}
+     * is dropped: if another caller has already replaced it, the fresh token stays.
+     */
+    public void invalidate(String rejected) {
+        refreshLock.lock();
+        try {
+            CachedToken current = cached;
+            if (current != null && current.token().equals(rejected)) {
+                cached = null;
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Renews the token in the background once it enters the refresh-ahead window,
+     * so request threads keep getting cache hits across expiry.
+     */
+    @Scheduled(fixedDelayString = "${mpesa.token.refresh-check-ms:30000}")
+    public void refreshIfExpiring() {
+        CachedToken current = cached;
+        if (current == null || current.isUsableAt(now(), refreshAhead())) {
+            return;
+        }
+        if (!refreshLock.tryLock()) {
+            return;
+        }
+        try {
+            if (cached == current) {
+                fetchAndStore();
+                log.debug("Refreshed M-Pesa access token ahead of expiry");
+            }
+        } catch (Exception e) {
+            // Keep serving the current token until it actually expires
+            log.warn("Background M-Pesa token refresh failed: {}", e.getMessage());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private CachedToken fetchAndStore() {
+        try {
+            String auth = mpesaConfig.getConsumerKey() + ":" + mpesaConfig.getConsumerSecret();
+            String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes(StandardCharsets.UTF_8));
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("Authorization", "Basic " + encodedAuth);
+
+            ResponseEntity<String> response = restTemplate.exchange(
+                    mpesaConfig.getAuthUrl() + "?grant_type=client_credentials",
+                    HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+            JsonNode body = objectMapper.readTree(response.getBody());
+            String token = body.path("access_token").asText(null);
+            if (token == null || token.isBlank()) {
+                throw new IllegalStateException("Auth response did not contain an access_token");
+            }
+            long expiresIn = body.path("expires_in").asLong(DEFAULT_EXPIRES_IN_SECONDS);
+
+            CachedToken fresh = new CachedToken(token, now().plusSeconds(expiresIn));
+            cached = fresh;
+            refreshes.increment();
+            return fresh;
+        } catch (Exception e) {
+            failures.increment();
+            log.error("Error getting access token: {}", e.getMessage());
+            throw new RuntimeException("Failed to get M-Pesa access token", e);
+        }
+    }
+
+    private Instant now() {
+        return clock.instant();
+    }
+
+    private Duration safetyMargin() {
+        return Duration.ofMillis(mpesaConfig.getToken().getSafetyMarginMs());
+    }
+
+    private Duration refreshAhead() {
+        return Duration.ofMillis(mpesaConfig.getToken().getRefreshAheadMs());
+    }
+
+    private record CachedToken(String token, Instant expiresAt) {
+        boolean isUsableAt(Instant now, Duration margin) {
+            return now.plus(margin).isBefore(expiresAt);
+        }
+    }
+}
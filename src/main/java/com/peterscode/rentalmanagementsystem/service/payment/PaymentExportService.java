@@ -0,0 +1,216 @@
+package com.peterscode.rentalmanagementsystem.service.payment;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.peterscode.rentalmanagementsystem.dto.response.PaymentExportRow;
+import com.peterscode.rentalmanagementsystem.exception.BadRequestException;
+import com.peterscode.rentalmanagementsystem.exception.ResourceNotFoundException;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentMethod;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentStatus;
+import com.peterscode.rentalmanagementsystem.model.user.User;
+import com.peterscode.rentalmanagementsystem.repository.PaymentRepository;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Streams payments to an output stream as CSV or NDJSON. Rows are read in
+ * fixed-size batches with a forward-only keyset cursor on payments.id, so
+ * memory stays flat regardless of how many payments match.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentExportService {
+
+    static final int BATCH_SIZE = 500;
+    /** Leading characters that make Excel and Sheets evaluate a cell. */
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private static final String CSV_HEADER = "id,transaction_code,created_at,paid_at,amount,method,status," +
+            "payment_type,tenant_id,tenant_email,tenant_first_name,tenant_last_name,phone_number," +
+            "property_title,merchant_request_id";
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Export filters. {@code ownerId} restricts the export to one landlord's properties.
+     */
+    public record Query(Long ownerId, LocalDateTime from, LocalDateTime to,
+                        PaymentStatus status, PaymentMethod method) {
+    }
+
+    private final PaymentRepository paymentRepository;
+    private final CurrentUser currentUser;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Resolves the caller and builds the export query. Must run on the request
+     * thread, before streaming starts, so access errors surface as normal responses.
+     */
+    public Query buildQuery(String callerEmail, LocalDate from, LocalDate to,
+                            PaymentStatus status, PaymentMethod method) {
+        User caller = currentUser.findByEmail(callerEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        Long ownerId = switch (caller.getRole()) {
+            case ADMIN -> null;
+            case LANDLORD -> caller.getId();
+            default -> throw new BadRequestException("Only admins and landlords can export payments");
+        };
+
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new BadRequestException("'to' date must not be before 'from' date");
+        }
+
+        return new Query(ownerId,
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null,
+                status, method);
+    }
+
+    public void export(Query query, Format format, OutputStream out) throws IOException {
+        long started = System.currentTimeMillis();
+        long rows = switch (format) {
+            case CSV -> writeCsv(query, out);
+            case NDJSON -> writeNdjson(query, out);
+        };
+        log.info("Exported {} payments as {} in {}ms", rows, format, System.currentTimeMillis() - started);
+    }
+
+    private long writeCsv(Query query, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        long count = 0;
+        Long cursor = 0L;
+        List<PaymentExportRow> batch;
+        do {
+            batch = nextBatch(query, cursor);
+            for (PaymentExportRow row : batch) {
+                writeCsvRow(writer, row);
+                cursor = row.getId();
+            }
+            count += batch.size();
+            writer.flush();
+        } while (batch.size() == BATCH_SIZE);
+
+        writer.flush();
+        return count;
+    }
+
+    private long writeNdjson(Query query, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(PaymentExportRow.class)
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .withRootValueSeparator("\n");
+
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        long count = 0;
+        try (SequenceWriter sequence = writer.writeValues(generator)) {
+            Long cursor = 0L;
+            List<PaymentExportRow> batch;
+            do {
+                batch = nextBatch(query, cursor);
+                for (PaymentExportRow row : batch) {
+                    sequence.write(row);
+                    cursor = row.getId();
+                }
+                count += batch.size();
+                sequence.flush();
+            } while (batch.size() == BATCH_SIZE);
+        }
+        if (count > 0) {
+            out.write('\n');
+        }
+        out.flush();
+        return count;
+    }
+
+    private List<PaymentExportRow> nextBatch(Query query, Long afterId) {
+        return paymentRepository.findExportBatch(afterId, query.ownerId(), query.status(), query.method(),
+                query.from(), query.to(), Limit.of(BATCH_SIZE));
+    }
+
+    private void writeCsvRow(Writer writer, PaymentExportRow row) throws IOException {
+        writer.write(String.valueOf(row.getId()));
+        writeCsvField(writer, row.getTransactionCode());
+        writeCsvField(writer, row.getCreatedAt());
+        writeCsvField(writer, row.getPaidAt());
+        writer.write(',');
+        if (row.getAmount() != null) {
+            writer.write(row.getAmount().toPlainString());
+        }
+        writeCsvField(writer, row.getMethod());
+        writeCsvField(writer, row.getStatus());
+        writeCsvField(writer, row.getPaymentType());
+        writeCsvField(writer, row.getTenantId());
+        writeCsvField(writer, row.getTenantEmail());
+        writeCsvField(writer, row.getTenantFirstName());
+        writeCsvField(writer, row.getTenantLastName());
+        writeCsvField(writer, row.getPhoneNumber());
+        writeCsvField(writer, row.getPropertyTitle());
+        writeCsvField(writer, row.getMerchantRequestId());
+        writer.write('\n');
+    }
+
+    /**
+     * Writes one field. Names, emails and titles are user input, so a value that a
+     * spreadsheet would run as a formula is prefixed with {@code '} and quoted.
+     */
+    private void writeCsvField(Writer writer, Object value) throws IOException {
+        writer.write(',');
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        boolean formula = !text.isEmpty() && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0;
+        if (formula || text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            writer.write('"');
+            if (formula) {
+                writer.write('\'');
+            }
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(text);
+        }
+    }
+}
@@ -3,10 +3,15 @@ package com.peterscode.rentalmanagementsystem.service.payment;
 import com.peterscode.rentalmanagementsystem.dto.request.MpesaStkRequest;
 import com.peterscode.rentalmanagementsystem.dto.request.PaymentInitiationRequest;
 import com.peterscode.rentalmanagementsystem.dto.request.PaymentRequest;
+import com.peterscode.rentalmanagementsystem.dto.response.CursorPage;
 import com.peterscode.rentalmanagementsystem.dto.response.MpesaStkResponse;
+import com.peterscode.rentalmanagementsystem.dto.response.MpesaTransactionStatusResponse;
 import com.peterscode.rentalmanagementsystem.dto.response.PaymentOptionResponse;
 import com.peterscode.rentalmanagementsystem.dto.response.PaymentResponse;
 import com.peterscode.rentalmanagementsystem.dto.response.PaymentSummaryResponse;
+import com.peterscode.rentalmanagementsystem.exception.ResourceNotFoundException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -15,22 +20,42 @@ import java.util.List;
 public interface PaymentService {
     PaymentResponse createPayment(PaymentRequest request, String callerEmail);
     MpesaStkResponse initiateMpesaPayment(MpesaStkRequest request, String callerEmail);
+    /** Applies a callback and swallows failures; kept for the legacy C2B confirmation endpoint. */
     void processMpesaCallback(String callbackData);
+
+    /**
+     * Applies an STK callback to its payment.
+     *
+     * @throws ResourceNotFoundException if no payment matches the CheckoutRequestID yet
+     */
+    void applyMpesaCallback(String callbackData);
     PaymentResponse getPaymentById(Long id);
     PaymentResponse getPaymentByTransactionCode(String transactionCode);
 
     @Transactional(readOnly = true)
     List<PaymentResponse> getAllPayments(String callerEmail);
 
+    Page<PaymentResponse> getLandlordPayments(String callerEmail, Pageable pageable);
+
     List<PaymentResponse> getPaymentsByTenant(Long tenantId);
     List<PaymentResponse> getPaymentsByStatus(String status);
     List<PaymentResponse> getPaymentsByMethod(String method);
     List<PaymentResponse> getMyPayments(String callerEmail);
     List<PaymentResponse> getPendingMpesaCallbacks();
+
+    // Keyset-paginated variants of the listings above, newest first
+    CursorPage<PaymentResponse> getAllPayments(String callerEmail, String cursor, int size);
+    CursorPage<PaymentResponse> getPaymentsByTenant(Long tenantId, String cursor, int size);
+    CursorPage<PaymentResponse> getPaymentsByStatus(String status, String cursor, int size);
+    CursorPage<PaymentResponse> getPaymentsByMethod(String method, String cursor, int size);
+    CursorPage<PaymentResponse> getMyPayments(String callerEmail, String cursor, int size);
+    CursorPage<PaymentResponse> getPendingMpesaCallbacks(String cursor, int size);
+
     PaymentResponse updatePaymentStatus(Long id, String status, String notes);
     PaymentResponse updatePayment(Long id, PaymentRequest request, String callerEmail);
     PaymentResponse markAsPaid(Long id, String transactionCode, String callerEmail);
     PaymentSummaryResponse getPaymentSummary();
+    PaymentSummaryResponse getPaymentSummary(String callerEmail);
     BigDecimal getTotalRevenue();
     BigDecimal getTotalRevenueByTenant(Long tenantId);
     boolean isPaymentSuccessful(Long id);
@@ -42,6 +67,7 @@ public interface PaymentService {
     PaymentResponse reversePayment(Long id, String reversalReason, String callerEmail);
     PaymentResponse refundPayment(Long id, BigDecimal refundAmount, String reason, String callerEmail);
     void queryMpesaTransactionStatus(String checkoutRequestId);
+    void applyMpesaTransactionStatus(String checkoutRequestId, MpesaTransactionStatusResponse statusResponse);
 
     // Tenant payment initiation methods
     List<PaymentOptionResponse> getPaymentOptions(Long leaseId, String callerEmail);
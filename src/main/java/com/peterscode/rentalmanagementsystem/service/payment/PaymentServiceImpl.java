@@ -1,8 +1,7 @@
 package com.peterscode.rentalmanagementsystem.service.payment;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
+import com.peterscode.rentalmanagementsystem.dto.request.MpesaStkCallback;
 import com.peterscode.rentalmanagementsystem.dto.request.MpesaStkRequest;
 import com.peterscode.rentalmanagementsystem.dto.request.PaymentInitiationRequest;
 import com.peterscode.rentalmanagementsystem.dto.request.PaymentRequest;
@@ -30,9 +29,16 @@ import com.peterscode.rentalmanagementsystem.model.application.RentalApplication
 
 import com.peterscode.rentalmanagementsystem.service.audit.AuditLogService;
 import com.peterscode.rentalmanagementsystem.service.booking.BookingService;
+import com.peterscode.rentalmanagementsystem.service.id.IdGeneratorService;
+import com.peterscode.rentalmanagementsystem.util.KeysetCursor;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -52,15 +58,17 @@ public class PaymentServiceImpl implements PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final UserRepository userRepository;
+    private final CurrentUser currentUser;
     private final LeaseRepository leaseRepository;
     private final PropertyRepository propertyRepository;
     private final RentalApplicationRepository rentalApplicationRepository;
     private final MpesaService mpesaService;
     private final StripeService stripeService; // Inject StripeService
-    private final ObjectMapper objectMapper;
     private final MonthlyPaymentHistoryService monthlyPaymentHistoryService;
     private final AuditLogService auditLogService;
     private final BookingService bookingService;
+    private final IdGeneratorService idGeneratorService;
+    private final RevenueRollupService revenueRollupService;
 
 
 
@@ -72,7 +80,7 @@ public class PaymentServiceImpl implements PaymentService {
         User tenant = userRepository.findById(request.getTenantId())
                 .orElseThrow(() -> new ResourceNotFoundException("Tenant not found"));
 
-        User caller = userRepository.findByEmail(callerEmail)
+        User caller = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (!caller.getId().equals(tenant.getId()) && caller.getRole() != Role.ADMIN) {
@@ -100,7 +108,7 @@ public class PaymentServiceImpl implements PaymentService {
             payment.setPaidAt(LocalDateTime.now());
         }
 
-        Payment savedPayment = paymentRepository.save(payment);
+        Payment savedPayment = savePayment(payment);
         log.info("Payment created with reference: {}", savedPayment.getTransactionCode());
 
         // Audit log
@@ -117,7 +125,7 @@ public class PaymentServiceImpl implements PaymentService {
         User tenant = userRepository.findById(request.getTenantId())
                 .orElseThrow(() -> new ResourceNotFoundException("Tenant not found"));
 
-        User caller = userRepository.findByEmail(callerEmail)
+        User caller = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (!caller.getId().equals(tenant.getId()) && caller.getRole() != Role.ADMIN) {
@@ -127,7 +135,7 @@ public class PaymentServiceImpl implements PaymentService {
         String phoneNumber = mpesaService.formatPhoneNumber(request.getPhoneNumber());
 
         try {
-            String accountReference = "RENT-" + tenant.getId() + "-" + System.currentTimeMillis();
+            String accountReference = idGeneratorService.nextCode("RENT");
             String description = request.getDescription() != null ?
                     request.getDescription() : "Rent payment for " + tenant.getFirstName();
 
@@ -147,7 +155,7 @@ public class PaymentServiceImpl implements PaymentService {
                         .gatewayResponse(stkResponse.getResponseDescription())
                         .build();
 
-                paymentRepository.save(payment);
+                savePayment(payment);
                 log.info("M-Pesa STK Push initiated. CheckoutRequestID: {}", stkResponse.getCheckoutRequestID());
 
                 // Schedule status check for 2 minutes later
@@ -168,63 +176,64 @@ public class PaymentServiceImpl implements PaymentService {
     @Override
     @Transactional
     public void processMpesaCallback(String callbackData) {
-        log.info("Processing M-Pesa callback: {}", callbackData.substring(0, Math.min(callbackData.length(), 200)));
-
         try {
-            // Type-safe deserialization using TypeReference
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            Map<String, Object> callback = objectMapper.readValue(callbackData, typeRef);
+            applyMpesaCallback(callbackData);
+        } catch (ResourceNotFoundException e) {
+            log.warn("M-Pesa callback not applied: {}", e.getMessage());
+        } catch (Exception e) {
+            log.error("Error processing callback: {}", e.getMessage(), e);
+        }
+    }
 
-            Map<String, Object> body = objectMapper.convertValue(callback.get("Body"), typeRef);
-            Map<String, Object> stkCallback = objectMapper.convertValue(body.get("stkCallback"), typeRef);
+    @Override
+    @Transactional
+    public void applyMpesaCallback(String callbackData) {
+        log.info("Processing M-Pesa callback: {}", callbackData.substring(0, Math.min(callbackData.length(), 200)));
 
-            String checkoutRequestId = (String) stkCallback.get("CheckoutRequestID");
-            String resultCode = stkCallback.get("ResultCode").toString();
-            String resultDesc = (String) stkCallback.get("ResultDesc");
+        // Single streaming pass; only the fields we act on are extracted
+        MpesaStkCallback stkCallback = MpesaCallbackParser.parse(callbackData);
 
-            // Look up by checkoutRequestID field first, then fallback to transactionCode
-            Optional<Payment> paymentOpt = paymentRepository.findByCheckoutRequestID(checkoutRequestId);
-            if (paymentOpt.isEmpty()) {
-                paymentOpt = paymentRepository.findByTransactionCode(checkoutRequestId);
-            }
+        String checkoutRequestId = stkCallback.checkoutRequestId();
+        String resultCode = stkCallback.resultCode();
+        String resultDesc = stkCallback.resultDesc();
 
-            if (paymentOpt.isPresent()) {
-                Payment payment = paymentOpt.get();
-
-                switch (resultCode) {
-                    case "0": // SUCCESS
-                        handleSuccessfulCallback(payment, stkCallback);
-                        break;
-                    case "1": // Insufficient balance
-                        payment.setStatus(PaymentStatus.FAILED);
-                        payment.setNotes("Insufficient balance");
-                        break;
-                    case "1032": // User cancelled
-                        payment.setStatus(PaymentStatus.CANCELLED);
-                        payment.setNotes("Cancelled by user");
-                        break;
-                    case "17": // Didn't enter PIN
-                        payment.setStatus(PaymentStatus.CANCELLED);
-                        payment.setNotes("User didn't enter PIN");
-                        break;
-                    default: // Other failures
-                        payment.setStatus(PaymentStatus.FAILED);
-                        payment.setNotes("Failed: " + resultDesc);
-                }
+        // Look up by checkoutRequestID field first, then fallback to transactionCode
+        Optional<Payment> paymentOpt = paymentRepository.findByCheckoutRequestID(checkoutRequestId);
+        if (paymentOpt.isEmpty()) {
+            paymentOpt = paymentRepository.findByTransactionCode(checkoutRequestId);
+        }
 
-                payment.setCallbackReceived(true);
-                payment.setGatewayResponse(callbackData);
-                payment.setUpdatedAt(LocalDateTime.now());
-                paymentRepository.save(payment);
+        // The callback can beat the STK push commit; failing lets the ingestion worker retry it
+        Payment payment = paymentOpt.orElseThrow(() ->
+                new ResourceNotFoundException("No payment found for checkout request: " + checkoutRequestId));
 
-                log.info("Payment {} updated to {} after callback", payment.getId(), payment.getStatus());
-            } else {
-                log.warn("No payment found for checkout request: {}", checkoutRequestId);
-            }
-        } catch (Exception e) {
-            log.error("Error processing callback: {}", e.getMessage(), e);
+        switch (resultCode) {
+            case "0": // SUCCESS
+                handleSuccessfulCallback(payment, stkCallback);
+                break;
+            case "1": // Insufficient balance
+                payment.setStatus(PaymentStatus.FAILED);
+                payment.setNotes("Insufficient balance");
+                break;
+            case "1032": // User cancelled
+                payment.setStatus(PaymentStatus.CANCELLED);
+                payment.setNotes("Cancelled by user");
+                break;
+            case "17": // Didn't enter PIN
+                payment.setStatus(PaymentStatus.CANCELLED);
+                payment.setNotes("User didn't enter PIN");
+                break;
+            default: // Other failures
+                payment.setStatus(PaymentStatus.FAILED);
+                payment.setNotes("Failed: " + resultDesc);
         }
 
+        payment.setCallbackReceived(true);
+        payment.setGatewayResponse(callbackData);
+        payment.setUpdatedAt(LocalDateTime.now());
+        savePayment(payment);
+
+        log.info("Payment {} updated to {} after callback", payment.getId(), payment.getStatus());
     }
 
     @Override
@@ -246,7 +255,7 @@ public class PaymentServiceImpl implements PaymentService {
     @Transactional(readOnly = true)
     @Override
     public List<PaymentResponse> getAllPayments(String callerEmail) {
-        User caller = userRepository.findByEmail(callerEmail)
+        User caller = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
         // Admin sees all payments
@@ -258,14 +267,7 @@ public class PaymentServiceImpl implements PaymentService {
         
         // Landlord sees only payments for their properties (through leases)
         if (caller.getRole() == Role.LANDLORD) {
-            return paymentRepository.findAll().stream()
-                    .filter(payment -> {
-                        if (payment.getLease() == null) return false;
-                        Property property = payment.getLease().getProperty();
-                        return property != null && 
-                               property.getOwner() != null && 
-                               property.getOwner().getId().equals(caller.getId());
-                    })
+            return paymentRepository.findAllByLandlordId(caller.getId()).stream()
                     .map(PaymentResponse::fromEntity)
                     .collect(Collectors.toList());
         }
@@ -274,6 +276,20 @@ public class PaymentServiceImpl implements PaymentService {
         return List.of();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PaymentResponse> getLandlordPayments(String callerEmail, Pageable pageable) {
+        User caller = currentUser.findByEmail(callerEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        if (caller.getRole() != Role.LANDLORD) {
+            throw new BadRequestException("Only landlords can view landlord payments");
+        }
+
+        return paymentRepository.findByLandlordId(caller.getId(), pageable)
+                .map(PaymentResponse::fromEntity);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<PaymentResponse> getPaymentsByTenant(Long tenantId) {
@@ -311,7 +327,7 @@ public class PaymentServiceImpl implements PaymentService {
     @Override
     @Transactional(readOnly = true)
     public List<PaymentResponse> getMyPayments(String callerEmail) {
-        User user = userRepository.findByEmail(callerEmail)
+        User user = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         return getPaymentsByTenant(user.getId());
     }
@@ -324,6 +340,96 @@ public class PaymentServiceImpl implements PaymentService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PaymentResponse> getAllPayments(String callerEmail, String cursor, int size) {
+        User caller = currentUser.findByEmail(callerEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, KeysetCursor.clampPageSize(size));
+
+        if (caller.getRole() == Role.ADMIN) {
+            return toCursorPage(paymentRepository.findPageAll(after.createdAt(), after.id(), limit));
+        }
+        if (caller.getRole() == Role.LANDLORD) {
+            return toCursorPage(paymentRepository.findPageByLandlordId(
+                    caller.getId(), after.createdAt(), after.id(), limit));
+        }
+        // Tenants use /me, as with the unpaginated listing
+        return toCursorPage(new SliceImpl<>(List.of(), limit, false));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PaymentResponse> getPaymentsByTenant(Long tenantId, String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return toCursorPage(paymentRepository.findPageByTenantId(tenantId, after.createdAt(), after.id(),
+                PageRequest.of(0, KeysetCursor.clampPageSize(size))));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PaymentResponse> getPaymentsByStatus(String status, String cursor, int size) {
+        PaymentStatus paymentStatus;
+        try {
+            paymentStatus = PaymentStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid payment status: " + status);
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return toCursorPage(paymentRepository.findPageByStatus(paymentStatus, after.createdAt(), after.id(),
+                PageRequest.of(0, KeysetCursor.clampPageSize(size))));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PaymentResponse> getPaymentsByMethod(String method, String cursor, int size) {
+        PaymentMethod paymentMethod;
+        try {
+            paymentMethod = PaymentMethod.valueOf(method.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid payment method: " + method);
+        }
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return toCursorPage(paymentRepository.findPageByMethod(paymentMethod, after.createdAt(), after.id(),
+                PageRequest.of(0, KeysetCursor.clampPageSize(size))));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PaymentResponse> getMyPayments(String callerEmail, String cursor, int size) {
+        User user = currentUser.findByEmail(callerEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        return getPaymentsByTenant(user.getId(), cursor, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<PaymentResponse> getPendingMpesaCallbacks(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        return toCursorPage(paymentRepository.findPageAwaitingCallback(PaymentMethod.MPESA,
+                after.createdAt(), after.id(), PageRequest.of(0, KeysetCursor.clampPageSize(size))));
+    }
+
+    private CursorPage<PaymentResponse> toCursorPage(Slice<Payment> slice) {
+        List<PaymentResponse> items = slice.getContent().stream()
+                .map(PaymentResponse::fromEntity)
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (slice.hasNext() && !slice.getContent().isEmpty()) {
+            Payment last = slice.getContent().get(slice.getContent().size() - 1);
+            nextCursor = new KeysetCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return CursorPage.<PaymentResponse>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasNext(nextCursor != null)
+                .size(items.size())
+                .build();
+    }
+
     @Override
     @Transactional
     public PaymentResponse updatePaymentStatus(Long id, String status, String notes) {
@@ -352,7 +458,7 @@ public class PaymentServiceImpl implements PaymentService {
             }
 
             payment.setUpdatedAt(LocalDateTime.now());
-            Payment updatedPayment = paymentRepository.save(payment);
+            Payment updatedPayment = savePayment(payment);
 
             log.info("Payment {} status updated from {} to {}",
                     payment.getTransactionCode(), oldStatus, newStatus);
@@ -404,7 +510,7 @@ public class PaymentServiceImpl implements PaymentService {
         }
 
         // Validate caller permissions
-        User caller = userRepository.findByEmail(callerEmail)
+        User caller = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (!caller.getId().equals(payment.getTenant().getId()) &&
@@ -430,7 +536,7 @@ public class PaymentServiceImpl implements PaymentService {
         }
 
         payment.setUpdatedAt(LocalDateTime.now());
-        Payment updatedPayment = paymentRepository.save(payment);
+        Payment updatedPayment = savePayment(payment);
         return PaymentResponse.fromEntity(updatedPayment);
     }
 
@@ -441,7 +547,7 @@ public class PaymentServiceImpl implements PaymentService {
                 .orElseThrow(() -> new ResourceNotFoundException("Payment not found"));
 
         // Validate permissions
-        User caller = userRepository.findByEmail(callerEmail)
+        User caller = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (caller.getRole() != Role.ADMIN &&
@@ -471,7 +577,7 @@ public class PaymentServiceImpl implements PaymentService {
         }
 
         payment.setUpdatedAt(LocalDateTime.now());
-        Payment updatedPayment = paymentRepository.save(payment);
+        Payment updatedPayment = savePayment(payment);
 
         auditLogService.log(AuditAction.PAYMENT_SUCCESS, EntityType.PAYMENT, id,
                 String.format("Payment manually marked as paid by %s. Transaction: %s, Amount: %s",
@@ -485,77 +591,75 @@ public class PaymentServiceImpl implements PaymentService {
     @Override
     @Transactional(readOnly = true)
     public PaymentSummaryResponse getPaymentSummary() {
-        List<Payment> allPayments = paymentRepository.findAll();
+        LocalDate today = LocalDate.now();
+        return buildPaymentSummary(
+                paymentRepository.summarizeByStatusAndMethod(),
+                revenueRollupService.getDailyRevenue(null, today.minusDays(7), today));
+    }
 
-        BigDecimal totalAmount = allPayments.stream()
-                .map(Payment::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    @Override
+    @Transactional(readOnly = true)
+    public PaymentSummaryResponse getPaymentSummary(String callerEmail) {
+        User caller = currentUser.findByEmail(callerEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        BigDecimal totalSuccessful = allPayments.stream()
-                .filter(p -> p.getStatus() == PaymentStatus.SUCCESSFUL)
-                .map(Payment::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Landlords only see figures for payments on their own properties
+        if (caller.getRole() == Role.LANDLORD) {
+            LocalDate today = LocalDate.now();
+            return buildPaymentSummary(
+                    paymentRepository.summarizeByStatusAndMethodForLandlord(caller.getId()),
+                    revenueRollupService.getDailyRevenue(caller.getId(), today.minusDays(7), today));
+        }
 
-        BigDecimal totalPending = allPayments.stream()
-                .filter(p -> p.getStatus() == PaymentStatus.PENDING ||
-                        p.getStatus() == PaymentStatus.PROCESSING)
-                .map(Payment::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return getPaymentSummary();
+    }
 
-        long totalTransactions = allPayments.size();
-        long successfulTransactions = allPayments.stream()
-                .filter(p -> p.getStatus() == PaymentStatus.SUCCESSFUL)
-                .count();
-        long pendingTransactions = allPayments.stream()
-                .filter(p -> p.getStatus() == PaymentStatus.PENDING ||
-                        p.getStatus() == PaymentStatus.PROCESSING)
-                .count();
-        long failedTransactions = allPayments.stream()
-                .filter(p -> p.getStatus() == PaymentStatus.FAILED)
-                .count();
-        long cancelledTransactions = allPayments.stream()
-                .filter(p -> p.getStatus() == PaymentStatus.CANCELLED)
-                .count();
-        long refundedTransactions = allPayments.stream()
-                .filter(p -> p.getStatus() == PaymentStatus.REFUNDED)
-                .count();
-        long reversedTransactions = allPayments.stream()
-                .filter(p -> p.getStatus() == PaymentStatus.REVERSED)
-                .count();
-
-        // Calculate by payment method
+    /**
+     * Folds the (status, method) aggregate rows and the per-day revenue from the
+     * rollup table into the summary response. Both inputs are already grouped in
+     * the database, so this only walks a handful of rows regardless of table size.
+     */
+    private PaymentSummaryResponse buildPaymentSummary(List<Object[]> statusMethodRows,
+                                                       Map<String, BigDecimal> dailyRevenue) {
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        BigDecimal totalSuccessful = BigDecimal.ZERO;
+        BigDecimal totalPending = BigDecimal.ZERO;
+        long totalTransactions = 0;
+        Map<PaymentStatus, Long> countByStatus = new EnumMap<>(PaymentStatus.class);
         Map<String, BigDecimal> amountByMethod = new HashMap<>();
         Map<String, Long> countByMethod = new HashMap<>();
 
-        for (Payment payment : allPayments) {
-            String method = payment.getMethod().name();
-            amountByMethod.merge(method, payment.getAmount(), BigDecimal::add);
-            countByMethod.merge(method, 1L, Long::sum);
+        for (Object[] row : statusMethodRows) {
+            PaymentStatus status = (PaymentStatus) row[0];
+            String method = ((PaymentMethod) row[1]).name();
+            long count = ((Number) row[2]).longValue();
+            BigDecimal amount = row[3] != null ? (BigDecimal) row[3] : BigDecimal.ZERO;
+
+            totalAmount = totalAmount.add(amount);
+            totalTransactions += count;
+            countByStatus.merge(status, count, Long::sum);
+            amountByMethod.merge(method, amount, BigDecimal::add);
+            countByMethod.merge(method, count, Long::sum);
+
+            if (status == PaymentStatus.SUCCESSFUL) {
+                totalSuccessful = totalSuccessful.add(amount);
+            } else if (status == PaymentStatus.PENDING || status == PaymentStatus.PROCESSING) {
+                totalPending = totalPending.add(amount);
+            }
         }
 
-        // Calculate daily revenue for last 7 days
-        Map<String, BigDecimal> dailyRevenue = new HashMap<>();
-        LocalDateTime weekAgo = LocalDateTime.now().minusDays(7);
-
-        allPayments.stream()
-                .filter(p -> p.getStatus() == PaymentStatus.SUCCESSFUL && p.getPaidAt() != null)
-                .filter(p -> p.getPaidAt().isAfter(weekAgo))
-                .forEach(p -> {
-                    String date = p.getPaidAt().toLocalDate().toString();
-                    dailyRevenue.merge(date, p.getAmount(), BigDecimal::add);
-                });
-
         return PaymentSummaryResponse.builder()
                 .totalAmount(totalAmount)
                 .totalSuccessful(totalSuccessful)
                 .totalPending(totalPending)
                 .totalTransactions(totalTransactions)
-                .successfulTransactions(successfulTransactions)
-                .pendingTransactions(pendingTransactions)
-                .failedTransactions(failedTransactions)
-                .cancelledTransactions(cancelledTransactions)
-                .refundedTransactions(refundedTransactions)
-                .reversedTransactions(reversedTransactions)
+                .successfulTransactions(countByStatus.getOrDefault(PaymentStatus.SUCCESSFUL, 0L))
+                .pendingTransactions(countByStatus.getOrDefault(PaymentStatus.PENDING, 0L)
+                        + countByStatus.getOrDefault(PaymentStatus.PROCESSING, 0L))
+                .failedTransactions(countByStatus.getOrDefault(PaymentStatus.FAILED, 0L))
+                .cancelledTransactions(countByStatus.getOrDefault(PaymentStatus.CANCELLED, 0L))
+                .refundedTransactions(countByStatus.getOrDefault(PaymentStatus.REFUNDED, 0L))
+                .reversedTransactions(countByStatus.getOrDefault(PaymentStatus.REVERSED, 0L))
                 .amountByMethod(amountByMethod)
                 .countByMethod(countByMethod)
                 .dailyRevenue(dailyRevenue)
@@ -565,11 +669,8 @@ public class PaymentServiceImpl implements PaymentService {
     @Override
     @Transactional(readOnly = true)
     public BigDecimal getTotalRevenue() {
-        List<Payment> allPayments = paymentRepository.findAll();
-        return allPayments.stream()
-                .filter(p -> p.getStatus() == PaymentStatus.SUCCESSFUL)
-                .map(Payment::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal total = paymentRepository.getTotalSuccessfulAmount();
+        return total != null ? total : BigDecimal.ZERO;
     }
 
     @Override
@@ -611,7 +712,7 @@ public class PaymentServiceImpl implements PaymentService {
         }
 
         // Validate permissions
-        User caller = userRepository.findByEmail(callerEmail)
+        User caller = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (!caller.getId().equals(payment.getTenant().getId()) &&
@@ -624,45 +725,15 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     // ... [The rest of your existing methods: handleSuccessfulCallback, reversePayment,
-    // refundPayment, queryMpesaTransactionStatus, checkPendingMpesaTransactions,
+    // refundPayment, queryMpesaTransactionStatus,
     // scheduleTransactionStatusCheck, generateTransactionCode remain the same]
 
-    private void handleSuccessfulCallback(Payment payment, Map<String, Object> stkCallback) {
+    private void handleSuccessfulCallback(Payment payment, MpesaStkCallback stkCallback) {
         try {
-            TypeReference<Map<String, Object>> typeRef = new TypeReference<Map<String, Object>>() {};
-            TypeReference<List<Map<String, Object>>> listTypeRef = new TypeReference<List<Map<String, Object>>>() {};
-
-            Map<String, Object> callbackMetadata = objectMapper.convertValue(
-                    stkCallback.get("CallbackMetadata"), typeRef);
-
-            if (callbackMetadata != null) {
-                List<Map<String, Object>> items = objectMapper.convertValue(
-                        callbackMetadata.get("Item"), listTypeRef);
-
-                String mpesaReceipt = null;
-                String phoneNumber = null;
-                BigDecimal amount = payment.getAmount();
-
-                for (Map<String, Object> item : items) {
-                    String name = (String) item.get("Name");
-                    Object value = item.get("Value");
-
-                    switch (name) {
-                        case "MpesaReceiptNumber":
-                            mpesaReceipt = value.toString();
-                            break;
-                        case "PhoneNumber":
-                            phoneNumber = value.toString();
-                            break;
-                        case "Amount":
-                            if (value instanceof Integer) {
-                                amount = BigDecimal.valueOf((Integer) value);
-                            } else if (value instanceof Double) {
-                                amount = BigDecimal.valueOf((Double) value);
-                            }
-                            break;
-                    }
-                }
+            if (stkCallback.hasMetadata()) {
+                String mpesaReceipt = stkCallback.mpesaReceiptNumber();
+                String phoneNumber = stkCallback.phoneNumber();
+                BigDecimal amount = stkCallback.amount() != null ? stkCallback.amount() : payment.getAmount();
 
                 payment.setStatus(PaymentStatus.SUCCESSFUL);
                 payment.setTransactionCode(mpesaReceipt != null ? mpesaReceipt : payment.getTransactionCode());
@@ -735,7 +806,7 @@ public class PaymentServiceImpl implements PaymentService {
         Payment payment = paymentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Payment not found"));
 
-        User caller = userRepository.findByEmail(callerEmail)
+        User caller = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (caller.getRole() != Role.ADMIN) {
@@ -750,7 +821,7 @@ public class PaymentServiceImpl implements PaymentService {
         payment.setNotes("Reversed: " + reversalReason + " (by " + callerEmail + ")");
         payment.setUpdatedAt(LocalDateTime.now());
 
-        Payment savedPayment = paymentRepository.save(payment);
+        Payment savedPayment = savePayment(payment);
         log.info("Payment {} reversed by {}", id, callerEmail);
 
         return PaymentResponse.fromEntity(savedPayment);
@@ -762,7 +833,7 @@ public class PaymentServiceImpl implements PaymentService {
         Payment payment = paymentRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Payment not found"));
 
-        User caller = userRepository.findByEmail(callerEmail)
+        User caller = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (caller.getRole() != Role.ADMIN && caller.getRole() != Role.LANDLORD) {
@@ -792,13 +863,13 @@ public class PaymentServiceImpl implements PaymentService {
                     .notes("Remaining balance after partial refund of " + refundAmount)
                     .callbackReceived(false)
                     .build();
-            paymentRepository.save(remainingPayment);
+            savePayment(remainingPayment);
         }
 
         payment.setNotes("Refunded: " + refundAmount + " - Reason: " + reason + " (by " + callerEmail + ")");
         payment.setUpdatedAt(LocalDateTime.now());
 
-        Payment savedPayment = paymentRepository.save(payment);
+        Payment savedPayment = savePayment(payment);
         log.info("Payment {} refunded {} by {}", id, refundAmount, callerEmail);
 
         return PaymentResponse.fromEntity(savedPayment);
@@ -815,32 +886,38 @@ public class PaymentServiceImpl implements PaymentService {
                 return;
             }
 
-            Optional<Payment> paymentOpt = paymentRepository.findByCheckoutRequestID(checkoutRequestId);
-            if (paymentOpt.isEmpty()) {
-                paymentOpt = paymentRepository.findByTransactionCode(checkoutRequestId);
-            }
-            if (paymentOpt.isPresent() && !paymentOpt.get().isCallbackReceived()) {
-                log.info("Transaction {} status: {}", checkoutRequestId, statusResponse.getResultDesc());
-
-                Payment payment = paymentOpt.get();
-                if (statusResponse.getResultCode() != null) {
-                    if (statusResponse.getResultCode().equals("0")) {
-                        payment.setStatus(PaymentStatus.SUCCESSFUL);
-                        payment.setPaidAt(LocalDateTime.now());
-                        payment.setCallbackReceived(true);
-                        paymentRepository.save(payment);
-                    } else if (statusResponse.getResultCode().equals("1032")) {
-                        payment.setStatus(PaymentStatus.CANCELLED);
-                        payment.setCallbackReceived(true);
-                        paymentRepository.save(payment);
-                    }
-                }
-            }
+            applyMpesaTransactionStatus(checkoutRequestId, statusResponse);
         } catch (Exception e) {
             log.error("Error querying transaction status: {}", e.getMessage());
         }
     }
 
+    @Override
+    @Transactional
+    public void applyMpesaTransactionStatus(String checkoutRequestId, MpesaTransactionStatusResponse statusResponse) {
+        Optional<Payment> paymentOpt = paymentRepository.findByCheckoutRequestID(checkoutRequestId);
+        if (paymentOpt.isEmpty()) {
+            paymentOpt = paymentRepository.findByTransactionCode(checkoutRequestId);
+        }
+        if (paymentOpt.isPresent() && !paymentOpt.get().isCallbackReceived()) {
+            log.info("Transaction {} status: {}", checkoutRequestId, statusResponse.getResultDesc());
+
+            Payment payment = paymentOpt.get();
+            if (statusResponse.getResultCode() != null) {
+                if (statusResponse.getResultCode().equals("0")) {
+                    payment.setStatus(PaymentStatus.SUCCESSFUL);
+                    payment.setPaidAt(LocalDateTime.now());
+                    payment.setCallbackReceived(true);
+                    savePayment(payment);
+                } else if (statusResponse.getResultCode().equals("1032")) {
+                    payment.setStatus(PaymentStatus.CANCELLED);
+                    payment.setCallbackReceived(true);
+                    savePayment(payment);
+                }
+            }
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<PaymentOptionResponse> getPaymentOptions(Long leaseId, String callerEmail) {
@@ -849,7 +926,7 @@ public class PaymentServiceImpl implements PaymentService {
         Lease lease = leaseRepository.findById(leaseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Lease not found"));
         
-        User caller = userRepository.findByEmail(callerEmail)
+        User caller = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
         // Security: Verify tenant owns this lease or is admin
@@ -899,7 +976,7 @@ public class PaymentServiceImpl implements PaymentService {
     public PaymentResponse initiatePayment(PaymentInitiationRequest request, String callerEmail) {
         log.info("Initiating payment initiation request by user: {}", callerEmail);
         
-        User tenant = userRepository.findByEmail(callerEmail)
+        User tenant = currentUser.findByEmail(callerEmail)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         Lease lease = null;
@@ -1036,7 +1113,7 @@ public class PaymentServiceImpl implements PaymentService {
                 .gatewayResponse("Pending M-Pesa STK Push") // Set default to avoid NOT NULL constraint
                 .build();
         
-        Payment savedPayment = paymentRepository.save(payment);
+        Payment savedPayment = savePayment(payment);
         log.info("Payment created with transaction code: {}", savedPayment.getTransactionCode());
 
         // Audit log
@@ -1066,14 +1143,14 @@ public class PaymentServiceImpl implements PaymentService {
                             stkResponse.getCheckoutRequestID(), savedPayment.getId());
                 }
 
-                paymentRepository.save(savedPayment);
+                savePayment(savedPayment);
                 log.info("M-Pesa STK push initiated successfully for payment: {}", savedPayment.getId());
                 
             } catch (Exception e) {
                 log.error("Failed to initiate M-Pesa STK push: {}", e.getMessage());
                 savedPayment.setStatus(PaymentStatus.FAILED);
                 savedPayment.setNotes("M-Pesa initiation failed: " + e.getMessage());
-                paymentRepository.save(savedPayment);
+                savePayment(savedPayment);
             }
         } else if ("CARD".equalsIgnoreCase(request.getPaymentMethod()) || "CREDIT_CARD".equalsIgnoreCase(request.getPaymentMethod())) {
              try {
@@ -1093,7 +1170,7 @@ public class PaymentServiceImpl implements PaymentService {
                  savedPayment.setTransactionCode(transactionId);
                  savedPayment.setPaidAt(LocalDateTime.now());
                  savedPayment.setGatewayResponse("Stripe Charge ID: " + transactionId);
-                 paymentRepository.save(savedPayment);
+                 savePayment(savedPayment);
                  
                  log.info("Stripe payment successful. Transaction ID: {}", transactionId);
 
@@ -1132,7 +1209,7 @@ public class PaymentServiceImpl implements PaymentService {
                  log.error("Failed to initiate Stripe payment: {}", e.getMessage());
                  savedPayment.setStatus(PaymentStatus.FAILED);
                  savedPayment.setNotes("Stripe payment failed: " + e.getMessage());
-                 paymentRepository.save(savedPayment);
+                 savePayment(savedPayment);
                  // We might want to rethrow to notify frontend immediately
                  throw new BadRequestException("Card payment failed: " + e.getMessage());
              }
@@ -1141,44 +1218,22 @@ public class PaymentServiceImpl implements PaymentService {
         return PaymentResponse.fromEntity(savedPayment);
     }
 
-    @Scheduled(fixedDelay = 300000) // Run every 5 minutes
-    public void checkPendingMpesaTransactions() {
-        log.info("Checking pending M-Pesa transactions...");
-        List<Payment> pendingPayments = paymentRepository.findByStatusAndMethodAndCallbackReceivedFalse(
-                PaymentStatus.PROCESSING, PaymentMethod.MPESA);
-
-        for (Payment payment : pendingPayments) {
-            // If transaction is older than 1 hour, mark as FAILED — Safaricom likely won't respond
-            if (payment.getCreatedAt().isBefore(LocalDateTime.now().minusHours(1))) {
-                log.warn("Marking stale transaction as FAILED (>1hr old): {}", payment.getTransactionCode());
-                payment.setStatus(PaymentStatus.FAILED);
-                payment.setNotes("Auto-failed: M-Pesa transaction timed out after 1 hour with no callback");
-                payment.setCallbackReceived(true); // Stop further queries
-                paymentRepository.save(payment);
-                continue;
-            }
-            // Only query transactions between 2-60 minutes old
-            if (payment.getCreatedAt().isBefore(LocalDateTime.now().minusMinutes(2))) {
-                log.info("Querying status for pending transaction: {}", payment.getTransactionCode());
-                try {
-                    queryMpesaTransactionStatus(payment.getTransactionCode());
-                } catch (Exception e) {
-                    log.error("Error querying transaction {}: {}", payment.getTransactionCode(), e.getMessage());
-                }
-            }
-        }
-    }
-
     private void scheduleTransactionStatusCheck(String checkoutRequestId) {
         log.info("Scheduled status check for: {}", checkoutRequestId);
         // In a real implementation, you might use @Async or a task scheduler
-        // For now, we'll rely on the scheduled method above
+        // For now, we'll rely on MpesaReconciliationService
     }
 
     @Override
     public String generateTransactionCode() {
-        String timestamp = String.valueOf(System.currentTimeMillis());
-        String random = UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        return "PAY-" + timestamp.substring(timestamp.length() - 8) + "-" + random;
+        return idGeneratorService.nextCode("PAY");
+    }
+
+    // All payment writes go through here so the revenue rollup sees every
+    // transition into or out of SUCCESSFUL
+    private Payment savePayment(Payment payment) {
+        Payment saved = paymentRepository.save(payment);
+        revenueRollupService.recordTransition(saved);
+        return saved;
     }
 }
\ No newline at end of file
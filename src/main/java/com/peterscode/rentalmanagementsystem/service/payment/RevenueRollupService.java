@@ -0,0 +1,184 @@
+package com.peterscode.rentalmanagementsystem.service.payment;
+
+import com.peterscode.rentalmanagementsystem.dto.response.RevenuePoint;
+import com.peterscode.rentalmanagementsystem.exception.BadRequestException;
+import com.peterscode.rentalmanagementsystem.exception.ResourceNotFoundException;
+import com.peterscode.rentalmanagementsystem.model.lease.Lease;
+import com.peterscode.rentalmanagementsystem.model.payment.Payment;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentStatus;
+import com.peterscode.rentalmanagementsystem.model.payment.RevenueRollup;
+import com.peterscode.rentalmanagementsystem.model.property.Property;
+import com.peterscode.rentalmanagementsystem.model.user.Role;
+import com.peterscode.rentalmanagementsystem.model.user.User;
+import com.peterscode.rentalmanagementsystem.repository.RevenueRollupRepository;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the {@code revenue_rollup} table in step with the payments ledger and
+ * serves revenue series from it. Every save of a payment goes through
+ * {@link #recordTransition(Payment)}, which adds the payment to its bucket when
+ * it becomes SUCCESSFUL and removes it again when it leaves SUCCESSFUL.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RevenueRollupService {
+
+    static final int MAX_DAILY_POINTS = 366;
+    static final int MAX_MONTHLY_POINTS = 120;
+
+    private final RevenueRollupRepository rollupRepository;
+    private final CurrentUser currentUser;
+
+    public enum Granularity { DAILY, MONTHLY, YEARLY }
+
+    /** Bucket a successful payment is counted under. */
+    record Bucket(LocalDate day, long propertyId, long landlordId, String method) {}
+
+    /**
+     * Applies the payment's status change since it was loaded (or since the last
+     * call) to the rollup. Must run in the transaction that saves the payment.
+     */
+    @Transactional
+    public void recordTransition(Payment payment) {
+        boolean wasCounted = payment.getRollupStatus() == PaymentStatus.SUCCESSFUL;
+        boolean isCounted = payment.getStatus() == PaymentStatus.SUCCESSFUL;
+
+        if (wasCounted != isCounted) {
+            Bucket bucket = bucketOf(payment);
+            int sign = isCounted ? 1 : -1;
+            rollupRepository.addToBucket(bucket.day(), bucket.propertyId(), bucket.landlordId(),
+                    bucket.method(), payment.getAmount().multiply(BigDecimal.valueOf(sign)), sign);
+            log.debug("Revenue rollup {} payment {} ({}) on {}", isCounted ? "added" : "removed",
+                    payment.getId(), payment.getAmount(), bucket.day());
+        }
+        payment.setRollupStatus(payment.getStatus());
+    }
+
+    /**
+     * Revenue series for the caller. Admins see everything (optionally narrowed to
+     * one landlord); landlords only ever see their own properties.
+     */
+    @Transactional(readOnly = true)
+    public List<RevenuePoint> getSeries(String callerEmail, Granularity granularity,
+                                        LocalDate from, LocalDate to, Long landlordId, Long propertyId) {
+        User caller = currentUser.findByEmail(callerEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+
+        Long scopedLandlordId;
+        if (caller.getRole() == Role.ADMIN) {
+            scopedLandlordId = landlordId;
+        } else if (caller.getRole() == Role.LANDLORD) {
+            scopedLandlordId = caller.getId();
+        } else {
+            throw new BadRequestException("Only admins and landlords can view revenue analytics");
+        }
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : defaultStart(granularity, end);
+        if (start.isAfter(end)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+
+        return switch (granularity) {
+            case DAILY -> {
+                if (ChronoUnit.DAYS.between(start, end) >= MAX_DAILY_POINTS) {
+                    throw new BadRequestException("Daily series are limited to " + MAX_DAILY_POINTS + " days");
+                }
+                yield toPoints(rollupRepository.sumByDay(start, end, scopedLandlordId, propertyId), 1);
+            }
+            case MONTHLY -> {
+                if (ChronoUnit.MONTHS.between(start.withDayOfMonth(1), end.withDayOfMonth(1)) >= MAX_MONTHLY_POINTS) {
+                    throw new BadRequestException("Monthly series are limited to " + MAX_MONTHLY_POINTS + " months");
+                }
+                yield toPoints(rollupRepository.sumByMonth(start, end, scopedLandlordId, propertyId), 2);
+            }
+            case YEARLY -> toPoints(rollupRepository.sumByYear(start, end, scopedLandlordId, propertyId), 1);
+        };
+    }
+
+    /** Successful revenue per day (ISO date -> amount), optionally for one landlord. */
+    @Transactional(readOnly = true)
+    public Map<String, BigDecimal> getDailyRevenue(Long landlordId, LocalDate from, LocalDate to) {
+        Map<String, BigDecimal> daily = new LinkedHashMap<>();
+        for (Object[] row : rollupRepository.sumByDay(from, to, landlordId, null)) {
+            daily.put(row[0].toString(), (BigDecimal) row[1]);
+        }
+        return daily;
+    }
+
+    /**
+     * Recomputes the buckets for {@code [from, to]} from the payments ledger.
+     * Null bounds cover the whole ledger. Run during quiet periods: transitions
+     * committed while the rebuild is running can be counted twice.
+     */
+    @Transactional
+    public int rebuild(LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : LocalDate.of(1970, 1, 1);
+        LocalDate end = to != null ? to : LocalDate.now().plusDays(1);
+        if (start.isAfter(end)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+
+        int removed = rollupRepository.deleteByBucketDateBetween(start, end);
+        int inserted = rollupRepository.insertFromPayments(start.atStartOfDay(), end.plusDays(1).atStartOfDay());
+        log.info("Revenue rollup rebuilt for {}..{}: {} buckets removed, {} written", start, end, removed, inserted);
+        return inserted;
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isEmpty() {
+        return rollupRepository.count() == 0;
+    }
+
+    static Bucket bucketOf(Payment payment) {
+        LocalDate day = (payment.getPaidAt() != null ? payment.getPaidAt() : payment.getCreatedAt()).toLocalDate();
+
+        Lease lease = payment.getLease();
+        Property leaseProperty = lease != null ? lease.getProperty() : null;
+        Property property = payment.getProperty() != null ? payment.getProperty() : leaseProperty;
+        User owner = leaseProperty != null ? leaseProperty.getOwner()
+                : property != null ? property.getOwner() : null;
+
+        return new Bucket(day,
+                property != null ? property.getId() : RevenueRollup.UNASSIGNED,
+                owner != null ? owner.getId() : RevenueRollup.UNASSIGNED,
+                payment.getMethod().name());
+    }
+
+    private static LocalDate defaultStart(Granularity granularity, LocalDate end) {
+        return switch (granularity) {
+            case DAILY -> end.minusDays(29);
+            case MONTHLY -> end.minusMonths(11).withDayOfMonth(1);
+            case YEARLY -> end.minusYears(4).withDayOfYear(1);
+        };
+    }
+
+    // Rows end with [sum(amount), sum(count)]; the leading keyLength columns form the period
+    private static List<RevenuePoint> toPoints(List<Object[]> rows, int keyLength) {
+        List<RevenuePoint> points = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            String period = keyLength == 2
+                    ? String.format("%04d-%02d", ((Number) row[0]).intValue(), ((Number) row[1]).intValue())
+                    : row[0].toString();
+            points.add(RevenuePoint.builder()
+                    .period(period)
+                    .totalAmount(row[keyLength] != null ? (BigDecimal) row[keyLength] : BigDecimal.ZERO)
+                    .paymentCount(row[keyLength + 1] != null ? ((Number) row[keyLength + 1]).longValue() : 0L)
+                    .build());
+        }
+        return points;
+    }
+}
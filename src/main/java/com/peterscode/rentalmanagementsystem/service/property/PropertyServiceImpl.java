@@ -12,6 +12,7 @@ import com.peterscode.rentalmanagementsystem.model.user.User;
 import com.peterscode.rentalmanagementsystem.repository.PropertyRepository;
 import com.peterscode.rentalmanagementsystem.repository.UserRepository;
 import com.peterscode.rentalmanagementsystem.service.audit.AuditLogService;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -27,6 +28,7 @@ public class PropertyServiceImpl implements PropertyService {
 
     private final PropertyRepository propertyRepository;
     private final UserRepository userRepository;
+    private final CurrentUser currentUserResolver;
     private final AuditLogService auditLogService;
 
     @Override
@@ -127,7 +129,7 @@ public class PropertyServiceImpl implements PropertyService {
     @Override
     @Transactional
     public PropertyResponse updateProperty(Long propertyId, PropertyRequest request, String callerEmail) {
-        User currentUser = userRepository.findByEmailIgnoreCase(callerEmail)
+        User currentUser = currentUserResolver.findByEmailIgnoreCase(callerEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         Property property = getProperty(propertyId);
 
@@ -175,7 +177,7 @@ public class PropertyServiceImpl implements PropertyService {
     @Override
     @Transactional
     public void deleteProperty(Long propertyId, String callerEmail) {
-        User currentUser = userRepository.findByEmailIgnoreCase(callerEmail)
+        User currentUser = currentUserResolver.findByEmailIgnoreCase(callerEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         Property property = getProperty(propertyId);
 
@@ -206,7 +208,7 @@ public class PropertyServiceImpl implements PropertyService {
     private User getCurrentAuthenticatedUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
-        return userRepository.findByEmailIgnoreCase(username)
+        return currentUserResolver.findByEmailIgnoreCase(username)
                 .orElseThrow(() -> new RuntimeException("Authenticated user not found: " + username));
     }
 
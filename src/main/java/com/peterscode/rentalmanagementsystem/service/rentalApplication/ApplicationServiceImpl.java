@@ -10,7 +10,7 @@ import com.peterscode.rentalmanagementsystem.model.user.Role;
 import com.peterscode.rentalmanagementsystem.model.user.User;
 import com.peterscode.rentalmanagementsystem.repository.RentalApplicationRepository;
 import com.peterscode.rentalmanagementsystem.repository.PropertyRepository;
-import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
@@ -27,7 +27,7 @@ public class ApplicationServiceImpl implements ApplicationService {
 
     private final RentalApplicationRepository applicationRepository;
     private final PropertyRepository propertyRepository;
-    private final UserRepository userRepository;
+    private final CurrentUser currentUserResolver;
 
     @Override
     @Transactional
@@ -103,7 +103,7 @@ public class ApplicationServiceImpl implements ApplicationService {
     @Override
     @Transactional(readOnly = true)
     public List<ApplicationResponse> getApplicationsByProperty(Long propertyId, String callerEmail) {
-        User currentUser = userRepository.findByEmailIgnoreCase(callerEmail)
+        User currentUser = currentUserResolver.findByEmailIgnoreCase(callerEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         Property property = propertyRepository.findById(propertyId)
                 .orElseThrow(() -> new RuntimeException("Property not found"));
@@ -123,7 +123,7 @@ public class ApplicationServiceImpl implements ApplicationService {
     @Override
     @Transactional(readOnly = true)
     public List<ApplicationResponse> getApplicationsByStatus(RentalApplicationStatus status, String callerEmail) {
-        User currentUser = userRepository.findByEmailIgnoreCase(callerEmail)
+        User currentUser = currentUserResolver.findByEmailIgnoreCase(callerEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         List<RentalApplication> applications;
 
@@ -144,7 +144,7 @@ public class ApplicationServiceImpl implements ApplicationService {
     @Transactional
     public ApplicationResponse updateApplicationStatus(Long applicationId, ApplicationStatusUpdateRequest request, String callerEmail) {
         RentalApplication application = getApplication(applicationId);
-        User currentUser = userRepository.findByEmailIgnoreCase(callerEmail)
+        User currentUser = currentUserResolver.findByEmailIgnoreCase(callerEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // Only property owner or admin can update status
@@ -230,7 +230,7 @@ public class ApplicationServiceImpl implements ApplicationService {
     private User getCurrentAuthenticatedUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = authentication.getName();
-        return userRepository.findByEmailIgnoreCase(username)
+        return currentUserResolver.findByEmailIgnoreCase(username)
                 .orElseThrow(() -> new RuntimeException("Authenticated user not found: " + username));
     }
 
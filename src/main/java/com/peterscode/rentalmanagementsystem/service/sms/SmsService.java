@@ -8,11 +8,13 @@ import com.peterscode.rentalmanagementsystem.model.user.User;
 import com.peterscode.rentalmanagementsystem.repository.SmsReminderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -48,6 +50,15 @@ public class SmsService {
         }
     }
 
+    /**
+     * Send SMS on the SMS executor. The future completes exceptionally if the send fails.
+     */
+    @Async("smsTaskExecutor")
+    public CompletableFuture<Void> sendSmsAsync(String to, String message) {
+        sendSms(to, message);
+        return CompletableFuture.completedFuture(null);
+    }
+
     /**
      * Normalize phone number to E.164 format for Kenya (+254...)
      */
@@ -3,7 +3,10 @@ package com.peterscode.rentalmanagementsystem.service.user;
 
 import com.peterscode.rentalmanagementsystem.model.user.Role;
 import com.peterscode.rentalmanagementsystem.model.user.User;
+import com.peterscode.rentalmanagementsystem.repository.AuditLogRepository;
 import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import com.peterscode.rentalmanagementsystem.security.JwtPrincipalCache;
+import com.peterscode.rentalmanagementsystem.service.auth.RefreshTokenService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,6 +19,9 @@ import java.util.List;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final JwtPrincipalCache jwtPrincipalCache;
+    private final RefreshTokenService refreshTokenService;
 
     @Override
     @Transactional(readOnly = true)
@@ -57,19 +63,28 @@ public class UserServiceImpl implements UserService {
         }
 
         user.setUpdatedAt(java.time.Instant.now());
+        jwtPrincipalCache.invalidateUser(id);
         return userRepository.save(user);
     }
 
     @Override
     public void deleteUser(Long id) {
         User user = getUserById(id);
+        refreshTokenService.revokeAllForUser(id);
+        // Replaces the ON DELETE SET NULL lost with the foreign key in V34; the username stays on each row
+        auditLogRepository.detachUser(id);
         userRepository.delete(user);
+        jwtPrincipalCache.invalidateUser(id);
     }
 
     @Override
     public User toggleUserStatus(Long id, boolean enabled) {
         User user = getUserById(id);
         user.setEnabled(enabled);
+        jwtPrincipalCache.invalidateUser(id);
+        if (!enabled) {
+            refreshTokenService.revokeAllForUser(id);
+        }
         return userRepository.save(user);
     }
 }
\ No newline at end of file
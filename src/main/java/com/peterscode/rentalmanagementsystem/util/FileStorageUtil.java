@@ -1,5 +1,7 @@
 package com.peterscode.rentalmanagementsystem.util;
 
+import com.peterscode.rentalmanagementsystem.service.id.IdGeneratorService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -10,12 +12,14 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
 
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class FileStorageUtil {
 
+    private final IdGeneratorService idGeneratorService;
+
     @Value("${file.upload-dir:uploads}")
     private String uploadDir;
 
@@ -37,7 +41,7 @@ public class FileStorageUtil {
         // Generate unique filename
         String originalFilename = file.getOriginalFilename();
         String fileExtension = getFileExtension(originalFilename);
-        String uniqueFilename = UUID.randomUUID() + fileExtension;
+        String uniqueFilename = idGeneratorService.nextFileName(fileExtension);
 
         // Create directory if it doesn't exist
         Path uploadPath = Paths.get(uploadDir, subDirectory);
@@ -0,0 +1,125 @@
+package com.peterscode.rentalmanagementsystem.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Non-blocking token buckets, one per key. Unlike {@link RateLimiter} a caller over
+ * the limit is told how long to wait instead of being put to sleep, so it can be
+ * turned away straight away.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be
+ * full again (the "theoretical arrival time" of the generic cell rate algorithm),
+ * updated with a CAS loop: taking a token pushes that time one refill interval into
+ * the future, and a request is refused once it would be more than
+ * {@code capacity} intervals ahead. Buckets that have refilled completely carry no
+ * state and are dropped by {@link #evictIdle()}.
+ * <p>
+ * At most {@code maxKeys} buckets are kept (give or take a few racing inserts). Once
+ * the map is full, a new key triggers an eviction pass at most once a second, and
+ * is refused if no bucket was idle: failing open would let a caller spraying keys
+ * switch the limit off for the key it actually cares about.
+ */
+public class TokenBucketLimiter {
+
+    private static final long EVICTION_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextEviction;
+
+    public TokenBucketLimiter(int capacity, double tokensPerSecond, int maxKeys) {
+        this(capacity, tokensPerSecond, maxKeys, System::nanoTime);
+    }
+
+    public TokenBucketLimiter(int capacity, double tokensPerSecond, int maxKeys, LongSupplier nanoClock) {
+        if (capacity <= 0 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("capacity and tokensPerSecond must be positive");
+        }
+        this.nanosPerToken = (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond);
+        this.burstNanos = nanosPerToken * capacity;
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+        this.nextEviction = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Takes one token from {@code key}'s bucket.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be available
+     */
+    public long tryAcquire(String key) {
+        AtomicLong bucket = bucket(key);
+        if (bucket == null) {
+            return nanosPerToken;
+        }
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long fullAt = bucket.get();
+            long next = (fullAt - now < 0 ? now : fullAt) + nanosPerToken;
+            long ahead = next - now;
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Reports whether {@code key}'s bucket has a token without taking it, so a caller
+     * can check several buckets before charging any of them.
+     *
+     * @return 0 if a token is available, otherwise the nanoseconds until one will be
+     */
+    public long waitNanos(String key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        long fullAt = bucket.get();
+        long ahead = (fullAt - now < 0 ? now : fullAt) + nanosPerToken - now;
+        return ahead > burstNanos ? ahead - burstNanos : 0;
+    }
+
+    /**
+     * Drops buckets that have refilled completely. A caller racing with the removal
+     * may charge a bucket that is being discarded, which at worst grants one extra
+     * token; that is cheaper than locking every acquisition.
+     */
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private AtomicLong bucket(String key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        // Bound memory when keys are sprayed (e.g. rotating IPs); only full buckets are dropped
+        if (buckets.size() >= maxKeys) {
+            long now = nanoClock.getAsLong();
+            long due = nextEviction.get();
+            if (now - due >= 0 && nextEviction.compareAndSet(due, now + EVICTION_INTERVAL_NANOS)) {
+                evictIdle();
+            }
+            if (buckets.size() >= maxKeys) {
+                return null;
+            }
+        }
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(nanoClock.getAsLong()));
+    }
+}
@@ -0,0 +1,4 @@
+-- V30: Indexes backing the landlord-scoped payment listing
+-- payments -> leases -> properties(owner_id); newest payments first
+CREATE INDEX idx_payments_lease_created ON payments (lease_id, created_at);
+CREATE INDEX idx_properties_owner_id ON properties (owner_id, id);
@@ -0,0 +1,15 @@
+-- V31: Durable inbox for M-Pesa STK callbacks
+-- Callbacks are stored and ACKed immediately, then processed by background workers.
+-- The unique checkout_request_id makes Daraja retries idempotent.
+CREATE TABLE IF NOT EXISTS mpesa_callbacks (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    checkout_request_id VARCHAR(100) NOT NULL,
+    payload LONGTEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'RECEIVED',
+    attempts INT NOT NULL DEFAULT 0,
+    error_message TEXT NULL,
+    received_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed_at TIMESTAMP NULL,
+    UNIQUE KEY uk_mpesa_callbacks_checkout (checkout_request_id),
+    INDEX idx_mpesa_callbacks_status (status, received_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,6 @@
+-- V32: Indexes backing newest-first keyset pagination of payment listings
+-- InnoDB secondary indexes carry the primary key, so (x, created_at) also orders by id.
+CREATE INDEX idx_payments_created_at ON payments (created_at);
+CREATE INDEX idx_payments_tenant_created ON payments (tenant_id, created_at);
+CREATE INDEX idx_payments_status_created ON payments (status, created_at);
+CREATE INDEX idx_payments_method_callback_created ON payments (method, callback_received, created_at);
@@ -0,0 +1,17 @@
+-- V33: Pre-aggregated successful revenue per (day, property, landlord, method)
+-- Maintained incrementally when payments move into or out of SUCCESSFUL and
+-- rebuilt from the payments ledger by the backfill job. property_id / landlord_id
+-- use 0 for "not linked" so the unique key also covers unassigned payments.
+CREATE TABLE IF NOT EXISTS revenue_rollup (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    bucket_date DATE NOT NULL,
+    property_id BIGINT NOT NULL DEFAULT 0,
+    landlord_id BIGINT NOT NULL DEFAULT 0,
+    method VARCHAR(20) NOT NULL,
+    total_amount DECIMAL(19, 2) NOT NULL DEFAULT 0,
+    payment_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    UNIQUE KEY uk_revenue_rollup_bucket (bucket_date, property_id, landlord_id, method),
+    INDEX idx_revenue_rollup_landlord (landlord_id, bucket_date),
+    INDEX idx_revenue_rollup_property (property_id, bucket_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,38 @@
+-- V34: Partition audit_logs by month so retention can drop whole partitions
+-- instead of deleting rows one by one.
+-- MySQL partitioning requires every unique key to include the partition column
+-- and does not allow foreign keys, so the primary key becomes (id, created_at)
+-- and the user_id foreign key is dropped (user_id stays indexed).
+-- created_at becomes DATETIME because TO_DAYS() cannot partition a TIMESTAMP.
+-- Later months are added ahead of time by AuditPartitionManager, which splits
+-- them off p_future.
+
+SET @audit_fk := (SELECT CONSTRAINT_NAME FROM information_schema.TABLE_CONSTRAINTS
+                  WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'audit_logs'
+                    AND CONSTRAINT_TYPE = 'FOREIGN KEY' LIMIT 1);
+SET @audit_sql := IF(@audit_fk IS NULL, 'SELECT 1',
+                     CONCAT('ALTER TABLE audit_logs DROP FOREIGN KEY ', @audit_fk));
+PREPARE audit_stmt FROM @audit_sql;
+EXECUTE audit_stmt;
+DEALLOCATE PREPARE audit_stmt;
+
+ALTER TABLE audit_logs
+    MODIFY created_at DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (id, created_at);
+
+ALTER TABLE audit_logs PARTITION BY RANGE (TO_DAYS(created_at)) (
+    PARTITION p_legacy VALUES LESS THAN (TO_DAYS('2026-02-01')),
+    PARTITION p202602 VALUES LESS THAN (TO_DAYS('2026-03-01')),
+    PARTITION p202603 VALUES LESS THAN (TO_DAYS('2026-04-01')),
+    PARTITION p202604 VALUES LESS THAN (TO_DAYS('2026-05-01')),
+    PARTITION p202605 VALUES LESS THAN (TO_DAYS('2026-06-01')),
+    PARTITION p202606 VALUES LESS THAN (TO_DAYS('2026-07-01')),
+    PARTITION p202607 VALUES LESS THAN (TO_DAYS('2026-08-01')),
+    PARTITION p202608 VALUES LESS THAN (TO_DAYS('2026-09-01')),
+    PARTITION p202609 VALUES LESS THAN (TO_DAYS('2026-10-01')),
+    PARTITION p202610 VALUES LESS THAN (TO_DAYS('2026-11-01')),
+    PARTITION p202611 VALUES LESS THAN (TO_DAYS('2026-12-01')),
+    PARTITION p202612 VALUES LESS THAN (TO_DAYS('2027-01-01')),
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
@@ -0,0 +1,23 @@
+-- V35: Hourly audit counters behind /api/audit-logs/stats
+-- Maintained by the audit writer after every flushed batch and backfilled from
+-- audit_logs on startup. They are never partitioned or archived, so statistics
+-- outlive audit_logs retention. entity_type / status use '' and user_id uses 0
+-- for "none" so the unique keys cover every row.
+CREATE TABLE IF NOT EXISTS audit_stats_hourly (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    bucket_hour DATETIME NOT NULL,
+    action VARCHAR(50) NOT NULL,
+    entity_type VARCHAR(50) NOT NULL DEFAULT '',
+    status VARCHAR(20) NOT NULL DEFAULT '',
+    event_count BIGINT NOT NULL DEFAULT 0,
+    UNIQUE KEY uk_audit_stats_hourly_bucket (bucket_hour, action, entity_type, status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS audit_user_stats_hourly (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    bucket_hour DATETIME NOT NULL,
+    user_id BIGINT NOT NULL DEFAULT 0,
+    username VARCHAR(255) NULL,
+    event_count BIGINT NOT NULL DEFAULT 0,
+    UNIQUE KEY uk_audit_user_stats_hourly_bucket (bucket_hour, user_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,30 @@
+-- V36: Indexes for keyset-paginated audit search (/api/audit-logs/search).
+-- Each composite index ends in created_at; InnoDB appends the primary key
+-- (id, created_at) to secondary indexes, so every filter can walk its index
+-- newest first on (created_at, id) without a sort. They replace the
+-- single-column indexes from V19 that they start with.
+--
+-- Partitioned InnoDB tables cannot carry a FULLTEXT index, so the details text
+-- is copied into the unpartitioned audit_log_text, which AuditTextIndex keeps
+-- up to date after every audit batch and trims when partitions are dropped.
+
+ALTER TABLE audit_logs
+    DROP INDEX idx_user_id,
+    DROP INDEX idx_action,
+    DROP INDEX idx_entity,
+    ADD INDEX idx_audit_user_created (user_id, created_at),
+    ADD INDEX idx_audit_action_created (action, created_at),
+    ADD INDEX idx_audit_entity_created (entity_type, entity_id, created_at);
+
+CREATE TABLE audit_log_text (
+    audit_id BIGINT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    details TEXT NOT NULL,
+    PRIMARY KEY (audit_id),
+    INDEX idx_audit_text_created (created_at),
+    FULLTEXT INDEX ft_audit_text_details (details)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+INSERT INTO audit_log_text (audit_id, created_at, details)
+SELECT id, created_at, details FROM audit_logs
+WHERE details IS NOT NULL AND details <> '';
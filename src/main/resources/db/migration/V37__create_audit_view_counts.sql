@@ -0,0 +1,13 @@
+-- V37: Per-minute counters for read-only (VIEW) calls. Most reads are no longer
+-- written to audit_logs individually; AuditReadPolicy keeps a configurable sample
+-- there and counts every read here, one row per minute x endpoint x user x status.
+
+CREATE TABLE audit_view_counts (
+    bucket_minute DATETIME NOT NULL,
+    endpoint VARCHAR(255) NOT NULL,
+    user_id BIGINT NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL,
+    view_count INT NOT NULL,
+    PRIMARY KEY (bucket_minute, endpoint, user_id, status),
+    INDEX idx_view_counts_user (user_id, bucket_minute)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
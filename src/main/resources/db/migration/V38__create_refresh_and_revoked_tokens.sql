@@ -0,0 +1,31 @@
+-- V38: Short-lived access tokens with rotating refresh tokens.
+-- refresh_tokens keeps only the SHA-256 of each refresh token; rows of one login
+-- share a family_id so reuse of a rotated token can revoke the whole chain.
+-- revoked_tokens lists access-token ids (jti) revoked before they expire; it is
+-- loaded into memory by TokenRevocationList and rows are purged once expired.
+
+CREATE TABLE refresh_tokens (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    token_hash VARCHAR(64) NOT NULL,
+    family_id VARCHAR(36) NOT NULL,
+    access_jti VARCHAR(36) NULL,
+    expires_at DATETIME NOT NULL,
+    created_at DATETIME NOT NULL,
+    revoked_at DATETIME NULL,
+    replaced_by_id BIGINT NULL,
+    UNIQUE KEY uk_refresh_tokens_hash (token_hash),
+    INDEX idx_refresh_tokens_user (user_id, revoked_at),
+    INDEX idx_refresh_tokens_family (family_id),
+    INDEX idx_refresh_tokens_expires (expires_at),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE revoked_tokens (
+    jti VARCHAR(36) NOT NULL PRIMARY KEY,
+    user_id BIGINT NULL,
+    expires_at DATETIME NOT NULL,
+    revoked_at DATETIME(3) NOT NULL,
+    INDEX idx_revoked_tokens_revoked_at (revoked_at),
+    INDEX idx_revoked_tokens_expires (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,17 @@
+-- V39: Transactional outbox. Side effects such as notification emails are written
+-- here in the same transaction as the rows they describe, and OutboxDispatcher
+-- delivers them after commit with retries and exponential backoff.
+
+CREATE TABLE outbox_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL,
+    payload MEDIUMTEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME(3) NOT NULL,
+    last_error VARCHAR(1000) NULL,
+    created_at DATETIME(3) NOT NULL,
+    processed_at DATETIME(3) NULL,
+    INDEX idx_outbox_due (status, next_attempt_at),
+    INDEX idx_outbox_processed (status, processed_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,23 @@
+-- V40: Known sign-in fingerprints for login alerts.
+-- A fingerprint is (user, client IP prefix, user-agent hash). Logins from a known,
+-- unexpired fingerprint send no email; a new one is alerted at once, or folded
+-- into a digest when the user was already alerted within the digest window.
+-- alerted_at IS NULL marks a fingerprint still waiting for its digest.
+
+CREATE TABLE login_fingerprints (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    ip_prefix VARCHAR(64) NOT NULL,
+    user_agent_hash CHAR(16) NOT NULL,
+    last_ip VARCHAR(64) NULL,
+    user_agent VARCHAR(255) NULL,
+    first_seen_at DATETIME(3) NOT NULL,
+    last_seen_at DATETIME(3) NOT NULL,
+    expires_at DATETIME NOT NULL,
+    alerted_at DATETIME(3) NULL,
+    UNIQUE KEY uk_login_fingerprints (user_id, ip_prefix, user_agent_hash),
+    INDEX idx_login_fingerprints_user_alerted (user_id, alerted_at),
+    INDEX idx_login_fingerprints_pending (alerted_at, first_seen_at),
+    INDEX idx_login_fingerprints_expires (expires_at),
+    CONSTRAINT fk_login_fingerprints_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,10 @@
+-- V41: Node ids for IdGeneratorService, leased per running instance.
+-- Replicas share one configuration, so instead of deriving a node id from the
+-- hostname each instance claims a free (or expired) row here and renews it while
+-- it runs. Two live instances can never hold the same node id.
+
+CREATE TABLE id_node_leases (
+    node_id SMALLINT NOT NULL PRIMARY KEY,
+    owner VARCHAR(36) NOT NULL,
+    expires_at DATETIME(3) NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,11 @@
+-- V42: Cross-instance invalidation of cached JWT principals.
+-- JwtPrincipalCache inserts a row whenever a user's account changes, and every
+-- instance polls for rows newer than its last sync, the same way revoked_tokens is
+-- shared. Rows only matter for a few sync intervals and are purged hourly.
+
+CREATE TABLE principal_invalidations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    invalidated_at DATETIME(3) NOT NULL,
+    INDEX idx_principal_invalidations_at (invalidated_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -12,13 +12,13 @@ import com.peterscode.rentalmanagementsystem.model.user.User;
 import com.peterscode.rentalmanagementsystem.repository.PropertyRepository;
 import com.peterscode.rentalmanagementsystem.repository.RentalApplicationRepository;
 import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
 import com.peterscode.rentalmanagementsystem.service.rentalApplication.ApplicationServiceImpl;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -44,7 +44,6 @@ class ApplicationServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
     private ApplicationServiceImpl applicationService;
 
     private User tenant;
@@ -54,6 +53,9 @@ class ApplicationServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        applicationService = new ApplicationServiceImpl(applicationRepository, propertyRepository,
+                new CurrentUser(userRepository));
+
         tenant = User.builder().id(1L).email("tenant@test.com").username("tenant")
                 .password("enc").firstName("John").lastName("Doe").role(Role.TENANT).build();
 
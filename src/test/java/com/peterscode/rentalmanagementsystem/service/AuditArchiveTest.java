@@ -0,0 +1,108 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.peterscode.rentalmanagementsystem.dto.response.AuditLogResponse;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
+import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditArchive;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditArchive.ArchivedRow;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditArchive.Filter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("AuditArchive Tests")
+class AuditArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    private AuditArchive archive;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        archive = new AuditArchive(directory, objectMapper);
+    }
+
+    /** Rows for one month, newest first, alternating between two users and two actions. */
+    private List<ArchivedRow> month(int year, int month, long firstId, int count) {
+        List<ArchivedRow> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            boolean even = i % 2 == 0;
+            rows.add(new ArchivedRow(firstId + i, even ? 1L : 2L, even ? "admin@test.com" : "tenant@test.com",
+                    even ? "admin" : "tenant", even ? AuditAction.VIEW : AuditAction.PAYMENT_SUCCESS,
+                    EntityType.PAYMENT, 100L + i, "row " + (firstId + i), "127.0.0.1", "JUnit", "SUCCESS", null,
+                    LocalDateTime.of(year, month, 1, 0, 0).plusHours(i)));
+        }
+        Collections.reverse(rows);
+        return rows;
+    }
+
+    @Test
+    @DisplayName("Should write a compressed segment and index it")
+    void writeSegment_indexesSegment() throws Exception {
+        AuditArchive.Segment segment = archive.writeSegment("p202601", month(2026, 1, 1, 10).iterator()).orElseThrow();
+
+        assertThat(segment.rows()).isEqualTo(10);
+        assertThat(segment.from()).isEqualTo(LocalDateTime.of(2026, 1, 1, 0, 0));
+        assertThat(segment.to()).isEqualTo(LocalDateTime.of(2026, 1, 1, 9, 0));
+        assertThat(Files.exists(directory.resolve(segment.file()))).isTrue();
+        assertThat(archive.segments()).containsExactly(segment);
+    }
+
+    @Test
+    @DisplayName("Should not archive the same partition twice or index empty partitions")
+    void writeSegment_idempotentAndSkipsEmpty() throws Exception {
+        archive.writeSegment("p202601", month(2026, 1, 1, 4).iterator());
+        archive.writeSegment("p202601", month(2026, 1, 1, 4).iterator());
+
+        assertThat(archive.writeSegment("p202602", List.<ArchivedRow>of().iterator())).isEmpty();
+        assertThat(archive.segments()).hasSize(1);
+        assertThat(archive.search(new Filter(null, null, null, null, null), 0, 100).total()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should search across segments newest first with filters and paging")
+    void search_filtersAndPages() throws Exception {
+        archive.writeSegment("p202601", month(2026, 1, 1, 10).iterator());
+        archive.writeSegment("p202602", month(2026, 2, 11, 10).iterator());
+
+        AuditArchive.SearchResult firstPage = archive.search(
+                new Filter("ADMIN@test.com", AuditAction.VIEW, EntityType.PAYMENT, null, null), 0, 3);
+        AuditArchive.SearchResult secondPage = archive.search(
+                new Filter("admin@test.com", AuditAction.VIEW, EntityType.PAYMENT, null, null), 3, 3);
+
+        assertThat(firstPage.total()).isEqualTo(10);
+        assertThat(firstPage.rows()).extracting(AuditLogResponse::getId).containsExactly(19L, 17L, 15L);
+        assertThat(secondPage.rows()).extracting(AuditLogResponse::getId).containsExactly(13L, 11L, 9L);
+    }
+
+    @Test
+    @DisplayName("Should only open segments overlapping the requested date range")
+    void search_dateRange() throws Exception {
+        archive.writeSegment("p202601", month(2026, 1, 1, 10).iterator());
+        archive.writeSegment("p202602", month(2026, 2, 11, 10).iterator());
+        Files.write(directory.resolve("audit_logs-p202602.ndjson.gz"), new byte[]{1, 2, 3});
+
+        AuditArchive.SearchResult result = archive.search(new Filter(null, null, null,
+                LocalDateTime.of(2026, 1, 1, 2, 0), LocalDateTime.of(2026, 1, 1, 4, 0)), 0, 10);
+
+        assertThat(result.total()).isEqualTo(3);
+        assertThat(result.rows()).extracting(AuditLogResponse::getId).containsExactly(5L, 4L, 3L);
+    }
+}
@@ -0,0 +1,124 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.aspect.AuditDescriptor;
+import com.peterscode.rentalmanagementsystem.aspect.AuditDescriptorRegistry;
+import com.peterscode.rentalmanagementsystem.aspect.Audited;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
+import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("AuditDescriptorRegistry Tests")
+class AuditDescriptorRegistryTest {
+
+    private AuditDescriptorRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new AuditDescriptorRegistry();
+    }
+
+    @Test
+    @DisplayName("Should derive action, entity and id position from handler mappings")
+    void registerHandlerMethods_derivesDescriptor() throws Exception {
+        PaymentTestController controller = new PaymentTestController();
+        Method refund = PaymentTestController.class.getMethod("refundPayment", String.class, Long.class);
+        registry.registerHandlerMethods(Map.of(
+                RequestMappingInfo.paths("/api/payments/{id}/refund").methods(RequestMethod.POST).build(),
+                new HandlerMethod(controller, refund)));
+
+        AuditDescriptor descriptor = registry.get(PaymentTestController.class, refund);
+
+        assertThat(descriptor.action()).isEqualTo(AuditAction.PAYMENT_REFUND);
+        assertThat(descriptor.entityType()).isEqualTo(EntityType.PAYMENT);
+        assertThat(descriptor.httpMethod()).isEqualTo("POST");
+        assertThat(descriptor.className()).isEqualTo("PaymentTestController");
+        assertThat(descriptor.entityId(new Object[]{"note", 42L})).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("Should describe unmapped methods once and reuse the descriptor")
+    void get_describesLazilyAndCaches() throws Exception {
+        Method get = PaymentTestController.class.getMethod("getPayment", Long.class);
+
+        AuditDescriptor first = registry.get(PaymentTestController.class, get);
+        AuditDescriptor second = registry.get(PaymentTestController.class, get);
+
+        assertThat(first).isSameAs(second);
+        assertThat(first.action()).isEqualTo(AuditAction.VIEW);
+        assertThat(first.httpMethod()).isEqualTo("GET");
+        assertThat(first.entityId(new Object[]{7L})).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("Should let @Audited override the derived values")
+    void get_auditedOverrides() throws Exception {
+        Method change = PaymentTestController.class.getMethod("changeOwner", Long.class, Integer.class);
+
+        AuditDescriptor descriptor = registry.get(PaymentTestController.class, change);
+
+        assertThat(descriptor.action()).isEqualTo(AuditAction.ROLE_CHANGE);
+        assertThat(descriptor.entityType()).isEqualTo(EntityType.USER);
+        assertThat(descriptor.entityId(new Object[]{1L, 99})).isEqualTo(99L);
+    }
+
+    @Test
+    @DisplayName("Should fall through to the next id argument when the first one is null")
+    void get_skipsNullIdArgument() throws Exception {
+        Method search = PaymentTestController.class.getMethod("searchPayments", Long.class, Long.class);
+
+        AuditDescriptor descriptor = registry.get(PaymentTestController.class, search);
+
+        assertThat(descriptor.entityId(new Object[]{null, 12L})).isEqualTo(12L);
+        assertThat(descriptor.entityId(new Object[]{5L, 12L})).isEqualTo(5L);
+        assertThat(descriptor.entityId(new Object[]{null, null})).isNull();
+    }
+
+    @Test
+    @DisplayName("Should record no entity id when no argument looks like one")
+    void get_noEntityId() throws Exception {
+        Method list = PaymentTestController.class.getMethod("listPayments", String.class);
+
+        AuditDescriptor descriptor = registry.get(PaymentTestController.class, list);
+
+        assertThat(descriptor.entityIdIndexes()).isEmpty();
+        assertThat(descriptor.entityId(new Object[]{"status"})).isNull();
+    }
+
+    @RequestMapping("/api/payments")
+    static class PaymentTestController {
+
+        public void refundPayment(String note, Long paymentId) {
+        }
+
+        @GetMapping("/{id}")
+        public void getPayment(@PathVariable Long id) {
+        }
+
+        @PutMapping("/{id}/owner")
+        @Audited(action = AuditAction.ROLE_CHANGE, entity = EntityType.USER, entityIdParam = "ownerId")
+        public void changeOwner(Long id, Integer ownerId) {
+        }
+
+        @GetMapping
+        public void listPayments(String sessionId) {
+        }
+
+        @GetMapping("/search")
+        public void searchPayments(Long leaseId, Long tenantId) {
+        }
+    }
+}
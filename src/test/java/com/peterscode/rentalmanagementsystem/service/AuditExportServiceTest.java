@@ -0,0 +1,131 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peterscode.rentalmanagementsystem.exception.BadRequestException;
+import com.peterscode.rentalmanagementsystem.exception.ResourceNotFoundException;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
+import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditExportService Tests")
+class AuditExportServiceTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 3, 1, 8, 30);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private ResultSet resultSet;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private AuditExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = new AuditExportService(jdbcTemplate, objectMapper);
+    }
+
+    @Test
+    @DisplayName("Should stream each row as one JSON line, straight from the result set")
+    void export_writesNdjson() throws Exception {
+        // Every column writeRow reads, in order; wasNull follows user_id then entity_id
+        when(resultSet.getLong("id")).thenReturn(41L, 42L);
+        when(resultSet.getTimestamp("created_at")).thenReturn(Timestamp.valueOf(CREATED));
+        when(resultSet.getLong("user_id")).thenReturn(7L);
+        when(resultSet.getString("username")).thenReturn("tenant@test.com");
+        when(resultSet.getString("action")).thenReturn("LOGIN");
+        when(resultSet.getString("entity_type")).thenReturn("USER");
+        when(resultSet.getLong("entity_id")).thenReturn(0L);
+        when(resultSet.wasNull()).thenReturn(false, true, false, true);
+        when(resultSet.getString("status")).thenReturn("SUCCESS");
+        when(resultSet.getString("details")).thenReturn("POST /api/auth/login | \"quoted\"");
+        when(resultSet.getString("error_message")).thenReturn(null);
+        when(resultSet.getString("ip_address")).thenReturn("127.0.0.1");
+        when(resultSet.getString("user_agent")).thenReturn("JUnit");
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(resultSet);
+            handler.processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.export(new AuditExportService.Query(null, null, null, null, null, 40L), out);
+
+        assertThat(rows).isEqualTo(2);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("id").asLong()).isEqualTo(41L);
+        assertThat(first.get("userId").asLong()).isEqualTo(7L);
+        assertThat(first.get("username").asText()).isEqualTo("tenant@test.com");
+        assertThat(first.get("entityId").isNull()).isTrue();
+        assertThat(first.get("errorMessage").isNull()).isTrue();
+        assertThat(first.get("action").asText()).isEqualTo("LOGIN");
+        assertThat(first.get("details").asText()).isEqualTo("POST /api/auth/login | \"quoted\"");
+        assertThat(first.get("createdAt").asText()).isEqualTo("2026-03-01T08:30");
+        assertThat(objectMapper.readTree(lines[1]).get("id").asLong()).isEqualTo(42L);
+    }
+
+    @Test
+    @DisplayName("Should open a forward-only streaming statement that resumes after the given id")
+    void export_streamingStatement() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(anyString(), eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY)))
+                .thenReturn(statement);
+        doAnswer(invocation -> {
+            PreparedStatementCreator creator = invocation.getArgument(0);
+            creator.createPreparedStatement(connection);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        exportService.export(new AuditExportService.Query(7L, AuditAction.LOGIN, EntityType.USER,
+                CREATED, CREATED.plusMonths(3), 1000L), new ByteArrayOutputStream());
+
+        verify(connection).prepareStatement(
+                contains("a.id > ? AND a.user_id = ? AND a.action = ? AND a.entity_type = ? " +
+                        "AND a.created_at >= ? AND a.created_at < ? ORDER BY a.id"),
+                eq(ResultSet.TYPE_FORWARD_ONLY), eq(ResultSet.CONCUR_READ_ONLY));
+        verify(statement).setFetchSize(Integer.MIN_VALUE);
+        verify(statement).setObject(1, 1000L);
+        verify(statement).setObject(2, 7L);
+        verify(statement).setObject(3, "LOGIN");
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown email and an inverted range before streaming")
+    void buildQuery_validates() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq("ghost@test.com"))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> exportService.buildQuery("ghost@test.com", null, null, null, null, null))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> exportService.buildQuery(null, null, null, CREATED, CREATED.minusDays(1), null))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(exportService.buildQuery(null, null, null, null, null, null).afterId()).isZero();
+    }
+}
@@ -0,0 +1,221 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.dto.response.AuditLogResponse;
+import com.peterscode.rentalmanagementsystem.dto.response.CursorPage;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
+import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditLogSearch;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditTextIndex;
+import com.peterscode.rentalmanagementsystem.util.KeysetCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditLogSearch Tests")
+class AuditLogSearchTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 5, 20, 12, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private AuditLogSearch search;
+
+    @BeforeEach
+    void setUp() {
+        search = new AuditLogSearch(jdbcTemplate);
+    }
+
+    private static AuditLogSearch.Criteria criteria(AuditAction action, Long entityId, String text) {
+        return new AuditLogSearch.Criteria(null, null, action, EntityType.PAYMENT, entityId, null, null, null, text);
+    }
+
+    private static List<AuditLogResponse> rows(int count) {
+        List<AuditLogResponse> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(AuditLogResponse.builder().id(100L - i).createdAt(NOW.minusMinutes(i)).build());
+        }
+        return rows;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String capturedSql() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), any(Object[].class));
+        return sql.getValue();
+    }
+
+    @Test
+    @DisplayName("Should add predicates only for the filters that are set")
+    @SuppressWarnings("unchecked")
+    void search_onlySetFilters() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+        search.search(criteria(AuditAction.UPDATE, 42L, null), null, 20);
+
+        String sql = capturedSql();
+        assertThat(sql).contains("a.action = ?", "a.entity_type = ?", "a.entity_id = ?",
+                        "ORDER BY a.created_at DESC, a.id DESC LIMIT ?")
+                .doesNotContain("IS NULL", "a.user_id = ?", "audit_log_text", "JOIN users");
+    }
+
+    @Test
+    @DisplayName("Should return a cursor to the last row when another page follows")
+    @SuppressWarnings("unchecked")
+    void search_nextCursor() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(rows(3));
+
+        CursorPage<AuditLogResponse> page = search.search(criteria(null, null, null), null, 2);
+
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.isHasNext()).isTrue();
+        assertThat(KeysetCursor.decode(page.getNextCursor()))
+                .isEqualTo(new KeysetCursor(NOW.minusMinutes(1), 99L));
+    }
+
+    @Test
+    @DisplayName("Should not return a cursor on the last page")
+    @SuppressWarnings("unchecked")
+    void search_lastPage() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(rows(2));
+
+        CursorPage<AuditLogResponse> page = search.search(criteria(null, null, null), null, 2);
+
+        assertThat(page.isHasNext()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should search details through the full-text side table")
+    @SuppressWarnings("unchecked")
+    void search_freeText() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+        search.search(criteria(null, null, "mpesa timeout"), null, 20);
+
+        assertThat(capturedSql()).contains("JOIN audit_log_text t", "MATCH (t.details) AGAINST (? IN BOOLEAN MODE)");
+    }
+
+    @Test
+    @DisplayName("Should resolve the email to a user id instead of joining users")
+    @SuppressWarnings("unchecked")
+    void search_emailResolvedToUserId() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq("tenant@test.com"))).thenReturn(List.of(7L));
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(List.of());
+
+        search.search(new AuditLogSearch.Criteria("tenant@test.com", null, null, null, null, null, null, null, null),
+                null, 20);
+
+        assertThat(capturedSql()).contains("a.user_id = ?").doesNotContain("users");
+    }
+
+    @Test
+    @DisplayName("Should return nothing for an unknown email without querying audit_logs")
+    @SuppressWarnings("unchecked")
+    void search_unknownEmail() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq("nobody@test.com"))).thenReturn(List.of());
+
+        CursorPage<AuditLogResponse> page = search.search(
+                new AuditLogSearch.Criteria("nobody@test.com", null, null, null, null, null, null, null, null), null, 20);
+
+        assertThat(page.getItems()).isEmpty();
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should serve /filter pages from the same set-only predicates")
+    @SuppressWarnings("unchecked")
+    void page_onlySetFilters() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(rows(2));
+
+        Page<AuditLogResponse> page = search.page(criteria(AuditAction.UPDATE, null, null), PageRequest.of(0, 20));
+
+        assertThat(capturedSql()).contains("a.action = ?", "a.entity_type = ?", "LIMIT ? OFFSET ?")
+                .doesNotContain("IS NULL", "JOIN users");
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        verify(jdbcTemplate, never()).queryForObject(startsWith("SELECT COUNT(*)"), eq(Long.class), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Should count the total when a full page leaves it unknown")
+    @SuppressWarnings("unchecked")
+    void page_countsWhenFull() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenReturn(rows(2));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM audit_logs a WHERE a.action = ?"),
+                eq(Long.class), any(Object[].class))).thenReturn(7L);
+
+        Page<AuditLogResponse> page = search.page(new AuditLogSearch.Criteria(
+                null, null, AuditAction.UPDATE, null, null, null, null, null, null), PageRequest.of(0, 2));
+
+        assertThat(page.getTotalElements()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should build a boolean-mode query that strips operators from user input")
+    void toBooleanQuery_sanitizes() {
+        assertThat(AuditTextIndex.toBooleanQuery("M-Pesa +timeout \"callback\"*"))
+                .isEqualTo("+pesa* +timeout* +callback*");
+        assertThat(AuditTextIndex.toBooleanQuery("a b")).isNull();
+        assertThat(AuditTextIndex.toBooleanQuery(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should rescan a window below the highest indexed id for rows that committed late")
+    void catchUp_rescansTrailingWindow() {
+        when(jdbcTemplate.queryForObject(contains("MAX(audit_id)"), eq(Long.class))).thenReturn(10_000L);
+        when(jdbcTemplate.update(startsWith("INSERT IGNORE INTO audit_log_text"), any(Object[].class))).thenReturn(3);
+
+        assertThat(new AuditTextIndex(jdbcTemplate).catchUp()).isEqualTo(3);
+
+        verify(jdbcTemplate).update(contains("NOT EXISTS"), eq(8_000L), eq(5000));
+    }
+
+    @Test
+    @DisplayName("Should purge a dropped month's text in bounded id slices")
+    void purgeRange_deletesInIdSlices() {
+        Map<String, Object> bounds = new HashMap<>();
+        bounds.put("min_id", 1_000L);
+        bounds.put("max_id", 11_500L);
+        when(jdbcTemplate.queryForMap(contains("MIN(audit_id)"), any(Object[].class))).thenReturn(bounds);
+        when(jdbcTemplate.update(startsWith("DELETE FROM audit_log_text"), any(Object[].class))).thenReturn(10);
+
+        int removed = new AuditTextIndex(jdbcTemplate).purgeRange(LocalDate.of(2026, 2, 1), LocalDate.of(2026, 3, 1));
+
+        assertThat(removed).isEqualTo(30);
+        verify(jdbcTemplate).update(startsWith("DELETE"), eq(1_000L), eq(6_000L), any(), any());
+        verify(jdbcTemplate).update(startsWith("DELETE"), eq(6_000L), eq(11_000L), any(), any());
+        verify(jdbcTemplate).update(startsWith("DELETE"), eq(11_000L), eq(16_000L), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should not delete anything when a month has no indexed text")
+    void purgeRange_emptyRange() {
+        Map<String, Object> bounds = new HashMap<>();
+        bounds.put("min_id", null);
+        bounds.put("max_id", null);
+        when(jdbcTemplate.queryForMap(contains("MIN(audit_id)"), any(Object[].class))).thenReturn(bounds);
+
+        assertThat(new AuditTextIndex(jdbcTemplate).purgeRange(null, LocalDate.of(2026, 3, 1))).isZero();
+        verify(jdbcTemplate, never()).update(startsWith("DELETE"), any(Object[].class));
+    }
+}
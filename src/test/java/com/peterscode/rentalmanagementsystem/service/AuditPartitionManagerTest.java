@@ -0,0 +1,147 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.config.AuditConfig;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditArchive;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditPartitionManager;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditPartitionManager.Partition;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditTextIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditPartitionManager Tests")
+class AuditPartitionManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private AuditArchive auditArchive;
+    @Mock
+    private AuditTextIndex auditTextIndex;
+
+    private AuditConfig auditConfig;
+    private AuditPartitionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        auditConfig = new AuditConfig();
+        manager = new AuditPartitionManager(jdbcTemplate, auditArchive, auditTextIndex, auditConfig);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenPartitions(Partition... partitions) {
+        when(jdbcTemplate.query(contains("information_schema.PARTITIONS"), any(RowMapper.class)))
+                .thenReturn(List.of(partitions));
+    }
+
+    @Test
+    @DisplayName("Should archive then drop only partitions entirely before the cutoff")
+    void applyRetention_archivesAndDropsExpired() throws Exception {
+        givenPartitions(
+                new Partition("p_legacy", LocalDate.of(2026, 2, 1), 0),
+                new Partition("p202602", LocalDate.of(2026, 3, 1), 500),
+                new Partition("p202603", LocalDate.of(2026, 4, 1), 800),
+                new Partition("p_future", null, 0));
+        when(auditArchive.writeSegment(anyString(), any())).thenReturn(Optional.empty());
+
+        int dropped = manager.applyRetention(LocalDate.of(2026, 3, 15));
+
+        assertThat(dropped).isEqualTo(2);
+        var inOrder = inOrder(auditArchive, jdbcTemplate);
+        inOrder.verify(auditArchive).writeSegment(eq("p_legacy"), any());
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE audit_logs DROP PARTITION p_legacy");
+        inOrder.verify(auditArchive).writeSegment(eq("p202602"), any());
+        inOrder.verify(jdbcTemplate).execute("ALTER TABLE audit_logs DROP PARTITION p202602");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE audit_logs DROP PARTITION p202603");
+        verify(jdbcTemplate, never()).execute("ALTER TABLE audit_logs DROP PARTITION p_future");
+        verify(auditTextIndex).purgeRange(null, LocalDate.of(2026, 2, 1));
+        verify(auditTextIndex).purgeRange(LocalDate.of(2026, 2, 1), LocalDate.of(2026, 3, 1));
+        verifyNoMoreInteractions(auditTextIndex);
+    }
+
+    @Test
+    @DisplayName("Should keep a partition whose archive failed")
+    void applyRetention_keepsPartitionWhenArchiveFails() throws Exception {
+        givenPartitions(
+                new Partition("p202602", LocalDate.of(2026, 3, 1), 500),
+                new Partition("p_future", null, 0));
+        when(auditArchive.writeSegment(eq("p202602"), any())).thenThrow(new IOException("disk full"));
+
+        assertThat(manager.applyRetention(LocalDate.of(2026, 6, 1))).isZero();
+        verify(jdbcTemplate, never()).execute(startsWith("ALTER TABLE audit_logs DROP PARTITION"));
+        verifyNoInteractions(auditTextIndex);
+    }
+
+    @Test
+    @DisplayName("Should keep the text of a kept month when a later month is dropped")
+    void applyRetention_purgesOnlyDroppedMonths() throws Exception {
+        givenPartitions(
+                new Partition("p202602", LocalDate.of(2026, 3, 1), 500),
+                new Partition("p202603", LocalDate.of(2026, 4, 1), 800),
+                new Partition("p_future", null, 0));
+        when(auditArchive.writeSegment(eq("p202602"), any())).thenThrow(new IOException("disk full"));
+        when(auditArchive.writeSegment(eq("p202603"), any())).thenReturn(Optional.empty());
+
+        assertThat(manager.applyRetention(LocalDate.of(2026, 6, 1))).isEqualTo(1);
+        verify(auditTextIndex).purgeRange(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 4, 1));
+        verifyNoMoreInteractions(auditTextIndex);
+    }
+
+    @Test
+    @DisplayName("Should drop without archiving when archiving is disabled")
+    void applyRetention_archiveDisabled() {
+        auditConfig.getRetention().setArchiveEnabled(false);
+        givenPartitions(
+                new Partition("p202602", LocalDate.of(2026, 3, 1), 500),
+                new Partition("p_future", null, 0));
+
+        assertThat(manager.applyRetention(LocalDate.of(2026, 6, 1))).isEqualTo(1);
+        verify(jdbcTemplate).execute("ALTER TABLE audit_logs DROP PARTITION p202602");
+        verifyNoInteractions(auditArchive);
+    }
+
+    @Test
+    @DisplayName("Should split future months off p_future")
+    void ensureFuturePartitions_addsMissingMonths() {
+        auditConfig.getRetention().setFuturePartitions(2);
+        givenPartitions(
+                new Partition("p202610", LocalDate.of(2026, 11, 1), 10),
+                new Partition("p202611", LocalDate.of(2026, 12, 1), 0),
+                new Partition("p_future", null, 0));
+
+        int added = manager.ensureFuturePartitions(YearMonth.of(2026, 11));
+
+        assertThat(added).isEqualTo(2);
+        verify(jdbcTemplate).execute("ALTER TABLE audit_logs REORGANIZE PARTITION p_future INTO (" +
+                "PARTITION p202612 VALUES LESS THAN (TO_DAYS('2027-01-01')), " +
+                "PARTITION p_future VALUES LESS THAN MAXVALUE)");
+        verify(jdbcTemplate).execute("ALTER TABLE audit_logs REORGANIZE PARTITION p_future INTO (" +
+                "PARTITION p202701 VALUES LESS THAN (TO_DAYS('2027-02-01')), " +
+                "PARTITION p_future VALUES LESS THAN MAXVALUE)");
+    }
+
+    @Test
+    @DisplayName("Should do nothing when audit_logs is not partitioned")
+    void ensureFuturePartitions_unpartitionedTable() {
+        givenPartitions();
+
+        assertThat(manager.ensureFuturePartitions(YearMonth.of(2026, 11))).isZero();
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+}
@@ -0,0 +1,70 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.aspect.AuditDescriptor;
+import com.peterscode.rentalmanagementsystem.aspect.AuditReadPolicy;
+import com.peterscode.rentalmanagementsystem.config.AuditConfig;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
+import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("AuditReadPolicy Tests")
+class AuditReadPolicyTest {
+
+    private static final AuditDescriptor VIEW = new AuditDescriptor(AuditAction.VIEW, EntityType.PROPERTY,
+            "GET", "PropertyController", "getProperty", new int[]{0});
+    private static final AuditDescriptor UPDATE = new AuditDescriptor(AuditAction.UPDATE, EntityType.PROPERTY,
+            "PUT", "PropertyController", "updateProperty", new int[]{0});
+    private static final AuditDescriptor LOGIN = new AuditDescriptor(AuditAction.LOGIN, EntityType.USER,
+            "POST", "AuthController", "login", new int[0]);
+
+    private AuditConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private AuditReadPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        config = new AuditConfig();
+        config.getReads().setSampleRate(0.0);
+        config.getReads().getEndpoints().put("/api/payments/**", 1.0);
+        meterRegistry = new SimpleMeterRegistry();
+        policy = new AuditReadPolicy(config, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should always keep writes, auth events and failed reads")
+    void writeInFull_keepsSecurityRelevantCalls() {
+        assertThat(policy.writeInFull(UPDATE, "/api/properties/{id}", "SUCCESS")).isTrue();
+        assertThat(policy.writeInFull(LOGIN, "/api/auth/login", "SUCCESS")).isTrue();
+        assertThat(policy.writeInFull(VIEW, "/api/properties/{id}", "FAILURE")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should count but not write reads sampled out by the default rate")
+    void writeInFull_samplesReads() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(policy.writeInFull(VIEW, "/api/properties/{id}", "SUCCESS")).isFalse();
+        }
+        assertThat(policy.isRead(VIEW)).isTrue();
+        assertThat(meterRegistry.counter("audit.reads", "outcome", "counted").count()).isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Should apply the first matching per-endpoint rate")
+    void writeInFull_endpointOverride() {
+        assertThat(policy.writeInFull(VIEW, "/api/payments/{id}", "SUCCESS")).isTrue();
+        assertThat(meterRegistry.counter("audit.reads", "outcome", "written").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should write every read when sampling is disabled")
+    void writeInFull_samplingDisabled() {
+        config.getReads().setSampling(false);
+
+        assertThat(policy.writeInFull(VIEW, "/api/properties/{id}", "SUCCESS")).isTrue();
+    }
+}
@@ -0,0 +1,147 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditEvent;
+import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditStatsRollup;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditStatsRollup Tests")
+class AuditStatsRollupTest {
+
+    private static final LocalDateTime HOUR = LocalDateTime.of(2026, 3, 14, 9, 0);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private AuditStatsRollup rollup;
+
+    @BeforeEach
+    void setUp() {
+        rollup = new AuditStatsRollup(jdbcTemplate);
+    }
+
+    private static AuditEvent event(AuditAction action, Long userId, String status, LocalDateTime at) {
+        return new AuditEvent(action, EntityType.PAYMENT, 1L, userId, userId != null ? "user" + userId : null,
+                "details", "127.0.0.1", "JUnit", status, null, at);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Map<T, Long> upserted(String table) {
+        ArgumentCaptor<Collection<Map.Entry<T, Long>>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO " + table + " "), rows.capture(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        Map<T, Long> counts = new HashMap<>();
+        rows.getValue().forEach(row -> counts.put(row.getKey(), row.getValue()));
+        return counts;
+    }
+
+    @Test
+    @DisplayName("Should fold a batch into one upsert row per hour, action, entity type and status")
+    void record_aggregatesBatch() {
+        rollup.record(List.of(
+                event(AuditAction.VIEW, 1L, "SUCCESS", HOUR.plusMinutes(5)),
+                event(AuditAction.VIEW, 1L, "SUCCESS", HOUR.plusMinutes(50)),
+                event(AuditAction.VIEW, 2L, "FAILURE", HOUR.plusMinutes(10)),
+                event(AuditAction.VIEW, null, "SUCCESS", HOUR.plusHours(1))));
+
+        Map<Object, Long> counts = upserted("audit_stats_hourly");
+        assertThat(counts).hasSize(3);
+        assertThat(counts.values()).containsExactlyInAnyOrder(2L, 1L, 1L);
+
+        Map<Object, Long> userCounts = upserted("audit_user_stats_hourly");
+        assertThat(userCounts).hasSize(3);
+        assertThat(userCounts.values()).containsExactlyInAnyOrder(2L, 1L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should not touch the database for an empty batch")
+    void record_emptyBatch() {
+        rollup.record(List.of());
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should read statistics from whole hours starting at the hour containing since")
+    void statistics_roundsSinceToHour() {
+        LocalDateTime until = HOUR.plusDays(1);
+
+        Map<String, Object> stats = rollup.statistics(HOUR.plusMinutes(42), until);
+
+        assertThat(stats).containsEntry("since", HOUR)
+                .containsEntry("until", until)
+                .containsEntry("granularity", "HOUR")
+                .containsEntry("totalLogs", 0L);
+        verify(jdbcTemplate).query(contains("FROM audit_stats_hourly"),
+                any(RowCallbackHandler.class),
+                eq(Timestamp.valueOf(HOUR)), eq(Timestamp.valueOf(until)));
+    }
+
+    @Test
+    @DisplayName("Should only rebuild hours that still have live rows")
+    void rebuild_keepsArchivedHours() {
+        LocalDateTime oldestLive = HOUR.plusMinutes(17);
+        when(jdbcTemplate.queryForObject(contains("MIN(created_at)"), eq(Timestamp.class), any()))
+                .thenReturn(Timestamp.valueOf(oldestLive));
+        // One stub for every update, since rebuild deletes before it inserts
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenAnswer(inv -> inv.<String>getArgument(0).startsWith("INSERT INTO audit_stats_hourly") ? 4 : 0);
+
+        int buckets = rollup.rebuild(null, HOUR.plusDays(2));
+
+        assertThat(buckets).isEqualTo(4);
+        Timestamp start = Timestamp.valueOf(HOUR);
+        Timestamp end = Timestamp.valueOf(HOUR.plusDays(2));
+        verify(jdbcTemplate).update(startsWith("DELETE FROM audit_stats_hourly"), eq(start), eq(end));
+        verify(jdbcTemplate).update(startsWith("DELETE FROM audit_user_stats_hourly"), eq(start), eq(end));
+        verify(jdbcTemplate).update(startsWith("INSERT INTO audit_stats_hourly"), eq(start), eq(end));
+        verify(jdbcTemplate).update(startsWith("INSERT INTO audit_user_stats_hourly"), eq(start), eq(end));
+    }
+
+    @Test
+    @DisplayName("Should not rebuild hours the writer may still be upserting into")
+    void rebuild_onlyClosedHours() {
+        LocalDateTime now = LocalDateTime.now();
+        when(jdbcTemplate.queryForObject(contains("MIN(created_at)"), eq(Timestamp.class), any()))
+                .thenReturn(Timestamp.valueOf(now.minusDays(1)));
+
+        rollup.rebuild(now.minusDays(1), now.plusHours(2));
+
+        ArgumentCaptor<Timestamp> end = ArgumentCaptor.forClass(Timestamp.class);
+        verify(jdbcTemplate).update(startsWith("DELETE FROM audit_stats_hourly"), any(), end.capture());
+        assertThat(end.getValue().toLocalDateTime())
+                .isBeforeOrEqualTo(now.minusMinutes(5))
+                .isAfter(now.minusMinutes(5).minusHours(1));
+        assertThat(rollup.rebuild(now, null)).as("nothing closed yet").isZero();
+    }
+
+    @Test
+    @DisplayName("Should leave the rollup alone when no live rows are in range")
+    void rebuild_nothingLive() {
+        when(jdbcTemplate.queryForObject(contains("MIN(created_at)"), eq(Timestamp.class), any())).thenReturn(null);
+
+        assertThat(rollup.rebuild(HOUR, HOUR.plusHours(3))).isZero();
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+}
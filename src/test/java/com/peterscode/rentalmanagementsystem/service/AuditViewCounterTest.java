@@ -0,0 +1,118 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.config.AuditConfig;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditViewCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditViewCounter Tests")
+class AuditViewCounterTest {
+
+    private static final LocalDateTime PAST = LocalDateTime.of(2026, 4, 2, 10, 15, 30);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AuditViewCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new AuditViewCounter(jdbcTemplate, new AuditConfig(), transactionManager);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<Map.Entry<Object, Long>> flushedRows() {
+        ArgumentCaptor<Collection<Map.Entry<Object, Long>>> rows = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO audit_view_counts"), rows.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        return rows.getValue();
+    }
+
+    @Test
+    @DisplayName("Should fold reads into one row per minute, endpoint, user and status")
+    void flush_aggregatesPerMinute() {
+        for (int i = 0; i < 50; i++) {
+            counter.record("/api/properties/{id}", 7L, "SUCCESS", PAST.plusSeconds(i % 20));
+        }
+        counter.record("/api/properties/{id}", null, "SUCCESS", PAST);
+        counter.record("/api/properties/{id}", 7L, "SUCCESS", PAST.plusMinutes(1));
+
+        counter.flushClosedMinutes();
+
+        assertThat(flushedRows()).extracting(Map.Entry::getValue).containsExactlyInAnyOrder(50L, 1L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should keep counting the current minute until it closes")
+    void flush_skipsOpenMinute() {
+        counter.record("/api/announcements", 1L, "SUCCESS", LocalDateTime.now().plusMinutes(5));
+
+        counter.flushClosedMinutes();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should retry counts whose flush failed")
+    @SuppressWarnings("unchecked")
+    void flush_retriesAfterFailure() {
+        counter.record("/api/messages/unread-count", 3L, "SUCCESS", PAST);
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new RuntimeException("db down"))
+                .thenReturn(new int[][]{{1}});
+
+        counter.flushClosedMinutes();
+        counter.flushAll();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(transactionManager).rollback(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should not count anonymous reads as a distinct user")
+    void topEndpoints_excludesNoUser() {
+        counter.topEndpoints(PAST.minusDays(1), PAST, 10);
+
+        verify(jdbcTemplate).query(contains("COUNT(DISTINCT NULLIF(user_id, 0))"),
+                ArgumentMatchers.<RowMapper<Map<String, Object>>>any(), any(), any(), eq(10));
+    }
+
+    @Test
+    @DisplayName("Should write a late increment for an already flushed minute on the next flush")
+    @SuppressWarnings("unchecked")
+    void flush_lateIncrementStartsNewBucket() {
+        counter.record("/api/properties", 7L, "SUCCESS", PAST);
+        counter.flushClosedMinutes();
+        counter.record("/api/properties", 7L, "SUCCESS", PAST);
+        counter.flushClosedMinutes();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(startsWith("INSERT INTO audit_view_counts"),
+                argThat((Collection<Map.Entry<Object, Long>> rows) -> rows.size() == 1
+                        && rows.iterator().next().getValue() == 1L),
+                eq(1), any(ParameterizedPreparedStatementSetter.class));
+    }
+}
@@ -0,0 +1,184 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.config.AuditConfig;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditEvent;
+import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditStatsRollup;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditTextIndex;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AuditWriter Tests")
+class AuditWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private AuditStatsRollup statsRollup;
+    @Mock
+    private AuditTextIndex textIndex;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AuditWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            ReflectionTestUtils.invokeMethod(writer, "stop");
+        }
+    }
+
+    private AuditWriter newWriter(int capacity, int batchSize, long flushIntervalMs, AuditConfig.OverflowPolicy policy) {
+        AuditConfig config = new AuditConfig();
+        config.getWriter().setBufferCapacity(capacity);
+        config.getWriter().setBatchSize(batchSize);
+        config.getWriter().setFlushIntervalMs(flushIntervalMs);
+        config.getWriter().setOverflowPolicy(policy);
+        return new AuditWriter(jdbcTemplate, statsRollup, textIndex, config, meterRegistry);
+    }
+
+    private static AuditEvent event(long entityId) {
+        return new AuditEvent(AuditAction.VIEW, EntityType.PAYMENT, entityId, 1L, "tenant@test.com",
+                "GET /api/payments/" + entityId, "127.0.0.1", "JUnit", "SUCCESS", null, LocalDateTime.now());
+    }
+
+    private double counter(String outcome) {
+        return meterRegistry.get("audit.writer.events").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    @DisplayName("Should write buffered events as one JDBC batch once the batch size is reached")
+    @SuppressWarnings("unchecked")
+    void submit_flushesFullBatch() {
+        writer = newWriter(64, 5, 60_000, AuditConfig.OverflowPolicy.DROP_NEWEST);
+        // The writer reuses its batch list, so copy the rows while the call is in flight
+        List<AuditEvent> written = new CopyOnWriteArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    written.addAll(inv.getArgument(1));
+                    return new int[0][];
+                });
+        ReflectionTestUtils.invokeMethod(writer, "start");
+
+        for (long i = 1; i <= 5; i++) {
+            writer.submit(event(i));
+        }
+
+        verify(jdbcTemplate, timeout(2000)).batchUpdate(anyString(), anyCollection(), eq(5),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertThat(written).extracting(AuditEvent::entityId).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    @DisplayName("Should flush a partial batch after the flush interval")
+    @SuppressWarnings("unchecked")
+    void submit_flushesOnInterval() {
+        writer = newWriter(64, 100, 50, AuditConfig.OverflowPolicy.DROP_NEWEST);
+        ReflectionTestUtils.invokeMethod(writer, "start");
+
+        writer.submit(event(1));
+
+        verify(jdbcTemplate, timeout(2000)).batchUpdate(anyString(), anyCollection(), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    @DisplayName("Should drop new events when the buffer is full and count them")
+    void submit_dropNewest() {
+        writer = newWriter(4, 100, 60_000, AuditConfig.OverflowPolicy.DROP_NEWEST);
+
+        for (long i = 1; i <= 6; i++) {
+            writer.submit(event(i));
+        }
+
+        assertThat(counter("accepted")).isEqualTo(4);
+        assertThat(counter("dropped")).isEqualTo(2);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should write on the caller thread when the buffer is full under CALLER_RUNS")
+    @SuppressWarnings("unchecked")
+    void submit_callerRuns() {
+        writer = newWriter(2, 100, 60_000, AuditConfig.OverflowPolicy.CALLER_RUNS);
+
+        writer.submit(event(1));
+        writer.submit(event(2));
+        writer.submit(event(3));
+
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((Collection<AuditEvent> c) ->
+                        c.size() == 1 && c.iterator().next().entityId() == 3L),
+                eq(1), any(ParameterizedPreparedStatementSetter.class));
+        assertThat(counter("dropped")).isZero();
+    }
+
+    @Test
+    @DisplayName("Should drain everything still buffered on shutdown")
+    @SuppressWarnings("unchecked")
+    void stop_drainsBuffer() {
+        writer = newWriter(1024, 200, 60_000, AuditConfig.OverflowPolicy.DROP_NEWEST);
+        List<Integer> written = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    written.add(((Collection<?>) inv.getArgument(1)).size());
+                    return new int[0][];
+                });
+        ReflectionTestUtils.invokeMethod(writer, "start");
+
+        for (long i = 1; i <= 450; i++) {
+            writer.submit(event(i));
+        }
+        ReflectionTestUtils.invokeMethod(writer, "stop");
+        writer = null;
+
+        assertThat(written.stream().mapToInt(Integer::intValue).sum()).isEqualTo(450);
+        assertThat(written).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(200));
+    }
+
+    @Test
+    @DisplayName("Should count unsampled reads in the statistics without inserting them")
+    @SuppressWarnings("unchecked")
+    void write_countOnlyEventsSkipInsert() {
+        writer = newWriter(64, 100, 60_000, AuditConfig.OverflowPolicy.DROP_NEWEST);
+
+        ReflectionTestUtils.invokeMethod(writer, "write", List.of(event(1), event(2).countOnly(), event(3).countOnly()));
+
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((Collection<AuditEvent> c) ->
+                        c.size() == 1 && c.iterator().next().entityId() == 1L),
+                eq(1), any(ParameterizedPreparedStatementSetter.class));
+        verify(statsRollup).record(argThat(events -> events.size() == 3));
+        assertThat(counter("written")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should not touch audit_logs for a batch of count-only reads")
+    void write_onlyCountOnlyEvents() {
+        writer = newWriter(64, 100, 60_000, AuditConfig.OverflowPolicy.DROP_NEWEST);
+
+        ReflectionTestUtils.invokeMethod(writer, "write", List.of(event(1).countOnly(), event(2).countOnly()));
+
+        verifyNoInteractions(jdbcTemplate, textIndex);
+        verify(statsRollup).record(argThat(events -> events.size() == 2));
+    }
+}
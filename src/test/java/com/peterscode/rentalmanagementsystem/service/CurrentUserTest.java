@@ -0,0 +1,111 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.model.user.Role;
+import com.peterscode.rentalmanagementsystem.model.user.User;
+import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
+import com.peterscode.rentalmanagementsystem.security.SecurityUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CurrentUser Tests")
+class CurrentUserTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private CurrentUser currentUser;
+    private User landlord;
+    private User tenant;
+
+    @BeforeEach
+    void setUp() {
+        currentUser = new CurrentUser(userRepository);
+        landlord = User.builder().id(3L).email("landlord@test.com").role(Role.LANDLORD).build();
+        tenant = User.builder().id(1L).email("tenant@test.com").role(Role.TENANT).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private void authenticate(User user) {
+        SecurityUser principal = new SecurityUser(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Test
+    @DisplayName("Should serve the authenticated user from the principal without any query")
+    void findByEmail_principalNeedsNoQuery() {
+        authenticate(landlord);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(currentUser.findByEmail("landlord@test.com")).containsSame(landlord);
+            assertThat(currentUser.findByEmailIgnoreCase("LANDLORD@test.com")).containsSame(landlord);
+        }
+        assertThat(currentUser.get()).containsSame(landlord);
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    @DisplayName("Should look up other users at most once per request")
+    void findByEmail_cachedPerRequest() {
+        authenticate(landlord);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        when(userRepository.findByEmail("tenant@test.com")).thenReturn(Optional.of(tenant));
+        when(userRepository.findByEmail("ghost@test.com")).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(currentUser.findByEmail("tenant@test.com")).containsSame(tenant);
+            assertThat(currentUser.findByEmail("ghost@test.com")).isEmpty();
+        }
+
+        verify(userRepository, times(1)).findByEmail("tenant@test.com");
+        verify(userRepository, times(1)).findByEmail("ghost@test.com");
+    }
+
+    @Test
+    @DisplayName("Should not share the cache between requests")
+    void findByEmail_newRequestLooksUpAgain() {
+        when(userRepository.findByEmail("tenant@test.com")).thenReturn(Optional.of(tenant));
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        currentUser.findByEmail("tenant@test.com");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        currentUser.findByEmail("tenant@test.com");
+
+        verify(userRepository, times(2)).findByEmail("tenant@test.com");
+    }
+
+    @Test
+    @DisplayName("Should fall back to the repository outside a web request")
+    void findByEmail_noRequestContext() {
+        when(userRepository.findByEmailIgnoreCase("tenant@test.com")).thenReturn(Optional.of(tenant));
+
+        currentUser.findByEmailIgnoreCase("tenant@test.com");
+        currentUser.findByEmailIgnoreCase("tenant@test.com");
+
+        assertThat(currentUser.get()).isEmpty();
+        verify(userRepository, times(2)).findByEmailIgnoreCase("tenant@test.com");
+    }
+}
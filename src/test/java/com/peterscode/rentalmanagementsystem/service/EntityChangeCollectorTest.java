@@ -0,0 +1,152 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.config.EntityAuditListener;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditAction;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditEvent;
+import com.peterscode.rentalmanagementsystem.model.audit.AuditLog;
+import com.peterscode.rentalmanagementsystem.model.audit.EntityType;
+import com.peterscode.rentalmanagementsystem.model.payment.Payment;
+import com.peterscode.rentalmanagementsystem.model.user.Role;
+import com.peterscode.rentalmanagementsystem.model.user.User;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
+import com.peterscode.rentalmanagementsystem.service.audit.AuditWriter;
+import com.peterscode.rentalmanagementsystem.service.audit.EntityChangeCollector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EntityChangeCollector Tests")
+class EntityChangeCollectorTest {
+
+    @Mock
+    private AuditWriter auditWriter;
+    @Mock
+    private CurrentUser currentUser;
+
+    private EntityChangeCollector collector;
+
+    @BeforeEach
+    void setUp() {
+        collector = new EntityChangeCollector(auditWriter, currentUser);
+        lenient().when(currentUser.get()).thenReturn(Optional.of(
+                User.builder().id(4L).username("landlord").role(Role.LANDLORD).build()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        new EntityAuditListener().setChangeCollector(null);
+    }
+
+    private void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    @Test
+    @DisplayName("Should write one change-set entry per committed transaction")
+    void record_coalescesPerTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        collector.record(AuditAction.UPDATE, EntityType.PAYMENT, 12L);
+        collector.record(AuditAction.UPDATE, EntityType.PAYMENT, 12L);
+        collector.record(AuditAction.UPDATE, EntityType.LEASE, 3L);
+        collector.record(AuditAction.CREATE, EntityType.SYSTEM, 9L);
+        collector.record(AuditAction.UPDATE, EntityType.SYSTEM, 9L);
+        verifyNoInteractions(auditWriter);
+
+        commit();
+
+        ArgumentCaptor<AuditEvent> captor = ArgumentCaptor.forClass(AuditEvent.class);
+        verify(auditWriter, times(1)).submit(captor.capture());
+        AuditEvent event = captor.getValue();
+        assertThat(event.action()).isEqualTo(AuditAction.CHANGE_SET);
+        assertThat(event.entityType()).isEqualTo(EntityType.PAYMENT);
+        assertThat(event.entityId()).isEqualTo(12L);
+        assertThat(event.userId()).isEqualTo(4L);
+        assertThat(event.username()).isEqualTo("landlord");
+        assertThat(event.details()).isEqualTo(
+                "3 entity changes: UPDATE PAYMENT#12 (x2), UPDATE LEASE#3, CREATE SYSTEM#9 (x2)");
+        verify(currentUser, times(1)).get();
+    }
+
+    @Test
+    @DisplayName("Should keep the single-change format when only one entity changed")
+    void record_singleChange() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        collector.record(AuditAction.UPDATE, EntityType.USER, 4L);
+        commit();
+
+        ArgumentCaptor<AuditEvent> captor = ArgumentCaptor.forClass(AuditEvent.class);
+        verify(auditWriter).submit(captor.capture());
+        assertThat(captor.getValue().action()).isEqualTo(AuditAction.UPDATE);
+        assertThat(captor.getValue().details()).isEqualTo("Updated USER with ID: 4");
+    }
+
+    @Test
+    @DisplayName("Should write nothing for rolled-back or self-cancelling transactions")
+    void record_rollbackAndCreateDelete() {
+        TransactionSynchronizationManager.initSynchronization();
+        collector.record(AuditAction.UPDATE, EntityType.PAYMENT, 1L);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.initSynchronization();
+        collector.record(AuditAction.CREATE, EntityType.PAYMENT, 2L);
+        collector.record(AuditAction.DELETE, EntityType.PAYMENT, 2L);
+        commit();
+
+        verifyNoInteractions(auditWriter);
+    }
+
+    @Test
+    @DisplayName("Should write immediately outside a transaction")
+    void record_noTransaction() {
+        when(currentUser.get()).thenReturn(Optional.empty());
+
+        collector.record(AuditAction.DELETE, EntityType.PAYMENT, 5L);
+        collector.record(AuditAction.DELETE, EntityType.PAYMENT, 6L);
+
+        ArgumentCaptor<AuditEvent> captor = ArgumentCaptor.forClass(AuditEvent.class);
+        verify(auditWriter, times(2)).submit(captor.capture());
+        assertThat(captor.getAllValues()).extracting(AuditEvent::entityId).containsExactly(5L, 6L);
+        assertThat(captor.getValue().username()).isEqualTo("system");
+        assertThat(captor.getValue().details()).isEqualTo("Deleted PAYMENT with ID: 6");
+    }
+
+    @Test
+    @DisplayName("Listener should pass entity type and id and skip audit entities")
+    void listener_extractsIdAndSkipsAuditEntities() {
+        EntityChangeCollector mockCollector = mock(EntityChangeCollector.class);
+        EntityAuditListener listener = new EntityAuditListener();
+        listener.setChangeCollector(mockCollector);
+
+        listener.afterUpdate(Payment.builder().id(21L).build());
+        listener.afterCreate(User.builder().id(8L).build());
+        listener.afterCreate(AuditLog.builder().id(1L).build());
+
+        verify(mockCollector).record(AuditAction.UPDATE, EntityType.PAYMENT, 21L);
+        verify(mockCollector).record(AuditAction.CREATE, EntityType.USER, 8L);
+        verify(mockCollector, never()).record(any(), eq(EntityType.SYSTEM), any());
+    }
+}
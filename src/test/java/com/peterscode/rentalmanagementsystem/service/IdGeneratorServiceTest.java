@@ -0,0 +1,140 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.service.id.IdGeneratorService;
+import com.peterscode.rentalmanagementsystem.service.id.NodeIdLease;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("IdGeneratorService Tests")
+class IdGeneratorServiceTest {
+
+    private static final long NOW = 1_760_000_000_000L;
+
+    @Test
+    @DisplayName("Should generate unique, per-thread increasing ids under contention")
+    void nextId_uniqueUnderContention() throws Exception {
+        IdGeneratorService generator = new IdGeneratorService(7, System::currentTimeMillis);
+        int threads = 8;
+        int perThread = 50_000;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<long[]>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                tasks.add(() -> {
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = generator.nextId();
+                    }
+                    return ids;
+                });
+            }
+
+            Set<Long> seen = new HashSet<>(threads * perThread * 2);
+            for (Future<long[]> result : pool.invokeAll(tasks)) {
+                long[] ids = result.get();
+                for (int i = 0; i < ids.length; i++) {
+                    if (i > 0) {
+                        assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                    }
+                    assertThat(seen.add(ids[i])).isTrue();
+                }
+            }
+            assertThat(seen).hasSize(threads * perThread);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should borrow the next millisecond when the sequence is exhausted")
+    void nextId_sequenceOverflow() {
+        IdGeneratorService generator = new IdGeneratorService(1, () -> NOW);
+
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            long next = generator.nextId();
+            assertThat(next).isGreaterThan(previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("Should stay monotonic when the clock moves backwards")
+    void nextId_clockBackwards() {
+        AtomicLong clock = new AtomicLong(NOW);
+        IdGeneratorService generator = new IdGeneratorService(1, clock::get);
+
+        long before = generator.nextId();
+        clock.set(NOW - 5_000);
+        long after = generator.nextId();
+
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @Test
+    @DisplayName("Should not collide across nodes at the same instant")
+    void nextId_distinctNodes() {
+        IdGeneratorService nodeA = new IdGeneratorService(1, () -> NOW);
+        IdGeneratorService nodeB = new IdGeneratorService(2, () -> NOW);
+
+        assertThat(nodeA.nextId()).isNotEqualTo(nodeB.nextId());
+    }
+
+    @Test
+    @DisplayName("Should produce fixed-width codes that sort in generation order")
+    void nextCode_sortable() {
+        AtomicLong clock = new AtomicLong(NOW);
+        IdGeneratorService generator = new IdGeneratorService(3, clock::get);
+
+        String first = generator.nextCode("PAY");
+        clock.addAndGet(1);
+        String second = generator.nextCode("PAY");
+
+        assertThat(first).matches("PAY-[0-9A-HJKMNP-TV-Z]{13}");
+        assertThat(second).isGreaterThan(first);
+        assertThat(generator.nextFileName(".jpg")).matches("[0-9A-HJKMNP-TV-Z]{13}-[0-9A-HJKMNP-TV-Z]{26}\\.jpg");
+    }
+
+    @Test
+    @DisplayName("Should reject node ids outside the 10-bit range")
+    void constructor_invalidNodeId() {
+        assertThatThrownBy(() -> new IdGeneratorService(1024, () -> NOW))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JdbcTemplate leases(List<Map.Entry<Long, LocalDateTime>> rows) {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.query(startsWith("SELECT node_id"), any(RowMapper.class))).thenReturn((List) rows);
+        return jdbcTemplate;
+    }
+
+    @Test
+    @DisplayName("Should refuse to generate ids once the node lease has lapsed")
+    void nextId_lapsedLease() {
+        NodeIdLease lease = new NodeIdLease(leases(List.of()), 0);
+        IdGeneratorService generator = new IdGeneratorService(-1, lease);
+
+        assertThatThrownBy(generator::nextId).isInstanceOf(IllegalStateException.class);
+        assertThat(new IdGeneratorService(5, lease).nextId() >>> 12 & 1023).isEqualTo(5);
+    }
+}
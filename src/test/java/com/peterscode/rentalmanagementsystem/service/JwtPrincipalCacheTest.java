@@ -0,0 +1,163 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.model.user.Role;
+import com.peterscode.rentalmanagementsystem.model.user.User;
+import com.peterscode.rentalmanagementsystem.security.JwtPrincipalCache;
+import com.peterscode.rentalmanagementsystem.security.JwtService;
+import com.peterscode.rentalmanagementsystem.security.SecurityUser;
+import com.peterscode.rentalmanagementsystem.security.TokenRevocationList;
+import com.peterscode.rentalmanagementsystem.security.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JwtPrincipalCache Tests")
+class JwtPrincipalCacheTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    @Mock
+    private UserDetailsServiceImpl userDetailsService;
+    @Mock
+    private TokenRevocationList revocationList;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private JwtService jwtService;
+    private SimpleMeterRegistry meterRegistry;
+    private JwtPrincipalCache cache;
+    private User tenant;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(SECRET, 3_600_000);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new JwtPrincipalCache(jwtService, userDetailsService, revocationList, jdbcTemplate, meterRegistry,
+                100, 300);
+        tenant = User.builder().id(2L).email("tenant@test.com").username("tenant")
+                .password("encoded").firstName("John").lastName("Doe").role(Role.TENANT).build();
+    }
+
+    @Test
+    @DisplayName("Should verify and load the user once, then serve repeats from the cache")
+    void resolve_cachesPrincipal() {
+        when(userDetailsService.loadUserByUsername("tenant@test.com")).thenReturn(new SecurityUser(tenant));
+        String token = jwtService.generateToken(tenant);
+
+        Optional<SecurityUser> first = cache.resolve(token);
+        Optional<SecurityUser> second = cache.resolve(token);
+
+        assertThat(first).isPresent();
+        assertThat(second.get()).isSameAs(first.get());
+        verify(userDetailsService, times(1)).loadUserByUsername("tenant@test.com");
+        assertThat(meterRegistry.counter("auth.principal.cache", "result", "hit").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("auth.principal.cache", "result", "miss").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should reject tampered and foreign tokens without touching the database")
+    void resolve_invalidToken() {
+        String token = jwtService.generateToken(tenant);
+        String foreign = new JwtService("fedcba9876543210fedcba9876543210", 3_600_000).generateToken(tenant);
+
+        assertThat(cache.resolve(token + "x")).isEmpty();
+        assertThat(cache.resolve(foreign)).isEmpty();
+        assertThat(cache.resolve("not-a-jwt")).isEmpty();
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    @DisplayName("Should not cache expired tokens")
+    void resolve_expiredToken() {
+        String expired = new JwtService(SECRET, -1_000).generateToken(tenant);
+
+        assertThat(cache.resolve(expired)).isEmpty();
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    @DisplayName("Should reload the user after it was invalidated")
+    void invalidateUser_forcesReload() {
+        User disabled = User.builder().id(2L).email("tenant@test.com").role(Role.TENANT).enabled(false).build();
+        when(userDetailsService.loadUserByUsername("tenant@test.com"))
+                .thenReturn(new SecurityUser(tenant), new SecurityUser(disabled));
+        String token = jwtService.generateToken(tenant);
+
+        assertThat(cache.resolve(token).get().isEnabled()).isTrue();
+        cache.invalidateUser(2L);
+
+        assertThat(cache.resolve(token).get().isEnabled()).isFalse();
+        verify(userDetailsService, times(2)).loadUserByUsername("tenant@test.com");
+        verify(jdbcTemplate).update(startsWith("INSERT INTO principal_invalidations"), eq(2L), any());
+    }
+
+    @Test
+    @DisplayName("Should evict users invalidated on another instance when syncing")
+    void syncInvalidations_evictsRemoteChanges() {
+        when(userDetailsService.loadUserByUsername("tenant@test.com")).thenReturn(new SecurityUser(tenant));
+        String token = jwtService.generateToken(tenant);
+        cache.resolve(token);
+        when(jdbcTemplate.queryForList(startsWith("SELECT DISTINCT user_id FROM principal_invalidations"),
+                eq(Long.class), any())).thenReturn(List.of(2L));
+
+        cache.syncInvalidations();
+        cache.resolve(token);
+
+        verify(userDetailsService, times(2)).loadUserByUsername("tenant@test.com");
+    }
+
+    @Test
+    @DisplayName("Should leave other users' tokens cached on invalidation")
+    void invalidateUser_onlyThatUser() {
+        User landlord = User.builder().id(3L).email("landlord@test.com").role(Role.LANDLORD).build();
+        when(userDetailsService.loadUserByUsername("tenant@test.com")).thenReturn(new SecurityUser(tenant));
+        when(userDetailsService.loadUserByUsername("landlord@test.com")).thenReturn(new SecurityUser(landlord));
+        cache.resolve(jwtService.generateToken(tenant));
+        String landlordToken = jwtService.generateToken(landlord);
+        cache.resolve(landlordToken);
+
+        cache.invalidateUser(2L);
+        cache.resolve(landlordToken);
+
+        verify(userDetailsService, times(1)).loadUserByUsername("landlord@test.com");
+    }
+
+    @Test
+    @DisplayName("Should propagate a missing user and cache nothing")
+    void resolve_deletedUser() {
+        when(userDetailsService.loadUserByUsername("tenant@test.com"))
+                .thenThrow(new UsernameNotFoundException("gone"));
+        String token = jwtService.generateToken(tenant);
+
+        assertThatThrownBy(() -> cache.resolve(token)).isInstanceOf(UsernameNotFoundException.class);
+        assertThat(meterRegistry.get("auth.principal.cache.size").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should stop serving a cached principal once its token is revoked")
+    void resolve_revokedToken() {
+        when(userDetailsService.loadUserByUsername("tenant@test.com")).thenReturn(new SecurityUser(tenant));
+        JwtService.AccessToken access = jwtService.issueAccessToken(tenant);
+        assertThat(cache.resolve(access.token())).isPresent();
+
+        when(revocationList.isRevoked(access.jti())).thenReturn(true);
+
+        assertThat(cache.resolve(access.token())).isEmpty();
+        assertThat(cache.resolve(access.token())).isEmpty();
+        verify(userDetailsService, times(1)).loadUserByUsername("tenant@test.com");
+    }
+}
@@ -12,12 +12,12 @@ import com.peterscode.rentalmanagementsystem.model.user.User;
 import com.peterscode.rentalmanagementsystem.repository.LeaseRepository;
 import com.peterscode.rentalmanagementsystem.repository.PropertyRepository;
 import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
 import com.peterscode.rentalmanagementsystem.service.lease.LeaseServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -42,7 +42,6 @@ class LeaseServiceImplTest {
         @Mock
         private PropertyRepository propertyRepository;
 
-        @InjectMocks
         private LeaseServiceImpl leaseService;
 
         private User admin;
@@ -53,6 +52,9 @@ class LeaseServiceImplTest {
 
         @BeforeEach
         void setUp() {
+                leaseService = new LeaseServiceImpl(leaseRepository, userRepository,
+                        new CurrentUser(userRepository), propertyRepository);
+
                 admin = User.builder().id(1L).email("admin@test.com").username("admin")
                                 .password("enc").role(Role.ADMIN).build();
 
@@ -0,0 +1,145 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.config.LoginAlertConfig;
+import com.peterscode.rentalmanagementsystem.dto.request.EmailRequest;
+import com.peterscode.rentalmanagementsystem.model.user.Role;
+import com.peterscode.rentalmanagementsystem.model.user.User;
+import com.peterscode.rentalmanagementsystem.service.auth.LoginAlertService;
+import com.peterscode.rentalmanagementsystem.service.outbox.EmailOutboxHandler;
+import com.peterscode.rentalmanagementsystem.service.outbox.OutboxService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LoginAlertService Tests")
+class LoginAlertServiceTest {
+
+    private static final String CHROME = "Mozilla/5.0 (Windows NT 10.0) Chrome/130.0";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private OutboxService outboxService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginAlertService service;
+    private User tenant;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new LoginAlertService(jdbcTemplate, transactionManager, outboxService, new LoginAlertConfig(),
+                meterRegistry);
+        tenant = User.builder().id(2L).email("tenant@test.com").firstName("John").role(Role.TENANT).build();
+    }
+
+    /** A ResultSet row whose getters answer from {@code values} by column label. */
+    private static ResultSet row(Map<String, Object> values) {
+        return mock(ResultSet.class, inv -> inv.getArguments().length > 0 ? values.get(inv.getArgument(0)) : null);
+    }
+
+    private void givenRows(String sqlPrefix, List<Map<String, Object>> rows) {
+        doAnswer(inv -> {
+            RowMapper<?> mapper = inv.getArgument(1);
+            List<Object> mapped = new ArrayList<>();
+            for (int i = 0; i < rows.size(); i++) {
+                mapped.add(mapper.mapRow(row(rows.get(i)), i));
+            }
+            return mapped;
+        }).when(jdbcTemplate).query(startsWith(sqlPrefix), ArgumentMatchers.<RowMapper<?>>any(), any(Object[].class));
+    }
+
+    private static Map<String, Object> pending(long id, String ip) {
+        return Map.of("id", id, "last_ip", ip, "user_agent", CHROME,
+                "first_seen_at", Timestamp.valueOf(LocalDateTime.now().minusMinutes(20)));
+    }
+
+    @Test
+    @DisplayName("Should send nothing for a known device and network")
+    void recordLogin_knownFingerprint() {
+        givenRows("SELECT id, expires_at", List.of(Map.of("id", 5L,
+                "expires_at", Timestamp.valueOf(LocalDateTime.now().plusDays(20)),
+                "last_seen_at", Timestamp.valueOf(LocalDateTime.now().minusHours(1)))));
+
+        service.recordLogin(tenant, "41.90.12.77", CHROME);
+
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+        verifyNoInteractions(outboxService);
+        assertThat(meterRegistry.counter("auth.login.alerts", "outcome", "known").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should alert at once for a new fingerprint, keyed by the /24 of the client IP")
+    void recordLogin_newFingerprintAlerts() {
+        givenRows("SELECT id, expires_at", List.of());
+        givenRows("SELECT id, last_ip", List.of(pending(9L, "41.90.12.77")));
+
+        service.recordLogin(tenant, "41.90.12.77", CHROME);
+
+        verify(jdbcTemplate).query(startsWith("SELECT id, expires_at"), ArgumentMatchers.<RowMapper<?>>any(),
+                eq(2L), eq("41.90.12.0/24"), anyString());
+        verify(jdbcTemplate).update(startsWith("INSERT INTO login_fingerprints"), any(Object[].class));
+        verify(jdbcTemplate).batchUpdate(startsWith("UPDATE login_fingerprints SET alerted_at"), anyList());
+        ArgumentCaptor<EmailRequest> email = ArgumentCaptor.forClass(EmailRequest.class);
+        verify(outboxService).enqueue(eq(EmailOutboxHandler.TYPE), email.capture());
+        assertThat(email.getValue().getRecipient()).isEqualTo("tenant@test.com");
+        assertThat(email.getValue().getTemplateName()).isEqualTo(LoginAlertService.TEMPLATE);
+        assertThat((List<?>) email.getValue().getVariables().get("logins")).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should defer a new fingerprint when the user was alerted within the window")
+    void recordLogin_withinWindowDeferred() {
+        givenRows("SELECT id, expires_at", List.of());
+        when(jdbcTemplate.queryForObject(startsWith("SELECT MAX(alerted_at)"), eq(LocalDateTime.class), eq(2L)))
+                .thenReturn(LocalDateTime.now().minusMinutes(3));
+
+        service.recordLogin(tenant, "2001:db8:abcd:12::1", CHROME);
+
+        verify(jdbcTemplate).query(startsWith("SELECT id, expires_at"), ArgumentMatchers.<RowMapper<?>>any(),
+                eq(2L), eq("2001:db8:abcd::/48"), anyString());
+        verifyNoInteractions(outboxService);
+        assertThat(meterRegistry.counter("auth.login.alerts", "outcome", "deferred").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should fold deferred sign-ins into one digest email per user")
+    void sendDueDigests_foldsPending() {
+        when(jdbcTemplate.queryForList(startsWith("SELECT DISTINCT user_id"), eq(Long.class), any()))
+                .thenReturn(List.of(2L));
+        when(jdbcTemplate.queryForMap(startsWith("SELECT email"), eq(2L)))
+                .thenReturn(Map.of("email", "tenant@test.com", "first_name", "John"));
+        givenRows("SELECT id, last_ip", List.of(pending(9L, "41.90.12.77"), pending(10L, "102.68.1.4")));
+
+        service.sendDueDigests();
+
+        ArgumentCaptor<EmailRequest> email = ArgumentCaptor.forClass(EmailRequest.class);
+        verify(outboxService, times(1)).enqueue(eq(EmailOutboxHandler.TYPE), email.capture());
+        assertThat(email.getValue().getSubject()).contains("2 new sign-ins");
+        assertThat((List<?>) email.getValue().getVariables().get("logins")).hasSize(2);
+        assertThat(meterRegistry.counter("auth.login.alerts", "outcome", "digest").count()).isEqualTo(1.0);
+    }
+}
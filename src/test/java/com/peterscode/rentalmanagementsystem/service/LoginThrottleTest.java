@@ -0,0 +1,182 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.config.LoginThrottleConfig;
+import com.peterscode.rentalmanagementsystem.exception.TooManyRequestsException;
+import com.peterscode.rentalmanagementsystem.security.LoginAuthenticator;
+import com.peterscode.rentalmanagementsystem.security.LoginThrottle;
+import com.peterscode.rentalmanagementsystem.util.TokenBucketLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Login throttling Tests")
+class LoginThrottleTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Mock
+    private AuthenticationManager authenticationManager;
+
+    private final AtomicLong clock = new AtomicLong(1_000 * SECOND);
+    private LoginThrottleConfig config;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        config = new LoginThrottleConfig();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should allow a full burst, then one token per refill interval")
+    void bucket_burstThenRefill() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, 1.0, 100, clock::get);
+
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isEqualTo(SECOND);
+
+        clock.addAndGet(SECOND);
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).as("keys have separate buckets").isZero();
+    }
+
+    @Test
+    @DisplayName("Should refuse new keys while every tracked bucket is still in use")
+    void bucket_hardCap() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1.0, 2, clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        assertThat(limiter.tryAcquire("c")).isPositive();
+        assertThat(limiter.size()).isEqualTo(2);
+
+        clock.addAndGet(SECOND);
+        assertThat(limiter.tryAcquire("c")).as("idle buckets make room").isZero();
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should report a bucket's wait without taking a token")
+    void bucket_waitNanosDoesNotCharge() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 1.0, 100, clock::get);
+
+        assertThat(limiter.waitNanos("a")).isZero();
+        assertThat(limiter.size()).as("peeking creates no bucket").isZero();
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.waitNanos("a")).isEqualTo(SECOND);
+        assertThat(limiter.waitNanos("a")).isEqualTo(SECOND);
+    }
+
+    @Test
+    @DisplayName("Should drop only buckets that have refilled completely")
+    void bucket_evictIdle() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 1.0, 100, clock::get);
+        limiter.tryAcquire("old");
+        clock.addAndGet(2 * SECOND);
+        limiter.tryAcquire("recent");
+
+        limiter.evictIdle();
+
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should answer 429 with Retry-After once an email's bucket is empty")
+    void throttle_perEmail() {
+        config.setEmail(new LoginThrottleConfig.Bucket(2, 1));
+        LoginThrottle throttle = new LoginThrottle(config, meterRegistry);
+
+        throttle.check("10.0.0.1", "tenant@test.com");
+        throttle.check("10.0.0.2", "tenant@test.com");
+
+        assertThatThrownBy(() -> throttle.check("10.0.0.3", "tenant@test.com"))
+                .isInstanceOfSatisfying(TooManyRequestsException.class,
+                        ex -> assertThat(ex.getRetryAfterSeconds()).isBetween(59L, 60L));
+        throttle.check("10.0.0.3", "landlord@test.com");
+        assertThat(meterRegistry.counter("auth.login.throttled", "scope", "email").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should not charge the email bucket when the IP is already throttled")
+    void throttle_ipFirst() {
+        config.setIp(new LoginThrottleConfig.Bucket(1, 1));
+        config.setEmail(new LoginThrottleConfig.Bucket(1, 1));
+        LoginThrottle throttle = new LoginThrottle(config, meterRegistry);
+
+        throttle.check("10.0.0.1", "a@test.com");
+        assertThatThrownBy(() -> throttle.check("10.0.0.1", "b@test.com"))
+                .isInstanceOf(TooManyRequestsException.class);
+
+        throttle.check("10.0.0.2", "b@test.com");
+        assertThat(meterRegistry.counter("auth.login.throttled", "scope", "ip").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should not charge the IP bucket for attempts on a throttled email")
+    void throttle_lockedEmailSparesIp() {
+        config.setIp(new LoginThrottleConfig.Bucket(2, 1));
+        config.setEmail(new LoginThrottleConfig.Bucket(1, 1));
+        LoginThrottle throttle = new LoginThrottle(config, meterRegistry);
+
+        throttle.check("10.0.0.1", "tenant@test.com");
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> throttle.check("10.0.0.1", "tenant@test.com"))
+                    .isInstanceOf(TooManyRequestsException.class);
+        }
+
+        throttle.check("10.0.0.1", "landlord@test.com");
+        assertThat(meterRegistry.counter("auth.login.throttled", "scope", "ip").count()).isZero();
+        assertThat(meterRegistry.counter("auth.login.throttled", "scope", "email").count()).isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("Should turn logins away without hashing when the pool is saturated")
+    void authenticator_rejectsWhenSaturated() {
+        LoginAuthenticator authenticator = new LoginAuthenticator(authenticationManager,
+                task -> { throw new RejectedExecutionException("queue full"); }, config, meterRegistry);
+
+        assertThatThrownBy(() -> authenticator.authenticate(
+                new UsernamePasswordAuthenticationToken("tenant@test.com", "secret")))
+                .isInstanceOf(TooManyRequestsException.class);
+        verifyNoInteractions(authenticationManager);
+    }
+
+    @Test
+    @DisplayName("Should return the result and rethrow authentication errors from the pool")
+    void authenticator_passesThrough() {
+        LoginAuthenticator authenticator = new LoginAuthenticator(authenticationManager, Runnable::run,
+                config, meterRegistry);
+        Authentication authenticated = new UsernamePasswordAuthenticationToken("tenant@test.com", null, List.of());
+        when(authenticationManager.authenticate(any()))
+                .thenReturn(authenticated)
+                .thenThrow(new BadCredentialsException("Bad credentials"));
+
+        assertThat(authenticator.authenticate(new UsernamePasswordAuthenticationToken("tenant@test.com", "secret")))
+                .isSameAs(authenticated);
+        assertThatThrownBy(() -> authenticator.authenticate(
+                new UsernamePasswordAuthenticationToken("tenant@test.com", "wrong")))
+                .isInstanceOf(BadCredentialsException.class);
+        assertThat(meterRegistry.timer("auth.login.hash.queue.wait").count()).isEqualTo(2);
+    }
+}
@@ -14,13 +14,13 @@ import com.peterscode.rentalmanagementsystem.repository.MaintenanceImageReposito
 import com.peterscode.rentalmanagementsystem.repository.MaintenanceRequestRepository;
 import com.peterscode.rentalmanagementsystem.repository.PropertyRepository;
 import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
 import com.peterscode.rentalmanagementsystem.service.maintenance.MaintenanceServiceImpl;
 import com.peterscode.rentalmanagementsystem.util.FileStorageUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.access.AccessDeniedException;
@@ -50,7 +50,6 @@ class MaintenanceServiceImplTest {
     @Mock
     private FileStorageUtil fileStorageUtil;
 
-    @InjectMocks
     private MaintenanceServiceImpl maintenanceService;
 
     private User tenant;
@@ -61,6 +60,9 @@ class MaintenanceServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        maintenanceService = new MaintenanceServiceImpl(maintenanceRequestRepository, maintenanceImageRepository,
+                userRepository, new CurrentUser(userRepository), propertyRepository, fileStorageUtil);
+
         tenant = User.builder().id(1L).email("tenant@test.com").username("tenant")
                 .password("enc").firstName("John").lastName("Doe")
                 .role(Role.TENANT).phoneNumber("0712345678").build();
@@ -0,0 +1,156 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.config.MpesaConfig;
+import com.peterscode.rentalmanagementsystem.exception.BadRequestException;
+import com.peterscode.rentalmanagementsystem.exception.ResourceNotFoundException;
+import com.peterscode.rentalmanagementsystem.model.payment.MpesaCallback;
+import com.peterscode.rentalmanagementsystem.model.payment.MpesaCallbackStatus;
+import com.peterscode.rentalmanagementsystem.repository.MpesaCallbackRepository;
+import com.peterscode.rentalmanagementsystem.service.payment.MpesaCallbackIngestionService;
+import com.peterscode.rentalmanagementsystem.service.payment.PaymentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MpesaCallbackIngestionService Tests")
+class MpesaCallbackIngestionServiceTest {
+
+    private static final String PAYLOAD =
+            "{\"Body\":{\"stkCallback\":{\"CheckoutRequestID\":\"ws_CO_123\",\"ResultCode\":0}}}";
+
+    @Mock
+    private MpesaCallbackRepository callbackRepository;
+    @Mock
+    private PaymentService paymentService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MpesaCallbackIngestionService ingestionService;
+
+    @BeforeEach
+    void setUp() {
+        MpesaConfig config = new MpesaConfig();
+        config.getCallback().setWorkers(1);
+        ingestionService = new MpesaCallbackIngestionService(
+                callbackRepository, paymentService, config, transactionManager);
+        ReflectionTestUtils.invokeMethod(ingestionService, "start");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(ingestionService, "stop");
+    }
+
+    @Test
+    @DisplayName("Should store callback and process it off the request thread")
+    void ingest_storesAndProcessesAsynchronously() {
+        MpesaCallback stored = MpesaCallback.builder()
+                .id(7L).checkoutRequestId("ws_CO_123").payload(PAYLOAD).build();
+        when(callbackRepository.existsByCheckoutRequestId("ws_CO_123")).thenReturn(false);
+        when(callbackRepository.save(any(MpesaCallback.class))).thenReturn(stored);
+        when(callbackRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(stored));
+
+        ingestionService.ingest(PAYLOAD);
+
+        verify(paymentService, timeout(2000)).applyMpesaCallback(PAYLOAD);
+        ArgumentCaptor<MpesaCallback> captor = ArgumentCaptor.forClass(MpesaCallback.class);
+        verify(callbackRepository, timeout(2000).times(2)).save(captor.capture());
+        assertThat(captor.getValue().getStatus()).isEqualTo(MpesaCallbackStatus.PROCESSED);
+        assertThat(captor.getValue().getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should mark the callback FAILED and requeue it when the payment lookup fails")
+    void processing_failureIsRetried() throws InterruptedException {
+        MpesaCallback stored = MpesaCallback.builder()
+                .id(7L).checkoutRequestId("ws_CO_123").payload(PAYLOAD).build();
+        when(callbackRepository.existsByCheckoutRequestId("ws_CO_123")).thenReturn(false);
+        when(callbackRepository.save(any(MpesaCallback.class))).thenReturn(stored);
+        when(callbackRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(stored));
+        when(callbackRepository.findById(7L)).thenReturn(Optional.of(stored));
+        doThrow(new ResourceNotFoundException("No payment found for checkout request: ws_CO_123"))
+                .doNothing()
+                .when(paymentService).applyMpesaCallback(PAYLOAD);
+
+        ingestionService.ingest(PAYLOAD);
+
+        ArgumentCaptor<MpesaCallback> captor = ArgumentCaptor.forClass(MpesaCallback.class);
+        verify(callbackRepository, timeout(2000).times(2)).save(captor.capture());
+        assertThat(captor.getValue().getStatus()).isEqualTo(MpesaCallbackStatus.FAILED);
+        assertThat(captor.getValue().getErrorMessage()).contains("ws_CO_123");
+
+        when(callbackRepository.findIdsToRetry(anyList(), anyInt(), any(), any())).thenReturn(List.of(7L));
+        // The worker releases the id just after saving, so the sweep may need a second pass
+        for (int i = 0; i < 40 && mockingDetails(paymentService).getInvocations().size() < 2; i++) {
+            ingestionService.requeueStaleCallbacks();
+            Thread.sleep(50);
+        }
+
+        verify(paymentService, timeout(2000).times(2)).applyMpesaCallback(PAYLOAD);
+        verify(callbackRepository, timeout(2000).times(3)).save(any(MpesaCallback.class));
+        assertThat(stored.getStatus()).isEqualTo(MpesaCallbackStatus.PROCESSED);
+        assertThat(stored.getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not apply a callback whose inbox row is already processed")
+    void processing_alreadyProcessedSkipped() {
+        MpesaCallback processed = MpesaCallback.builder()
+                .id(7L).checkoutRequestId("ws_CO_123").payload(PAYLOAD)
+                .status(MpesaCallbackStatus.PROCESSED).attempts(1).build();
+        when(callbackRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(processed));
+
+        ReflectionTestUtils.invokeMethod(ingestionService, "processOne", 7L);
+
+        verifyNoInteractions(paymentService);
+        verify(callbackRepository, never()).save(any());
+        assertThat(processed.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should acknowledge duplicate callbacks without storing them again")
+    void ingest_duplicateIgnored() {
+        when(callbackRepository.existsByCheckoutRequestId("ws_CO_123")).thenReturn(true);
+
+        ingestionService.ingest(PAYLOAD);
+
+        verify(callbackRepository, never()).save(any());
+        verifyNoInteractions(paymentService);
+    }
+
+    @Test
+    @DisplayName("Should treat unique-key violation as a concurrent duplicate")
+    void ingest_concurrentDuplicateIgnored() {
+        when(callbackRepository.existsByCheckoutRequestId("ws_CO_123")).thenReturn(false);
+        when(callbackRepository.save(any(MpesaCallback.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_mpesa_callbacks_checkout"));
+
+        assertThatCode(() -> ingestionService.ingest(PAYLOAD)).doesNotThrowAnyException();
+        verifyNoInteractions(paymentService);
+    }
+
+    @Test
+    @DisplayName("Should reject payload without CheckoutRequestID")
+    void ingest_invalidPayload() {
+        assertThatThrownBy(() -> ingestionService.ingest("{\"Body\":{}}"))
+                .isInstanceOf(BadRequestException.class);
+
+        verifyNoInteractions(callbackRepository);
+    }
+}
@@ -0,0 +1,82 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.dto.request.MpesaStkCallback;
+import com.peterscode.rentalmanagementsystem.exception.BadRequestException;
+import com.peterscode.rentalmanagementsystem.service.payment.MpesaCallbackParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("MpesaCallbackParser Tests")
+class MpesaCallbackParserTest {
+
+    private static final String SUCCESS = """
+            {"Body":{"stkCallback":{
+              "MerchantRequestID":"29115-34620561-1",
+              "CheckoutRequestID":"ws_CO_191220191020363925",
+              "ResultCode":0,
+              "ResultDesc":"The service request is processed successfully.",
+              "CallbackMetadata":{"Item":[
+                {"Name":"Amount","Value":1.00},
+                {"Name":"MpesaReceiptNumber","Value":"NLJ7RT61SV"},
+                {"Name":"Balance"},
+                {"Name":"TransactionDate","Value":20191219102115},
+                {"Name":"PhoneNumber","Value":254708374149}
+              ]}
+            }}}
+            """;
+
+    @Test
+    @DisplayName("Should extract result and metadata from a successful callback")
+    void parse_success() {
+        MpesaStkCallback callback = MpesaCallbackParser.parse(SUCCESS);
+
+        assertThat(callback.checkoutRequestId()).isEqualTo("ws_CO_191220191020363925");
+        assertThat(callback.merchantRequestId()).isEqualTo("29115-34620561-1");
+        assertThat(callback.resultCode()).isEqualTo("0");
+        assertThat(callback.hasMetadata()).isTrue();
+        assertThat(callback.mpesaReceiptNumber()).isEqualTo("NLJ7RT61SV");
+        assertThat(callback.amount()).isEqualByComparingTo(BigDecimal.ONE);
+        assertThat(callback.phoneNumber()).isEqualTo("254708374149");
+    }
+
+    @Test
+    @DisplayName("Should parse a failed callback without metadata")
+    void parse_cancelled() {
+        MpesaStkCallback callback = MpesaCallbackParser.parse(
+                "{\"Body\":{\"stkCallback\":{\"MerchantRequestID\":\"1\",\"CheckoutRequestID\":\"ws_CO_1\"," +
+                "\"ResultCode\":1032,\"ResultDesc\":\"Request cancelled by user\"}}}");
+
+        assertThat(callback.resultCode()).isEqualTo("1032");
+        assertThat(callback.resultDesc()).isEqualTo("Request cancelled by user");
+        assertThat(callback.hasMetadata()).isFalse();
+        assertThat(callback.mpesaReceiptNumber()).isNull();
+        assertThat(callback.amount()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should accept items with Value before Name and ignore unknown fields")
+    void parse_itemFieldOrder() {
+        MpesaStkCallback callback = MpesaCallbackParser.parse(
+                "{\"Extra\":[1,{\"a\":2}],\"Body\":{\"stkCallback\":{\"CheckoutRequestID\":\"ws_CO_2\"," +
+                "\"ResultCode\":\"0\",\"Unknown\":{\"x\":1},\"CallbackMetadata\":{\"Item\":[" +
+                "{\"Value\":\"2500\",\"Name\":\"Amount\"}]}}}}");
+
+        assertThat(callback.resultCode()).isEqualTo("0");
+        assertThat(callback.amount()).isEqualByComparingTo("2500");
+    }
+
+    @Test
+    @DisplayName("Should reject payloads without stkCallback or with malformed JSON")
+    void parse_invalid() {
+        assertThatThrownBy(() -> MpesaCallbackParser.parse("{\"Body\":{}}"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> MpesaCallbackParser.parse("{\"Body\":"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> MpesaCallbackParser.parse("[]"))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
@@ -0,0 +1,87 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.config.MpesaConfig;
+import com.peterscode.rentalmanagementsystem.dto.response.MpesaTransactionStatusResponse;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentMethod;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentStatus;
+import com.peterscode.rentalmanagementsystem.repository.PaymentRepository;
+import com.peterscode.rentalmanagementsystem.service.payment.MpesaReconciliationService;
+import com.peterscode.rentalmanagementsystem.service.payment.MpesaService;
+import com.peterscode.rentalmanagementsystem.service.payment.PaymentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MpesaReconciliationService Tests")
+class MpesaReconciliationServiceTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+    @Mock
+    private PaymentService paymentService;
+    @Mock
+    private MpesaService mpesaService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private MpesaReconciliationService reconciliationService;
+
+    @BeforeEach
+    void setUp() {
+        MpesaConfig config = new MpesaConfig();
+        config.getReconciliation().setQueriesPerSecond(1000);
+        meterRegistry = new SimpleMeterRegistry();
+        reconciliationService = new MpesaReconciliationService(
+                paymentRepository, paymentService, mpesaService, config, new SimpleAsyncTaskExecutor(), meterRegistry);
+    }
+
+    @Test
+    @DisplayName("Should fail stale payments in bulk and query the rest concurrently")
+    void reconcile_failsStaleAndQueriesPending() {
+        when(paymentRepository.failStaleAwaitingCallback(eq(PaymentStatus.PROCESSING), eq(PaymentMethod.MPESA),
+                any(LocalDateTime.class), eq(PaymentStatus.FAILED), anyString(), any(LocalDateTime.class)))
+                .thenReturn(3);
+        when(paymentRepository.findAwaitingCallbackCodes(eq(PaymentStatus.PROCESSING), eq(PaymentMethod.MPESA),
+                any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of("ws_1", "ws_2", "ws_3"));
+
+        MpesaTransactionStatusResponse paid = new MpesaTransactionStatusResponse();
+        paid.setResultCode("0");
+        when(mpesaService.queryTransactionStatus("ws_1")).thenReturn(paid);
+        when(mpesaService.queryTransactionStatus("ws_2")).thenReturn(null);
+        when(mpesaService.queryTransactionStatus("ws_3")).thenThrow(new RuntimeException("timeout"));
+
+        reconciliationService.reconcilePendingTransactions();
+
+        verify(paymentService).applyMpesaTransactionStatus("ws_1", paid);
+        verify(paymentService, never()).applyMpesaTransactionStatus(eq("ws_2"), any());
+        verify(paymentService, never()).applyMpesaTransactionStatus(eq("ws_3"), any());
+        assertThat(meterRegistry.timer("mpesa.reconciliation.duration").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should report lag from the oldest payment still awaiting a callback")
+    void reconcile_reportsLag() {
+        when(paymentRepository.findAwaitingCallbackCodes(any(), any(), any(), any())).thenReturn(List.of());
+        when(paymentRepository.findOldestAwaitingCallback(PaymentStatus.PROCESSING, PaymentMethod.MPESA))
+                .thenReturn(LocalDateTime.now().minusMinutes(10));
+
+        reconciliationService.reconcilePendingTransactions();
+
+        assertThat(meterRegistry.get("mpesa.reconciliation.lag.seconds").gauge().value())
+                .isGreaterThanOrEqualTo(600);
+        verifyNoInteractions(mpesaService, paymentService);
+    }
+}
@@ -0,0 +1,210 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peterscode.rentalmanagementsystem.config.MpesaConfig;
+import com.peterscode.rentalmanagementsystem.dto.response.MpesaStkResponse;
+import com.peterscode.rentalmanagementsystem.service.payment.MpesaServiceImpl;
+import com.peterscode.rentalmanagementsystem.service.payment.MpesaTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.*;
+
+@DisplayName("MpesaTokenProvider Tests")
+class MpesaTokenProviderTest {
+
+    private static final String AUTH_URL = "http://localhost/oauth/v1/generate";
+
+    private static final String STK_URL = "http://localhost/mpesa/stkpush/v1/processrequest";
+
+    private MpesaConfig config;
+    private RestTemplate restTemplate;
+    private MockRestServiceServer tokenEndpoint;
+    private SimpleMeterRegistry meterRegistry;
+    private MutableClock clock;
+    private MpesaTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        config = new MpesaConfig();
+        config.setConsumerKey("key");
+        config.setConsumerSecret("secret");
+        config.setAuthUrl(AUTH_URL);
+
+        config.setStkPushUrl(STK_URL);
+
+        restTemplate = new RestTemplate();
+        tokenEndpoint = MockRestServiceServer.bindTo(restTemplate).build();
+        meterRegistry = new SimpleMeterRegistry();
+        clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        tokenProvider = new MpesaTokenProvider(config, restTemplate, new ObjectMapper(), meterRegistry, clock);
+    }
+
+    private void expectToken(ExpectedCount count, String token) {
+        tokenEndpoint.expect(count, requestTo(AUTH_URL + "?grant_type=client_credentials"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("Authorization", "Basic a2V5OnNlY3JldA=="))
+                .andRespond(withSuccess("{\"access_token\":\"" + token + "\",\"expires_in\":\"3599\"}",
+                        MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("Should reuse cached token until it nears expiry")
+    void getToken_cachedUntilExpiry() {
+        expectToken(ExpectedCount.once(), "first");
+
+        assertThat(tokenProvider.getToken()).isEqualTo("first");
+        assertThat(tokenProvider.getToken()).isEqualTo("first");
+        clock.advance(Duration.ofMinutes(50));
+        assertThat(tokenProvider.getToken()).isEqualTo("first");
+
+        tokenEndpoint.verify();
+        assertThat(meterRegistry.counter("mpesa.token.cache", "result", "hit").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("mpesa.token.cache", "result", "miss").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should fetch a new token once the cached one has expired")
+    void getToken_refetchesAfterExpiry() {
+        expectToken(ExpectedCount.once(), "first");
+        expectToken(ExpectedCount.once(), "second");
+
+        assertThat(tokenProvider.getToken()).isEqualTo("first");
+        clock.advance(Duration.ofHours(1));
+        assertThat(tokenProvider.getToken()).isEqualTo("second");
+
+        tokenEndpoint.verify();
+    }
+
+    @Test
+    @DisplayName("Should refresh in the background only inside the refresh-ahead window")
+    void refreshIfExpiring_refreshesAheadOfExpiry() {
+        expectToken(ExpectedCount.once(), "first");
+        expectToken(ExpectedCount.once(), "second");
+
+        tokenProvider.getToken();
+        tokenProvider.refreshIfExpiring();
+        clock.advance(Duration.ofMinutes(56));
+        tokenProvider.refreshIfExpiring();
+
+        assertThat(tokenProvider.getToken()).isEqualTo("second");
+        tokenEndpoint.verify();
+    }
+
+    @Test
+    @DisplayName("Should let concurrent callers share a single token fetch")
+    void getToken_singleFlight() throws Exception {
+        expectToken(ExpectedCount.once(), "shared");
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<String>> calls = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                calls.add(tokenProvider::getToken);
+            }
+            for (Future<String> result : pool.invokeAll(calls)) {
+                assertThat(result.get()).isEqualTo("shared");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        tokenEndpoint.verify();
+    }
+
+    @Test
+    @DisplayName("Should fetch again after invalidation")
+    void invalidate_forcesRefetch() {
+        expectToken(ExpectedCount.twice(), "token");
+
+        String rejected = tokenProvider.getToken();
+        tokenProvider.invalidate(rejected);
+        tokenProvider.getToken();
+
+        tokenEndpoint.verify();
+    }
+
+    @Test
+    @DisplayName("Should keep a token that already replaced the rejected one")
+    void invalidate_staleTokenKeepsFreshOne() {
+        expectToken(ExpectedCount.once(), "revoked");
+        expectToken(ExpectedCount.once(), "fresh");
+
+        tokenProvider.invalidate(tokenProvider.getToken());
+        assertThat(tokenProvider.getToken()).isEqualTo("fresh");
+        // A second caller that saw the same 401 must not throw the refreshed token away
+        tokenProvider.invalidate("revoked");
+
+        assertThat(tokenProvider.getToken()).isEqualTo("fresh");
+        tokenEndpoint.verify();
+    }
+
+    @Test
+    @DisplayName("Should drop the token and retry once when Daraja answers 401")
+    void stkPush_retriesOnceAfterUnauthorized() {
+        MpesaServiceImpl mpesaService = new MpesaServiceImpl(config, restTemplate, tokenProvider);
+        expectToken(ExpectedCount.once(), "revoked");
+        tokenEndpoint.expect(requestTo(STK_URL))
+                .andExpect(header("Authorization", "Bearer revoked"))
+                .andRespond(withUnauthorizedRequest());
+        expectToken(ExpectedCount.once(), "fresh");
+        tokenEndpoint.expect(requestTo(STK_URL))
+                .andExpect(header("Authorization", "Bearer fresh"))
+                .andRespond(withSuccess("{\"CheckoutRequestID\":\"ws_CO_1\",\"ResponseCode\":\"0\"}",
+                        MediaType.APPLICATION_JSON));
+
+        MpesaStkResponse response = mpesaService.initiateStkPush("254700000000", BigDecimal.TEN, "INV-1", "Rent");
+
+        assertThat(response.getCheckoutRequestID()).isEqualTo("ws_CO_1");
+        tokenEndpoint.verify();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.service.id.NodeIdLease;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NodeIdLease Tests")
+class NodeIdLeaseTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private void leased(List<Map.Entry<Long, LocalDateTime>> rows) {
+        when(jdbcTemplate.query(startsWith("SELECT node_id"),
+                ArgumentMatchers.<RowMapper<Map.Entry<Long, LocalDateTime>>>any())).thenReturn(rows);
+    }
+
+    @Test
+    @DisplayName("Should insert a lease for a node id nobody holds")
+    void acquire_freeNode() {
+        leased(List.of(Map.entry(0L, LocalDateTime.now().plusMinutes(5))));
+        NodeIdLease lease = new NodeIdLease(jdbcTemplate, 600);
+
+        assertThat(lease.acquire(1)).isEqualTo(1L);
+        assertThat(lease.currentNodeId()).isEqualTo(1L);
+        verify(jdbcTemplate).update(startsWith("INSERT INTO id_node_leases"), eq(1L), anyString(), any());
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE"), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should take over a node id whose lease has expired")
+    void acquire_takesExpiredNode() {
+        leased(List.of(
+                Map.entry(0L, LocalDateTime.now().plusMinutes(5)),
+                Map.entry(1L, LocalDateTime.now().minusMinutes(5))));
+        when(jdbcTemplate.update(startsWith("UPDATE id_node_leases SET owner"), any(), any(), eq(1L), any()))
+                .thenReturn(1);
+        NodeIdLease lease = new NodeIdLease(jdbcTemplate, 600);
+
+        assertThat(lease.acquire(1)).isEqualTo(1L);
+        assertThat(lease.currentNodeId()).isEqualTo(1L);
+        verify(jdbcTemplate, never()).update(startsWith("INSERT"), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should move on when another instance inserts the same node id first")
+    void acquire_lostInsertRace() {
+        leased(List.of());
+        when(jdbcTemplate.update(startsWith("INSERT INTO id_node_leases"), anyLong(), anyString(), any()))
+                .thenThrow(new DuplicateKeyException("PRIMARY"))
+                .thenReturn(1);
+        NodeIdLease lease = new NodeIdLease(jdbcTemplate, 600);
+
+        long nodeId = lease.acquire(1);
+
+        assertThat(lease.currentNodeId()).isEqualTo(nodeId);
+        verify(jdbcTemplate, times(2)).update(startsWith("INSERT"), anyLong(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Should fail when every node id is held by a live instance")
+    void acquire_allTaken() {
+        leased(List.of(
+                Map.entry(0L, LocalDateTime.now().plusMinutes(5)),
+                Map.entry(1L, LocalDateTime.now().plusMinutes(5))));
+
+        assertThatThrownBy(() -> new NodeIdLease(jdbcTemplate, 600).acquire(1))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should treat the lease as valid for 75% of its length and extend it on renewal")
+    void renew_extendsValidity() throws InterruptedException {
+        leased(List.of());
+        NodeIdLease lease = new NodeIdLease(jdbcTemplate, 1);
+        long nodeId = lease.acquire(0);
+
+        // Past 750 ms the lease is lapsed for this instance, though the row still has slack
+        Thread.sleep(800);
+        assertThatThrownBy(lease::currentNodeId).isInstanceOf(IllegalStateException.class);
+
+        when(jdbcTemplate.update(startsWith("UPDATE id_node_leases SET expires_at"), any(), eq(nodeId), anyString()))
+                .thenReturn(1);
+        lease.renew();
+
+        assertThat(lease.currentNodeId()).isEqualTo(nodeId);
+    }
+
+    @Test
+    @DisplayName("Should claim a new node id when the renewal finds the lease taken over")
+    void renew_takenOver() {
+        leased(List.of());
+        NodeIdLease lease = new NodeIdLease(jdbcTemplate, 600);
+        lease.acquire(0);
+        when(jdbcTemplate.update(startsWith("UPDATE id_node_leases SET expires_at"), any(), anyLong(), anyString()))
+                .thenReturn(0);
+
+        lease.renew();
+
+        verify(jdbcTemplate, times(2)).update(startsWith("INSERT INTO id_node_leases"), eq(0L), anyString(), any());
+    }
+}
@@ -0,0 +1,158 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.peterscode.rentalmanagementsystem.config.OutboxConfig;
+import com.peterscode.rentalmanagementsystem.dto.request.EmailRequest;
+import com.peterscode.rentalmanagementsystem.dto.response.EmailLogResponse;
+import com.peterscode.rentalmanagementsystem.model.logs.EmailStatus;
+import com.peterscode.rentalmanagementsystem.service.email.EmailService;
+import com.peterscode.rentalmanagementsystem.service.outbox.EmailOutboxHandler;
+import com.peterscode.rentalmanagementsystem.service.outbox.OutboxDispatcher;
+import com.peterscode.rentalmanagementsystem.service.outbox.OutboxHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxDispatcher Tests")
+class OutboxDispatcherTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private OutboxHandler handler;
+    @Mock
+    private ResultSet resultSet;
+
+    private final OutboxConfig config = new OutboxConfig();
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        config.setMaxAttempts(3);
+        meterRegistry = new SimpleMeterRegistry();
+        when(handler.type()).thenReturn("TEST");
+        dispatcher = new OutboxDispatcher(jdbcTemplate, transactionManager, new SyncTaskExecutor(),
+                config, meterRegistry, List.of(handler));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenDueEvent(String type, int previousAttempts) throws Exception {
+        when(resultSet.getLong("id")).thenReturn(7L);
+        when(resultSet.getString("event_type")).thenReturn(type);
+        when(resultSet.getString("payload")).thenReturn("{\"x\":1}");
+        when(resultSet.getInt("attempts")).thenReturn(previousAttempts);
+        doAnswer(inv -> List.of(((RowMapper<Object>) inv.getArgument(1)).mapRow(resultSet, 0)))
+                .when(jdbcTemplate).query(startsWith("SELECT id, event_type"), any(RowMapper.class), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should lease a claimed event and mark it sent once delivered")
+    void dispatch_delivers() throws Exception {
+        givenDueEvent("TEST", 0);
+
+        dispatcher.poll();
+
+        verify(handler).handle("{\"x\":1}");
+        verify(jdbcTemplate).update(startsWith("UPDATE outbox_events SET attempts = attempts + 1"), any(), eq(7L));
+        verify(jdbcTemplate).update(contains("status = 'SENT'"), any(), eq(7L));
+        verify(transactionManager).commit(any());
+        assertThat(meterRegistry.counter("outbox.events", "type", "TEST", "outcome", "delivered").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should schedule a retry with backoff when delivery fails")
+    void dispatch_retries() throws Exception {
+        givenDueEvent("TEST", 0);
+        doThrow(new IllegalStateException("SMTP down")).when(handler).handle(anyString());
+        config.setInitialBackoffMs(60_000);
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.poll();
+
+        ArgumentCaptor<Object> next = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).update(startsWith("UPDATE outbox_events SET next_attempt_at = ?, last_error"),
+                next.capture(), eq("SMTP down"), eq(7L));
+        LocalDateTime nextAttempt = ((Timestamp) next.getValue()).toLocalDateTime();
+        assertThat(nextAttempt).isBetween(before.plusSeconds(59), before.plusSeconds(73));
+        verify(jdbcTemplate, never()).update(contains("status = 'SENT'"), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should give up and mark the event failed after the last attempt")
+    void dispatch_failsAfterMaxAttempts() throws Exception {
+        givenDueEvent("TEST", 2);
+        doThrow(new IllegalStateException("SMTP down")).when(handler).handle(anyString());
+
+        dispatcher.poll();
+
+        verify(jdbcTemplate).update(contains("status = 'FAILED'"), any(), eq("SMTP down"), eq(7L));
+        assertThat(meterRegistry.counter("outbox.events", "type", "TEST", "outcome", "failed").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should retry events that have no handler instead of dropping them")
+    void dispatch_unknownType() throws Exception {
+        givenDueEvent("UNKNOWN", 0);
+
+        dispatcher.poll();
+
+        verify(jdbcTemplate).update(startsWith("UPDATE outbox_events SET next_attempt_at = ?, last_error"),
+                any(), contains("No outbox handler"), eq(7L));
+        verify(handler, never()).handle(anyString());
+    }
+
+    @Test
+    @DisplayName("Should never deliver on the calling thread when woken up")
+    void dispatchSoon_neverInline() {
+        OutboxDispatcher inline = new OutboxDispatcher(jdbcTemplate, transactionManager, new SyncTaskExecutor(),
+                config, meterRegistry, List.of(handler));
+        OutboxDispatcher saturated = new OutboxDispatcher(jdbcTemplate, transactionManager,
+                task -> { throw new TaskRejectedException("queue full"); }, config, meterRegistry, List.of(handler));
+
+        inline.dispatchSoon();
+        saturated.dispatchSoon();
+
+        verifyNoInteractions(jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    @DisplayName("EmailOutboxHandler should fail the attempt when the email was not sent")
+    void emailHandler_failedSendThrows() throws Exception {
+        EmailService emailService = mock(EmailService.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        EmailOutboxHandler emailHandler = new EmailOutboxHandler(emailService, objectMapper);
+        String payload = objectMapper.writeValueAsString(EmailRequest.builder()
+                .recipient("tenant@test.com").subject("Verify").templateName("email-verification").build());
+
+        when(emailService.sendEmail(any())).thenReturn(EmailLogResponse.builder()
+                .status(EmailStatus.FAILED).errorMessage("Brevo 503").build());
+        assertThatThrownBy(() -> emailHandler.handle(payload)).hasMessageContaining("Brevo 503");
+
+        when(emailService.sendEmail(any())).thenReturn(EmailLogResponse.builder().status(EmailStatus.SENT).build());
+        emailHandler.handle(payload);
+        verify(emailService, times(2)).sendEmail(argThat(r -> r.getRecipient().equals("tenant@test.com")));
+    }
+}
@@ -0,0 +1,161 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.peterscode.rentalmanagementsystem.dto.response.PaymentExportRow;
+import com.peterscode.rentalmanagementsystem.exception.BadRequestException;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentMethod;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentStatus;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentType;
+import com.peterscode.rentalmanagementsystem.model.user.Role;
+import com.peterscode.rentalmanagementsystem.model.user.User;
+import com.peterscode.rentalmanagementsystem.repository.PaymentRepository;
+import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import com.peterscode.rentalmanagementsystem.service.payment.PaymentExportService;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PaymentExportService Tests")
+class PaymentExportServiceTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+    @Mock
+    private UserRepository userRepository;
+
+    private PaymentExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
+        exportService = new PaymentExportService(paymentRepository, new CurrentUser(userRepository), objectMapper);
+    }
+
+    private PaymentExportRow row(long id, String title) {
+        return new PaymentExportRow(id, "PAY-" + id, LocalDateTime.of(2025, 1, 1, 10, 0), null,
+                new BigDecimal("15000.00"), PaymentMethod.MPESA, PaymentStatus.SUCCESSFUL, PaymentType.RENT,
+                2L, "tenant@test.com", "John", "Doe", "254712345678", title, null);
+    }
+
+    private User user(long id, Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setRole(role);
+        return user;
+    }
+
+    @Test
+    @DisplayName("Should page through results with the id cursor until a short batch")
+    void export_walksKeysetCursor() throws Exception {
+        List<PaymentExportRow> firstBatch = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            firstBatch.add(row(id, "Unit " + id));
+        }
+        when(paymentRepository.findExportBatch(eq(0L), isNull(), any(), any(), any(), any(), any(Limit.class)))
+                .thenReturn(firstBatch);
+        when(paymentRepository.findExportBatch(eq(500L), isNull(), any(), any(), any(), any(), any(Limit.class)))
+                .thenReturn(List.of(row(501, "Unit 501")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(new PaymentExportService.Query(null, null, null, null, null),
+                PaymentExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(502);
+        assertThat(lines[0]).startsWith("id,transaction_code");
+        assertThat(lines[501]).startsWith("501,PAY-501,2025-01-01T10:00,,15000.00,MPESA,SUCCESSFUL,RENT");
+        verify(paymentRepository, times(2)).findExportBatch(anyLong(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should quote CSV fields containing separators or quotes")
+    void export_csvEscaping() throws Exception {
+        when(paymentRepository.findExportBatch(eq(0L), any(), any(), any(), any(), any(), any(Limit.class)))
+                .thenReturn(List.of(row(1, "Flat 2, \"Sunrise\" Court")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(new PaymentExportService.Query(null, null, null, null, null),
+                PaymentExportService.Format.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains(",\"Flat 2, \"\"Sunrise\"\" Court\",");
+    }
+
+    @Test
+    @DisplayName("Should neutralize CSV fields a spreadsheet would run as formulas")
+    void export_csvFormulaInjection() throws Exception {
+        when(paymentRepository.findExportBatch(eq(0L), any(), any(), any(), any(), any(), any(Limit.class)))
+                .thenReturn(List.of(row(1, "=HYPERLINK(\"http://evil\")"), row(2, "@SUM(A1)"), row(3, "-2+3")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(new PaymentExportService.Query(null, null, null, null, null),
+                PaymentExportService.Format.CSV, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .contains(",\"'=HYPERLINK(\"\"http://evil\"\")\",")
+                .contains(",\"'@SUM(A1)\",")
+                .contains(",\"'-2+3\",")
+                .contains(",15000.00,");
+    }
+
+    @Test
+    @DisplayName("Should write one compact JSON object per line for NDJSON")
+    void export_ndjson() throws Exception {
+        when(paymentRepository.findExportBatch(eq(0L), any(), any(), any(), any(), any(), any(Limit.class)))
+                .thenReturn(List.of(row(1, "A"), row(2, "B")));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(new PaymentExportService.Query(null, null, null, null, null),
+                PaymentExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"id\":1,\"transactionCode\":\"PAY-1\"");
+        assertThat(lines[1]).contains("\"propertyTitle\":\"B\"");
+    }
+
+    @Test
+    @DisplayName("Should scope landlord exports to their own properties")
+    void buildQuery_landlordScoped() {
+        when(userRepository.findByEmail("landlord@test.com")).thenReturn(Optional.of(user(3L, Role.LANDLORD)));
+
+        PaymentExportService.Query query = exportService.buildQuery("landlord@test.com",
+                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), PaymentStatus.SUCCESSFUL, null);
+
+        assertThat(query.ownerId()).isEqualTo(3L);
+        assertThat(query.from()).isEqualTo(LocalDateTime.of(2025, 1, 1, 0, 0));
+        assertThat(query.to()).isEqualTo(LocalDateTime.of(2025, 2, 1, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Should reject exports by tenants")
+    void buildQuery_tenantDenied() {
+        when(userRepository.findByEmail("tenant@test.com")).thenReturn(Optional.of(user(2L, Role.TENANT)));
+
+        assertThatThrownBy(() -> exportService.buildQuery("tenant@test.com", null, null, null, null))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
@@ -1,6 +1,7 @@
 package com.peterscode.rentalmanagementsystem.service;
 
 import com.peterscode.rentalmanagementsystem.dto.request.PaymentRequest;
+import com.peterscode.rentalmanagementsystem.dto.response.CursorPage;
 import com.peterscode.rentalmanagementsystem.dto.response.PaymentResponse;
 import com.peterscode.rentalmanagementsystem.dto.response.PaymentSummaryResponse;
 import com.peterscode.rentalmanagementsystem.exception.BadRequestException;
@@ -14,23 +15,38 @@ import com.peterscode.rentalmanagementsystem.model.user.Role;
 import com.peterscode.rentalmanagementsystem.model.user.User;
 import com.peterscode.rentalmanagementsystem.repository.LeaseRepository;
 import com.peterscode.rentalmanagementsystem.repository.PaymentRepository;
+import com.peterscode.rentalmanagementsystem.repository.PropertyRepository;
+import com.peterscode.rentalmanagementsystem.repository.RentalApplicationRepository;
 import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
 import com.peterscode.rentalmanagementsystem.service.audit.AuditLogService;
+import com.peterscode.rentalmanagementsystem.service.booking.BookingService;
+import com.peterscode.rentalmanagementsystem.service.id.IdGeneratorService;
+import com.peterscode.rentalmanagementsystem.service.payment.MonthlyPaymentHistoryService;
 import com.peterscode.rentalmanagementsystem.service.payment.MpesaService;
 import com.peterscode.rentalmanagementsystem.service.payment.PaymentServiceImpl;
+import com.peterscode.rentalmanagementsystem.service.payment.RevenueRollupService;
+import com.peterscode.rentalmanagementsystem.service.payment.StripeService;
+import com.peterscode.rentalmanagementsystem.util.KeysetCursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -48,11 +64,24 @@ class PaymentServiceImplTest {
     @Mock
     private LeaseRepository leaseRepository;
     @Mock
+    private PropertyRepository propertyRepository;
+    @Mock
+    private RentalApplicationRepository rentalApplicationRepository;
+    @Mock
     private MpesaService mpesaService;
     @Mock
+    private StripeService stripeService;
+    @Mock
+    private MonthlyPaymentHistoryService monthlyPaymentHistoryService;
+    @Mock
     private AuditLogService auditLogService;
+    @Mock
+    private BookingService bookingService;
+    @Mock
+    private RevenueRollupService revenueRollupService;
+    @Spy
+    private IdGeneratorService idGeneratorService = new IdGeneratorService(1, System::currentTimeMillis);
 
-    @InjectMocks
     private PaymentServiceImpl paymentService;
 
     private User tenant;
@@ -65,6 +94,11 @@ class PaymentServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        paymentService = new PaymentServiceImpl(paymentRepository, userRepository,
+                new CurrentUser(userRepository), leaseRepository, propertyRepository, rentalApplicationRepository,
+                mpesaService, stripeService, monthlyPaymentHistoryService, auditLogService, bookingService,
+                idGeneratorService, revenueRollupService);
+
         tenant = User.builder().id(1L).email("tenant@test.com").username("tenant")
                 .password("enc").firstName("John").lastName("Doe").role(Role.TENANT)
                 .phoneNumber("254712345678").build();
@@ -224,19 +258,45 @@ class PaymentServiceImplTest {
                 .transactionCode("TX-300").lease(ownedLease).callbackReceived(true)
                 .createdAt(LocalDateTime.now()).paidAt(LocalDateTime.now()).build();
 
-        Payment noLeasePayment = Payment.builder()
-                .id(301L).tenant(tenant).amount(BigDecimal.valueOf(10000))
-                .method(PaymentMethod.CASH).status(PaymentStatus.SUCCESSFUL)
-                .transactionCode("TX-301").callbackReceived(true)
-                .createdAt(LocalDateTime.now()).build();
-
         when(userRepository.findByEmail("landlord@test.com")).thenReturn(Optional.of(landlord));
-        when(paymentRepository.findAll()).thenReturn(List.of(leasePayment, noLeasePayment));
+        when(paymentRepository.findAllByLandlordId(3L)).thenReturn(List.of(leasePayment));
 
         List<PaymentResponse> result = paymentService.getAllPayments("landlord@test.com");
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getId()).isEqualTo(300L);
+        verify(paymentRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("getLandlordPayments - pages owner-scoped query")
+    void getLandlordPayments_pagesOwnerScopedQuery() {
+        Lease ownedLease = Lease.builder().id(50L).property(property).build();
+        Payment leasePayment = Payment.builder()
+                .id(300L).tenant(tenant).amount(BigDecimal.valueOf(25000))
+                .method(PaymentMethod.CASH).status(PaymentStatus.SUCCESSFUL)
+                .transactionCode("TX-300").lease(ownedLease).callbackReceived(true)
+                .createdAt(LocalDateTime.now()).paidAt(LocalDateTime.now()).build();
+        Pageable pageable = PageRequest.of(0, 20);
+
+        when(userRepository.findByEmail("landlord@test.com")).thenReturn(Optional.of(landlord));
+        when(paymentRepository.findByLandlordId(3L, pageable))
+                .thenReturn(new PageImpl<>(List.of(leasePayment), pageable, 1));
+
+        Page<PaymentResponse> result = paymentService.getLandlordPayments("landlord@test.com", pageable);
+
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(result.getContent().get(0).getId()).isEqualTo(300L);
+    }
+
+    @Test
+    @DisplayName("getLandlordPayments - tenant denied")
+    void getLandlordPayments_tenantDenied() {
+        when(userRepository.findByEmail("tenant@test.com")).thenReturn(Optional.of(tenant));
+
+        assertThatThrownBy(() -> paymentService.getLandlordPayments("tenant@test.com", PageRequest.of(0, 20)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Only landlords");
     }
 
     // ── updatePaymentStatus + validateStatusTransition ───────────────────
@@ -286,6 +346,7 @@ class PaymentServiceImplTest {
 
         assertThat(result.getStatus()).isEqualTo("SUCCESSFUL");
         verify(auditLogService).log(any(), any(), eq(100L), anyString());
+        verify(revenueRollupService).recordTransition(pendingPayment);
     }
 
     @Test
@@ -327,7 +388,11 @@ class PaymentServiceImplTest {
     @Test
     @DisplayName("getPaymentSummary - calculates correctly")
     void getPaymentSummary_calculatesCorrectly() {
-        when(paymentRepository.findAll()).thenReturn(List.of(pendingPayment, successfulPayment));
+        when(paymentRepository.summarizeByStatusAndMethod()).thenReturn(List.of(
+                new Object[]{PaymentStatus.PENDING, PaymentMethod.MPESA, 1L, BigDecimal.valueOf(25000)},
+                new Object[]{PaymentStatus.SUCCESSFUL, PaymentMethod.CASH, 1L, BigDecimal.valueOf(30000)}));
+        when(revenueRollupService.getDailyRevenue(isNull(), any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(Map.of(LocalDate.now().toString(), BigDecimal.valueOf(30000)));
 
         PaymentSummaryResponse summary = paymentService.getPaymentSummary();
 
@@ -336,6 +401,23 @@ class PaymentServiceImplTest {
         assertThat(summary.getPendingTransactions()).isEqualTo(1);
         assertThat(summary.getTotalSuccessful()).isEqualTo(BigDecimal.valueOf(30000));
         assertThat(summary.getTotalAmount()).isEqualTo(BigDecimal.valueOf(55000));
+        assertThat(summary.getCountByMethod()).containsEntry("MPESA", 1L).containsEntry("CASH", 1L);
+        assertThat(summary.getDailyRevenue()).containsEntry(LocalDate.now().toString(), BigDecimal.valueOf(30000));
+        verify(paymentRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("getPaymentSummary - landlord scoped to own properties")
+    void getPaymentSummary_landlordScoped() {
+        when(userRepository.findByEmail("landlord@test.com")).thenReturn(Optional.of(landlord));
+        when(paymentRepository.summarizeByStatusAndMethodForLandlord(3L)).thenReturn(List.<Object[]>of(
+                new Object[]{PaymentStatus.SUCCESSFUL, PaymentMethod.MPESA, 2L, BigDecimal.valueOf(50000)}));
+
+        PaymentSummaryResponse summary = paymentService.getPaymentSummary("landlord@test.com");
+
+        assertThat(summary.getTotalTransactions()).isEqualTo(2);
+        assertThat(summary.getTotalSuccessful()).isEqualTo(BigDecimal.valueOf(50000));
+        verify(paymentRepository, never()).summarizeByStatusAndMethod();
     }
 
     // ── getTotalRevenue ─────────────────────────────────────────────────
@@ -343,7 +425,7 @@ class PaymentServiceImplTest {
     @Test
     @DisplayName("getTotalRevenue - sums only SUCCESSFUL")
     void getTotalRevenue_onlySuccessful() {
-        when(paymentRepository.findAll()).thenReturn(List.of(pendingPayment, successfulPayment));
+        when(paymentRepository.getTotalSuccessfulAmount()).thenReturn(BigDecimal.valueOf(30000));
 
         BigDecimal revenue = paymentService.getTotalRevenue();
 
@@ -437,6 +519,47 @@ class PaymentServiceImplTest {
         verify(paymentRepository).findByTenantId(1L);
     }
 
+    // ── keyset pagination ───────────────────────────────────────────────
+
+    @Test
+    @DisplayName("getPaymentsByTenant (cursor) - first page returns next cursor from last row")
+    void getPaymentsByTenantPage_firstPage() {
+        when(paymentRepository.findPageByTenantId(eq(1L), eq(KeysetCursor.START.createdAt()),
+                eq(Long.MAX_VALUE), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(successfulPayment, pendingPayment), PageRequest.of(0, 2), true));
+
+        CursorPage<PaymentResponse> result = paymentService.getPaymentsByTenant(1L, null, 2);
+
+        assertThat(result.getItems()).hasSize(2);
+        assertThat(result.isHasNext()).isTrue();
+        KeysetCursor next = KeysetCursor.decode(result.getNextCursor());
+        assertThat(next.id()).isEqualTo(100L);
+        assertThat(next.createdAt()).isEqualTo(pendingPayment.getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("getPaymentsByStatus (cursor) - resumes after cursor, caps page size, last page has no cursor")
+    void getPaymentsByStatusPage_resumesAfterCursor() {
+        String cursor = new KeysetCursor(pendingPayment.getCreatedAt(), 100L).encode();
+        when(paymentRepository.findPageByStatus(eq(PaymentStatus.PENDING), eq(pendingPayment.getCreatedAt()),
+                eq(100L), eq(PageRequest.of(0, KeysetCursor.MAX_PAGE_SIZE))))
+                .thenReturn(new SliceImpl<>(List.of(pendingPayment)));
+
+        CursorPage<PaymentResponse> result = paymentService.getPaymentsByStatus("pending", cursor, 5000);
+
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.isHasNext()).isFalse();
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("getPaymentsByStatus (cursor) - malformed cursor rejected")
+    void getPaymentsByStatusPage_invalidCursor() {
+        assertThatThrownBy(() -> paymentService.getPaymentsByStatus("PENDING", "not-a-cursor", 20))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
     // ── deletePayment ───────────────────────────────────────────────────
 
     @Test
@@ -9,6 +9,7 @@ import com.peterscode.rentalmanagementsystem.model.user.Role;
 import com.peterscode.rentalmanagementsystem.model.user.User;
 import com.peterscode.rentalmanagementsystem.repository.PropertyRepository;
 import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
 import com.peterscode.rentalmanagementsystem.service.audit.AuditLogService;
 import com.peterscode.rentalmanagementsystem.service.property.PropertyServiceImpl;
 import org.junit.jupiter.api.AfterEach;
@@ -16,7 +17,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -42,7 +42,6 @@ class PropertyServiceImplTest {
     @Mock
     private AuditLogService auditLogService;
 
-    @InjectMocks
     private PropertyServiceImpl propertyService;
 
     private User landlord;
@@ -52,6 +51,9 @@ class PropertyServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        propertyService = new PropertyServiceImpl(propertyRepository, userRepository,
+                new CurrentUser(userRepository), auditLogService);
+
         landlord = User.builder().id(1L).email("landlord@test.com").username("landlord")
                 .password("enc").firstName("Jane").lastName("Smith").role(Role.LANDLORD).build();
 
@@ -0,0 +1,146 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.exception.AuthenticationFailedException;
+import com.peterscode.rentalmanagementsystem.model.logs.RefreshToken;
+import com.peterscode.rentalmanagementsystem.model.user.Role;
+import com.peterscode.rentalmanagementsystem.model.user.User;
+import com.peterscode.rentalmanagementsystem.repository.RefreshTokenRepository;
+import com.peterscode.rentalmanagementsystem.security.JwtService;
+import com.peterscode.rentalmanagementsystem.security.TokenDigest;
+import com.peterscode.rentalmanagementsystem.security.TokenRevocationList;
+import com.peterscode.rentalmanagementsystem.service.auth.RefreshTokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RefreshTokenService Tests")
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+    @Mock
+    private TokenRevocationList revocationList;
+
+    private JwtService jwtService;
+    private RefreshTokenService refreshTokenService;
+    private User tenant;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService("0123456789abcdef0123456789abcdef", 900_000);
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, revocationList, jwtService, 86_400_000);
+        tenant = User.builder().id(2L).email("tenant@test.com").username("tenant")
+                .firstName("John").lastName("Doe").role(Role.TENANT).build();
+    }
+
+    private RefreshToken stored(String rawToken) {
+        return RefreshToken.builder().id(10L).user(tenant).tokenHash(TokenDigest.sha256Hex(rawToken))
+                .familyId("family-1").accessJti("old-jti")
+                .createdAt(LocalDateTime.now().minusMinutes(5))
+                .expiresAt(LocalDateTime.now().plusDays(1)).build();
+    }
+
+    @Test
+    @DisplayName("Should store only the hash of a new refresh token")
+    void issue_storesHash() {
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        RefreshTokenService.TokenPair pair = refreshTokenService.issue(tenant);
+
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertThat(saved.getValue().getTokenHash()).isEqualTo(TokenDigest.sha256Hex(pair.refreshToken()));
+        assertThat(saved.getValue().getTokenHash()).isNotEqualTo(pair.refreshToken());
+        assertThat(saved.getValue().getAccessJti()).isEqualTo(jwtService.parse(pair.accessToken()).get().getId());
+        assertThat(pair.expiresIn()).isEqualTo(900);
+    }
+
+    @Test
+    @DisplayName("Should rotate a refresh token within its family")
+    void rotate_replacesToken() {
+        RefreshToken current = stored("raw");
+        when(refreshTokenRepository.findByTokenHashForUpdate(TokenDigest.sha256Hex("raw"))).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(inv -> {
+            RefreshToken token = inv.getArgument(0);
+            if (token.getId() == null) {
+                token.setId(11L);
+            }
+            return token;
+        });
+
+        RefreshTokenService.TokenPair pair = refreshTokenService.rotate("raw");
+
+        assertThat(pair.refreshToken()).isNotEqualTo("raw");
+        assertThat(current.getRevokedAt()).isNotNull();
+        assertThat(current.getReplacedById()).isEqualTo(11L);
+        verifyNoInteractions(revocationList);
+    }
+
+    @Test
+    @DisplayName("Should revoke the whole family when a rotated token is reused")
+    void rotate_reuseRevokesFamily() {
+        RefreshToken rotated = stored("raw");
+        rotated.setRevokedAt(LocalDateTime.now().minusMinutes(1));
+        rotated.setReplacedById(11L);
+        RefreshToken successor = RefreshToken.builder().id(11L).user(tenant).familyId("family-1").build();
+        when(refreshTokenRepository.findByTokenHashForUpdate(TokenDigest.sha256Hex("raw"))).thenReturn(Optional.of(rotated));
+        when(refreshTokenRepository.findByFamilyIdAndRevokedAtIsNull("family-1")).thenReturn(List.of(successor));
+        when(refreshTokenRepository.findAccessJtisByFamilyIssuedAfter(eq("family-1"), any()))
+                .thenReturn(List.of("old-jti", "new-jti"));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("raw"))
+                .isInstanceOf(AuthenticationFailedException.class);
+
+        assertThat(successor.getRevokedAt()).isNotNull();
+        verify(revocationList).revoke(eq("old-jti"), eq(2L), any());
+        verify(revocationList).revoke(eq("new-jti"), eq(2L), any());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown and expired refresh tokens")
+    void rotate_rejectsInvalid() {
+        RefreshToken expired = stored("expired");
+        expired.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        when(refreshTokenRepository.findByTokenHashForUpdate(anyString())).thenReturn(Optional.empty());
+        when(refreshTokenRepository.findByTokenHashForUpdate(TokenDigest.sha256Hex("expired"))).thenReturn(Optional.of(expired));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate("unknown")).isInstanceOf(AuthenticationFailedException.class);
+        assertThatThrownBy(() -> refreshTokenService.rotate("expired")).isInstanceOf(AuthenticationFailedException.class);
+    }
+
+    @Test
+    @DisplayName("Should revoke the access token presented on logout")
+    void revoke_accessToken() {
+        JwtService.AccessToken access = jwtService.issueAccessToken(tenant);
+
+        refreshTokenService.revoke(null, access.token());
+
+        verify(revocationList).revoke(eq(access.jti()), eq(2L), any());
+    }
+
+    @Test
+    @DisplayName("Should sign a user out everywhere")
+    void revokeAllForUser_revokesSessions() {
+        RefreshToken active = stored("raw");
+        when(refreshTokenRepository.findActiveByUserId(2L)).thenReturn(List.of(active));
+        when(refreshTokenRepository.findAccessJtisByUserIssuedAfter(eq(2L), any())).thenReturn(List.of("old-jti"));
+
+        refreshTokenService.revokeAllForUser(2L);
+
+        assertThat(active.getRevokedAt()).isNotNull();
+        verify(revocationList).revoke(eq("old-jti"), eq(2L), any());
+    }
+}
@@ -0,0 +1,182 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.exception.AuthenticationFailedException;
+import com.peterscode.rentalmanagementsystem.model.logs.RefreshToken;
+import com.peterscode.rentalmanagementsystem.model.user.Role;
+import com.peterscode.rentalmanagementsystem.model.user.User;
+import com.peterscode.rentalmanagementsystem.repository.PasswordResetTokenRepository;
+import com.peterscode.rentalmanagementsystem.repository.RefreshTokenRepository;
+import com.peterscode.rentalmanagementsystem.repository.RevokedTokenRepository;
+import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import com.peterscode.rentalmanagementsystem.repository.VerificationTokenRepository;
+import com.peterscode.rentalmanagementsystem.security.JwtPrincipalCache;
+import com.peterscode.rentalmanagementsystem.security.JwtService;
+import com.peterscode.rentalmanagementsystem.security.LoginAuthenticator;
+import com.peterscode.rentalmanagementsystem.security.LoginThrottle;
+import com.peterscode.rentalmanagementsystem.security.TokenDigest;
+import com.peterscode.rentalmanagementsystem.security.TokenRevocationList;
+import com.peterscode.rentalmanagementsystem.service.auth.AuthService;
+import com.peterscode.rentalmanagementsystem.service.auth.AuthServiceImpl;
+import com.peterscode.rentalmanagementsystem.service.auth.LoginAlertService;
+import com.peterscode.rentalmanagementsystem.service.auth.RefreshTokenService;
+import com.peterscode.rentalmanagementsystem.service.outbox.OutboxService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs refresh-token reuse through Spring's real transaction proxies, so the
+ * commit-or-rollback decision is the one production makes. Persistence is mocked;
+ * the transaction manager records each outcome.
+ */
+@DisplayName("Refresh token transaction Tests")
+class RefreshTokenTransactionTest {
+
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+    private final RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+    private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+
+    private AnnotationConfigApplicationContext context;
+    private TokenRevocationList revocationList;
+    private User tenant;
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TransactionConfig {
+    }
+
+    /** Tracks whether a transaction is open on this thread and records how each one ends. */
+    static class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+
+        private static final long serialVersionUID = 1L;
+
+        final transient List<String> outcomes = new ArrayList<>();
+        private final transient ThreadLocal<Boolean> active = ThreadLocal.withInitial(() -> false);
+
+        @Override
+        protected Object doGetTransaction() {
+            return new boolean[]{active.get()};
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return ((boolean[]) transaction)[0];
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            active.set(true);
+        }
+
+        @Override
+        protected Object doSuspend(Object transaction) {
+            active.set(false);
+            return Boolean.TRUE;
+        }
+
+        @Override
+        protected void doResume(Object transaction, Object suspendedResources) {
+            active.set(true);
+        }
+
+        @Override
+        protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+            outcomes.add("rollback-only");
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            outcomes.add("commit");
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+            outcomes.add("rollback");
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(Object transaction) {
+            active.set(false);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        JwtService jwtService = new JwtService("0123456789abcdef0123456789abcdef", 900_000);
+        revocationList = new TokenRevocationList(revokedTokenRepository, new SimpleMeterRegistry(), 1000, 0.01);
+
+        context = new AnnotationConfigApplicationContext();
+        context.register(TransactionConfig.class);
+        context.registerBean(PlatformTransactionManager.class, () -> transactionManager);
+        context.registerBean(RefreshTokenService.class,
+                () -> new RefreshTokenService(refreshTokenRepository, revocationList, jwtService, 86_400_000));
+        context.registerBean(AuthServiceImpl.class, () -> new AuthServiceImpl(mock(UserRepository.class),
+                mock(VerificationTokenRepository.class), mock(PasswordResetTokenRepository.class),
+                mock(PasswordEncoder.class), mock(JwtPrincipalCache.class), context.getBean(RefreshTokenService.class),
+                mock(OutboxService.class), mock(LoginThrottle.class), mock(LoginAuthenticator.class),
+                mock(LoginAlertService.class)));
+        context.refresh();
+
+        tenant = User.builder().id(2L).email("tenant@test.com").username("tenant")
+                .firstName("John").lastName("Doe").role(Role.TENANT).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("Should commit the family revocation when a reused refresh token is rejected")
+    void refreshToken_reuseCommitsRevocation() {
+        RefreshToken rotated = RefreshToken.builder().id(10L).user(tenant).tokenHash(TokenDigest.sha256Hex("raw"))
+                .familyId("family-1").accessJti("old-jti").replacedById(11L)
+                .createdAt(LocalDateTime.now().minusMinutes(5)).revokedAt(LocalDateTime.now().minusMinutes(1))
+                .expiresAt(LocalDateTime.now().plusDays(1)).build();
+        when(refreshTokenRepository.findByTokenHashForUpdate(TokenDigest.sha256Hex("raw")))
+                .thenReturn(Optional.of(rotated));
+        when(refreshTokenRepository.findAccessJtisByFamilyIssuedAfter(eq("family-1"), any()))
+                .thenReturn(List.of("live-jti"));
+
+        AuthService authService = context.getBean(AuthService.class);
+        assertThatThrownBy(() -> authService.refreshToken("raw")).isInstanceOf(AuthenticationFailedException.class);
+
+        assertThat(transactionManager.outcomes).containsExactly("commit");
+        verify(revokedTokenRepository).save(argThat(row -> row.getJti().equals("live-jti")));
+        assertThat(revocationList.isRevoked("live-jti")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should not mark a token revoked in memory when its transaction rolls back")
+    void revoke_rolledBackStaysOutOfMemory() {
+        RefreshTokenService refreshTokenService = context.getBean(RefreshTokenService.class);
+        when(refreshTokenRepository.findAccessJtisByUserIssuedAfter(eq(2L), any()))
+                .thenReturn(List.of("jti-1", "jti-2"));
+        when(revokedTokenRepository.save(argThat(row -> row.getJti().equals("jti-2"))))
+                .thenThrow(new IllegalStateException("DB down"));
+
+        assertThatThrownBy(() -> refreshTokenService.revokeAllForUser(2L)).isInstanceOf(IllegalStateException.class);
+
+        assertThat(transactionManager.outcomes).containsExactly("rollback");
+        assertThat(revocationList.isRevoked("jti-1")).isFalse();
+    }
+}
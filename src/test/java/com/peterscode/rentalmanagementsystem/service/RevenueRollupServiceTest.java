@@ -0,0 +1,169 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.dto.response.RevenuePoint;
+import com.peterscode.rentalmanagementsystem.exception.BadRequestException;
+import com.peterscode.rentalmanagementsystem.model.lease.Lease;
+import com.peterscode.rentalmanagementsystem.model.payment.Payment;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentMethod;
+import com.peterscode.rentalmanagementsystem.model.payment.PaymentStatus;
+import com.peterscode.rentalmanagementsystem.model.property.Property;
+import com.peterscode.rentalmanagementsystem.model.user.Role;
+import com.peterscode.rentalmanagementsystem.model.user.User;
+import com.peterscode.rentalmanagementsystem.repository.RevenueRollupRepository;
+import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import com.peterscode.rentalmanagementsystem.security.CurrentUser;
+import com.peterscode.rentalmanagementsystem.service.payment.RevenueRollupService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RevenueRollupService Tests")
+class RevenueRollupServiceTest {
+
+    private static final LocalDateTime PAID_AT = LocalDateTime.of(2025, 3, 14, 10, 30);
+
+    @Mock
+    private RevenueRollupRepository rollupRepository;
+    @Mock
+    private UserRepository userRepository;
+
+    private RevenueRollupService rollupService;
+
+    private User landlord;
+    private Payment payment;
+
+    @BeforeEach
+    void setUp() {
+        rollupService = new RevenueRollupService(rollupRepository, new CurrentUser(userRepository));
+
+        landlord = User.builder().id(3L).email("landlord@test.com").role(Role.LANDLORD).build();
+        Property property = Property.builder().id(10L).owner(landlord).build();
+        Lease lease = Lease.builder().id(20L).property(property).build();
+
+        payment = Payment.builder()
+                .id(100L)
+                .lease(lease)
+                .amount(BigDecimal.valueOf(25000))
+                .method(PaymentMethod.MPESA)
+                .status(PaymentStatus.PENDING)
+                .createdAt(PAID_AT.minusDays(1))
+                .build();
+        payment.postLoad();
+    }
+
+    @Test
+    @DisplayName("Should add the payment to its bucket when it becomes SUCCESSFUL")
+    void recordTransition_intoSuccessful() {
+        payment.setStatus(PaymentStatus.SUCCESSFUL);
+        payment.setPaidAt(PAID_AT);
+
+        rollupService.recordTransition(payment);
+
+        verify(rollupRepository).addToBucket(LocalDate.of(2025, 3, 14), 10L, 3L, "MPESA",
+                BigDecimal.valueOf(25000), 1);
+        assertThat(payment.getRollupStatus()).isEqualTo(PaymentStatus.SUCCESSFUL);
+    }
+
+    @Test
+    @DisplayName("Should remove the payment from its bucket when it leaves SUCCESSFUL")
+    void recordTransition_outOfSuccessful() {
+        payment.setStatus(PaymentStatus.SUCCESSFUL);
+        payment.setPaidAt(PAID_AT);
+        payment.postLoad();
+
+        payment.setStatus(PaymentStatus.REVERSED);
+        rollupService.recordTransition(payment);
+
+        verify(rollupRepository).addToBucket(LocalDate.of(2025, 3, 14), 10L, 3L, "MPESA",
+                BigDecimal.valueOf(-25000), -1);
+    }
+
+    @Test
+    @DisplayName("Should ignore saves that do not cross the SUCCESSFUL boundary")
+    void recordTransition_noChange() {
+        payment.setStatus(PaymentStatus.PROCESSING);
+        rollupService.recordTransition(payment);
+
+        payment.setStatus(PaymentStatus.SUCCESSFUL);
+        payment.setPaidAt(PAID_AT);
+        rollupService.recordTransition(payment);
+        rollupService.recordTransition(payment);
+
+        verify(rollupRepository, times(1)).addToBucket(any(), anyLong(), anyLong(), anyString(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("Should count a payment created as SUCCESSFUL without a lease as unassigned")
+    void recordTransition_newUnlinkedPayment() {
+        Payment cash = Payment.builder()
+                .amount(BigDecimal.valueOf(500))
+                .method(PaymentMethod.CASH)
+                .status(PaymentStatus.SUCCESSFUL)
+                .createdAt(PAID_AT)
+                .build();
+
+        rollupService.recordTransition(cash);
+
+        verify(rollupRepository).addToBucket(LocalDate.of(2025, 3, 14), 0L, 0L, "CASH",
+                BigDecimal.valueOf(500), 1);
+    }
+
+    @Test
+    @DisplayName("Should scope landlord series to the caller and format monthly periods")
+    void getSeries_landlordMonthly() {
+        when(userRepository.findByEmail("landlord@test.com")).thenReturn(Optional.of(landlord));
+        when(rollupRepository.sumByMonth(any(), any(), eq(3L), isNull())).thenReturn(List.<Object[]>of(
+                new Object[]{2025, 2, BigDecimal.valueOf(40000), 2L},
+                new Object[]{2025, 3, BigDecimal.valueOf(25000), 1L}));
+
+        List<RevenuePoint> series = rollupService.getSeries("landlord@test.com",
+                RevenueRollupService.Granularity.MONTHLY, null, null, 99L, null);
+
+        assertThat(series).extracting(RevenuePoint::getPeriod).containsExactly("2025-02", "2025-03");
+        assertThat(series.get(0).getTotalAmount()).isEqualByComparingTo("40000");
+        assertThat(series.get(0).getPaymentCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reject tenants and oversized daily ranges")
+    void getSeries_rejected() {
+        User tenant = User.builder().id(1L).email("tenant@test.com").role(Role.TENANT).build();
+        User admin = User.builder().id(2L).email("admin@test.com").role(Role.ADMIN).build();
+        when(userRepository.findByEmail("tenant@test.com")).thenReturn(Optional.of(tenant));
+        when(userRepository.findByEmail("admin@test.com")).thenReturn(Optional.of(admin));
+
+        assertThatThrownBy(() -> rollupService.getSeries("tenant@test.com",
+                RevenueRollupService.Granularity.DAILY, null, null, null, null))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> rollupService.getSeries("admin@test.com",
+                RevenueRollupService.Granularity.DAILY, LocalDate.of(2024, 1, 1), LocalDate.of(2025, 6, 1), null, null))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(rollupRepository);
+    }
+
+    @Test
+    @DisplayName("Should rebuild a range by deleting and re-inserting its buckets")
+    void rebuild_range() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 31);
+        when(rollupRepository.insertFromPayments(from.atStartOfDay(), LocalDate.of(2025, 2, 1).atStartOfDay()))
+                .thenReturn(42);
+
+        assertThat(rollupService.rebuild(from, to)).isEqualTo(42);
+        verify(rollupRepository).deleteByBucketDateBetween(from, to);
+    }
+}
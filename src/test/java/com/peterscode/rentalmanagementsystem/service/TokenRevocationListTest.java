@@ -0,0 +1,120 @@
+package com.peterscode.rentalmanagementsystem.service;
+
+import com.peterscode.rentalmanagementsystem.model.logs.RevokedToken;
+import com.peterscode.rentalmanagementsystem.repository.RevokedTokenRepository;
+import com.peterscode.rentalmanagementsystem.security.TokenRevocationList;
+import com.peterscode.rentalmanagementsystem.util.BloomFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TokenRevocationList Tests")
+class TokenRevocationListTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        revocationList = new TokenRevocationList(revokedTokenRepository, new SimpleMeterRegistry(), 16, 0.01);
+    }
+
+    private static RevokedToken row(String jti, LocalDateTime expiresAt) {
+        return RevokedToken.builder().jti(jti).userId(1L).expiresAt(expiresAt).revokedAt(LocalDateTime.now()).build();
+    }
+
+    @Test
+    @DisplayName("Should load unexpired revocations at startup")
+    void load_readsTable() {
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(
+                List.of(row("jti-1", LocalDateTime.now().plusMinutes(10))));
+
+        revocationList.load();
+
+        assertThat(revocationList.isRevoked("jti-1")).isTrue();
+        assertThat(revocationList.isRevoked("jti-2")).isFalse();
+        assertThat(revocationList.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should persist and apply a revocation immediately")
+    void revoke_appliesLocally() {
+        revocationList.revoke("jti-1", 1L, LocalDateTime.now().plusMinutes(15));
+
+        assertThat(revocationList.isRevoked("jti-1")).isTrue();
+        verify(revokedTokenRepository).save(argThat(t -> t.getJti().equals("jti-1")));
+    }
+
+    @Test
+    @DisplayName("Should skip tokens that have already expired")
+    void revoke_expiredIgnored() {
+        revocationList.revoke("jti-1", 1L, LocalDateTime.now().minusSeconds(1));
+
+        assertThat(revocationList.isRevoked("jti-1")).isFalse();
+        verifyNoInteractions(revokedTokenRepository);
+    }
+
+    @Test
+    @DisplayName("Should pick up revocations written by other instances")
+    void sync_addsNewRows() {
+        when(revokedTokenRepository.findByRevokedAtGreaterThanEqual(any())).thenReturn(
+                List.of(row("remote", LocalDateTime.now().plusMinutes(5))));
+
+        revocationList.sync();
+
+        assertThat(revocationList.isRevoked("remote")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep exact answers after growing past the filter's expected size")
+    void revoke_growsFilter() {
+        List<String> jtis = IntStream.range(0, 100).mapToObj(i -> UUID.randomUUID().toString()).toList();
+        jtis.forEach(jti -> revocationList.revoke(jti, 1L, LocalDateTime.now().plusMinutes(15)));
+
+        assertThat(jtis).allMatch(revocationList::isRevoked);
+        assertThat(IntStream.range(0, 1000).mapToObj(i -> UUID.randomUUID().toString()))
+                .noneMatch(revocationList::isRevoked);
+    }
+
+    @Test
+    @DisplayName("Should drop expired revocations on purge")
+    void purgeExpired_forgetsExpired() {
+        when(revokedTokenRepository.findByRevokedAtGreaterThanEqual(any())).thenReturn(List.of(
+                row("old", LocalDateTime.now().minusSeconds(1)),
+                row("live", LocalDateTime.now().plusMinutes(5))));
+        revocationList.sync();
+
+        revocationList.purgeExpired();
+
+        verify(revokedTokenRepository).deleteExpired(any());
+        assertThat(revocationList.isRevoked("old")).isFalse();
+        assertThat(revocationList.isRevoked("live")).isTrue();
+    }
+
+    @Test
+    @DisplayName("BloomFilter has no false negatives and a false-positive rate near its target")
+    void bloomFilter_rates() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("in-" + i));
+
+        assertThat(IntStream.range(0, 10_000)).allMatch(i -> filter.mightContain("in-" + i));
+        long falsePositives = IntStream.range(0, 100_000).filter(i -> filter.mightContain("out-" + i)).count();
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+}
@@ -2,7 +2,10 @@ package com.peterscode.rentalmanagementsystem.service;
 
 import com.peterscode.rentalmanagementsystem.model.user.Role;
 import com.peterscode.rentalmanagementsystem.model.user.User;
+import com.peterscode.rentalmanagementsystem.repository.AuditLogRepository;
 import com.peterscode.rentalmanagementsystem.repository.UserRepository;
+import com.peterscode.rentalmanagementsystem.security.JwtPrincipalCache;
+import com.peterscode.rentalmanagementsystem.service.auth.RefreshTokenService;
 import com.peterscode.rentalmanagementsystem.service.user.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -26,6 +29,15 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private AuditLogRepository auditLogRepository;
+
+    @Mock
+    private JwtPrincipalCache jwtPrincipalCache;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -105,6 +117,7 @@ class UserServiceImplTest {
         assertThat(result.getLastName()).isEqualTo("Doe");
         assertThat(result.getEmail()).isEqualTo("tenant@test.com");
         verify(userRepository).save(tenant);
+        verify(jwtPrincipalCache).invalidateUser(2L);
     }
 
     @Test
@@ -129,7 +142,10 @@ class UserServiceImplTest {
 
         userService.deleteUser(2L);
 
+        verify(auditLogRepository).detachUser(2L);
         verify(userRepository).delete(tenant);
+        verify(jwtPrincipalCache).invalidateUser(2L);
+        verify(refreshTokenService).revokeAllForUser(2L);
     }
 
     @Test
@@ -143,6 +159,7 @@ class UserServiceImplTest {
 
         assertThat(result.isEnabled()).isTrue();
         verify(userRepository).save(tenant);
+        verifyNoInteractions(refreshTokenService);
     }
 
     @Test
@@ -155,5 +172,7 @@ class UserServiceImplTest {
         User result = userService.toggleUserStatus(2L, false);
 
         assertThat(result.isEnabled()).isFalse();
+        verify(jwtPrincipalCache).invalidateUser(2L);
+        verify(refreshTokenService).revokeAllForUser(2L);
     }
 }